@@ -3,6 +3,8 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.java;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -27,9 +29,10 @@ import org.key_project.prover.proof.SessionCaches;
 import org.key_project.prover.rules.instantiation.caches.AssumesFormulaInstantiationCache;
 import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.prover.strategy.costbased.RuleAppCost;
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableSet;
 import org.key_project.util.collection.Pair;
+import org.key_project.util.collection.WeakInterner;
 
 /**
  * <p>
@@ -72,15 +75,30 @@ import org.key_project.util.collection.Pair;
  */
 public class ServiceCaches implements SessionCaches {
     /**
-     * The maximal number of index entries in {@link #getTermTacletAppIndexCache()}.
+     * Prefix of the system properties which override the size (or maximal weight) of the
+     * individual caches, e.g., {@code -Dkey.cache.termTacletAppIndex=1000000}. The suffix is the
+     * name of the cache as shown in its {@link ConcurrentLRUCache.Stats}.
      */
-    public static final int MAX_TERM_TACLET_APP_INDEX_ENTRIES = 5000;
+    public static final String CACHE_SIZE_PROPERTY_PREFIX = "key.cache.";
 
     /**
-     * The cache used by {@link TermTacletAppIndexCacheSet} instances.
+     * The maximal total weight of the indices in {@link #getTermTacletAppIndexCache()}, where the
+     * weight of an index is the number of its nodes and taclet apps
+     * ({@link TermTacletAppIndex#weight()}).
      */
-    private final Map<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
-        new LRUCache<>(MAX_TERM_TACLET_APP_INDEX_ENTRIES);
+    public static final int MAX_TERM_TACLET_APP_INDEX_WEIGHT = 500_000;
+
+    /** all size-bounded caches of this instance, used to report their statistics */
+    private final List<ConcurrentLRUCache<?, ?>> boundedCaches = new ArrayList<>();
+
+    /**
+     * The cache used by {@link TermTacletAppIndexCacheSet} instances. It is bounded by the
+     * estimated memory of the indices rather than their number, since indices of large formulas
+     * retain much more memory than the ones of small formulas.
+     */
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
+        createCache("termTacletAppIndex", MAX_TERM_TACLET_APP_INDEX_WEIGHT,
+            (key, index) -> index.weight());
 
     /*
      * Table of formulas which could be splitted using the beta rule This is the cache the method
@@ -88,36 +106,39 @@ public class ServiceCaches implements SessionCaches {
      *
      * keys: Term values: TermInfo
      */
-    private final LRUCache<Term, TermInfo> betaCandidates = new LRUCache<>(1000);
+    private final ConcurrentLRUCache<Term, TermInfo> betaCandidates =
+        createCache("betaCandidates", 1000);
 
-    private final LRUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
-        new LRUCache<>(1000);
+    private final ConcurrentLRUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
+        createCache("ifThenElseMalus", 1000);
 
-    private final LRUCache<Operator, Integer> introductionTimeCache =
-        new LRUCache<>(10000);
+    private final ConcurrentLRUCache<Operator, Integer> introductionTimeCache =
+        createCache("introductionTime", 10000);
 
-    private final LRUCache<org.key_project.logic.Term, Monomial> monomialCache =
-        new LRUCache<>(2000);
+    private final ConcurrentLRUCache<org.key_project.logic.Term, Monomial> monomialCache =
+        createCache("monomial", 2000);
 
-    private final LRUCache<org.key_project.logic.Term, Polynomial> polynomialCache =
-        new LRUCache<>(2000);
+    private final ConcurrentLRUCache<org.key_project.logic.Term, Polynomial> polynomialCache =
+        createCache("polynomial", 2000);
 
     /**
      * a <code>HashMap</code> from <code>Term</code> to <code>TriggersSet</code> uses to cache all
      * created TriggersSets
      */
-    private final Map<org.key_project.logic.Term, TriggersSet> triggerSetCache =
-        new LRUCache<>(1000);
+    private final ConcurrentLRUCache<org.key_project.logic.Term, TriggersSet> triggerSetCache =
+        createCache("triggerSet", 1000);
 
     /**
      * Map from <code>Term</code>(allTerm) to <code>ClausesGraph</code>
      */
-    private final Map<org.key_project.logic.Term, ClausesGraph> graphCache = new LRUCache<>(1000);
+    private final ConcurrentLRUCache<org.key_project.logic.Term, ClausesGraph> graphCache =
+        createCache("clausesGraph", 1000);
 
     /**
-     * Cache used by the TermFactory to avoid unnecessary creation of terms
+     * Interning table used by the TermFactory to avoid unnecessary creation of terms. Terms are
+     * weakly referenced, so the table shrinks once terms are no longer in use.
      */
-    private final Map<Term, Term> termCache = new LRUCache<>(20000);
+    private final WeakInterner<Term> termCache = new WeakInterner<>();
 
     /**
      * Cache used by TypeComparisonCondition
@@ -128,15 +149,17 @@ public class ServiceCaches implements SessionCaches {
     /**
      * Cache used by HandleArith for caching formatted terms
      */
-    private final LRUCache<Term, Term> formattedTermCache = new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Term, Term> formattedTermCache =
+        createCache("formattedTerm", 5000);
 
     /**
      * Caches used bu HandleArith to cache proof results
      */
-    private final LRUCache<Term, Term> provedByArithFstCache = new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Term, Term> provedByArithFstCache =
+        createCache("provedByArithFst", 5000);
 
-    private final LRUCache<Pair<Term, Term>, Term> provedByArithSndCache =
-        new LRUCache<>(5000);
+    private final ConcurrentLRUCache<Pair<Term, Term>, Term> provedByArithSndCache =
+        createCache("provedByArithSnd", 5000);
 
     /** Cache used by the exhaustive macro */
     private final Map<Node, PosInOccurrence> exhaustiveMacroCache =
@@ -154,7 +177,54 @@ public class ServiceCaches implements SessionCaches {
         new AppliedRuleAppsNameCache();
 
     /** Cache used by EqualityConstraint to speed up meta variable search */
-    private final LRUCache<Term, ImmutableSet<Metavariable>> mvCache = new LRUCache<>(2000);
+    private final ConcurrentLRUCache<Term, ImmutableSet<Metavariable>> mvCache =
+        createCache("metavariables", 2000);
+
+    /**
+     * Creates a size-bounded cache and registers it for {@link #getCacheStatistics()}. The default
+     * size can be overridden by the system property {@value #CACHE_SIZE_PROPERTY_PREFIX} followed
+     * by the name of the cache.
+     *
+     * @param name the name of the cache
+     * @param defaultSize the maximal number of entries unless overridden
+     * @return the new cache
+     */
+    private <K, V> ConcurrentLRUCache<K, V> createCache(String name, int defaultSize) {
+        return createCache(name, defaultSize, (key, value) -> 1);
+    }
+
+    /**
+     * Creates a cache bounded by the total weight of its entries and registers it for
+     * {@link #getCacheStatistics()}. The default maximal weight can be overridden by the system
+     * property {@value #CACHE_SIZE_PROPERTY_PREFIX} followed by the name of the cache; the value
+     * is given in the units of the weigher.
+     *
+     * @param name the name of the cache
+     * @param defaultWeight the maximal total weight unless overridden
+     * @param weigher computes the weight of an entry
+     * @return the new cache
+     */
+    private <K, V> ConcurrentLRUCache<K, V> createCache(String name, int defaultWeight,
+            ConcurrentLRUCache.Weigher<? super K, ? super V> weigher) {
+        final long weight = Long.getLong(CACHE_SIZE_PROPERTY_PREFIX + name, defaultWeight);
+        final ConcurrentLRUCache<K, V> cache =
+            new ConcurrentLRUCache<>(name, Math.max(1, weight), weigher);
+        boundedCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters of all size-bounded caches.
+     *
+     * @return the statistics of the caches
+     */
+    public List<ConcurrentLRUCache.Stats> getCacheStatistics() {
+        final List<ConcurrentLRUCache.Stats> result = new ArrayList<>(boundedCaches.size());
+        for (ConcurrentLRUCache<?, ?> cache : boundedCaches) {
+            result.add(cache.getStats());
+        }
+        return result;
+    }
 
 
     /**
@@ -162,39 +232,39 @@ public class ServiceCaches implements SessionCaches {
      *
      * @return The cache used by {@link TermTacletAppIndexCacheSet} instances.
      */
-    public final Map<CacheKey, TermTacletAppIndex> getTermTacletAppIndexCache() {
+    public final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> getTermTacletAppIndexCache() {
         return termTacletAppIndexCache;
     }
 
-    public final LRUCache<Term, TermInfo> getBetaCandidates() {
+    public final ConcurrentLRUCache<Term, TermInfo> getBetaCandidates() {
         return betaCandidates;
     }
 
-    public final LRUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
+    public final ConcurrentLRUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
         return ifThenElseMalusCache;
     }
 
-    public final LRUCache<Operator, Integer> getIntroductionTimeCache() {
+    public final ConcurrentLRUCache<Operator, Integer> getIntroductionTimeCache() {
         return introductionTimeCache;
     }
 
-    public final LRUCache<org.key_project.logic.Term, Monomial> getMonomialCache() {
+    public final ConcurrentLRUCache<org.key_project.logic.Term, Monomial> getMonomialCache() {
         return monomialCache;
     }
 
-    public final LRUCache<org.key_project.logic.Term, Polynomial> getPolynomialCache() {
+    public final ConcurrentLRUCache<org.key_project.logic.Term, Polynomial> getPolynomialCache() {
         return polynomialCache;
     }
 
-    public final Map<org.key_project.logic.Term, TriggersSet> getTriggerSetCache() {
+    public final ConcurrentLRUCache<org.key_project.logic.Term, TriggersSet> getTriggerSetCache() {
         return triggerSetCache;
     }
 
-    public final Map<org.key_project.logic.Term, ClausesGraph> getGraphCache() {
+    public final ConcurrentLRUCache<org.key_project.logic.Term, ClausesGraph> getGraphCache() {
         return graphCache;
     }
 
-    public final Map<Term, Term> getTermFactoryCache() {
+    public final WeakInterner<Term> getTermFactoryCache() {
         return termCache;
     }
 
@@ -202,15 +272,15 @@ public class ServiceCaches implements SessionCaches {
         return disjointnessCache;
     }
 
-    public final LRUCache<Term, Term> getFormattedTermCache() {
+    public final ConcurrentLRUCache<Term, Term> getFormattedTermCache() {
         return formattedTermCache;
     }
 
-    public final LRUCache<Term, Term> getProvedByArithFstCache() {
+    public final ConcurrentLRUCache<Term, Term> getProvedByArithFstCache() {
         return provedByArithFstCache;
     }
 
-    public final LRUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
+    public final ConcurrentLRUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
         return provedByArithSndCache;
     }
 
@@ -230,7 +300,7 @@ public class ServiceCaches implements SessionCaches {
         return appliedRuleAppsNameCache;
     }
 
-    public LRUCache<Term, ImmutableSet<Metavariable>> getMVCache() {
+    public ConcurrentLRUCache<Term, ImmutableSet<Metavariable>> getMVCache() {
         return mvCache;
     }
 
@@ -67,6 +67,7 @@ public class NamespaceSet {
     }
 
     public void setVariables(Namespace<@NonNull QuantifiableVariable> varNS) {
+        replaced(this.varNS, varNS);
         this.varNS = varNS;
     }
 
@@ -75,6 +76,7 @@ public class NamespaceSet {
     }
 
     public void setProgramVariables(Namespace<@NonNull IProgramVariable> progVarNS) {
+        replaced(this.progVarNS, progVarNS);
         this.progVarNS = progVarNS;
     }
 
@@ -83,6 +85,7 @@ public class NamespaceSet {
     }
 
     public void setFunctions(Namespace<@NonNull Function> funcNS) {
+        replaced(this.funcNS, funcNS);
         this.funcNS = funcNS;
     }
 
@@ -91,6 +94,7 @@ public class NamespaceSet {
     }
 
     public void setRuleSets(Namespace<@NonNull RuleSet> ruleSetNS) {
+        replaced(this.ruleSetNS, ruleSetNS);
         this.ruleSetNS = ruleSetNS;
     }
 
@@ -99,6 +103,7 @@ public class NamespaceSet {
     }
 
     public void setSorts(Namespace<@NonNull Sort> sortNS) {
+        replaced(this.sortNS, sortNS);
         this.sortNS = sortNS;
     }
 
@@ -107,9 +112,28 @@ public class NamespaceSet {
     }
 
     public void setChoices(Namespace<@NonNull Choice> choiceNS) {
+        replaced(this.choiceNS, choiceNS);
         this.choiceNS = choiceNS;
     }
 
+    /**
+     * Called before a namespace of this set is replaced. The names of the old namespace which are
+     * not visible in the new one become free, so {@link #freshName(String)} has to forget the
+     * names it knows to be taken in namespaces related to the old one. A new namespace of a
+     * different tree invalidates the known names by itself.
+     *
+     * @param old the replaced namespace
+     * @param ns the new namespace
+     */
+    private static void replaced(Namespace<?> old, Namespace<?> ns) {
+        for (Namespace<?> p = ns; p != null; p = p.parent()) {
+            if (p == old) {
+                return;
+            }
+        }
+        old.forgetFreshNames();
+    }
+
     public void add(NamespaceSet ns) {
         variables().add(ns.variables());
         programVariables().add(ns.programVariables());
@@ -144,6 +168,21 @@ public class NamespaceSet {
         return lookup(name, spaces);
     }
 
+    /**
+     * Returns the first of the names {@code baseName}, {@code baseName_0}, {@code baseName_1}, ...
+     * which is not used in any of the namespaces. The per base name counters are kept in the
+     * function namespace, see {@link Namespace#freshName(String, java.util.function.Predicate)}.
+     * They are forgotten whenever a name of any of the namespaces of this set may have become
+     * free, i.e., on removal and when a namespace is replaced by one not extending it.
+     *
+     * @param baseName the base name
+     * @return a name not contained in this set of namespaces
+     */
+    public Name freshName(String baseName) {
+        return funcNS.freshName(baseName, name -> lookup(name) != null, varNS, progVarNS,
+            sortNS, ruleSetNS, choiceNS);
+    }
+
     /**
      * looks up for the symbol in the namespaces sort, functions and programVariables
      *
@@ -155,15 +155,10 @@ public class TermBuilder {
             return savedName.toString();
         }
 
-        int i = 0;
-        String result = baseName;
-        while (localNamespace.lookup(new Name(result)) != null) {
-            result = baseName + "_" + i++;
-        }
+        final Name result = localNamespace.freshName(baseName);
+        services.getNameRecorder().addProposal(result);
 
-        services.getNameRecorder().addProposal(new Name(result));
-
-        return result;
+        return result.toString();
     }
 
     /**
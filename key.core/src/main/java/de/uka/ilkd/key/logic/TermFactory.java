@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.logic;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import de.uka.ilkd.key.logic.label.TermLabel;
@@ -13,6 +12,7 @@ import de.uka.ilkd.key.logic.op.QuantifiableVariable;
 
 import org.key_project.logic.TermCreationException;
 import org.key_project.util.collection.ImmutableArray;
+import org.key_project.util.collection.WeakInterner;
 
 import org.jspecify.annotations.NonNull;
 
@@ -29,7 +29,11 @@ public final class TermFactory {
 
 
     private static final ImmutableArray<Term> NO_SUBTERMS = new ImmutableArray<>();
-    private final Map<Term, Term> cache;
+    /**
+     * Interning table for terms; if present, structurally equal terms (without Java blocks) are
+     * always represented by the same object.
+     */
+    private final WeakInterner<Term> cache;
 
 
     // -------------------------------------------------------------------------
@@ -41,7 +45,7 @@ public final class TermFactory {
         this.cache = null;
     }
 
-    public TermFactory(Map<Term, Term> cache) {
+    public TermFactory(WeakInterner<Term> cache) {
         this.cache = cache;
     }
 
@@ -125,17 +129,9 @@ public final class TermFactory {
         // in the term or in one of its children because the meta information like PositionInfos
         // may be different.
         if (cache != null && !newTerm.containsJavaBlockRecursive()) {
-            Term term;
-            synchronized (cache) {
-                term = cache.get(newTerm);
-            }
-            if (term == null) {
-                term = newTerm.checked();
-                synchronized (cache) {
-                    cache.put(term, term);
-                }
-            }
-            return term;
+            final Term term = cache.get(newTerm);
+            // if another thread interned an equal term in the meantime, that one is returned
+            return term != null ? term : cache.intern(newTerm.checked());
         } else {
             return newTerm.checked();
         }
@@ -6,6 +6,7 @@ package de.uka.ilkd.key.nparser;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
@@ -13,10 +14,20 @@ import java.nio.charset.Charset;
 import java.nio.charset.CodingErrorAction;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import de.uka.ilkd.key.nparser.builder.ChoiceFinder;
 import de.uka.ilkd.key.proof.io.RuleSource;
 import de.uka.ilkd.key.settings.Configuration;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
 import de.uka.ilkd.key.speclang.PositionedString;
 import de.uka.ilkd.key.util.parsing.BuildingException;
 
@@ -60,6 +71,25 @@ public final class ParsingFacade {
     }
 
     public static List<KeyAst.File> parseFiles(URL url) throws IOException {
+        // parse all files in parallel first, the files are assembled in the sequential order below
+        final Map<URL, KeyAst.File> parsed = parseTransitively(List.of(url), u -> {
+            try {
+                return parseFile(u);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, (u, ctx) -> {
+            final List<URL> includes = new ArrayList<>();
+            for (RuleSource source : ctx.getIncludes(u).getRuleSets()) {
+                try {
+                    includes.add(source.url());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return includes;
+        });
+
         List<KeyAst.File> ctxs = new LinkedList<>();
         ArrayDeque<URL> queue = new ArrayDeque<>();
         queue.push(url);
@@ -68,7 +98,11 @@ public final class ParsingFacade {
         while (!queue.isEmpty()) {
             url = queue.pop();
             reached.add(url);
-            KeyAst.File ctx = parseFile(url);
+            KeyAst.File ctx = parsed.get(url);
+            if (ctx == null) {
+                // not parsed in advance (e.g. because of an error which is reported now)
+                ctx = parseFile(url);
+            }
             ctxs.add(ctx);
             Collection<RuleSource> includes = ctx.getIncludes(url).getRuleSets();
             for (RuleSource u : includes) {
@@ -80,6 +114,75 @@ public final class ParsingFacade {
         return ctxs;
     }
 
+    /**
+     * Parses the given inputs and, transitively, the inputs included by them in parallel on the
+     * parser pool. Only lexing and parsing are independent of each other; the caller has to
+     * process the results in the order of inclusion.
+     * <p>
+     * Inputs whose parsing fails are missing in the result; the caller is expected to parse them
+     * again sequentially, such that errors are reported as usual. If parallel parsing is disabled
+     * (see {@link de.uka.ilkd.key.settings.ParallelismSettings#getParsingThreads()}), nothing is
+     * parsed and the result is empty. The setting is checked on every call, whereas the size of
+     * the pool is taken from it on first use.
+     * </p>
+     *
+     * @param roots the inputs to parse
+     * @param parser parses a single input
+     * @param includes computes the inputs included by a parsed input
+     * @param <K> the type of the inputs
+     * @param <V> the type of the parse results
+     * @return the parse results of all inputs that have been parsed successfully
+     */
+    public static <K, V> Map<K, V> parseTransitively(Collection<K> roots,
+            Function<K, V> parser, BiFunction<K, V, Collection<K>> includes) {
+        final Map<K, V> result = new HashMap<>();
+        if (ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings()
+                .getParsingThreads() < 2 || roots.isEmpty()) {
+            return result;
+        }
+        final ExecutorService pool = ParserPoolHolder.POOL;
+        final long start = System.nanoTime();
+        final CompletionService<Map.Entry<K, V>> completion =
+            new ExecutorCompletionService<>(pool);
+        final Set<K> submitted = new HashSet<>();
+        int pending = 0;
+        for (K root : roots) {
+            if (submitted.add(root)) {
+                completion.submit(() -> Map.entry(root, parser.apply(root)));
+                pending++;
+            }
+        }
+        while (pending > 0) {
+            final Future<Map.Entry<K, V>> future;
+            try {
+                future = completion.take();
+            } catch (InterruptedException e) {
+                // the remaining inputs are parsed sequentially by the caller
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending--;
+            try {
+                final Map.Entry<K, V> entry = future.get();
+                result.put(entry.getKey(), entry.getValue());
+                for (K child : includes.apply(entry.getKey(), entry.getValue())) {
+                    if (submitted.add(child)) {
+                        completion.submit(() -> Map.entry(child, parser.apply(child)));
+                        pending++;
+                    }
+                }
+            } catch (ExecutionException | RuntimeException e) {
+                LOGGER.debug("Parsing in advance failed, leaving the input to the caller", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        LOGGER.debug("Parsed {} files in parallel in {} ms", result.size(),
+            (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
     /**
      * Extracts the choice information from the given the parsed files {@code ctxs}.
      *
@@ -92,6 +195,25 @@ public final class ParsingFacade {
         return ci;
     }
 
+    /**
+     * Lazily creates the pool used by {@link #parseTransitively(Collection, Function,
+     * BiFunction)}.
+     */
+    private static final class ParserPoolHolder {
+        static final ExecutorService POOL = create();
+
+        private static ExecutorService create() {
+            final int threads = Math.max(2, ProofIndependentSettings.DEFAULT_INSTANCE
+                    .getParallelismSettings().getParsingThreads());
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                final Thread t = new Thread(r, "key-parser-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
     private static KeYParser createParser(TokenSource lexer) {
         KeYParser p = new KeYParser(new CommonTokenStream(lexer));
         p.removeErrorListeners();
@@ -0,0 +1,341 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.ElementaryUpdate;
+import de.uka.ilkd.key.logic.op.Modality;
+import de.uka.ilkd.key.logic.op.SortDependingFunction;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+
+import org.key_project.logic.op.Operator;
+import org.key_project.logic.op.QuantifiableVariable;
+import org.key_project.logic.op.sv.SchemaVariable;
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableSLList;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An imperfect discrimination tree indexing the find patterns of taclets below their top level
+ * operator. The top level operator itself is already used as key by {@link TacletIndex}, hence each
+ * bucket of the taclet index is one tree.
+ * <p>
+ * A pattern is represented by the sequence of the operators of its subterms in preorder. Subterms
+ * that are not matched by operator identity (schema variables, sort depending functions, elementary
+ * updates, modalities and bound variables) are replaced by a wildcard, which stands for an
+ * arbitrary subterm. The tree over these sequences allows to retrieve all taclets whose find
+ * pattern could match a given term without invoking the matcher on the other taclets of the
+ * bucket. The retrieval is imperfect, i.e., it may return taclets that do not match, but it never
+ * drops a matching one.
+ * </p>
+ * <p>
+ * The tree is persistent: {@link #insert(NoPosTacletApp, Term)} and
+ * {@link #remove(NoPosTacletApp, Term)} return a new tree sharing all unchanged nodes with the old
+ * one, which allows {@link TacletIndex} to copy its buckets in constant time. Retrieved taclets
+ * are returned in the order in which a list of the bucket would contain them, i.e., the most
+ * recently inserted taclet first.
+ * </p>
+ */
+final class DiscriminationTree {
+
+    /** the empty tree */
+    static final DiscriminationTree EMPTY =
+        new DiscriminationTree(Node.EMPTY, ImmutableSLList.nil(), 0);
+
+    /** the root node, its sequence is empty */
+    private final Node root;
+
+    /** all taclets in the tree, the most recently inserted first */
+    private final ImmutableList<NoPosTacletApp> all;
+
+    /**
+     * the serial number of the next inserted taclet, used to merge the taclets of several nodes in
+     * insertion order
+     */
+    private final long nextSerial;
+
+    private DiscriminationTree(Node root, ImmutableList<NoPosTacletApp> all, long nextSerial) {
+        this.root = root;
+        this.all = all;
+        this.nextSerial = nextSerial;
+    }
+
+    /**
+     * @return true iff the tree contains no taclet
+     */
+    boolean isEmpty() {
+        return all.isEmpty();
+    }
+
+    /**
+     * @return all taclets in this tree, the most recently inserted first
+     */
+    ImmutableList<NoPosTacletApp> getAll() {
+        return all;
+    }
+
+    /**
+     * adds a taclet
+     *
+     * @param app the taclet to add
+     * @param pattern the find pattern of the taclet
+     * @return the tree containing all taclets of this tree and {@code app}
+     */
+    DiscriminationTree insert(NoPosTacletApp app, Term pattern) {
+        final Entry entry = new Entry(app, nextSerial);
+        final Node newRoot = root.insert(keysOf(pattern), 0, entry);
+        return new DiscriminationTree(newRoot, all.prepend(app), nextSerial + 1);
+    }
+
+    /**
+     * removes all occurrences of a taclet
+     *
+     * @param app the taclet to remove
+     * @param pattern the find pattern of the taclet
+     * @return the tree without {@code app}
+     */
+    DiscriminationTree remove(NoPosTacletApp app, Term pattern) {
+        final ImmutableList<NoPosTacletApp> newAll = all.removeAll(app);
+        if (newAll.size() == all.size()) {
+            return this;
+        }
+        if (newAll.isEmpty()) {
+            return EMPTY;
+        }
+        final Node newRoot = root.remove(keysOf(pattern), 0, app);
+        return new DiscriminationTree(newRoot == null ? Node.EMPTY : newRoot, newAll, nextSerial);
+    }
+
+    /**
+     * Retrieves the taclets whose find pattern might match the given term, provided that the top
+     * level operator of the pattern matches the top level operator of the term.
+     *
+     * @param term the term
+     * @return the candidates, the most recently inserted first
+     */
+    ImmutableList<NoPosTacletApp> getCandidates(Term term) {
+        if (root.children.isEmpty() && root.wildcard == null) {
+            // only patterns without indexed subterms
+            return all;
+        }
+        final ArrayList<Node> result = new ArrayList<>();
+        if (!root.leaves.isEmpty()) {
+            result.add(root);
+        }
+        ImmutableList<Term> pending = ImmutableSLList.nil();
+        for (int i = term.arity() - 1; i >= 0; i--) {
+            pending = pending.prepend(term.sub(i));
+        }
+        if (!pending.isEmpty()) {
+            collect(root, pending, result);
+        }
+        return merge(result);
+    }
+
+    /**
+     * collects all nodes with leaves reachable from {@code node} by consuming the terms in
+     * {@code pending} in preorder
+     */
+    private static void collect(Node node, ImmutableList<Term> pending, ArrayList<Node> result) {
+        if (pending.isEmpty()) {
+            if (!node.leaves.isEmpty()) {
+                result.add(node);
+            }
+            return;
+        }
+        final Term next = pending.head();
+        final ImmutableList<Term> rest = pending.tail();
+        if (node.wildcard != null) {
+            collect(node.wildcard, rest, result);
+        }
+        final Node child = node.children.get(next.op());
+        if (child != null) {
+            ImmutableList<Term> subs = rest;
+            for (int i = next.arity() - 1; i >= 0; i--) {
+                subs = subs.prepend(next.sub(i));
+            }
+            collect(child, subs, result);
+        }
+    }
+
+    /**
+     * Merges the leaves of several nodes into one list of taclets. The leaves of each node are
+     * ordered by decreasing serial number already, hence it suffices to repeatedly take the entry
+     * with the highest serial number among the heads of the remaining leaves.
+     *
+     * @param nodes pairwise different nodes with leaves
+     * @return the taclets of all leaves, the most recently inserted first
+     */
+    private ImmutableList<NoPosTacletApp> merge(ArrayList<Node> nodes) {
+        if (nodes.isEmpty()) {
+            return ImmutableSLList.nil();
+        }
+        if (nodes.size() == 1) {
+            return nodes.get(0).apps;
+        }
+        int size = 0;
+        for (Node node : nodes) {
+            size += node.leaves.size();
+        }
+        if (size == all.size()) {
+            return all;
+        }
+        final ArrayList<ImmutableList<Entry>> leaves = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            leaves.add(node.leaves);
+        }
+        final NoPosTacletApp[] result = new NoPosTacletApp[size];
+        for (int i = 0; i < size; i++) {
+            int next = 0;
+            for (int j = 1; j < leaves.size(); j++) {
+                if (leaves.get(j).head().serial > leaves.get(next).head().serial) {
+                    next = j;
+                }
+            }
+            final ImmutableList<Entry> entries = leaves.get(next);
+            result[i] = entries.head().app;
+            if (entries.tail().isEmpty()) {
+                leaves.remove(next);
+            } else {
+                leaves.set(next, entries.tail());
+            }
+        }
+        return ImmutableSLList.<NoPosTacletApp>nil().prepend(result);
+    }
+
+    /**
+     * computes the sequence of keys of the subterms of a pattern in preorder; {@code null} stands
+     * for a wildcard
+     */
+    private static @Nullable Operator[] keysOf(Term pattern) {
+        final ArrayList<@Nullable Operator> keys = new ArrayList<>();
+        for (int i = 0; i < pattern.arity(); i++) {
+            addKeys(pattern.sub(i), keys);
+        }
+        return keys.toArray(new Operator[0]);
+    }
+
+    private static void addKeys(Term pattern, ArrayList<@Nullable Operator> keys) {
+        final Operator op = pattern.op();
+        if (isMatchedByIdentity(op)) {
+            keys.add(op);
+            for (int i = 0; i < pattern.arity(); i++) {
+                addKeys(pattern.sub(i), keys);
+            }
+        } else {
+            keys.add(null);
+        }
+    }
+
+    /**
+     * @return true iff a pattern with the given top level operator can only match terms with the
+     *         very same top level operator (cf. {@code TacletMatchProgram})
+     */
+    private static boolean isMatchedByIdentity(Operator op) {
+        return !(op instanceof SchemaVariable || op instanceof SortDependingFunction
+                || op instanceof ElementaryUpdate || op instanceof Modality
+                || op instanceof QuantifiableVariable);
+    }
+
+    @Override
+    public String toString() {
+        return all.toString();
+    }
+
+    /**
+     * a taclet stored in the tree together with its serial number
+     */
+    private record Entry(NoPosTacletApp app, long serial) {
+    }
+
+    /**
+     * An immutable node of the tree. The path from the root to a node spells a sequence of keys;
+     * the node holds the taclets whose pattern is represented by exactly this sequence.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(ImmutableSLList.nil(), ImmutableSLList.nil(),
+            Collections.emptyMap(), null);
+
+        /** the taclets of this node, the most recently inserted first */
+        final ImmutableList<Entry> leaves;
+        /** the taclets of {@link #leaves} without their serial numbers */
+        final ImmutableList<NoPosTacletApp> apps;
+        final Map<Operator, Node> children;
+        final @Nullable Node wildcard;
+
+        Node(ImmutableList<Entry> leaves, ImmutableList<NoPosTacletApp> apps,
+                Map<Operator, Node> children, @Nullable Node wildcard) {
+            this.leaves = leaves;
+            this.apps = apps;
+            this.children = children;
+            this.wildcard = wildcard;
+        }
+
+        boolean isEmpty() {
+            return leaves.isEmpty() && children.isEmpty() && wildcard == null;
+        }
+
+        Node insert(@Nullable Operator[] keys, int pos, Entry entry) {
+            if (pos == keys.length) {
+                return new Node(leaves.prepend(entry), apps.prepend(entry.app), children,
+                    wildcard);
+            }
+            final Operator key = keys[pos];
+            if (key == null) {
+                final Node child = wildcard == null ? EMPTY : wildcard;
+                return new Node(leaves, apps, children, child.insert(keys, pos + 1, entry));
+            }
+            final Node child = children.getOrDefault(key, EMPTY);
+            final HashMap<Operator, Node> newChildren = new HashMap<>(children);
+            newChildren.put(key, child.insert(keys, pos + 1, entry));
+            return new Node(leaves, apps, newChildren, wildcard);
+        }
+
+        /**
+         * @return the node without {@code app} or {@code null} if the resulting node is empty
+         */
+        @Nullable
+        Node remove(@Nullable Operator[] keys, int pos, NoPosTacletApp app) {
+            final Node result;
+            if (pos == keys.length) {
+                ImmutableList<Entry> newLeaves = ImmutableSLList.nil();
+                ImmutableList<NoPosTacletApp> newApps = ImmutableSLList.nil();
+                for (Entry entry : leaves) {
+                    if (!entry.app.equals(app)) {
+                        newLeaves = newLeaves.prepend(entry);
+                        newApps = newApps.prepend(entry.app);
+                    }
+                }
+                result = new Node(newLeaves.reverse(), newApps.reverse(), children, wildcard);
+            } else if (keys[pos] == null) {
+                if (wildcard == null) {
+                    return this;
+                }
+                result = new Node(leaves, apps, children, wildcard.remove(keys, pos + 1, app));
+            } else {
+                final Node child = children.get(keys[pos]);
+                if (child == null) {
+                    return this;
+                }
+                final Node newChild = child.remove(keys, pos + 1, app);
+                final HashMap<Operator, Node> newChildren = new HashMap<>(children);
+                if (newChild == null) {
+                    newChildren.remove(keys[pos]);
+                } else {
+                    newChildren.put(keys[pos], newChild);
+                }
+                final Map<Operator, Node> remaining =
+                    newChildren.isEmpty() ? Collections.emptyMap() : newChildren;
+                result = new Node(leaves, apps, remaining, wildcard);
+            }
+            return result.isEmpty() ? null : result;
+        }
+    }
+}
@@ -3,14 +3,13 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-
 import de.uka.ilkd.key.util.Debug;
 
 import org.key_project.logic.PosInTerm;
 import org.key_project.prover.sequent.*;
+import org.key_project.util.collection.DefaultImmutableMap;
 import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableMap;
 import org.key_project.util.collection.ImmutableSLList;
 
 /**
@@ -19,25 +18,29 @@ import org.key_project.util.collection.ImmutableSLList;
  */
 public class FormulaTagManager {
 
-    /** Maps for the assignment of tags to formulas and vice versa */
+    /**
+     * Maps for the assignment of tags to formulas and vice versa. They are persistent, so that a
+     * copy of this manager for a new goal shares them and an update only copies the path to the
+     * changed entry.
+     */
 
     /** Key: FormulaTag Value: FormulaInfo */
-    private final HashMap<FormulaTag, FormulaInfo> tagToFormulaInfo;
+    private ImmutableMap<FormulaTag, FormulaInfo> tagToFormulaInfo;
 
     /** Key: PosInOccurrence Value: FormulaTag */
-    private final HashMap<PosInOccurrence, FormulaTag> pioToTag;
+    private ImmutableMap<PosInOccurrence, FormulaTag> pioToTag;
 
     /**
      * Create a new manager that is initialised with the formulas of the given sequent
      */
     FormulaTagManager(Goal p_goal) {
-        tagToFormulaInfo = new LinkedHashMap<>();
-        pioToTag = new LinkedHashMap<>();
+        tagToFormulaInfo = DefaultImmutableMap.nilMap();
+        pioToTag = DefaultImmutableMap.nilMap();
         createNewTags(p_goal);
     }
 
-    private FormulaTagManager(HashMap<FormulaTag, FormulaInfo> p_tagToPIO,
-            HashMap<PosInOccurrence, FormulaTag> p_pioToTag) {
+    private FormulaTagManager(ImmutableMap<FormulaTag, FormulaInfo> p_tagToPIO,
+            ImmutableMap<PosInOccurrence, FormulaTag> p_pioToTag) {
         tagToFormulaInfo = p_tagToPIO;
         pioToTag = p_pioToTag;
     }
@@ -122,10 +125,8 @@ public class FormulaTagManager {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Object clone() {
-        return new FormulaTagManager((HashMap<FormulaTag, FormulaInfo>) tagToFormulaInfo.clone(),
-            (HashMap<PosInOccurrence, FormulaTag>) pioToTag.clone());
+        return new FormulaTagManager(tagToFormulaInfo, pioToTag);
     }
 
     public FormulaTagManager copy() {
@@ -167,8 +168,8 @@ public class FormulaTagManager {
      */
     private void createNewTag(PosInOccurrence p_pio, Goal p_goal) {
         final FormulaTag tag = new FormulaTag();
-        tagToFormulaInfo.put(tag, new FormulaInfo(p_pio, p_goal.getTime()));
-        pioToTag.put(p_pio, tag);
+        tagToFormulaInfo = tagToFormulaInfo.put(tag, new FormulaInfo(p_pio, p_goal.getTime()));
+        pioToTag = pioToTag.put(p_pio, tag);
     }
 
     /**
@@ -179,9 +180,9 @@ public class FormulaTagManager {
 
         Debug.assertFalse(tag == null, "Tried to remove a tag that does not exist");
 
-        tagToFormulaInfo.remove(tag);
+        tagToFormulaInfo = tagToFormulaInfo.remove(tag);
         putInQueryCache(tag, null);
-        pioToTag.remove(p_pio);
+        pioToTag = pioToTag.remove(p_pio);
     }
 
     private void updateTag(FormulaChangeInfo p_info, Goal p_goal) {
@@ -191,10 +192,9 @@ public class FormulaTagManager {
         final FormulaInfo oldInfo = getFormulaInfo(tag);
         final FormulaInfo newInfo = oldInfo.addModification(p_info, p_goal.getTime());
 
-        tagToFormulaInfo.put(tag, newInfo);
+        tagToFormulaInfo = tagToFormulaInfo.put(tag, newInfo);
         putInQueryCache(tag, newInfo);
-        pioToTag.remove(oldPIO);
-        pioToTag.put(newInfo.pio, tag);
+        pioToTag = pioToTag.remove(oldPIO).put(newInfo.pio, tag);
     }
 
     ////////////////////////////////////////////////////////////////////////////
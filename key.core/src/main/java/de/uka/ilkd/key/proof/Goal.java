@@ -7,7 +7,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.NamespaceSet;
@@ -43,6 +42,8 @@ import org.key_project.prover.sequent.SequentFormula;
 import org.key_project.prover.strategy.RuleApplicationManager;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 
@@ -60,11 +61,12 @@ import org.jspecify.annotations.NonNull;
  */
 public final class Goal implements ProofGoal<@NonNull Goal> {
 
-    public static final AtomicLong PERF_APP_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_TAG_MANAGER = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_RULE_APP_INDEX = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_LISTENERS = new AtomicLong();
+    public static final Timer PERF_APP_EXECUTE = Metrics.timer("RuleApp execute");
+    public static final Timer PERF_SET_SEQUENT = Metrics.timer("Goal setSequent");
+    public static final Timer PERF_UPDATE_TAG_MANAGER = Metrics.timer("Goal update tag manager");
+    public static final Timer PERF_UPDATE_RULE_APP_INDEX =
+        Metrics.timer("Goal update rule app index");
+    public static final Timer PERF_UPDATE_LISTENERS = Metrics.timer("Goal update listeners");
 
     /**
      * If an application of a rule added some information for the strategy, then this information is
@@ -238,17 +240,17 @@ public final class Goal implements ProofGoal<@NonNull Goal> {
      */
     private void fireSequentChanged(
             SequentChangeInfo sci) {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         getFormulaTagManager().sequentChanged(this, sci);
-        var time1 = System.nanoTime();
-        PERF_UPDATE_TAG_MANAGER.getAndAdd(time1 - time);
+        var time1 = Metrics.nanoTime();
+        PERF_UPDATE_TAG_MANAGER.record(time1 - time);
         ruleAppIndex.sequentChanged(sci);
-        var time2 = System.nanoTime();
-        PERF_UPDATE_RULE_APP_INDEX.getAndAdd(time2 - time1);
+        var time2 = Metrics.nanoTime();
+        PERF_UPDATE_RULE_APP_INDEX.record(time2 - time1);
         for (GoalListener listener : listeners) {
             listener.sequentChanged(this, sci);
         }
-        PERF_UPDATE_LISTENERS.getAndAdd(System.nanoTime() - time2);
+        PERF_UPDATE_LISTENERS.stop(time2);
     }
 
     private void fireGoalReplaced(Goal goal, Node parent, ImmutableList<Goal> newGoals) {
@@ -386,10 +388,10 @@ public final class Goal implements ProofGoal<@NonNull Goal> {
         }
         node().setSequent(sci.sequent());
         node().getNodeInfo().setSequentChangeInfo(sci);
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         // updates the index
         fireSequentChanged(sci);
-        PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - time);
+        PERF_SET_SEQUENT.stop(time);
     }
 
     /**
@@ -626,7 +628,7 @@ public final class Goal implements ProofGoal<@NonNull Goal> {
          * caught.
          */
         final ImmutableList<Goal> goalList;
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         ruleApp.checkApplicability();
         ruleApp.registerSkolemConstants(localNamespaces.functions());
         addAppliedRuleApp(ruleApp);
@@ -637,7 +639,7 @@ public final class Goal implements ProofGoal<@NonNull Goal> {
             node().setAppliedRuleApp(null);
             return null;
         } finally {
-            PERF_APP_EXECUTE.getAndAdd(System.nanoTime() - time);
+            PERF_APP_EXECUTE.stop(time);
         }
 
         proof.getServices().saveNameRecorder(n);
@@ -3,15 +3,17 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.settings.ParallelismSettings;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
 
 import org.key_project.prover.proof.rulefilter.RuleFilter;
 import org.key_project.prover.sequent.PosInOccurrence;
@@ -21,8 +23,17 @@ import org.key_project.util.collection.ImmutableSLList;
 /**
  * A multi-threaded taclet index implementation. It executes method
  * {@link #matchTaclets(ImmutableList, RuleFilter, PosInOccurrence, Services)}
- * using multiple
- * threads (depending on the number of taclets being matched and number of available processors).
+ * using multiple threads if this pays off.
+ * <p>
+ * The candidates are matched by a divide-and-conquer {@link RecursiveTask} in a long-lived
+ * work-stealing {@link ForkJoinPool}, whose size is taken from the {@link ParallelismSettings}.
+ * Whether a set of candidates is matched in parallel is decided adaptively: the time needed to
+ * match a single taclet is sampled on every {@value #TIMING_SAMPLE_INTERVAL}th matching on
+ * average, and the matching is only forked if the estimated sequential matching time clearly
+ * exceeds the overhead of forking and joining tasks.
+ * Small candidate sets are always matched in the calling thread. The decisions are counted in
+ * {@link TacletIndexKit#PARALLEL_MATCHINGS} and {@link TacletIndexKit#SEQUENTIAL_MATCHINGS}.
+ * </p>
  *
  * Do not create this index directly. Use the {@link TacletIndexKit#createTacletIndex()} resp.
  * {@link TacletIndexKit#createTacletIndex(Iterable)}.
@@ -32,9 +43,26 @@ import org.key_project.util.collection.ImmutableSLList;
  */
 final class MultiThreadedTacletIndex extends TacletIndex {
 
-    private static final ForkJoinPool execs = ForkJoinPool.commonPool(); // <- Use this once we
-                                                                         // switch to
-    // Java 8
+    /**
+     * estimated sequential matching time (in ns) from which on a parallel matching pays off; it is
+     * a multiple of the costs of forking and joining a few tasks
+     */
+    private static final long PARALLEL_BREAK_EVEN_NANOS = 200_000;
+
+    /** the minimal number of taclets matched by a single task */
+    private static final int MIN_TASK_SIZE = 16;
+
+    /**
+     * moving average of the time (in ns) needed to match a single taclet; updated by all matching
+     * threads without synchronization as lost updates are irrelevant for an estimate
+     */
+    private static final AtomicLong AVERAGE_MATCH_NANOS = new AtomicLong(2_000);
+
+    /**
+     * on average, only every so many sequential matchings are timed, so that most lookups do
+     * without reading the clock
+     */
+    private static final int TIMING_SAMPLE_INTERVAL = 16;
 
     MultiThreadedTacletIndex(Iterable<Taclet> tacletSet) {
         super(tacletSet);
@@ -44,25 +72,16 @@ final class MultiThreadedTacletIndex extends TacletIndex {
         super();
     }
 
-    private MultiThreadedTacletIndex(HashMap<Object, ImmutableList<NoPosTacletApp>> rwList,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> antecList,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> succList,
-            ImmutableList<NoPosTacletApp> noFindList,
-            HashSet<NoPosTacletApp> partialInstantiatedRuleApps) {
-        super(rwList, antecList, succList, noFindList, partialInstantiatedRuleApps);
+    private MultiThreadedTacletIndex(MultiThreadedTacletIndex original) {
+        super(original);
     }
 
     /**
      * {@inheritDoc}
      */
-    @SuppressWarnings("unchecked")
     @Override
     public TacletIndex copy() {
-        return new MultiThreadedTacletIndex(
-            (HashMap<Object, ImmutableList<NoPosTacletApp>>) rwList.clone(),
-            (HashMap<Object, ImmutableList<NoPosTacletApp>>) antecList.clone(),
-            (HashMap<Object, ImmutableList<NoPosTacletApp>>) succList.clone(), noFindList,
-            (HashSet<NoPosTacletApp>) partialInstantiatedRuleApps.clone());
+        return new MultiThreadedTacletIndex(this);
     }
 
     /**
@@ -72,55 +91,71 @@ final class MultiThreadedTacletIndex extends TacletIndex {
     protected ImmutableList<NoPosTacletApp> matchTaclets(ImmutableList<NoPosTacletApp> tacletApps,
             RuleFilter p_filter, PosInOccurrence pos,
             Services services) {
-
-        ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
-        if (tacletApps == null) {
-            return result;
+        if (tacletApps == null || tacletApps.isEmpty()) {
+            return ImmutableSLList.nil();
         }
 
-        if (tacletApps.size() > 256) {
-            NoPosTacletApp[] toMatch = tacletApps.toArray(NoPosTacletApp.class);
-            final int localParallelism =
-                (Math.min(toMatch.length >> 5, execs.getParallelism()));
-            final int partitionSize = toMatch.length / localParallelism;
-
-            List<TacletSetMatchTask> forks = new ArrayList<>();
-
-            for (int lower = 0; lower < toMatch.length; lower += partitionSize) {
-                int upper = lower + partitionSize;
-                upper = Math.min(upper, toMatch.length);
-                forks.add(new TacletSetMatchTask(toMatch, lower, upper, pos, p_filter, services));
-            }
-
-            List<NoPosTacletApp> matchedRules = new LinkedList<>();
-
-            try {
-                for (Future<List<NoPosTacletApp>> res : execs.invokeAll(forks)) {
-                    matchedRules.addAll(res.get());
-                }
-            } catch (InterruptedException | ExecutionException e) {
-                throw new IllegalStateException(e);
-            }
-            result = result.prependReverse(matchedRules);
+        final NoPosTacletApp[] toMatch = tacletApps.toArray(NoPosTacletApp.class);
+        final TacletSetMatchTask task =
+            new TacletSetMatchTask(toMatch, 0, toMatch.length, pos, p_filter, services);
+        if (shouldMatchInParallel(toMatch.length)) {
+            TacletIndexKit.PARALLEL_MATCHINGS.increment();
+            return PoolHolder.POOL.invoke(task);
         } else {
-            for (final NoPosTacletApp tacletApp : tacletApps) {
-                if (!p_filter.filter(tacletApp.taclet())) {
-                    continue;
-                }
-                final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
-                if (newTacletApp != null) {
-                    result = result.prepend(newTacletApp);
-                }
-            }
+            TacletIndexKit.SEQUENTIAL_MATCHINGS.increment();
+            return task.matchSequentially();
         }
+    }
+
+    /**
+     * decides whether matching the given number of taclets in parallel pays off
+     *
+     * @param candidates the number of taclets to match
+     * @return true iff the taclets should be matched in parallel
+     */
+    private static boolean shouldMatchInParallel(int candidates) {
+        final ParallelismSettings settings = PoolHolder.SETTINGS;
+        if (PoolHolder.POOL.getParallelism() < 2
+                || candidates < Math.max(2 * MIN_TASK_SIZE,
+                    settings.getTacletMatchingMinCandidates())) {
+            return false;
+        }
+        return !settings.isTacletMatchingAdaptive()
+                || candidates * AVERAGE_MATCH_NANOS.get() >= PARALLEL_BREAK_EVEN_NANOS;
+    }
+
+    /**
+     * adds a measurement to the moving average of the time needed to match a single taclet
+     */
+    private static void recordMatchTime(long nanos, int taclets) {
+        final long sample = nanos / taclets;
+        final long average = AVERAGE_MATCH_NANOS.get();
+        AVERAGE_MATCH_NANOS.set(average + (sample - average) / 8);
+    }
 
-        return result;
+    /**
+     * Lazily creates the pool shared by all multi-threaded taclet indices.
+     */
+    private static final class PoolHolder {
+        static final ParallelismSettings SETTINGS =
+            ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings();
+
+        static final ForkJoinPool POOL = new ForkJoinPool(SETTINGS.getTacletMatchingThreads(),
+            pool -> {
+                final ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("taclet-matcher-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
     }
 
     /**
-     * The callable implementing the actual matching task.
+     * The task implementing the actual matching. It splits its range of taclets in halves until
+     * the ranges are small enough to be matched sequentially; idle workers steal the forked
+     * halves.
      */
-    static class TacletSetMatchTask implements Callable<List<NoPosTacletApp>> {
+    static class TacletSetMatchTask extends RecursiveTask<ImmutableList<NoPosTacletApp>> {
         private final NoPosTacletApp[] toMatch;
         private final int lower;
         private final int upper;
@@ -151,9 +186,33 @@ final class MultiThreadedTacletIndex extends TacletIndex {
             this.ruleFilter = ruleFilter;
         }
 
+        /**
+         * The result lists the matched taclets in reverse order of {@code toMatch}, as the
+         * sequential implementation in {@link SingleThreadedTacletIndex} does.
+         */
         @Override
-        public List<NoPosTacletApp> call() {
-            List<NoPosTacletApp> result = new LinkedList<>();
+        protected ImmutableList<NoPosTacletApp> compute() {
+            final int size = upper - lower;
+            final int parallelism = getPool().getParallelism();
+            // split further only as long as there are enough pieces to keep all workers busy
+            if (size <= MIN_TASK_SIZE || size <= toMatch.length / (4 * parallelism)) {
+                return matchSequentially();
+            }
+            final int middle = (lower + upper) >>> 1;
+            final TacletSetMatchTask left =
+                new TacletSetMatchTask(toMatch, lower, middle, pos, ruleFilter, services);
+            final TacletSetMatchTask right =
+                new TacletSetMatchTask(toMatch, middle, upper, pos, ruleFilter, services);
+            right.fork();
+            final ImmutableList<NoPosTacletApp> leftResult = left.compute();
+            return leftResult.prepend(right.join());
+        }
+
+        ImmutableList<NoPosTacletApp> matchSequentially() {
+            final boolean timed =
+                ThreadLocalRandom.current().nextInt(TIMING_SAMPLE_INTERVAL) == 0;
+            final long start = timed ? System.nanoTime() : 0;
+            ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
             for (int i = lower; i < upper; i++) {
                 NoPosTacletApp tacletApp = toMatch[i];
                 if (!ruleFilter.filter(tacletApp.taclet())) {
@@ -161,11 +220,13 @@ final class MultiThreadedTacletIndex extends TacletIndex {
                 }
                 final NoPosTacletApp newTacletApp = tacletApp.matchFind(pos, services);
                 if (newTacletApp != null) {
-                    result.add(newTacletApp);
+                    result = result.prepend(newTacletApp);
                 }
             }
+            if (timed) {
+                recordMatchTime(System.nanoTime() - start, upper - lower);
+            }
             return result;
         }
-
     }
 }
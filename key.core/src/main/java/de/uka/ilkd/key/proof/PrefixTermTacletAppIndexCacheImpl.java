@@ -3,10 +3,9 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.Map;
-
 import org.key_project.logic.Term;
 import org.key_project.logic.op.QuantifiableVariable;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 
 import org.slf4j.Logger;
@@ -14,29 +13,30 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The abstract superclass of caches for taclet app indexes that are implemented using a common
- * backend <code>LRUCache</code> (the backend is stored in <code>TermTacletAppIndexCacheSet</code>).
+ * backend <code>ConcurrentLRUCache</code> (the backend is stored in
+ * <code>TermTacletAppIndexCacheSet</code>).
  * The backend is accessed in a way that guarantees that two distinct instances of this class never
  * interfere, by choosing cache keys that are specific for a particular instance of
  * <code>PrefixTermTacletAppIndexCacheImpl</code> and cannot be created by other instances. This
- * ensures that it is safe to use one instance of <code>LRUCache</code> for many instances of
- * <code>PrefixTermTacletAppIndexCacheImpl</code> (different proofs, different proof branches,
- * different locations).
+ * ensures that it is safe to use one instance of <code>ConcurrentLRUCache</code> for many
+ * instances of <code>PrefixTermTacletAppIndexCacheImpl</code> (different proofs, different proof
+ * branches, different locations). Cache keys are immutable, so lookups may happen concurrently.
  */
 public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTacletAppIndexCache {
     private static final Logger LOGGER =
         LoggerFactory.getLogger(PrefixTermTacletAppIndexCacheImpl.class);
 
-    private final Map<CacheKey, TermTacletAppIndex> cache;
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache;
 
     protected PrefixTermTacletAppIndexCacheImpl(ImmutableList<QuantifiableVariable> prefix,
-            Map<CacheKey, TermTacletAppIndex> cache) {
+            ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache) {
         super(prefix);
         this.cache = cache;
     }
 
     @Override
     public TermTacletAppIndex getIndexForTerm(Term t) {
-        return cache.get(getQueryKey(t));
+        return cache.get(getNewKey(t));
     }
 
     private int hits = 0;
@@ -72,21 +72,9 @@ public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTaclet
         return new CacheKey(this, t);
     }
 
-    /**
-     * @return a key for the term <code>t</code> that can be used for cache queries. Calling this
-     *         method twice will return the same object (with different attribute values), i.e., the
-     *         result is not supposed to be stored anywhere
-     */
-    private CacheKey getQueryKey(Term t) {
-        queryCacheKey.analysedTerm = t;
-        return queryCacheKey;
-    }
-
-    private final CacheKey queryCacheKey = new CacheKey(this, null);
-
     public static final class CacheKey {
         private final PrefixTermTacletAppIndexCacheImpl parent;
-        public Term analysedTerm;
+        private final Term analysedTerm;
 
         public CacheKey(PrefixTermTacletAppIndexCacheImpl parent, Term analysedTerm) {
             this.parent = parent;
@@ -6,7 +6,6 @@ package de.uka.ilkd.key.proof;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.rule.NoPosTacletApp;
@@ -17,14 +16,16 @@ import org.key_project.prover.proof.rulefilter.RuleFilter;
 import org.key_project.prover.sequent.*;
 import org.key_project.prover.strategy.NewRuleListener;
 import org.key_project.util.collection.*;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 /**
  * This class holds <code>TermTacletAppIndex</code>s for all formulas of a semisequent.
  */
 public class SemisequentTacletAppIndex {
-    public static final AtomicLong PERF_UPDATE = new AtomicLong();
-    public static final AtomicLong PERF_ADD = new AtomicLong();
-    public static final AtomicLong PERF_REMOVE = new AtomicLong();
+    public static final Timer PERF_UPDATE = Metrics.timer("Semi Taclet app index update update");
+    public static final Timer PERF_ADD = Metrics.timer("Semi Taclet app index update add");
+    public static final Timer PERF_REMOVE = Metrics.timer("Semi Taclet app index update remove");
 
     private ImmutableMap<SequentFormula, TermTacletAppIndex> termIndices =
         DefaultImmutableMap.nilMap();
@@ -232,17 +233,17 @@ public class SemisequentTacletAppIndex {
         if (sci.hasChanged(antec)) {
             final SemisequentTacletAppIndex result = copy();
 
-            var time = System.nanoTime();
+            var time = Metrics.nanoTime();
             result.removeTermIndices(sci.removedFormulas(antec));
-            PERF_REMOVE.getAndAdd(System.nanoTime() - time);
+            PERF_REMOVE.stop(time);
 
-            time = System.nanoTime();
+            time = Metrics.nanoTime();
             result.updateTermIndices(sci.modifiedFormulas(antec), services, tacletIndex, listener);
-            PERF_UPDATE.getAndAdd(System.nanoTime() - time);
+            PERF_UPDATE.stop(time);
 
-            time = System.nanoTime();
+            time = Metrics.nanoTime();
             result.addTermIndices(sci.addedFormulas(antec), services, tacletIndex, listener);
-            PERF_ADD.getAndAdd(System.nanoTime() - time);
+            PERF_ADD.stop(time);
             return result;
         }
 
@@ -4,8 +4,6 @@
 package de.uka.ilkd.key.proof;
 
 import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.proof.PrefixTermTacletAppIndexCacheImpl.CacheKey;
@@ -20,8 +18,11 @@ import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.prover.sequent.Sequent;
 import org.key_project.prover.sequent.SequentChangeInfo;
 import org.key_project.prover.strategy.NewRuleListener;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 
@@ -35,8 +36,8 @@ import org.jspecify.annotations.NonNull;
  */
 
 public class TacletAppIndex {
-    public static final AtomicLong PERF_CREATE_ALL = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE = new AtomicLong();
+    public static final Timer PERF_CREATE_ALL = Metrics.timer("Taclet app index create all");
+    public static final Timer PERF_UPDATE = Metrics.timer("Taclet app index update");
 
     private final TacletIndex tacletIndex;
 
@@ -66,7 +67,7 @@ public class TacletAppIndex {
      */
     private Sequent seq;
 
-    private final Map<CacheKey, TermTacletAppIndex> cache;
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache;
 
     public TacletAppIndex(TacletIndex tacletIndex, Goal goal, Services services) {
         this(tacletIndex, null, null, goal, null, TacletFilter.TRUE,
@@ -77,7 +78,8 @@ public class TacletAppIndex {
     private TacletAppIndex(TacletIndex tacletIndex, SemisequentTacletAppIndex antecIndex,
             SemisequentTacletAppIndex succIndex, @NonNull Goal goal, Sequent seq,
             RuleFilter ruleFilter,
-            TermTacletAppIndexCacheSet indexCaches, Map<CacheKey, TermTacletAppIndex> cache) {
+            TermTacletAppIndexCacheSet indexCaches,
+            ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache) {
         this.tacletIndex = tacletIndex;
         this.antecIndex = antecIndex;
         this.succIndex = succIndex;
@@ -141,7 +143,7 @@ public class TacletAppIndex {
     }
 
     private void createAllFromGoal() {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             this.seq = getNode().sequent();
 
@@ -152,7 +154,7 @@ public class TacletAppIndex {
                 new SemisequentTacletAppIndex(getSequent(), false, getServices(), tacletIndex(),
                     newRuleListener, ruleFilter, indexCaches);
         } finally {
-            PERF_CREATE_ALL.getAndAdd(System.nanoTime() - time);
+            PERF_CREATE_ALL.stop(time);
         }
     }
 
@@ -310,9 +312,9 @@ public class TacletAppIndex {
             // we are not up-to-date and have to rebuild everything (lazy)
             clearIndexes();
         } else {
-            var time = System.nanoTime();
+            var time = Metrics.nanoTime();
             updateIndices(sci);
-            PERF_UPDATE.getAndAdd(System.nanoTime() - time);
+            PERF_UPDATE.stop(time);
         }
     }
 
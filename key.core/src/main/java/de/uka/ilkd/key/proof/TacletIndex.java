@@ -40,13 +40,13 @@ public abstract class TacletIndex {
     private static final Object DEFAULT_PROGSV_KEY = new Object();
 
     /** contains rewrite Taclets */
-    protected HashMap<Object, ImmutableList<NoPosTacletApp>> rwList = new LinkedHashMap<>();
+    protected HashMap<Object, DiscriminationTree> rwList = new LinkedHashMap<>();
 
     /** contains antecedent Taclets */
-    protected HashMap<Object, ImmutableList<NoPosTacletApp>> antecList = new LinkedHashMap<>();
+    protected HashMap<Object, DiscriminationTree> antecList = new LinkedHashMap<>();
 
     /** contains succedent Taclets */
-    protected HashMap<Object, ImmutableList<NoPosTacletApp>> succList = new LinkedHashMap<>();
+    protected HashMap<Object, DiscriminationTree> succList = new LinkedHashMap<>();
 
     /** contains NoFind-Taclets */
     protected ImmutableList<NoPosTacletApp> noFindList = ImmutableSLList.nil();
@@ -56,6 +56,12 @@ public abstract class TacletIndex {
      */
     protected HashSet<NoPosTacletApp> partialInstantiatedRuleApps = new LinkedHashSet<>();
 
+    /**
+     * true iff the maps above may be shared with a copy of this index and have to be copied before
+     * they are modified
+     */
+    private boolean shared = false;
+
 
     /** constructs empty rule index */
     TacletIndex() {
@@ -72,16 +78,35 @@ public abstract class TacletIndex {
         addTaclets(toNoPosTacletApp(tacletSet));
     }
 
-    protected TacletIndex(HashMap<Object, ImmutableList<NoPosTacletApp>> rwList,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> antecList,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> succList,
-            ImmutableList<NoPosTacletApp> noFindList,
-            HashSet<NoPosTacletApp> partialInstantiatedRuleApps) {
-        this.rwList = rwList;
-        this.antecList = antecList;
-        this.succList = succList;
-        this.noFindList = noFindList;
-        this.partialInstantiatedRuleApps = partialInstantiatedRuleApps;
+    /**
+     * creates a copy of the given index. The maps of the original are shared and only copied once
+     * either index is modified (copy-on-write), such that copying an index for a new goal is cheap
+     * even if the index contains many taclets.
+     *
+     * @param original the index to copy
+     */
+    protected TacletIndex(TacletIndex original) {
+        this.rwList = original.rwList;
+        this.antecList = original.antecList;
+        this.succList = original.succList;
+        this.noFindList = original.noFindList;
+        this.partialInstantiatedRuleApps = original.partialInstantiatedRuleApps;
+        original.shared = true;
+        this.shared = true;
+    }
+
+    /**
+     * copies the maps of this index if they are shared with another index, i.e., before this index
+     * is modified
+     */
+    private void ensureExclusiveMaps() {
+        if (shared) {
+            rwList = new LinkedHashMap<>(rwList);
+            antecList = new LinkedHashMap<>(antecList);
+            succList = new LinkedHashMap<>(succList);
+            partialInstantiatedRuleApps = new LinkedHashSet<>(partialInstantiatedRuleApps);
+            shared = false;
+        }
     }
 
 
@@ -129,29 +154,44 @@ public abstract class TacletIndex {
 
 
     private void insertToMap(NoPosTacletApp tacletApp,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> map) {
-        Object indexObj = getIndexObj((FindTaclet) tacletApp.taclet());
-        ImmutableList<NoPosTacletApp> opList = map.get(indexObj);
-        opList = Objects.requireNonNullElseGet(opList,
-            ImmutableSLList::<NoPosTacletApp>nil).prepend(tacletApp);
-        map.put(indexObj, opList);
+            HashMap<Object, DiscriminationTree> map) {
+        final FindTaclet taclet = (FindTaclet) tacletApp.taclet();
+        Object indexObj = getIndexObj(taclet);
+        DiscriminationTree tree = map.getOrDefault(indexObj, DiscriminationTree.EMPTY);
+        map.put(indexObj, tree.insert(tacletApp, taclet.find()));
     }
 
 
     private void removeFromMap(NoPosTacletApp tacletApp,
-            HashMap<Object, ImmutableList<NoPosTacletApp>> map) {
-        Object op = getIndexObj((FindTaclet) tacletApp.taclet());
-        ImmutableList<NoPosTacletApp> opList = map.get(op);
-        if (opList != null) {
-            opList = opList.removeAll(tacletApp);
-            if (opList.isEmpty()) {
+            HashMap<Object, DiscriminationTree> map) {
+        final FindTaclet taclet = (FindTaclet) tacletApp.taclet();
+        Object op = getIndexObj(taclet);
+        DiscriminationTree tree = map.get(op);
+        if (tree != null) {
+            tree = tree.remove(tacletApp, taclet.find());
+            if (tree.isEmpty()) {
                 map.remove(op);
             } else {
-                map.put(op, opList);
+                map.put(op, tree);
             }
         }
     }
 
+    /**
+     * returns the taclets of the bucket with the given key whose find pattern might match the given
+     * term
+     *
+     * @param map the map containing the bucket
+     * @param key the key of the bucket
+     * @param term the term to be matched by the find patterns
+     * @return the candidates or {@code null} if there is no such bucket
+     */
+    private static @Nullable ImmutableList<NoPosTacletApp> getCandidates(
+            HashMap<Object, DiscriminationTree> map, Object key, Term term) {
+        final DiscriminationTree tree = map.get(key);
+        return tree == null ? null : tree.getCandidates(term);
+    }
+
     /**
      * adds a set of NoPosTacletApp to this index
      *
@@ -186,6 +226,7 @@ public abstract class TacletIndex {
      * @param tacletApp the Taclet and its instantiation info to be added
      */
     public void add(NoPosTacletApp tacletApp) {
+        ensureExclusiveMaps();
         Taclet taclet = tacletApp.taclet();
         switch (taclet) {
         case RewriteTaclet ignored -> insertToMap(tacletApp, rwList);
@@ -208,6 +249,7 @@ public abstract class TacletIndex {
      * @param tacletApp the Taclet and its instantiation info to be removed
      */
     public void remove(NoPosTacletApp tacletApp) {
+        ensureExclusiveMaps();
         Taclet rule = tacletApp.taclet();
         switch (rule) {
         case RewriteTaclet ignored -> removeFromMap(tacletApp, rwList);
@@ -245,16 +287,16 @@ public abstract class TacletIndex {
 
     public Set<NoPosTacletApp> allNoPosTacletApps() {
         Set<NoPosTacletApp> result = new LinkedHashSet<>();
-        for (ImmutableList<NoPosTacletApp> tacletApps : rwList.values()) {
-            tacletApps.forEach(result::add);
+        for (DiscriminationTree tacletApps : rwList.values()) {
+            tacletApps.getAll().forEach(result::add);
         }
 
-        for (ImmutableList<NoPosTacletApp> tacletApps : antecList.values()) {
-            tacletApps.forEach(result::add);
+        for (DiscriminationTree tacletApps : antecList.values()) {
+            tacletApps.getAll().forEach(result::add);
         }
 
-        for (ImmutableList<NoPosTacletApp> tacletApps : succList.values()) {
-            tacletApps.forEach(result::add);
+        for (DiscriminationTree tacletApps : succList.values()) {
+            tacletApps.getAll().forEach(result::add);
         }
 
         noFindList.forEach(result::add);
@@ -291,28 +333,29 @@ public abstract class TacletIndex {
      * @param pe the program element that is used to retrieve the taclets
      * @param prefixOccurrences the PrefixOccurrence object used to keep track of the occurring
      *        prefix elements
+     * @param term the term containing the program element in its java block
      */
     private ImmutableList<NoPosTacletApp> getJavaTacletList(
-            HashMap<Object, ImmutableList<NoPosTacletApp>> map, ProgramElement pe,
-            PrefixOccurrences prefixOccurrences) {
+            HashMap<Object, DiscriminationTree> map, ProgramElement pe,
+            PrefixOccurrences prefixOccurrences, Term term) {
         ImmutableList<NoPosTacletApp> res = ImmutableSLList.nil();
         if (pe instanceof ProgramPrefix nt) {
             int next = prefixOccurrences.occurred(pe);
             if (next < nt.getChildCount()) {
-                return getJavaTacletList(map, nt.getChildAt(next), prefixOccurrences);
+                return getJavaTacletList(map, nt.getChildAt(next), prefixOccurrences, term);
             }
         } else {
-            final ImmutableList<NoPosTacletApp> apps = map.get(pe.getClass());
+            final ImmutableList<NoPosTacletApp> apps = getCandidates(map, pe.getClass(), term);
             if (apps != null) {
                 res = apps;
             }
         }
-        return merge(res, prefixOccurrences.getList(map));
+        return merge(res, prefixOccurrences.getList(map, term));
     }
 
     @SuppressWarnings("deprecation")
     private ImmutableList<NoPosTacletApp> getListHelp(
-            final HashMap<Object, ImmutableList<NoPosTacletApp>> map, final Term term,
+            final HashMap<Object, DiscriminationTree> map, final Term term,
             final boolean ignoreUpdates, final PrefixOccurrences prefixOccurrences) {
 
         ImmutableList<NoPosTacletApp> res = ImmutableSLList.nil();
@@ -324,19 +367,19 @@ public abstract class TacletIndex {
         if (!term.javaBlock().isEmpty()) {
             prefixOccurrences.reset();
             final StatementBlock sb = (StatementBlock) term.javaBlock().program();
-            res = getJavaTacletList(map, sb.getStatementAt(0), prefixOccurrences);
+            res = getJavaTacletList(map, sb.getStatementAt(0), prefixOccurrences, term);
         }
 
         if (!term.javaBlock().isEmpty() || op instanceof ProgramVariable) {
-            res = merge(res, map.get(DEFAULT_PROGSV_KEY));
+            res = merge(res, getCandidates(map, DEFAULT_PROGSV_KEY, term));
         }
 
         final ImmutableList<NoPosTacletApp> inMap = switch (op) {
         case SortDependingFunction sortDependingFunction ->
-            map.get(sortDependingFunction.getKind());
-        case ElementaryUpdate ignored -> map.get(ElementaryUpdate.class);
-        case Modality ignored -> map.get(Modality.class);
-        default -> map.get(op);
+            getCandidates(map, sortDependingFunction.getKind(), term);
+        case ElementaryUpdate ignored -> getCandidates(map, ElementaryUpdate.class, term);
+        case Modality ignored -> getCandidates(map, Modality.class, term);
+        default -> getCandidates(map, op, term);
         };
 
         res = merge(res, inMap);
@@ -351,10 +394,10 @@ public abstract class TacletIndex {
             }
         }
 
-        res = merge(res, map.get(term.sort()));
-        res = merge(res, map.get(DEFAULT_SV_KEY));
+        res = merge(res, getCandidates(map, term.sort(), term));
+        res = merge(res, getCandidates(map, DEFAULT_SV_KEY, term));
 
-        return merge(res, map.get(GenericSort.class));
+        return merge(res, getCandidates(map, GenericSort.class, term));
     }
 
     /**
@@ -394,7 +437,7 @@ public abstract class TacletIndex {
      * @param term the term that is used to find the selection
      */
     private ImmutableList<NoPosTacletApp> getList(
-            HashMap<Object, ImmutableList<NoPosTacletApp>> map, Term term, boolean ignoreUpdates) {
+            HashMap<Object, DiscriminationTree> map, Term term, boolean ignoreUpdates) {
         return getListHelp(map, term, ignoreUpdates, new PrefixOccurrences());
     }
 
@@ -432,7 +475,7 @@ public abstract class TacletIndex {
     }
 
     private ImmutableList<NoPosTacletApp> getTopLevelTaclets(
-            HashMap<Object, ImmutableList<NoPosTacletApp>> findTaclets, RuleFilter filter,
+            HashMap<Object, DiscriminationTree> findTaclets, RuleFilter filter,
             PosInOccurrence pos, Services services) {
 
         assert pos.isTopLevel();
@@ -592,13 +635,15 @@ public abstract class TacletIndex {
          * elements
          *
          * @param map a map to select from
+         * @param term the term whose java block contains the prefix elements
          */
         public ImmutableList<NoPosTacletApp> getList(
-                HashMap<Object, ImmutableList<NoPosTacletApp>> map) {
+                HashMap<Object, DiscriminationTree> map, Term term) {
             ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
             for (int i = 0; i < PREFIXTYPES; i++) {
                 if (occurred[i]) {
-                    ImmutableList<NoPosTacletApp> inMap = map.get(prefixClasses[i]);
+                    ImmutableList<NoPosTacletApp> inMap =
+                        getCandidates(map, prefixClasses[i], term);
                     if (inMap != null) {
                         result = result.prepend(inMap);
                     }
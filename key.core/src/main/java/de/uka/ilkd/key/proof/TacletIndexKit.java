@@ -3,6 +3,8 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import de.uka.ilkd.key.rule.Taclet;
 
 /**
@@ -12,6 +14,18 @@ public abstract class TacletIndexKit {
 
     private static final TacletIndexKit ACTIVE_TACLET_INDEX_KIT;
 
+    /**
+     * number of taclet lookups whose candidates have been matched in parallel by the
+     * multi-threaded taclet index
+     */
+    public static final LongAdder PARALLEL_MATCHINGS = new LongAdder();
+
+    /**
+     * number of taclet lookups whose candidates the multi-threaded taclet index has matched
+     * sequentially, as a parallel matching would not have paid off
+     */
+    public static final LongAdder SEQUENTIAL_MATCHINGS = new LongAdder();
+
     static {
         final String threading = System.getProperty("tacletindex.threading.enabled", "false");
         if ("true".equals(threading)) {
@@ -33,6 +33,8 @@ public class TermTacletAppIndex {
     private final ImmutableArray<TermTacletAppIndex> subtermIndices;
     /** */
     private final RuleFilter ruleFilter;
+    /** the number of index nodes and taclet apps of this index and the indices below */
+    private final int weight;
 
     /**
      * Create a TermTacletAppIndex
@@ -43,6 +45,21 @@ public class TermTacletAppIndex {
         this.subtermIndices = subtermIndices;
         this.localTacletApps = localTacletApps;
         this.ruleFilter = ruleFilter;
+        int weight = 1 + localTacletApps.size();
+        for (TermTacletAppIndex subtermIndex : subtermIndices) {
+            weight += subtermIndex.weight;
+        }
+        this.weight = weight;
+    }
+
+    /**
+     * Estimates the memory retained by this index as the number of its index nodes and taclet
+     * apps (including the ones of the subterm indices, which may be shared with other indices).
+     *
+     * @return the weight of this index for size-bounded caches
+     */
+    public int weight() {
+        return weight;
     }
 
 
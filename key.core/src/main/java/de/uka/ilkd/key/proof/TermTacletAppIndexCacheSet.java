@@ -3,8 +3,6 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.Map;
-
 import de.uka.ilkd.key.logic.op.*;
 import de.uka.ilkd.key.proof.PrefixTermTacletAppIndexCacheImpl.CacheKey;
 import de.uka.ilkd.key.rule.FindTaclet;
@@ -15,7 +13,7 @@ import org.key_project.logic.op.Modality;
 import org.key_project.logic.op.Operator;
 import org.key_project.logic.op.QuantifiableVariable;
 import org.key_project.prover.rules.Taclet;
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
@@ -83,9 +81,8 @@ public class TermTacletAppIndexCacheSet {
      * caches for locations that are not below updates or programs, but in the scope of binders.
      * this is a mapping from <code>IList<QuantifiedVariable></code> to <code>TopLevelCache</code>
      */
-    private final LRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> topLevelCaches =
-        new LRUCache<>(
-            MAX_CACHE_ENTRIES);
+    private final ConcurrentLRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> topLevelCaches =
+        new ConcurrentLRUCache<>("topLevelPrefixes", MAX_CACHE_ENTRIES);
 
     /**
      * cache for locations that are below updates, but not below programs or in the scope of binders
@@ -102,13 +99,12 @@ public class TermTacletAppIndexCacheSet {
      * caches for locations that are both below programs and in the scope of binders. this is a
      * mapping from <code>IList<QuantifiedVariable></code> to <code>BelowProgCache</code>
      */
-    private final LRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> belowProgCaches =
-        new LRUCache<>(
-            MAX_CACHE_ENTRIES);
+    private final ConcurrentLRUCache<ImmutableList<QuantifiableVariable>, ITermTacletAppIndexCache> belowProgCaches =
+        new ConcurrentLRUCache<>("belowProgPrefixes", MAX_CACHE_ENTRIES);
 
-    private final Map<CacheKey, TermTacletAppIndex> cache;
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache;
 
-    public TermTacletAppIndexCacheSet(Map<CacheKey, TermTacletAppIndex> cache) {
+    public TermTacletAppIndexCacheSet(ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache) {
         assert cache != null;
         this.cache = cache;
         antecCache = new TopLevelCache(ImmutableSLList.nil(), cache);
@@ -159,12 +155,7 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return topLevelCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = topLevelCaches.get(prefix);
-        if (res == null) {
-            res = new TopLevelCache(prefix, cache);
-            topLevelCaches.put(prefix, res);
-        }
-        return res;
+        return topLevelCaches.computeIfAbsent(prefix, p -> new TopLevelCache(p, cache));
     }
 
     /**
@@ -175,12 +166,7 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return belowProgCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = belowProgCaches.get(prefix);
-        if (res == null) {
-            res = new BelowProgCache(prefix, cache);
-            belowProgCaches.put(prefix, res);
-        }
-        return res;
+        return belowProgCaches.computeIfAbsent(prefix, p -> new BelowProgCache(p, cache));
     }
 
     /**
@@ -222,7 +208,7 @@ public class TermTacletAppIndexCacheSet {
 
     private class TopLevelCache extends PrefixTermTacletAppIndexCacheImpl {
         protected TopLevelCache(ImmutableList<QuantifiableVariable> prefix,
-                Map<CacheKey, TermTacletAppIndex> cache) {
+                ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache) {
             super(prefix, cache);
         }
 
@@ -284,7 +270,7 @@ public class TermTacletAppIndexCacheSet {
 
     private class BelowProgCache extends PrefixTermTacletAppIndexCacheImpl {
         protected BelowProgCache(ImmutableList<QuantifiableVariable> prefix,
-                Map<CacheKey, TermTacletAppIndex> cache) {
+                ConcurrentLRUCache<CacheKey, TermTacletAppIndex> cache) {
             super(prefix, cache);
         }
 
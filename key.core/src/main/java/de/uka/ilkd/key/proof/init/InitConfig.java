@@ -66,6 +66,12 @@ public class InitConfig {
      */
     private HashMap<Taclet, TacletBuilder<? extends Taclet>> taclet2Builder = new LinkedHashMap<>();
 
+    /**
+     * whether {@link #taclet2Builder} is shared between this configuration and a copy; the map is
+     * cloned on first access by {@link #getTaclet2Builder()}, as it may be modified by the caller
+     */
+    private boolean taclet2BuilderShared;
+
     /**
      * Set of the rule options activated for the current proof. The rule options ({@link Choice}s)
      * allow to use different ruleset modelling or skipping certain features (e.g. nullpointer
@@ -157,6 +163,7 @@ public class InitConfig {
 
     public void setTaclet2Builder(HashMap<Taclet, TacletBuilder<? extends Taclet>> taclet2Builder) {
         this.taclet2Builder = taclet2Builder;
+        this.taclet2BuilderShared = false;
     }
 
 
@@ -167,7 +174,13 @@ public class InitConfig {
      *
      * @return the map from a taclet to its builder
      */
+    @SuppressWarnings("unchecked")
     public HashMap<Taclet, TacletBuilder<? extends Taclet>> getTaclet2Builder() {
+        if (taclet2BuilderShared) {
+            taclet2Builder =
+                (HashMap<Taclet, TacletBuilder<? extends Taclet>>) taclet2Builder.clone();
+            taclet2BuilderShared = false;
+        }
         return taclet2Builder;
     }
 
@@ -423,9 +436,10 @@ public class InitConfig {
 
     /**
      * returns a copy of this initial configuration copying the namespaces, the contained JavaInfo
-     * while using the immutable set of taclets in the copy
+     * while using the immutable set of taclets in the copy. The namespaces, the taclet builders and
+     * the rule justifications are copied on write, i.e., copying a configuration and reading the
+     * rule base from it is cheap.
      */
-    @SuppressWarnings("unchecked")
     public InitConfig copyWithServices(Services services) {
         InitConfig ic = new InitConfig(services);
         if (settings != null) {
@@ -433,11 +447,16 @@ public class InitConfig {
         }
         ic.setActivatedChoices(activatedChoices);
         ic.category2DefaultChoice = new HashMap<>(category2DefaultChoice);
-        ic.setTaclet2Builder(
-            (HashMap<Taclet, TacletBuilder<? extends Taclet>>) taclet2Builder.clone());
+        taclet2BuilderShared = true;
+        ic.taclet2Builder = taclet2Builder;
+        ic.taclet2BuilderShared = true;
         ic.taclets = taclets;
         ic.originalKeYFileName = originalKeYFileName;
         ic.justifInfo = justifInfo.copy();
+        if (activatedTacletCache != null && ic.activatedChoices.equals(activatedChoices)) {
+            // same taclets, builders and choices, hence the same active taclets
+            ic.activatedTacletCache = activatedTacletCache;
+        }
         ic.fileRepo = fileRepo; // TODO: copy instead? delete via dispose method?
         return ic;
     }
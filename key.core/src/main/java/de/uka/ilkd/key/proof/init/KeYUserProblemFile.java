@@ -11,6 +11,7 @@ import de.uka.ilkd.key.java.abstraction.KeYJavaType;
 import de.uka.ilkd.key.nparser.*;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.proof.io.BinaryProofRuleSource;
 import de.uka.ilkd.key.proof.io.IProofFileParser;
 import de.uka.ilkd.key.proof.io.KeYFile;
 import de.uka.ilkd.key.proof.io.consistency.FileRepo;
@@ -25,6 +26,7 @@ import org.key_project.util.collection.DefaultImmutableSet;
 import org.key_project.util.collection.ImmutableSet;
 
 import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
 import org.antlr.v4.runtime.Token;
 import org.jspecify.annotations.Nullable;
 
@@ -192,6 +194,10 @@ public final class KeYUserProblemFile extends KeYFile implements ProofOblInput {
      * Reads a saved proof of a .key file.
      */
     public void readProof(IProofFileParser prl) throws IOException {
+        if (file instanceof BinaryProofRuleSource binary) {
+            binary.readProof(prl);
+            return;
+        }
         KeyAst.File ctx = getParseContext();
         Token token = ctx.findProof();
         if (token != null) {
@@ -205,6 +211,35 @@ public final class KeYUserProblemFile extends KeYFile implements ProofOblInput {
         }
     }
 
+    /**
+     * Checks whether the saved proof of this file may contain merge rule applications, which can
+     * not be replayed in streaming mode. The check is conservative, it looks for the text
+     * {@code Merge} in the proof.
+     *
+     * @return true if the proof may contain merge rule applications
+     * @throws IOException if the file can not be read
+     */
+    public boolean mayContainMergeRuleApps() throws IOException {
+        if (file instanceof BinaryProofRuleSource binary) {
+            return binary.open().mayContainMergeRuleApps();
+        }
+        Token token = getParseContext().findProof();
+        if (token == null) {
+            return false;
+        }
+        CharStream stream = file.getCharStream();
+        final String word = "Merge";
+        int matched = 0;
+        stream.seek(token.getStopIndex() + 1);
+        for (int c = stream.LA(1); c != IntStream.EOF; stream.consume(), c = stream.LA(1)) {
+            matched = c == word.charAt(matched) ? matched + 1 : (c == word.charAt(0) ? 1 : 0);
+            if (matched == word.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 
     @Override
     public boolean equals(Object o) {
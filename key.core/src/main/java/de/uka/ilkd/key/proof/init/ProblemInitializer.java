@@ -21,6 +21,7 @@ import de.uka.ilkd.key.logic.NamespaceSet;
 import de.uka.ilkd.key.logic.label.OriginTermLabelFactory;
 import de.uka.ilkd.key.logic.op.*;
 import de.uka.ilkd.key.logic.sort.GenericSort;
+import de.uka.ilkd.key.nparser.ParsingFacade;
 import de.uka.ilkd.key.parser.schemajava.SchemaJavaParser;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.JavaModel;
@@ -29,6 +30,7 @@ import de.uka.ilkd.key.proof.ProofAggregate;
 import de.uka.ilkd.key.proof.io.*;
 import de.uka.ilkd.key.proof.io.consistency.FileRepo;
 import de.uka.ilkd.key.proof.mgt.AxiomJustification;
+import de.uka.ilkd.key.prover.impl.PerfScope;
 import de.uka.ilkd.key.rule.BuiltInRule;
 import de.uka.ilkd.key.rule.Rule;
 import de.uka.ilkd.key.rule.Taclet;
@@ -57,10 +59,18 @@ import recoder.io.ProjectSettings;
 public final class ProblemInitializer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProblemInitializer.class);
 
-    private static InitConfig baseConfig;
+    /**
+     * the rule base of the last used profile, shared by all proofs of this profile
+     */
+    private static volatile InitConfig baseConfig;
     private final Services services;
     private final ProgressMonitor progMon;
     private final Set<EnvInput> alreadyParsed = new LinkedHashSet<>();
+    /**
+     * the included files that have been parsed in advance, see
+     * {@link #parseIncludes(Includes, Profile)}
+     */
+    private final Map<KeYFile, KeYFile> parsedIncludes = new HashMap<>();
     private final ProblemInitializerListener listener;
     /**
      * the FileRepo responsible for consistency between source code and proofs
@@ -164,8 +174,7 @@ public final class ProblemInitializer {
         reportStatus("Read LDT Includes", in.getIncludes().size());
         for (String name : in.getLDTIncludes()) {
 
-            keyFile[i] =
-                new KeYFile(name, in.get(name), progMon, initConfig.getProfile(), fileRepo);
+            keyFile[i] = createKeYFile(name, in.get(name), initConfig.getProfile());
             i++;
             setProgress(i);
         }
@@ -186,6 +195,7 @@ public final class ProblemInitializer {
         envInput.setInitConfig(initConfig);
 
         Includes in = envInput.readIncludes();
+        parseIncludes(in, envInput.getProfile());
 
         // read LDT includes
         readLDTIncludes(in, initConfig);
@@ -194,13 +204,67 @@ public final class ProblemInitializer {
         reportStatus("Read Includes", in.getIncludes().size());
         int i = 0;
         for (String fileName : in.getIncludes()) {
-            KeYFile keyFile =
-                new KeYFile(fileName, in.get(fileName), progMon, envInput.getProfile(), fileRepo);
+            KeYFile keyFile = createKeYFile(fileName, in.get(fileName), envInput.getProfile());
             readEnvInput(keyFile, initConfig);
             setProgress(++i);
         }
     }
 
+    /**
+     * Parses the files included by the given includes, transitively, in parallel. Only lexing and
+     * parsing happen in advance; the declarations and rules of the files are still built one
+     * after another in the order of inclusion by {@link #readEnvInput(EnvInput, InitConfig)},
+     * which picks up the parsed files via {@link #createKeYFile(String, RuleSource, Profile)}.
+     */
+    private void parseIncludes(Includes in, Profile profile) {
+        final List<KeYFile> roots = new ArrayList<>();
+        for (String name : in.getLDTIncludes()) {
+            roots.add(new KeYFile(name, in.get(name), progMon, profile, fileRepo));
+        }
+        for (String name : in.getIncludes()) {
+            roots.add(new KeYFile(name, in.get(name), progMon, profile, fileRepo));
+        }
+        roots.removeIf(file -> alreadyParsed.contains(file) || parsedIncludes.containsKey(file));
+        if (roots.isEmpty()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final Map<KeYFile, Includes> parsed = ParsingFacade.parseTransitively(roots, file -> {
+            try {
+                return file.readIncludes();
+            } catch (ProofInputException e) {
+                throw new IllegalStateException(e);
+            }
+        }, (file, includes) -> {
+            final List<KeYFile> children = new ArrayList<>();
+            for (String name : includes.getLDTIncludes()) {
+                children.add(new KeYFile(name, includes.get(name), progMon, profile, fileRepo));
+            }
+            for (String name : includes.getIncludes()) {
+                children.add(new KeYFile(name, includes.get(name), progMon, profile, fileRepo));
+            }
+            children.removeIf(alreadyParsed::contains);
+            return children;
+        });
+        for (KeYFile file : parsed.keySet()) {
+            parsedIncludes.putIfAbsent(file, file);
+        }
+        if (!parsed.isEmpty()) {
+            LOGGER.debug("Parsing {} included files took {}", parsed.size(),
+                PerfScope.formatTime(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Creates the KeY file of an included file, reusing it if it has been parsed in advance.
+     */
+    private KeYFile createKeYFile(String name, RuleSource source, Profile profile) {
+        final KeYFile file = new KeYFile(name, source, progMon, profile, fileRepo);
+        final KeYFile parsed = parsedIncludes.get(file);
+        return parsed != null ? parsed : file;
+    }
+
     /**
      * get a vector of Strings containing all .java file names in the cfile directory. Helper for
      * readJava().
@@ -245,9 +309,8 @@ public final class ProblemInitializer {
         // weigl: 2021-01, Early including the includes of the KeYUserProblemFile,
         // this allows to use included symbols inside JML.
         for (var fileName : includes.getRuleSets()) {
-            KeYFile keyFile =
-                new KeYFile(fileName.file().getFileName().toString(), fileName, progMon,
-                    envInput.getProfile(), fileRepo);
+            KeYFile keyFile = createKeYFile(fileName.file().getFileName().toString(), fileName,
+                envInput.getProfile());
             readEnvInput(keyFile, initConfig);
         }
 
@@ -427,11 +490,12 @@ public final class ProblemInitializer {
         // the synchronized statement can not be avoided for this reason.
 
         synchronized (SchemaJavaParser.class) {
-            // It is required to work with a copy to make this method thread save required by the
-            // Eclipse plug-ins.
-            InitConfig currentBaseConfig = baseConfig != null ? baseConfig.copy() : null;
+            // The base configuration is shared by all proofs and never modified after it has been
+            // read; prepare(EnvInput, InitConfig) works on a (copy-on-write) copy of it.
+            InitConfig currentBaseConfig = baseConfig;
             progressStarted(this);
             alreadyParsed.clear();
+            parsedIncludes.clear();
 
             // the first time, read in standard rules
             Profile profile = services.getProfile();
@@ -441,7 +505,10 @@ public final class ProblemInitializer {
                 if (tacletBase != null) {
                     KeYFile tacletBaseFile = new KeYFile("taclet base",
                         profile.getStandardRules().getTacletBase(), progMon, profile);
+                    final long start = System.nanoTime();
                     readEnvInput(tacletBaseFile, currentBaseConfig);
+                    LOGGER.debug("Reading the taclet base took {}",
+                        PerfScope.formatTime(System.nanoTime() - start));
                 }
                 // remove traces of the generic sorts within the base configuration
                 cleanupNamespaces(currentBaseConfig);
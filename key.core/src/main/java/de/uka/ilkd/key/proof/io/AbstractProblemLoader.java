@@ -70,6 +70,14 @@ public abstract class AbstractProblemLoader {
      */
     private boolean loadSingleJavaFile = false;
 
+    /**
+     * If set to true, proofs are replayed while they are parsed, without building the
+     * intermediate proof tree (unless they may contain merge rule applications).
+     *
+     * @see IntermediateProofReplayer#createStreamingParser
+     */
+    private boolean streamingReplay = false;
+
     public static class ReplayResult {
 
         private final Node node;
@@ -503,7 +511,8 @@ public abstract class AbstractProblemLoader {
             return new KeYUserProblemFile(unzippedProof.toString(), unzippedProof,
                 fileRepo, control, profileOfNewProofs, false);
         } else if (filename.endsWith(".key") || filename.endsWith(".proof")
-                || filename.endsWith(".proof.gz")) {
+                || filename.endsWith(".proof.gz")
+                || filename.endsWith(BinaryProofFormat.FILE_EXTENSION)) {
             // KeY problem specification or saved proof
             return new KeYUserProblemFile(filename, file, fileRepo, control, profileOfNewProofs,
                 filename.endsWith(".proof.gz"));
@@ -691,13 +700,7 @@ public abstract class AbstractProblemLoader {
         try {
             assert envInput instanceof KeYUserProblemFile;
 
-            IntermediatePresentationProofFileParser parser =
-                new IntermediatePresentationProofFileParser(proof);
-            problemInitializer.tryReadProof(parser, (KeYUserProblemFile) envInput);
-            parserResult = parser.getResult();
-
-            // Parser is no longer needed, set it to null to free memory.
-            parser = null;
+            final KeYUserProblemFile kupf = (KeYUserProblemFile) envInput;
 
             // For loading, we generally turn on one step simplification to be
             // able to load proofs that used it even if the user has currently
@@ -708,9 +711,27 @@ public abstract class AbstractProblemLoader {
             Strategy.updateStrategySettings(proof, newProps);
             OneStepSimplifier.refreshOSS(proof);
 
-            replayer = new IntermediateProofReplayer(this, proof, parserResult);
-            replayResult =
-                replayer.replay(problemInitializer.getListener(), problemInitializer.getProgMon());
+            if (streamingReplay && !kupf.mayContainMergeRuleApps()) {
+                // replay while parsing, the intermediate proof tree is never built
+                replayer = new IntermediateProofReplayer(this, proof);
+                IntermediatePresentationProofFileParser parser =
+                    replayer.createStreamingParser(problemInitializer.getListener());
+                problemInitializer.tryReadProof(parser, kupf);
+                parserResult = parser.getResult();
+                replayResult = replayer.finishStreaming(problemInitializer.getListener());
+            } else {
+                IntermediatePresentationProofFileParser parser =
+                    new IntermediatePresentationProofFileParser(proof);
+                problemInitializer.tryReadProof(parser, kupf);
+                parserResult = parser.getResult();
+
+                // Parser is no longer needed, set it to null to free memory.
+                parser = null;
+
+                replayer = new IntermediateProofReplayer(this, proof, parserResult);
+                replayResult = replayer.replay(problemInitializer.getListener(),
+                    problemInitializer.getProgMon());
+            }
 
             lastTouchedNode = replayResult.getLastSelectedGoal() != null
                     ? replayResult.getLastSelectedGoal().node()
@@ -837,6 +858,14 @@ public abstract class AbstractProblemLoader {
         this.loadSingleJavaFile = loadSingleJavaFile;
     }
 
+    public boolean isStreamingReplay() {
+        return streamingReplay;
+    }
+
+    public void setStreamingReplay(boolean streamingReplay) {
+        this.streamingReplay = streamingReplay;
+    }
+
     public void setIgnoreWarnings(boolean ignoreWarnings) {
         this.ignoreWarnings = ignoreWarnings;
     }
@@ -0,0 +1,483 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import de.uka.ilkd.key.nparser.KeYLexer;
+import de.uka.ilkd.key.nparser.ParsingFacade;
+import de.uka.ilkd.key.nparser.ProofReplayer;
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A compact binary representation of saved proofs, an alternative to the textual
+ * {@code \proof} section written by {@link OutputStreamProofSaver}.
+ * <p>
+ * A binary proof file consists of
+ * <ol>
+ * <li>the magic number and the {@link #VERSION} of the format,</li>
+ * <li>the textual header of the proof file (profile, settings, declarations and problem), which
+ * is read by the usual KeY parser,</li>
+ * <li>a table of all strings (rule names, instantiations, branch labels, ...) occurring in the
+ * proof, each of them stored once,</li>
+ * <li>the proof as sequence of the events of an {@link IProofFileParser}: each expression is
+ * stored as a tag byte (element and argument kind) followed by its argument, which is either an
+ * index into the string table, an integer (e.g. formula numbers) or a term position, all encoded
+ * as variable-length integers, and</li>
+ * <li>an index of the offsets of all {@code branch} expressions within the events.</li>
+ * </ol>
+ * Proofs are written directly from the proof tree (see {@link ProofEventWriter}), neither the
+ * proof text nor its lexer are involved in saving or loading. Terms (e.g. instantiations) are
+ * still stored as their printed text: they are re-parsed on loading just as for textual proofs,
+ * since only the parser resolves schema variables and Java blocks against the taclets. A binary
+ * proof can be converted into a textual one and vice versa without loss, see
+ * {@link #fromText(CharStream, OutputStream)} and {@link #toText(Reader, Appendable)}.
+ * </p>
+ */
+@NullMarked
+public final class BinaryProofFormat {
+    /** the file extension of binary proof files */
+    public static final String FILE_EXTENSION = ".proof.bin";
+
+    /** the version of the format, to be increased on incompatible changes */
+    public static final int VERSION = 1;
+
+    /** the first integer of a binary proof file, "KEYP" */
+    private static final int MAGIC = 0x4b455950;
+
+    /** the tag of the end of an expression, followed by the line delta */
+    private static final int TAG_END = 0;
+    /** the expression has no argument */
+    private static final int ARG_NONE = 0;
+    /** the argument is an index into the string table */
+    private static final int ARG_STRING = 1;
+    /** the argument is an integer */
+    private static final int ARG_INT = 2;
+    /** the argument is a term position: number of indices followed by the indices */
+    private static final int ARG_POS = 3;
+
+    private static final ProofElementID[] ELEMENTS = ProofElementID.values();
+
+    private BinaryProofFormat() {
+    }
+
+    /**
+     * @param file a file
+     * @return true iff the file is named like a binary proof file
+     */
+    public static boolean isBinaryProof(Path file) {
+        return file.getFileName() != null
+                && file.getFileName().toString().endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * Converts a textual proof file into a binary one.
+     *
+     * @param text the textual proof file
+     * @param out the stream to write the binary proof to
+     * @throws IOException if writing fails
+     */
+    public static void fromText(CharStream text, OutputStream out) throws IOException {
+        // the header is everything in front of the \proof keyword
+        final KeYLexer lexer = ParsingFacade.createLexer(text);
+        Token token = lexer.nextToken();
+        while (token.getType() != KeYLexer.PROOF && token.getType() != Token.EOF) {
+            token = lexer.nextToken();
+        }
+        final int headerEnd = token.getType() == Token.EOF ? text.size() : token.getStartIndex();
+        final String header = headerEnd == 0 ? "" : text.getText(Interval.of(0, headerEnd - 1));
+
+        final Writer writer = new Writer();
+        if (token.getType() == KeYLexer.PROOF) {
+            ProofReplayer.run(token, text, writer, URI.create("binary:" + text.getSourceName()));
+        }
+        writer.write(header, out);
+    }
+
+    /**
+     * Converts a binary proof into its textual representation.
+     *
+     * @param reader the binary proof
+     * @param out the destination of the textual proof
+     * @throws IOException if the binary proof is corrupt or writing fails
+     */
+    public static void toText(Reader reader, Appendable out) throws IOException {
+        out.append(reader.getHeader());
+        out.append("\\proof {\n");
+        final ProofTextWriter writer = new ProofTextWriter(out);
+        reader.replay(writer);
+        writer.checkError();
+        out.append("}\n");
+    }
+
+    /**
+     * @return true iff the string is the canonical decimal representation of an int
+     */
+    private static boolean isCanonicalInt(String s) {
+        if (s.isEmpty() || s.length() > 11) {
+            return false;
+        }
+        try {
+            return Integer.toString(Integer.parseInt(s)).equals(s);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the indices of a term position in reverse string notation (e.g. "1,0"), or null if
+     *         the string is not in canonical form
+     */
+    private static int @Nullable [] parsePosition(String s) {
+        if (s.isEmpty()) {
+            return new int[0];
+        }
+        final String[] parts = s.split(",", -1);
+        final int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            if (!isCanonicalInt(parts[i])) {
+                return null;
+            }
+            result[i] = Integer.parseInt(parts[i]);
+            if (result[i] < 0) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records the events of a proof and writes them in binary form. The events are either read
+     * from a textual proof (see {@link #fromText(CharStream, OutputStream)}) or taken directly
+     * from the proof tree by a {@link ProofEventWriter}.
+     */
+    public static final class Writer implements IProofFileParser {
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final VarIntOutput events = new VarIntOutput();
+        private final VarIntOutput branches = new VarIntOutput();
+        private int branchCount = 0;
+        private int lastBranchOffset = 0;
+        private int lastLine = 0;
+
+        @Override
+        public void beginExpr(ProofElementID eid, @Nullable String str) {
+            // elements are identified by their ordinal; new elements have to be added at the end
+            // of ProofElementID, otherwise the VERSION has to be increased
+            final int tag = (eid.ordinal() + 1) << 2;
+            if (eid == ProofElementID.BRANCH) {
+                branches.writeVarInt(events.size() - lastBranchOffset);
+                lastBranchOffset = events.size();
+                branchCount++;
+            }
+            if (str == null) {
+                events.write(tag | ARG_NONE);
+                return;
+            }
+            if (isCanonicalInt(str)) {
+                events.write(tag | ARG_INT);
+                events.writeVarInt(zigZag(Integer.parseInt(str)));
+                return;
+            }
+            final int[] position = eid == ProofElementID.TERM ? parsePosition(str) : null;
+            if (position != null) {
+                events.write(tag | ARG_POS);
+                events.writeVarInt(position.length);
+                for (int index : position) {
+                    events.writeVarInt(index);
+                }
+                return;
+            }
+            events.write(tag | ARG_STRING);
+            events.writeVarInt(stringIndex.computeIfAbsent(str, s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            }));
+        }
+
+        @Override
+        public void endExpr(ProofElementID eid, int stringLiteralLine) {
+            events.write(TAG_END);
+            events.writeVarInt(zigZag(stringLiteralLine - lastLine));
+            lastLine = stringLiteralLine;
+        }
+
+        @Override
+        public String getStatus() {
+            return "";
+        }
+
+        @Override
+        public List<Throwable> getErrors() {
+            return List.of();
+        }
+
+        /**
+         * Writes the binary proof consisting of the given header and the recorded events.
+         *
+         * @param header the textual header of the proof file, i.e., everything in front of
+         *        {@code \proof}
+         * @param stream the stream to write to
+         * @throws IOException if writing fails
+         */
+        public void write(String header, OutputStream stream) throws IOException {
+            final DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            final byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(headerBytes.length);
+            out.write(headerBytes);
+
+            final VarIntOutput table = new VarIntOutput();
+            table.writeVarInt(strings.size());
+            for (String s : strings) {
+                final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                table.writeVarInt(bytes.length);
+                table.write(bytes, 0, bytes.length);
+            }
+            out.writeInt(table.size());
+            table.writeTo(out);
+
+            out.writeInt(events.size());
+            events.writeTo(out);
+
+            out.writeInt(branchCount);
+            branches.writeTo(out);
+            out.flush();
+        }
+
+        private static int zigZag(int n) {
+            return (n << 1) ^ (n >> 31);
+        }
+    }
+
+    /**
+     * A byte array output stream with variable-length integers.
+     */
+    private static final class VarIntOutput extends ByteArrayOutputStream {
+        VarIntOutput() {
+            super(1024);
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+    }
+
+    /**
+     * Reads a binary proof file.
+     */
+    public static final class Reader {
+        private final String header;
+        private final String[] strings;
+        /** the events, positioned at their beginning */
+        private final ByteBuffer events;
+        private final int[] branchOffsets;
+
+        /**
+         * Reads the given binary proof.
+         *
+         * @param buffer the content of a binary proof file
+         * @throws IOException if the content is not a binary proof of a supported version
+         */
+        public Reader(ByteBuffer buffer) throws IOException {
+            try {
+                if (buffer.getInt() != MAGIC) {
+                    throw new IOException("Not a binary proof file");
+                }
+                final int version = buffer.getInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported version " + version
+                        + " of the binary proof format, expected " + VERSION);
+                }
+                header = new String(bytes(buffer, buffer.getInt()), StandardCharsets.UTF_8);
+
+                final ByteBuffer table = slice(buffer, buffer.getInt());
+                strings = new String[readVarInt(table)];
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] =
+                        new String(bytes(table, readVarInt(table)), StandardCharsets.UTF_8);
+                }
+
+                events = slice(buffer, buffer.getInt());
+
+                branchOffsets = new int[buffer.getInt()];
+                int offset = 0;
+                for (int i = 0; i < branchOffsets.length; i++) {
+                    offset += readVarInt(buffer);
+                    branchOffsets[i] = offset;
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException
+                    | NegativeArraySizeException e) {
+                throw new IOException("Corrupt binary proof file", e);
+            }
+        }
+
+        /**
+         * Reads a binary proof file, which is memory-mapped.
+         *
+         * @param file the binary proof file
+         * @return the reader of the file
+         * @throws IOException if the file can not be read or is not a binary proof
+         */
+        public static Reader open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Reader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        private static byte[] bytes(ByteBuffer buffer, int length) {
+            final byte[] result = new byte[length];
+            buffer.get(result);
+            return result;
+        }
+
+        private static ByteBuffer slice(ByteBuffer buffer, int length) {
+            final ByteBuffer result = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return result;
+        }
+
+        private static int readVarInt(ByteBuffer buffer) throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = buffer.get();
+                result |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Corrupt variable-length integer in binary proof");
+        }
+
+        /**
+         * @return the textual header of the proof file, i.e., everything in front of
+         *         {@code \proof}
+         */
+        public String getHeader() {
+            return header;
+        }
+
+        /**
+         * @return the offsets of the {@code branch} expressions within the events, in the order
+         *         of the proof file; see {@link #replay(int, IProofFileParser)}
+         */
+        public int[] getBranchOffsets() {
+            return branchOffsets.clone();
+        }
+
+        /**
+         * Checks whether the proof may contain merge rule applications, see
+         * {@link de.uka.ilkd.key.proof.init.KeYUserProblemFile#mayContainMergeRuleApps()}.
+         *
+         * @return true if a string of the proof contains {@code Merge}
+         */
+        public boolean mayContainMergeRuleApps() {
+            return Arrays.stream(strings).anyMatch(s -> s.contains("Merge"));
+        }
+
+        /**
+         * Replays the whole proof.
+         *
+         * @param prl the receiver of the events
+         * @throws IOException if the binary proof is corrupt
+         */
+        public void replay(IProofFileParser prl) throws IOException {
+            replay(events.duplicate(), prl, false);
+        }
+
+        /**
+         * Replays a single branch expression (including its subtree).
+         *
+         * @param offset the offset of the branch, one of {@link #getBranchOffsets()}
+         * @param prl the receiver of the events
+         * @throws IOException if the binary proof is corrupt or the offset is invalid
+         */
+        public void replay(int offset, IProofFileParser prl) throws IOException {
+            if (Arrays.binarySearch(branchOffsets, offset) < 0) {
+                throw new IOException("No branch at offset " + offset);
+            }
+            replay(events.duplicate().position(offset), prl, true);
+        }
+
+        private void replay(ByteBuffer in, IProofFileParser prl, boolean single)
+                throws IOException {
+            final ArrayDeque<ProofElementID> stack = new ArrayDeque<>();
+            int line = 0;
+            try {
+                while (in.hasRemaining()) {
+                    final int tag = in.get() & 0xff;
+                    if (tag == TAG_END) {
+                        final int delta = readVarInt(in);
+                        line += (delta >>> 1) ^ -(delta & 1);
+                        prl.endExpr(stack.pop(), line);
+                        if (single && stack.isEmpty()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    final int element = (tag >> 2) - 1;
+                    if (element >= ELEMENTS.length) {
+                        throw new IOException("Unknown proof element " + element);
+                    }
+                    final ProofElementID eid = ELEMENTS[element];
+                    final String arg = switch (tag & 3) {
+                    case ARG_NONE -> null;
+                    case ARG_STRING -> strings[readVarInt(in)];
+                    case ARG_INT -> {
+                        final int n = readVarInt(in);
+                        yield Integer.toString((n >>> 1) ^ -(n & 1));
+                    }
+                    default -> {
+                        final int length = readVarInt(in);
+                        final StringBuilder sb = new StringBuilder();
+                        for (int i = 0; i < length; i++) {
+                            if (i > 0) {
+                                sb.append(',');
+                            }
+                            sb.append(readVarInt(in));
+                        }
+                        yield sb.toString();
+                    }
+                    };
+                    prl.beginExpr(eid, arg);
+                    stack.push(eid);
+                }
+            } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException
+                    | NoSuchElementException e) {
+                throw new IOException("Corrupt binary proof file", e);
+            }
+            if (!stack.isEmpty()) {
+                throw new IOException("Corrupt binary proof file: unterminated expression");
+            }
+        }
+    }
+}
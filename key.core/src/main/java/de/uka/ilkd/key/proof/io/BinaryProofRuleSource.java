@@ -0,0 +1,65 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+
+/**
+ * This file rule source derivative reads {@link BinaryProofFormat binary proof files}. The KeY
+ * parser only sees the textual header of the file; the proof itself is replayed by
+ * {@link #readProof(IProofFileParser)}.
+ */
+public class BinaryProofRuleSource extends FileRuleSource {
+
+    /**
+     * Instantiates a new file rule source.
+     *
+     * This is only instantiated from {@link RuleSourceFactory#initRuleFile(Path, boolean)}.
+     *
+     * @param ruleFile the file to read from.
+     */
+    BinaryProofRuleSource(Path ruleFile) {
+        super(ruleFile);
+    }
+
+    /**
+     * @return the reader of the binary proof file
+     * @throws IOException if the file can not be read or is no binary proof file
+     */
+    public BinaryProofFormat.Reader open() throws IOException {
+        return BinaryProofFormat.Reader.open(ruleFile);
+    }
+
+    /**
+     * Replays the proof stored in the file.
+     *
+     * @param prl the receiver of the proof
+     * @throws IOException if the file can not be read or is corrupt
+     */
+    public void readProof(IProofFileParser prl) throws IOException {
+        open().replay(prl);
+    }
+
+    @Override
+    public InputStream getNewStream() {
+        try {
+            return new ByteArrayInputStream(open().getHeader().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while reading " + ruleFile, e);
+        }
+    }
+
+    @Override
+    public CharStream getCharStream() throws IOException {
+        return CharStreams.fromString(open().getHeader(), file().toString());
+    }
+}
@@ -0,0 +1,59 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.reference.CopyReferenceResolver;
+
+/**
+ * This proof saver derivative stores proofs in the {@link BinaryProofFormat}. Files should be
+ * named with the extension {@value BinaryProofFormat#FILE_EXTENSION} to be recognized when
+ * loading.
+ */
+public class BinaryProofSaver extends ProofSaver {
+
+    /**
+     * Instantiates a new proof saver.
+     *
+     * @param proof the non-<code>null</code> proof to save
+     * @param file the file to write to
+     * @param internalVersion the internal version
+     */
+    public BinaryProofSaver(Proof proof, Path file, String internalVersion) {
+        super(proof, file, internalVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This subclass prints only the header as text, the proof steps are encoded directly from
+     * the proof tree.
+     */
+    @Override
+    protected void save(Path file) throws IOException {
+        CopyReferenceResolver.copyCachedGoals(proof, null, null, null);
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (var ps = new PrintWriter(header, true, StandardCharsets.UTF_8)) {
+            saveHeader(ps);
+        }
+        final String headerText = header.toString(StandardCharsets.UTF_8);
+        final BinaryProofFormat.Writer writer = new BinaryProofFormat.Writer();
+        if (saveProofSteps) {
+            // the proof starts in the line after "\proof {"
+            final int firstLine = (int) headerText.lines().count() + 2;
+            new ProofEventWriter(this, writer, firstLine).writeProof();
+        }
+        try (var out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            writer.write(headerText, out);
+        }
+    }
+}
@@ -0,0 +1,626 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.ldt.JavaDLTheory;
+import de.uka.ilkd.key.logic.ProgramElementName;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermFactory;
+import de.uka.ilkd.key.logic.op.AbstractTermTransformer;
+import de.uka.ilkd.key.logic.op.Equality;
+import de.uka.ilkd.key.logic.op.IProgramVariable;
+import de.uka.ilkd.key.logic.op.IfThenElse;
+import de.uka.ilkd.key.logic.op.Junctor;
+import de.uka.ilkd.key.logic.op.LocationVariable;
+import de.uka.ilkd.key.logic.op.LogicVariable;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.ProgramVariable;
+import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+import de.uka.ilkd.key.logic.op.Quantifier;
+import de.uka.ilkd.key.logic.op.UpdateApplication;
+import de.uka.ilkd.key.logic.op.UpdateJunctor;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.key_project.logic.Name;
+import org.key_project.logic.Namespace;
+import org.key_project.logic.op.Function;
+import org.key_project.logic.sort.Sort;
+import org.key_project.util.collection.ImmutableArray;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A reader for terms in the restricted syntax written by
+ * {@link OutputStreamProofSaver#printTerm(Term, Services)}, used for the instantiations of a proof
+ * being loaded.
+ * <p>
+ * The reader understands function applications, variables, the junctors, equality, quantifiers,
+ * casts, {@code \if-\then-\else} and updates, and builds the same terms as the KeY parser for
+ * them. For every other construct (modalities, labels, substitutions, arithmetic operators,
+ * Java references, meta operators, ...) {@link #read} gives up and returns {@code null}; the
+ * caller then uses the full parser, which also reports any errors.
+ * </p>
+ * <p>
+ * There is one reader per proof, see {@link #forProof(Proof)}. It remembers recently read function
+ * applications together with the symbols they were resolved to: a repeated subterm is only
+ * re-resolved against the current namespaces, but not parsed and built again.
+ * </p>
+ */
+public final class FastTermReader {
+    /** the maximal number of remembered subterms */
+    private static final int MAX_MEMO_ENTRIES = 1 << 14;
+
+    /** thrown when the reader does not understand the input */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+
+    /**
+     * A remembered subterm.
+     *
+     * @param term the term
+     * @param symbols the symbols occurring in the term
+     * @param resolved what the symbols were resolved to
+     */
+    private record Memo(Term term, String[] symbols, Operator[] resolved) {
+    }
+
+    private final Proof proof;
+    private final Services services;
+    private final TermFactory tf;
+
+    /** the names of the symbols, as used for looking up functions and program variables */
+    private final Map<String, Name[]> symbolNames = new HashMap<>();
+
+    /** recently read function applications, by text */
+    private final Map<String, Memo> memo = new LinkedHashMap<>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Memo> eldest) {
+            return size() > MAX_MEMO_ENTRIES;
+        }
+    };
+
+    private FastTermReader(Proof proof) {
+        this.proof = proof;
+        this.services = proof.getServices();
+        this.tf = services.getTermFactory();
+    }
+
+    /**
+     * Returns the reader of the given proof, creating it on first use.
+     *
+     * @param proof a proof
+     * @return the term reader for the proof
+     */
+    public static FastTermReader forProof(Proof proof) {
+        synchronized (proof) {
+            FastTermReader reader = proof.lookup(FastTermReader.class);
+            if (reader == null) {
+                reader = new FastTermReader(proof);
+                proof.register(reader, FastTermReader.class);
+            }
+            return reader;
+        }
+    }
+
+    /**
+     * Reads a term.
+     *
+     * @param text the printed term
+     * @param varNS the logic variables
+     * @param progVarNS the program variables
+     * @param funcNS the functions
+     * @return the term, or null if the text contains constructs not supported by this reader
+     */
+    public synchronized @Nullable Term read(String text, Namespace<QuantifiableVariable> varNS,
+            Namespace<IProgramVariable> progVarNS, Namespace<Function> funcNS) {
+        Reading reading = new Reading(text, varNS, progVarNS, funcNS);
+        try {
+            Term result = reading.term();
+            reading.skipWhitespace();
+            return reading.pos == text.length() ? result : null;
+        } catch (RuntimeException e) {
+            // unsupported construct or a term the parser would reject as well
+            return null;
+        }
+    }
+
+    private Name[] names(String symbol) {
+        return symbolNames.computeIfAbsent(symbol,
+            s -> new Name[] { new Name(s), new ProgramElementName(s) });
+    }
+
+    /** The state of reading one term. */
+    private final class Reading {
+        private final String text;
+        private int pos;
+        private final Namespace<QuantifiableVariable> varNS;
+        private final Namespace<IProgramVariable> progVarNS;
+        private final Namespace<Function> funcNS;
+
+        /** the variables bound by enclosing quantifiers, innermost first */
+        private final ArrayDeque<LogicVariable> bound = new ArrayDeque<>();
+        /** the number of quantifiers read so far */
+        private int binders;
+        /** the symbols resolved so far, and what they were resolved to */
+        private final List<String> symbols = new ArrayList<>();
+        private final List<Operator> resolved = new ArrayList<>();
+
+        Reading(String text, Namespace<QuantifiableVariable> varNS,
+                Namespace<IProgramVariable> progVarNS, Namespace<Function> funcNS) {
+            this.text = text;
+            this.varNS = varNS;
+            this.progVarNS = progVarNS;
+            this.funcNS = funcNS;
+        }
+
+        // the grammar mirrors the term rules of KeYParser.g4
+
+        Term term() {
+            Term result = elementaryUpdate();
+            while (accept("||")) {
+                result = tf.createTerm(UpdateJunctor.PARALLEL_UPDATE, result, elementaryUpdate());
+            }
+            return result;
+        }
+
+        private Term elementaryUpdate() {
+            Term lhs = equivalence();
+            if (accept(":=")) {
+                return services.getTermBuilder().elementary(lhs, equivalence());
+            }
+            return lhs;
+        }
+
+        private Term equivalence() {
+            Term result = implication();
+            while (accept("<->")) {
+                result = tf.createTerm(Equality.EQV, result, implication());
+            }
+            return result;
+        }
+
+        private Term implication() {
+            Term result = disjunction();
+            if (accept("->")) {
+                result = tf.createTerm(Junctor.IMP, result, implication());
+            }
+            return result;
+        }
+
+        private Term disjunction() {
+            Term result = conjunction();
+            while (!lookingAt("||") && accept("|")) {
+                result = tf.createTerm(Junctor.OR, result, conjunction());
+            }
+            return result;
+        }
+
+        private Term conjunction() {
+            Term result = term60();
+            while (accept("&")) {
+                result = tf.createTerm(Junctor.AND, result, term60());
+            }
+            return result;
+        }
+
+        private Term term60() {
+            return startsUnaryFormula() ? unaryFormula() : equality();
+        }
+
+        private boolean startsUnaryFormula() {
+            return (lookingAt("!") && !lookingAt("!=")) || lookingAtKeyword("\\forall")
+                    || lookingAtKeyword("\\exists");
+        }
+
+        private Term unaryFormula() {
+            if (accept("!")) {
+                return tf.createTerm(Junctor.NOT, term60());
+            }
+            Quantifier quantifier = acceptKeyword("\\forall") ? Quantifier.ALL : Quantifier.EX;
+            if (quantifier == Quantifier.EX) {
+                expectKeyword("\\exists");
+            }
+            binders++;
+            int outer = bound.size();
+            List<QuantifiableVariable> vars = new ArrayList<>();
+            do {
+                Sort sort = sort(identifier());
+                LogicVariable var = new LogicVariable(new Name(identifier()), sort);
+                bound.push(var);
+                vars.add(var);
+            } while (accept(","));
+            expect(";");
+            Term sub = term60();
+            while (bound.size() > outer) {
+                bound.pop();
+            }
+            return tf.createTerm(quantifier, new ImmutableArray<>(sub),
+                new ImmutableArray<>(vars.toArray(new QuantifiableVariable[0])), null);
+        }
+
+        private Term equality() {
+            Term left = atomPrefix();
+            if (accept("!=")) {
+                return tf.createTerm(Junctor.NOT,
+                    tf.createTerm(Equality.EQUALS, left, atomPrefix()));
+            }
+            if (accept("=")) {
+                return tf.createTerm(Equality.EQUALS, left, atomPrefix());
+            }
+            return left;
+        }
+
+        private Term atomPrefix() {
+            skipWhitespace();
+            if (lookingAt("{")) {
+                return update();
+            }
+            if (lookingAt("(")) {
+                int start = pos;
+                pos++;
+                skipWhitespace();
+                if (pos < text.length() && isIdentifierStart(text.charAt(pos))) {
+                    String sortName = identifier();
+                    if (accept(")") && startsAtom()) {
+                        return cast(sort(sortName), atomPrefix());
+                    }
+                }
+                pos = start;
+            }
+            Term result = primitive();
+            skipWhitespace();
+            if (lookingAt("[") || lookingAt(".") || lookingAt("<<") || lookingAt("@")) {
+                // heap access, attributes or labels
+                throw UNSUPPORTED;
+            }
+            return result;
+        }
+
+        private Term update() {
+            expect("{");
+            skipWhitespace();
+            if (lookingAt("(") || lookingAt("\\")) {
+                // location sets and substitutions
+                throw UNSUPPORTED;
+            }
+            Term update = term();
+            expect("}");
+            Term target = startsUnaryFormula() ? unaryFormula() : atomPrefix();
+            return tf.createTerm(UpdateApplication.UPDATE_APPLICATION, update, target);
+        }
+
+        private Term cast(Sort sort, Term sub) {
+            Sort objectSort = services.getJavaInfo().objectSort();
+            if (objectSort != null && !sort.extendsTrans(objectSort)
+                    && sub.sort().extendsTrans(objectSort)) {
+                throw UNSUPPORTED;
+            }
+            return tf.createTerm(services.getJavaDLTheory().getCastSymbol(sort, services), sub);
+        }
+
+        private Term primitive() {
+            skipWhitespace();
+            if (accept("(")) {
+                Term result = term();
+                expect(")");
+                return result;
+            }
+            if (acceptKeyword("\\if")) {
+                Term cond = parenthesized();
+                if (cond.sort() != JavaDLTheory.FORMULA) {
+                    throw UNSUPPORTED;
+                }
+                expectKeyword("\\then");
+                Term thenTerm = parenthesized();
+                expectKeyword("\\else");
+                Term elseTerm = parenthesized();
+                return tf.createTerm(IfThenElse.IF_THEN_ELSE, cond, thenTerm, elseTerm);
+            }
+            if (pos >= text.length() || !isSymbolStart(text.charAt(pos))) {
+                throw UNSUPPORTED;
+            }
+
+            int start = pos;
+            String symbol = symbol();
+            skipWhitespace();
+            if (lookingAt("(")) {
+                return application(start, symbol);
+            }
+            if (lookingAt("{")) {
+                // bound variables of a function
+                throw UNSUPPORTED;
+            }
+            if (symbol.equals("true")) {
+                return tf.createTerm(Junctor.TRUE);
+            }
+            if (symbol.equals("false")) {
+                return tf.createTerm(Junctor.FALSE);
+            }
+            if (symbol.equals("skip")) {
+                return tf.createTerm(UpdateJunctor.SKIP);
+            }
+            Operator op = resolve(symbol);
+            if (op instanceof LogicVariable || op instanceof LocationVariable) {
+                return tf.createTerm(op);
+            }
+            if (op instanceof ProgramVariable || op instanceof QuantifiableVariable) {
+                throw UNSUPPORTED;
+            }
+            return tf.createTerm(op);
+        }
+
+        private Term application(int start, String symbol) {
+            if (symbol.equals("true") || symbol.equals("false") || symbol.equals("skip")) {
+                throw UNSUPPORTED;
+            }
+            int end = bound.isEmpty() ? closingParen(pos) : -1;
+            String key = end < 0 ? null : text.substring(start, end + 1);
+            if (key != null) {
+                Memo hit = memo.get(key);
+                if (hit != null && stillResolves(hit)) {
+                    symbols.addAll(List.of(hit.symbols()));
+                    resolved.addAll(List.of(hit.resolved()));
+                    pos = end + 1;
+                    return hit.term();
+                }
+            }
+
+            int firstSymbol = symbols.size();
+            int bindersBefore = binders;
+            Operator op = resolve(symbol);
+            if (op instanceof ProgramVariable || op instanceof QuantifiableVariable) {
+                throw UNSUPPORTED;
+            }
+            expect("(");
+            List<Term> args = new ArrayList<>();
+            if (!accept(")")) {
+                do {
+                    args.add(term());
+                } while (accept(","));
+                expect(")");
+            }
+            Term result = tf.createTerm(op, args.toArray(new Term[0]));
+
+            if (key != null && pos == end + 1 && binders == bindersBefore) {
+                int n = symbols.size() - firstSymbol;
+                memo.put(key, new Memo(result,
+                    symbols.subList(firstSymbol, symbols.size()).toArray(new String[n]),
+                    resolved.subList(firstSymbol, resolved.size()).toArray(new Operator[n])));
+            }
+            return result;
+        }
+
+        private Term parenthesized() {
+            expect("(");
+            Term result = term();
+            expect(")");
+            return result;
+        }
+
+        private boolean stillResolves(Memo hit) {
+            for (int i = 0; i < hit.symbols().length; i++) {
+                if (lookup(hit.symbols()[i]) != hit.resolved()[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resolves a symbol the way the parser does, and records the result.
+         */
+        private Operator resolve(String symbol) {
+            int sep = symbol.lastIndexOf("::");
+            String simple = sep < 0 ? symbol : symbol.substring(sep + 2);
+            for (LogicVariable var : bound) {
+                if (var.name().toString().equals(simple)) {
+                    if (sep >= 0) {
+                        throw UNSUPPORTED;
+                    }
+                    return var;
+                }
+            }
+            Operator op = lookup(symbol);
+            if (op == null) {
+                // meta operators, sort depending functions not instantiated yet, ...
+                throw UNSUPPORTED;
+            }
+            symbols.add(symbol);
+            resolved.add(op);
+            return op;
+        }
+
+        private @Nullable Operator lookup(String symbol) {
+            int sep = symbol.lastIndexOf("::");
+            if (sep < 0) {
+                return lookupInNamespaces(symbol);
+            }
+            String simple = symbol.substring(sep + 2);
+            Operator op = lookupInNamespaces(simple);
+            if (op != null || AbstractTermTransformer.name2metaop(simple) != null) {
+                return op;
+            }
+            return lookupInNamespaces(symbol);
+        }
+
+        private @Nullable Operator lookupInNamespaces(String symbol) {
+            Name[] names = names(symbol);
+            Object op = varNS.lookup(names[0]);
+            if (op == null) {
+                op = progVarNS.lookup(names[1]);
+            }
+            if (op == null) {
+                op = funcNS.lookup(names[0]);
+            }
+            return op instanceof Operator o ? o : null;
+        }
+
+        private Sort sort(String name) {
+            Sort sort = proof.getNamespaces().sorts().lookup(name);
+            if (sort == null) {
+                // aliases like byte and array sorts are left to the parser
+                throw UNSUPPORTED;
+            }
+            return sort;
+        }
+
+        // lexical level, following KeYLexer.g4
+
+        private boolean startsAtom() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                return false;
+            }
+            char c = text.charAt(pos);
+            return isSymbolStart(c) || c == '(' || c == '{' || c == '\\';
+        }
+
+        /** An identifier or sort name, possibly with dots. */
+        private String identifier() {
+            skipWhitespace();
+            int start = pos;
+            if (pos >= text.length() || !isIdentifierStart(text.charAt(pos))) {
+                throw UNSUPPORTED;
+            }
+            do {
+                pos++;
+                while (pos < text.length() && isIdentifierPart(text.charAt(pos))) {
+                    pos++;
+                }
+            } while (pos + 1 < text.length() && text.charAt(pos) == '.'
+                    && isIdentifierStart(text.charAt(pos + 1)));
+            return text.substring(start, pos);
+        }
+
+        /** A function or variable symbol: an identifier or a number, maybe with a sort prefix. */
+        private String symbol() {
+            int start = pos;
+            if (Character.isDigit(text.charAt(pos))) {
+                // the lexer only reads numbers followed by an argument list as identifiers
+                while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                    pos++;
+                }
+                String number = text.substring(start, pos);
+                skipWhitespace();
+                if (!lookingAt("(")) {
+                    throw UNSUPPORTED;
+                }
+                return number;
+            }
+            String name = identifier();
+            if (text.startsWith("::", pos)) {
+                pos += 2;
+                if (pos < text.length() && text.charAt(pos) == '<') {
+                    int close = text.indexOf('>', pos);
+                    if (close < 0) {
+                        throw UNSUPPORTED;
+                    }
+                    pos = close + 1;
+                    return text.substring(start, pos);
+                }
+                String member = identifier();
+                if (member.indexOf('.') >= 0) {
+                    throw UNSUPPORTED;
+                }
+                name = name + "::" + member;
+            } else if (name.indexOf('.') >= 0) {
+                // a reference to a Java type or attribute
+                throw UNSUPPORTED;
+            }
+            if (name.endsWith("$lmtd")) {
+                throw UNSUPPORTED;
+            }
+            return name;
+        }
+
+        private int closingParen(int open) {
+            int depth = 0;
+            for (int i = open; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i;
+                } else if (c == '"' || c == '\'') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isSymbolStart(char c) {
+            return isIdentifierStart(c) || Character.isDigit(c);
+        }
+
+        private boolean isIdentifierStart(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '#'
+                    || c == '$';
+        }
+
+        private boolean isIdentifierPart(char c) {
+            return isIdentifierStart(c) || (c >= '0' && c <= '9');
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private boolean lookingAt(String token) {
+            skipWhitespace();
+            return text.startsWith(token, pos);
+        }
+
+        private boolean accept(String token) {
+            if (lookingAt(token)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw UNSUPPORTED;
+            }
+        }
+
+        private boolean lookingAtKeyword(String keyword) {
+            return lookingAt(keyword) && (pos + keyword.length() == text.length()
+                    || !isIdentifierPart(text.charAt(pos + keyword.length())));
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (lookingAtKeyword(keyword)) {
+                pos += keyword.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw UNSUPPORTED;
+            }
+        }
+    }
+}
@@ -56,6 +56,11 @@ import org.key_project.util.collection.Pair;
  * <p>
  * <p>
  * The results of the parser may be obtained by calling {@link #getResult()}.
+ * <p>
+ * <p>
+ * In streaming mode, the intermediate proof tree is not built. Instead, every rule application is
+ * passed to a {@link NodeConsumer} as soon as it has been parsed, see
+ * {@link IntermediateProofReplayer#createStreamingParser}.
  *
  * @author Dominic Scheurer
  */
@@ -75,11 +80,50 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
     private NodeIntermediate currNode;
     private final LinkedList<Throwable> errors = new LinkedList<>();
 
+    /* + Receives the parsed nodes in streaming mode, null if the tree is built */
+    private final NodeConsumer consumer;
+
+    /**
+     * Receives the nodes of a proof parsed in streaming mode, in the order of the proof file.
+     */
+    public interface NodeConsumer {
+        /**
+         * Called at the beginning of a branch expression.
+         *
+         * @param branch the branch, without children
+         */
+        void beginBranch(BranchNodeIntermediate branch);
+
+        /**
+         * Called at the end of the current branch expression.
+         */
+        void endBranch();
+
+        /**
+         * Called once a rule application has been parsed completely.
+         *
+         * @param node the node of the rule application, without children
+         */
+        void nodeParsed(AppNodeIntermediate node);
+    }
+
     /**
      * @param proof Proof object for storing meta information about the parsed proof.
      */
     public IntermediatePresentationProofFileParser(Proof proof) {
+        this(proof, null);
+    }
+
+    /**
+     * Creates a parser in streaming mode.
+     *
+     * @param proof Proof object for storing meta information about the parsed proof.
+     * @param consumer receives the parsed nodes instead of building the intermediate tree (null to
+     *        build the tree)
+     */
+    public IntermediatePresentationProofFileParser(Proof proof, NodeConsumer consumer) {
         this.proof = proof;
+        this.consumer = consumer;
     }
 
     @Override
@@ -89,7 +133,10 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         case BRANCH -> {
             final BranchNodeIntermediate newNode = new BranchNodeIntermediate(str);
 
-            if (root == null) {
+            if (consumer != null) {
+                consumer.beginBranch(newNode);
+                currNode = newNode;
+            } else if (root == null) {
                 root = newNode;
                 currNode = newNode;
                 stack.push(newNode);
@@ -100,11 +147,7 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
             }
         }
         case RULE -> { // rule (taclet)
-            {
-                final AppNodeIntermediate newNode = new AppNodeIntermediate();
-                currNode.addChild(newNode);
-                currNode = newNode;
-            }
+            addAppNode();
             ruleInfo = new TacletInformation(str);
         }
         case FORMULA -> { // formula
@@ -158,11 +201,7 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         case KeY_SETTINGS -> // ProofSettings
             loadPreferences(str);
         case BUILT_IN_RULE -> { // BuiltIn rules
-            {
-                final AppNodeIntermediate newNode = new AppNodeIntermediate();
-                currNode.addChild(newNode);
-                currNode = newNode;
-            }
+            addAppNode();
             ruleInfo = new BuiltinRuleInformation(str);
         }
         case CONTRACT -> ((BuiltinRuleInformation) ruleInfo).currContract = str;
@@ -230,7 +269,13 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
     @Override
     public void endExpr(ProofElementID eid, int lineNr) {
         switch (eid) {
-        case BRANCH -> currNode = stack.pop();
+        case BRANCH -> {
+            if (consumer != null) {
+                consumer.endBranch();
+            } else {
+                currNode = stack.pop();
+            }
+        }
         case USER_INTERACTION -> {
             if (currNode != null) {
                 ((AppNodeIntermediate) currNode).setInteractiveRuleApplication(true);
@@ -244,10 +289,16 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         case RULE -> { // rule (taclet)
             ((AppNodeIntermediate) currNode).setIntermediateRuleApp(constructTacletApp());
             ((AppNodeIntermediate) currNode).getIntermediateRuleApp().setLineNr(lineNr);
+            if (consumer != null) {
+                consumer.nodeParsed((AppNodeIntermediate) currNode);
+            }
         }
         case BUILT_IN_RULE -> { // BuiltIn rules
             ((AppNodeIntermediate) currNode).setIntermediateRuleApp(constructBuiltInApp());
             ((AppNodeIntermediate) currNode).getIntermediateRuleApp().setLineNr(lineNr);
+            if (consumer != null) {
+                consumer.nodeParsed((AppNodeIntermediate) currNode);
+            }
         }
         case ASSUMES_INST_BUILT_IN -> { // ifInst (for built in rules)
             BuiltinRuleInformation builtinInfo = (BuiltinRuleInformation) ruleInfo;
@@ -260,6 +311,18 @@ public class IntermediatePresentationProofFileParser implements IProofFileParser
         }
     }
 
+    /**
+     * Starts the node of a rule application; it is only linked to its predecessor if the
+     * intermediate tree is built.
+     */
+    private void addAppNode() {
+        final AppNodeIntermediate newNode = new AppNodeIntermediate();
+        if (consumer == null) {
+            currNode.addChild(newNode);
+        }
+        currNode = newNode;
+    }
+
     /**
      * @return The results of the parsing procedure.
      */
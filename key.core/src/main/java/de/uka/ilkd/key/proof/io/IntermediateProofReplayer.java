@@ -24,6 +24,7 @@ import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.init.ProblemInitializer;
+import de.uka.ilkd.key.proof.io.intermediate.AppIntermediate;
 import de.uka.ilkd.key.proof.io.intermediate.AppNodeIntermediate;
 import de.uka.ilkd.key.proof.io.intermediate.BranchNodeIntermediate;
 import de.uka.ilkd.key.proof.io.intermediate.BuiltInAppIntermediate;
@@ -153,6 +154,23 @@ public class IntermediateProofReplayer {
             new Pair<>(proof.root(), parserResult.parsedResult()));
     }
 
+    /**
+     * Constructs a new {@link IntermediateProofReplayer} that replays a subtree of intermediate
+     * parsing results into an open goal of the proof (instead of its root).
+     *
+     * @param loader The problem loader, for reporting errors (may be null).
+     * @param proof The proof object into which to load the replayed proof.
+     * @param node The node of the open goal the subtree is replayed into.
+     * @param subtree The intermediate subtree to be replayed.
+     */
+    public IntermediateProofReplayer(AbstractProblemLoader loader, Proof proof, Node node,
+            NodeIntermediate subtree) {
+        this.proof = proof;
+        this.loader = loader;
+
+        queue.addFirst(new Pair<>(node, subtree));
+    }
+
     /**
      * Constructs a new {@link IntermediateProofReplayer} without initializing the queue of
      * intermediate parsing results. Note that
@@ -247,32 +265,14 @@ public class IntermediateProofReplayer {
                     if (currInterm
                             .getIntermediateRuleApp() instanceof TacletAppIntermediate appInterm) {
 
-                        try {
-                            currGoal.apply(constructTacletApp(appInterm, currGoal));
-
-                            final Iterator<Node> children = currNode.childrenIterator();
-                            final LinkedList<NodeIntermediate> intermChildren =
-                                currInterm.getChildren();
-
-                            addChildren(children, intermChildren);
-
-                            // set information about SUCCESSFUL rule application
-                            currNode.getNodeInfo().setInteractiveRuleApplication(
-                                currInterm.isInteractiveRuleApplication());
-                            currNode.getNodeInfo()
-                                    .setScriptRuleApplication(currInterm.isScriptRuleApplication());
+                        if (applyTacletApp(currNode, currInterm, appInterm)) {
+                            addChildren(currNode.childrenIterator(), currInterm.getChildren());
 
                             if (deleteIntermediateTree) {
                                 // Children are no longer needed, set them to null
                                 // to free memory.
                                 currInterm.setChildren(null);
                             }
-
-
-                        } catch (Exception | AssertionError e) {
-                            reportError(ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr()
-                                + ", goal " + currGoal.node().serialNr() + ", rule "
-                                + appInterm.getRuleName() + NOT_APPLICABLE, e);
                         }
 
                     } else if (currInterm
@@ -351,28 +351,11 @@ public class IntermediateProofReplayer {
                                     currGoal.sequent(),
                                     appInterm.getPosInfo().first, appInterm.getPosInfo().second),
                                 currNodeInterm));
-                        } else {
-                            try {
-                                IBuiltInRuleApp app = constructBuiltinApp(appInterm, currGoal);
-                                if (!app.complete()) {
-                                    app = app.tryToInstantiate(currGoal);
-                                }
-                                currGoal.apply(app);
-
-                                final Iterator<Node> children = currNode.childrenIterator();
-                                LinkedList<NodeIntermediate> intermChildren =
-                                    currInterm.getChildren();
-
-                                addChildren(children, intermChildren);
-                            } catch (SkipSMTRuleException e) {
-                                // silently continue; status will be reported
-                                // via
-                                // polling
-                            } catch (BuiltInConstructionException | AssertionError
-                                    | RuntimeException e) {
-                                reportError(ERROR_LOADING_PROOF_LINE + "Line "
-                                    + appInterm.getLineNr() + ", goal " + currGoal.node().serialNr()
-                                    + ", rule " + appInterm.getRuleName() + NOT_APPLICABLE, e);
+                        } else if (applyBuiltInApp(appInterm)) {
+                            addChildren(currNode.childrenIterator(), currInterm.getChildren());
+
+                            if (deleteIntermediateTree) {
+                                currInterm.setChildren(null);
                             }
                         }
                     }
@@ -395,6 +378,98 @@ public class IntermediateProofReplayer {
         return new Result(status, errors, currGoal);
     }
 
+    /**
+     * Creates a parser which replays the parsed proof immediately: every rule application is
+     * applied to the proof as soon as it has been parsed and is dropped afterwards, hence the
+     * intermediate proof tree is never built. This needs much less memory than parsing the whole
+     * proof and {@link #replay(ProblemInitializer.ProblemInitializerListener, ProgressMonitor)
+     * replaying} it afterwards, but does not support merge rule applications, which may refer to
+     * partner nodes parsed later. The rule applications are applied in the same order as in the
+     * non-streaming mode, so the proof nodes get the same serial numbers.
+     * <p>
+     * Has to be used with a replayer created by
+     * {@link #IntermediateProofReplayer(AbstractProblemLoader, Proof)}; after the parser has
+     * consumed the proof, the result is obtained by
+     * {@link #finishStreaming(ProblemInitializer.ProblemInitializerListener)}.
+     * </p>
+     *
+     * @param listener problem initializer listener for the current proof (may be null)
+     * @return the parser replaying the proof
+     */
+    public IntermediatePresentationProofFileParser createStreamingParser(
+            ProblemInitializer.ProblemInitializerListener listener) {
+        if (listener != null) {
+            listener.reportStatus(this, "Replaying proof");
+        }
+        return new IntermediatePresentationProofFileParser(proof, new StreamingReplay());
+    }
+
+    /**
+     * Completes a replay started by
+     * {@link #createStreamingParser(ProblemInitializer.ProblemInitializerListener)}.
+     *
+     * @param listener problem initializer listener for the current proof (may be null)
+     * @return result of the replay procedure (see {@link Result})
+     */
+    public Result finishStreaming(ProblemInitializer.ProblemInitializerListener listener) {
+        if (listener != null) {
+            listener.reportStatus(this, "Proof loaded.");
+        }
+        return new Result(status, errors, currGoal);
+    }
+
+    /**
+     * Applies an intermediate taclet application to {@link #currGoal}, errors are reported.
+     *
+     * @param currNode the node of the current goal
+     * @param currInterm the intermediate node containing the application
+     * @param appInterm the intermediate taclet application
+     * @return true iff the taclet has been applied
+     */
+    private boolean applyTacletApp(Node currNode, AppNodeIntermediate currInterm,
+            TacletAppIntermediate appInterm) {
+        try {
+            currGoal.apply(constructTacletApp(appInterm, currGoal));
+
+            // set information about SUCCESSFUL rule application
+            currNode.getNodeInfo()
+                    .setInteractiveRuleApplication(currInterm.isInteractiveRuleApplication());
+            currNode.getNodeInfo().setScriptRuleApplication(currInterm.isScriptRuleApplication());
+            return true;
+        } catch (Exception | AssertionError e) {
+            reportError(ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr() + ", goal "
+                + currGoal.node().serialNr() + ", rule " + appInterm.getRuleName()
+                + NOT_APPLICABLE, e);
+            return false;
+        }
+    }
+
+    /**
+     * Applies an intermediate built-in rule application (other than merge rule applications) to
+     * {@link #currGoal}, errors are reported.
+     *
+     * @param appInterm the intermediate built-in rule application
+     * @return true iff the rule has been applied
+     */
+    private boolean applyBuiltInApp(BuiltInAppIntermediate appInterm) {
+        try {
+            IBuiltInRuleApp app = constructBuiltinApp(appInterm, currGoal);
+            if (!app.complete()) {
+                app = app.tryToInstantiate(currGoal);
+            }
+            currGoal.apply(app);
+            return true;
+        } catch (SkipSMTRuleException e) {
+            // silently continue; status will be reported via polling
+            return false;
+        } catch (BuiltInConstructionException | AssertionError | RuntimeException e) {
+            reportError(ERROR_LOADING_PROOF_LINE + "Line " + appInterm.getLineNr() + ", goal "
+                + currGoal.node().serialNr() + ", rule " + appInterm.getRuleName()
+                + NOT_APPLICABLE, e);
+            return false;
+        }
+    }
+
     /**
      * Adds the pairs of proof node children and intermediate children to the queue. At the moment,
      * they are added in the order they were parsed. For the future, it may be sensible to choose a
@@ -422,6 +497,118 @@ public class IntermediateProofReplayer {
         }
     }
 
+    /**
+     * Replays the nodes delivered by a streaming {@link IntermediatePresentationProofFileParser}.
+     * <p>
+     * The saved proof lists the rule applications of a branch one after another, followed by one
+     * {@code branch} expression per child if the last application has split the goal. For each
+     * open branch expression, a {@link Level} stores the proof nodes the next applications (or
+     * branches) of this branch belong to, which are the (unlinked) children of the node the last
+     * rule has been applied to, just as in {@link #addChildren(Iterator, LinkedList)}.
+     * </p>
+     */
+    private final class StreamingReplay
+            implements IntermediatePresentationProofFileParser.NodeConsumer {
+        /** the levels of the open branch expressions, the innermost one first */
+        private final ArrayDeque<Level> levels = new ArrayDeque<>();
+
+        StreamingReplay() {
+            levels.push(new Level(List.of(proof.root()), null));
+        }
+
+        @Override
+        public void beginBranch(BranchNodeIntermediate branch) {
+            final Node target = levels.peek().nextTarget();
+            levels.push(new Level(target == null ? List.of() : List.of(target),
+                branch.getBranchTitle()));
+        }
+
+        @Override
+        public void endBranch() {
+            levels.pop();
+        }
+
+        @Override
+        public void nodeParsed(AppNodeIntermediate currInterm) {
+            final Level level = levels.peek();
+            final Node currNode = level.nextTarget();
+            if (currNode == null) {
+                // an earlier application of this branch has failed
+                return;
+            }
+            currGoal = proof.getOpenGoal(currNode);
+            level.targets = List.of();
+            try {
+                if (level.branchLabel != null) {
+                    currNode.getNodeInfo().setBranchLabel(level.branchLabel);
+                    level.branchLabel = null;
+                }
+                currNode.getNodeInfo().setNotes(currInterm.getNotes());
+
+                // Register name proposals
+                proof.getServices().getNameRecorder()
+                        .setProposals(currInterm.getIntermediateRuleApp().getNewNames());
+
+                final AppIntermediate app = currInterm.getIntermediateRuleApp();
+                final boolean applied;
+                if (app instanceof TacletAppIntermediate appInterm) {
+                    applied = applyTacletApp(currNode, currInterm, appInterm);
+                } else if (app instanceof MergeAppIntermediate
+                        || app instanceof MergePartnerAppIntermediate) {
+                    reportError(ERROR_LOADING_PROOF_LINE + "Line " + app.getLineNr()
+                        + ": merge rule applications can not be replayed in streaming mode.",
+                        new IllegalStateException("merge rule application"));
+                    applied = false;
+                } else {
+                    applied = applyBuiltInApp((BuiltInAppIntermediate) app);
+                }
+
+                if (applied) {
+                    final List<Node> targets = new ArrayList<>(currNode.childrenCount());
+                    final Iterator<Node> children = currNode.childrenIterator();
+                    while (!currGoal.node().isClosed() && children.hasNext()) {
+                        final Node child = children.next();
+                        final Goal goal = proof.getOpenGoal(child);
+                        if (goal != null && !goal.isLinked()) {
+                            targets.add(child);
+                        }
+                    }
+                    level.targets = targets;
+                    level.next = 0;
+                }
+            } catch (Throwable throwable) {
+                // Default exception catcher -- proof should not stop loading
+                // if anything goes wrong.
+                reportError(ERROR_LOADING_PROOF_LINE, throwable);
+            }
+        }
+    }
+
+    /**
+     * The proof nodes the rule applications and branches of an open branch expression of a
+     * streamed proof belong to.
+     */
+    private static final class Level {
+        /** the candidate nodes */
+        private List<Node> targets;
+        /** the index of the next candidate */
+        private int next;
+        /** the label of the branch, set at the first node of the branch, or null */
+        private String branchLabel;
+
+        Level(List<Node> targets, String branchLabel) {
+            this.targets = targets;
+            this.branchLabel = branchLabel;
+        }
+
+        /**
+         * @return the next node or null if there is none
+         */
+        Node nextTarget() {
+            return next < targets.size() ? targets.get(next++) : null;
+        }
+    }
+
     /**
      * Communicates a non-fatal condition to the caller. Empty string means everything is OK. The
      * message will be displayed to the user in the GUI after the proof has been parsed.
@@ -947,7 +1134,9 @@ public class IntermediateProofReplayer {
     }
 
     /**
-     * Parses a given term in String representation.
+     * Parses a given term in String representation. Terms in the syntax written by
+     * {@link OutputStreamProofSaver} are read by the {@link FastTermReader} of the proof, the full
+     * parser is only used for other constructs.
      *
      * @param value String to parse.
      * @param proof Proof object (for namespaces and Services object).
@@ -958,6 +1147,10 @@ public class IntermediateProofReplayer {
      */
     public static Term parseTerm(String value, Proof proof, Namespace<QuantifiableVariable> varNS,
             Namespace<IProgramVariable> progVarNS, Namespace<Function> functNS) {
+        Term term = FastTermReader.forProof(proof).read(value, varNS, progVarNS, functNS);
+        if (term != null) {
+            return term;
+        }
         try {
             return new DefaultTermParser().parse(new StringReader(value), null, proof.getServices(),
                 varNS, functNS, proof.getNamespaces().sorts(),
@@ -39,6 +39,8 @@ import de.uka.ilkd.key.util.parsing.BuildingIssue;
 import org.key_project.util.collection.DefaultImmutableSet;
 import org.key_project.util.collection.ImmutableSet;
 import org.key_project.util.collection.Immutables;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jspecify.annotations.NonNull;
@@ -53,6 +55,15 @@ import org.slf4j.LoggerFactory;
 public class KeYFile implements EnvInput {
     private static final Logger LOGGER = LoggerFactory.getLogger(KeYFile.class);
 
+    /** time spent lexing and parsing files (possibly in parallel) */
+    public static final Timer PERF_PARSE = Metrics.timer("KeYFile parse");
+    /** time spent building the declarations of files */
+    public static final Timer PERF_SIGNATURE = Metrics.timer("KeYFile build signature");
+    /** time spent building the contracts of files */
+    public static final Timer PERF_CONTRACTS = Metrics.timer("KeYFile build contracts");
+    /** time spent building the taclets of files */
+    public static final Timer PERF_RULES = Metrics.timer("KeYFile build rules");
+
     /**
      * the RuleSource delivering the input stream for the file.
      */
@@ -172,7 +183,9 @@ public class KeYFile implements EnvInput {
         if (fileCtx == null) {
             try {
                 LOGGER.trace("Reading KeY file {}", file);
+                final long start = Metrics.nanoTime();
                 fileCtx = ParsingFacade.parseFile(file.getCharStream());
+                PERF_PARSE.stop(start);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -299,9 +312,17 @@ public class KeYFile implements EnvInput {
     @Override
     public ImmutableSet<PositionedString> read() throws ProofInputException {
         ImmutableSet<PositionedString> warnings = DefaultImmutableSet.nil();
+        // make sure that parsing is not attributed to the building phases
+        getParseContext();
+        long start = Metrics.nanoTime();
         warnings = warnings.union(readExtendedSignature());
+        PERF_SIGNATURE.stop(start);
+        start = Metrics.nanoTime();
         warnings = warnings.union(readContracts());
+        PERF_CONTRACTS.stop(start);
+        start = Metrics.nanoTime();
         warnings = warnings.add(getPositionedStrings(readRules()));
+        PERF_RULES.stop(start);
         return warnings;
     }
 
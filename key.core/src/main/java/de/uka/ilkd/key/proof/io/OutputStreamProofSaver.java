@@ -8,7 +8,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
 
-import de.uka.ilkd.key.axiom_abstraction.AbstractDomainElement;
 import de.uka.ilkd.key.axiom_abstraction.predicateabstraction.AbstractionPredicate;
 import de.uka.ilkd.key.informationflow.po.AbstractInfFlowPO;
 import de.uka.ilkd.key.informationflow.po.InfFlowCompositePO;
@@ -16,8 +15,6 @@ import de.uka.ilkd.key.informationflow.proof.InfFlowProof;
 import de.uka.ilkd.key.java.ProgramElement;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.*;
-import de.uka.ilkd.key.logic.op.Modality;
-import de.uka.ilkd.key.logic.op.ProgramVariable;
 import de.uka.ilkd.key.pp.LogicPrinter;
 import de.uka.ilkd.key.pp.NotationInfo;
 import de.uka.ilkd.key.pp.PrettyPrinter;
@@ -27,20 +24,16 @@ import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.init.IPersistablePO;
 import de.uka.ilkd.key.proof.init.Profile;
 import de.uka.ilkd.key.proof.init.ProofOblInput;
-import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
 import de.uka.ilkd.key.proof.mgt.RuleJustification;
 import de.uka.ilkd.key.proof.mgt.RuleJustificationBySpec;
 import de.uka.ilkd.key.proof.reference.CopyReferenceResolver;
 import de.uka.ilkd.key.rule.*;
 import de.uka.ilkd.key.rule.inst.SVInstantiations;
-import de.uka.ilkd.key.rule.merge.CloseAfterMergeRuleBuiltInRuleApp;
-import de.uka.ilkd.key.rule.merge.MergeProcedure;
 import de.uka.ilkd.key.rule.merge.MergeRuleBuiltInRuleApp;
 import de.uka.ilkd.key.rule.merge.procedures.MergeWithLatticeAbstraction;
 import de.uka.ilkd.key.rule.merge.procedures.MergeWithPredicateAbstraction;
 import de.uka.ilkd.key.settings.ProofSettings;
 import de.uka.ilkd.key.settings.StrategySettings;
-import de.uka.ilkd.key.smt.SMTRuleApp;
 import de.uka.ilkd.key.strategy.StrategyProperties;
 import de.uka.ilkd.key.util.KeYConstants;
 import de.uka.ilkd.key.util.MiscTools;
@@ -49,7 +42,6 @@ import org.key_project.logic.Name;
 import org.key_project.logic.PosInTerm;
 import org.key_project.logic.op.sv.SchemaVariable;
 import org.key_project.logic.sort.Sort;
-import org.key_project.prover.rules.RuleApp;
 import org.key_project.prover.rules.instantiation.AssumesFormulaInstDirect;
 import org.key_project.prover.rules.instantiation.AssumesFormulaInstSeq;
 import org.key_project.prover.rules.instantiation.AssumesFormulaInstantiation;
@@ -59,6 +51,7 @@ import org.key_project.prover.sequent.Sequent;
 import org.key_project.prover.sequent.SequentFormula;
 import org.key_project.util.collection.ImmutableList;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -134,7 +127,20 @@ public class OutputStreamProofSaver {
      */
     public StringBuffer writeLog() {
         final StringBuffer logstr = new StringBuffer();
-        // Advance the Log entries
+        advanceLog();
+        final int s = proof.userLog.size();
+        for (int i = 0; i < s; i++) {
+            logstr.append("(keyLog \"").append(i).append("\" (keyUser \"")
+                    .append(proof.userLog.get(i)).append("\" ) (keyVersion \"")
+                    .append(proof.keyVersionLog.get(i)).append("\"))\n");
+        }
+        return logstr;
+    }
+
+    /**
+     * Adds the current user and KeY version to the log of the proof.
+     */
+    void advanceLog() {
         if (proof.userLog == null) {
             proof.userLog = new ArrayList<>();
         }
@@ -143,13 +149,6 @@ public class OutputStreamProofSaver {
         }
         proof.userLog.add(System.getProperty("user.name"));
         proof.keyVersionLog.add(internalVersion);
-        final int s = proof.userLog.size();
-        for (int i = 0; i < s; i++) {
-            logstr.append("(keyLog \"").append(i).append("\" (keyUser \"")
-                    .append(proof.userLog.get(i)).append("\" ) (keyVersion \"")
-                    .append(proof.keyVersionLog.get(i)).append("\"))\n");
-        }
-        return logstr;
     }
 
     public String writeProfile(Profile profile) {
@@ -163,79 +162,89 @@ public class OutputStreamProofSaver {
     public void save(OutputStream out) throws IOException {
         CopyReferenceResolver.copyCachedGoals(proof, null, null, null);
         try (var ps = new PrintWriter(out, true, StandardCharsets.UTF_8)) {
-            final ProofOblInput po =
-                proof.getServices().getSpecificationRepository().getProofOblInput(proof);
-            LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
-
-            // profile
-            ps.println(writeProfile(proof.getServices().getProfile()));
-
-            // settings
-            final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
-            final StrategyProperties strategyProperties =
-                strategySettings.getActiveStrategyProperties();
-            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_TRUE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-                for (final SequentFormula s : proof.root().sequent()
-                        .succedent().asList()) {
-                    ((InfFlowProof) proof).addLabeledTotalTerm((Term) s.formula());
-                }
-            } else {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
+            saveHeader(ps);
+            if (saveProofSteps) {
+                // \proof
+                ps.println("\\proof {");
+                final ProofTextWriter text = new ProofTextWriter(ps);
+                new ProofEventWriter(this, text, 2).writeProof();
+                text.checkError();
+                ps.println("}");
             }
-            ps.println(writeSettings(proof.getSettings()));
+        }
+    }
 
+    /**
+     * Prints everything in front of the {@code \proof} section: the profile, the settings, the
+     * declarations and the problem.
+     *
+     * @param ps the writer to print to
+     * @throws IOException if printing fails
+     */
+    protected void saveHeader(PrintWriter ps) throws IOException {
+        final ProofOblInput po =
+            proof.getServices().getSpecificationRepository().getProofOblInput(proof);
+        LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
+
+        // profile
+        ps.println(writeProfile(proof.getServices().getProfile()));
+
+        // settings
+        final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
+        final StrategyProperties strategyProperties =
+            strategySettings.getActiveStrategyProperties();
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_TRUE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+            for (final SequentFormula s : proof.root().sequent()
+                    .succedent().asList()) {
+                ((InfFlowProof) proof).addLabeledTotalTerm((Term) s.formula());
+            }
+        } else {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+        ps.println(writeSettings(proof.getSettings()));
+
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+
+        // declarations of symbols, sorts
+        String header = proof.header();
+        header = makePathsRelative(header);
+        ps.print(header);
+
+        // \problem or \proofObligation
+        if (po instanceof IPersistablePO ppo
+                && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
+                        && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
+            var loadingConfig = ppo.createLoaderConfig();
+            ps.println("\\proofObligation ");
+            loadingConfig.save(ps, "");
+            ps.println("\n");
+        } else {
             if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
                     || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
+                ps.print(((InfFlowProof) proof).printIFSymbols());
             }
-
-            // declarations of symbols, sorts
-            String header = proof.header();
-            header = makePathsRelative(header);
-            ps.print(header);
-
-            // \problem or \proofObligation
-            if (po instanceof IPersistablePO ppo
-                    && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
-                            && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
-                var loadingConfig = ppo.createLoaderConfig();
-                ps.println("\\proofObligation ");
-                loadingConfig.save(ps, "");
-                ps.println("\n");
+            final Sequent problemSeq = proof.root().sequent();
+            ps.println("\\problem {");
+            if (problemSeq.antecedent().isEmpty() && problemSeq.succedent().size() == 1) {
+                // Problem statement is a single formula ...
+                printer.printSemisequent(problemSeq.succedent());
             } else {
-                if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                        || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                    ps.print(((InfFlowProof) proof).printIFSymbols());
-                }
-                final Sequent problemSeq = proof.root().sequent();
-                ps.println("\\problem {");
-                if (problemSeq.antecedent().isEmpty() && problemSeq.succedent().size() == 1) {
-                    // Problem statement is a single formula ...
-                    printer.printSemisequent(problemSeq.succedent());
-                } else {
-                    // Problem statement is a proper sequent ...
-                    printer.printSequent(problemSeq);
-                }
-                ps.println(printer.result());
-                ps.println("}\n");
-            }
-
-            if (saveProofSteps) {
-                // \proof
-                ps.println("\\proof {");
-                ps.println(writeLog());
-                ps.println("(autoModeTime \"" + proof.getAutoModeTime() + "\")\n");
-                node2Proof(proof.root(), ps);
-                ps.println("}");
+                // Problem statement is a proper sequent ...
+                printer.printSequent(problemSeq);
             }
+            ps.println(printer.result());
+            ps.println("}\n");
         }
     }
 
@@ -322,63 +331,33 @@ public class OutputStreamProofSaver {
         }
     }
 
-    private String newNames2Proof(Node n) {
-        StringBuilder s = new StringBuilder();
+    /**
+     * @param n a proof node
+     * @return the comma separated names proposed for the rule application of the node, or null
+     *         if there are none
+     */
+    static @Nullable String newNames(Node n) {
         final NameRecorder rec = n.getNameRecorder();
         if (rec == null) {
-            return s.toString();
+            return null;
         }
         final ImmutableList<Name> proposals = rec.getProposals();
         if (proposals.isEmpty()) {
-            return s.toString();
+            return null;
         }
+        StringBuilder s = new StringBuilder();
         for (final Name proposal : proposals) {
             s.append(",").append(proposal);
         }
-        return " (newnames \"" + s.substring(1) + "\")";
-    }
-
-    /**
-     * Print applied taclet rule for a single taclet rule application into the passed writer.
-     *
-     * @param appliedRuleApp the rule application to be printed
-     * @param prefix a string which the printed rule is concatenated to
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
-     */
-
-    private void printSingleTacletApp(TacletApp appliedRuleApp, Node node, String prefix,
-            Appendable output) throws IOException {
-
-        output.append(prefix);
-        output.append("(rule \"");
-        output.append(appliedRuleApp.rule().name().toString());
-        output.append("\"");
-        output.append(posInOccurrence2Proof(node.sequent(), appliedRuleApp.posInOccurrence()));
-        output.append(newNames2Proof(node));
-        output.append(getInteresting(appliedRuleApp.instantiations()));
-        final ImmutableList<AssumesFormulaInstantiation> l =
-            appliedRuleApp.assumesFormulaInstantiations();
-        if (l != null) {
-            output.append(assumesFormulaInsts(node, l));
-        }
-        output.append("");
-        userInteraction2Proof(node, output);
-        notes2Proof(node, output);
-        output.append(")\n");
+        return s.substring(1);
     }
 
     /**
-     * Print predicates for applied merge rule application into the passed writer.
-     *
-     * @param predAbstrRule the rule application with the predicates to be printed
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
+     * @param predAbstrRule a merge procedure with predicate abstraction
+     * @return the abstraction predicates of the merge procedure
      */
-    private void printPredicatesForSingleMergeRuleApp(MergeWithPredicateAbstraction predAbstrRule,
-            Appendable output) throws IOException {
-        output.append("(").append(ProofElementID.MERGE_ABSTRACTION_PREDICATES.getRawName())
-                .append(" \"");
+    String abstractionPredicates(MergeWithPredicateAbstraction predAbstrRule) {
+        final StringBuilder s = new StringBuilder();
         boolean first = true;
         for (final Map.Entry<Sort, ArrayList<AbstractionPredicate>> predsForSorts : predAbstrRule
                 .getPredicates().entrySet()) {
@@ -387,311 +366,68 @@ public class OutputStreamProofSaver {
                     first = false;
 
                 } else {
-                    output.append(", ");
+                    s.append(", ");
                 }
-                output.append(pred.toParseableString(proof.getServices()));
+                s.append(pred.toParseableString(proof.getServices()));
             }
         }
-
-        output.append("\")");
-
-        output.append(" (")
-                .append(ProofElementID.MERGE_PREDICATE_ABSTRACTION_LATTICE_TYPE.getRawName())
-                .append("\"");
-        output.append(predAbstrRule.getLatticeType().getName());
-
-        output.append("\")");
+        return s.toString();
     }
 
     /**
-     * Print predicates for applied merge rule application into the passed writer.
-     *
-     * @param concreteRule the rule application with the abstract domain to be printed
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
+     * @param concreteRule a merge procedure with lattice abstraction
+     * @return the abstract domain elements chosen by the user
      */
-    private void printLatticeAbstractionForSingleMergeRuleApp(
-            MergeWithLatticeAbstraction concreteRule, Appendable output) throws IOException {
-        final Map<ProgramVariable, AbstractDomainElement> userChoices =
-            concreteRule.getUserChoices();
-
-        if (!userChoices.isEmpty()) {
-            output.append(" (").append(ProofElementID.MERGE_USER_CHOICES.getRawName())
-                    .append(" \"");
-            boolean first = true;
-            for (var pair : userChoices.entrySet()) {
-                final var key = pair.getKey();
-                final var value = pair.getValue();
-                if (first) {
-                    first = false;
-                } else {
-                    output.append("`), ");
+    String userChoices(MergeWithLatticeAbstraction concreteRule) {
+        final StringBuilder s = new StringBuilder();
+        boolean first = true;
+        for (var pair : concreteRule.getUserChoices().entrySet()) {
+            final var key = pair.getKey();
+            final var value = pair.getValue();
+            if (first) {
+                first = false;
+            } else {
+                s.append("`), ");
 
-                }
-                output.append(" ('").append(key.sort().toString()).append("").append(key.toString())
-                        .append("', `").append(value.toParseableString(proof.getServices()))
-                        .append("`), ");
             }
-
-            output.append("\")");
+            s.append(" ('").append(key.sort().toString()).append("").append(key.toString())
+                    .append("', `").append(value.toParseableString(proof.getServices()))
+                    .append("`), ");
         }
+        return s.toString();
     }
 
     /**
-     * Print applied merge rule for a single merge rule application into the passed writer.
-     *
-     * @param mergeApp the rule application to be printed
-     * @param prefix a string which the printed rule is concatenated to
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
-     */
-    private void printSingleMergeRuleApp(MergeRuleBuiltInRuleApp mergeApp, Node node, String prefix,
-            Appendable output) throws IOException {
-        final MergeProcedure concreteRule = mergeApp.getConcreteRule();
-
-        output.append(" (").append(ProofElementID.MERGE_PROCEDURE.getRawName()).append(" \"");
-        output.append(concreteRule.toString());
-        output.append("\")");
-
-        output.append(" (").append(ProofElementID.NUMBER_MERGE_PARTNERS.getRawName()).append(" \"");
-        output.append(Integer.toString(mergeApp.getMergePartners().size()));
-        output.append("\")");
-
-        output.append(" (").append(ProofElementID.MERGE_ID.getRawName()).append(" \"");
-        output.append(Integer.toString(mergeApp.getMergeNode().serialNr()));
-        output.append("\")");
-
-        if (mergeApp.getDistinguishingFormula() != null) {
-            output.append(" (").append(ProofElementID.MERGE_DIST_FORMULA.getRawName())
-                    .append(" \"");
-            output.append(escapeCharacters(
-                printAnything(mergeApp.getDistinguishingFormula(), proof.getServices(), false)
-                        .trim().replaceAll("(\\r|\\n|\\r\\n)+", "")));
-            output.append("\")");
-        }
-
-        // Predicates for merges with predicate abstraction.
-        if (concreteRule instanceof MergeWithPredicateAbstraction
-                && ((MergeWithPredicateAbstraction) concreteRule).getPredicates().size() > 0) {
-
-            printPredicatesForSingleMergeRuleApp((MergeWithPredicateAbstraction) concreteRule,
-                output);
-        }
-
-        if (concreteRule instanceof MergeWithLatticeAbstraction) {
-            printLatticeAbstractionForSingleMergeRuleApp((MergeWithLatticeAbstraction) concreteRule,
-                output);
-        }
-    }
-
-    /*
-     *
-     * Print applied close-after-merge rule for a single close-after-merge rule application into the
-     * passed writer.
-     *
-     * @param closeApp the rule application to be printed
-     *
-     * @param prefix a string which the printed rule is concatenated to
-     *
-     * @param output the writer in which the rule is printed
-     *
-     * @throws IOException an exception thrown when printing fails
+     * @param mergeApp a merge rule application with a distinguishing formula
+     * @return the distinguishing formula printed on a single line
      */
-    private void printSingleCloseAfterMergeRuleApp(CloseAfterMergeRuleBuiltInRuleApp closeApp,
-            Node node, String prefix, Appendable output) throws IOException {
-
-        // TODO (DS): There may be problems here if the merge node is
-        // pruned away. Need to test some cases and either check for
-        // null pointers at this place or find a better solution.
-        output.append(" (").append(ProofElementID.MERGE_NODE.getRawName()).append(" \"");
-        output.append(Integer.toString(closeApp.getCorrespondingMergeNode().parent().serialNr()));
-        output.append("\")");
-    }
-
-    private void printSingleSMTRuleApp(SMTRuleApp smtApp, Node node, String prefix,
-            Appendable output) throws IOException {
-        output.append(" (").append(ProofElementID.SOLVERTYPE.getRawName())
-                .append(" \"").append(smtApp.getSuccessfulSolverName()).append("\")");
+    String distinguishingFormula(MergeRuleBuiltInRuleApp mergeApp) {
+        return printAnything(mergeApp.getDistinguishingFormula(), proof.getServices(), false)
+                .trim().replaceAll("(\\r|\\n|\\r\\n)+", "");
     }
 
     /**
-     * Print rule justification for applied built-in rule application into the passed writer.
-     *
-     * @param appliedRuleApp the rule application to be printed
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
+     * @param appliedRuleApp an application of a contract rule
+     * @return the name of the contract justifying the rule application
      */
-    private void printRuleJustification(IBuiltInRuleApp appliedRuleApp, Appendable output)
-            throws IOException {
+    String contractName(IBuiltInRuleApp appliedRuleApp) {
         final RuleJustification ruleJusti = proof.getInitConfig().getJustifInfo()
                 .getJustification(appliedRuleApp, proof.getServices());
 
         assert ruleJusti instanceof RuleJustificationBySpec
                 : "Please consult bug #1111 if this fails.";
 
-        final RuleJustificationBySpec ruleJustiBySpec = (RuleJustificationBySpec) ruleJusti;
-        output.append(" (contract \"");
-        output.append(ruleJustiBySpec.spec().getName());
-        output.append("\")");
+        return ((RuleJustificationBySpec) ruleJusti).spec().getName();
     }
 
     /**
-     * Print applied built-in rule for a single built-in rule application into the passed writer.
-     *
-     * @param appliedRuleApp the rule application to be printed
-     * @param prefix a string which the printed rule is concatenated to
-     * @param output the writer in which the rule is printed
-     * @throws IOException an exception thrown when printing fails
+     * @param node an open goal
+     * @return the sequent of the goal printed on a single line
      */
-    private void printSingleBuiltInRuleApp(IBuiltInRuleApp appliedRuleApp, Node node, String prefix,
-            Appendable output) throws IOException {
-        output.append(prefix);
-        output.append(" (builtin \"");
-        output.append(appliedRuleApp.rule().name().toString());
-        output.append("\"");
-        output.append(posInOccurrence2Proof(node.sequent(), appliedRuleApp.posInOccurrence()));
-
-        output.append(newNames2Proof(node));
-        output.append(builtinRuleAssumesInsts(node, appliedRuleApp.assumesInsts()));
-
-        if (appliedRuleApp.rule() instanceof UseOperationContractRule
-                || appliedRuleApp.rule() instanceof UseDependencyContractRule) {
-            printRuleJustification(appliedRuleApp, output);
-
-            // for operation contract rules we add the modality under which the rule was applied
-            // -> needed for proof management tool
-            if (appliedRuleApp.rule() instanceof UseOperationContractRule) {
-                if (appliedRuleApp instanceof ContractRuleApp app) {
-                    Modality modality = (Modality) app.programTerm().op();
-                    output.append(" (modality \"");
-                    output.append(modality.toString());
-                    output.append("\")");
-                }
-            }
-        }
-        if (appliedRuleApp instanceof MergeRuleBuiltInRuleApp) {
-            printSingleMergeRuleApp((MergeRuleBuiltInRuleApp) appliedRuleApp, node, prefix, output);
-        }
-
-        if (appliedRuleApp instanceof CloseAfterMergeRuleBuiltInRuleApp) {
-            printSingleCloseAfterMergeRuleApp((CloseAfterMergeRuleBuiltInRuleApp) appliedRuleApp,
-                node, prefix, output);
-        } else if (appliedRuleApp instanceof SMTRuleApp) {
-            printSingleSMTRuleApp((SMTRuleApp) appliedRuleApp, node, prefix, output);
-        }
-
-        output.append("");
-        userInteraction2Proof(node, output);
-        notes2Proof(node, output);
-        output.append(")\n");
-    }
-
-    /**
-     * Print applied rule (s) for a single proof node into the passed writer.
-     *
-     * @param node the proof node to be printed
-     * @param prefix a string which the printed rules are concatenated to
-     * @param output the writer in which the rule(s) is /are printed
-     * @throws IOException an exception thrown when printing fails
-     */
-    private void printSingleNode(Node node, String prefix, Appendable output) throws IOException {
-        final RuleApp appliedRuleApp = node.getAppliedRuleApp();
-        if (appliedRuleApp == null && (proof.getOpenGoal(node) != null)) {
-            // open goal
-            output.append(prefix);
-            output.append(" (opengoal \"");
-            final LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
-
-            printer.printSequent(node.sequent());
-            output.append(escapeCharacters(printer.result().replace('\n', ' ')));
-            output.append("\")\n");
-            return;
-        }
-
-        if (appliedRuleApp instanceof TacletApp) {
-            printSingleTacletApp((TacletApp) appliedRuleApp, node, prefix, output);
-        } else if (appliedRuleApp instanceof IBuiltInRuleApp) {
-            printSingleBuiltInRuleApp((IBuiltInRuleApp) appliedRuleApp, node, prefix, output);
-        }
-    }
-
-    /**
-     * Print applied rule(s) for a proof node and its decendants into the passed writer.
-     *
-     * @param node the proof node from which to be printed
-     * @param prefix a string which the printed rules are concatenated to
-     * @param output the writer in which the rule(s) is/are printed
-     * @throws IOException an exception thrown when printing fails
-     */
-    private void collectProof(Node node, String prefix, Appendable output) throws IOException {
-
-        printSingleNode(node, prefix, output);
-        Iterator<Node> childrenIt;
-
-        while (node.childrenCount() == 1) {
-            childrenIt = node.childrenIterator();
-            node = childrenIt.next();
-            printSingleNode(node, prefix, output);
-        }
-
-        if (node.childrenCount() == 0) {
-            return;
-        }
-
-        childrenIt = node.childrenIterator();
-
-        while (childrenIt.hasNext()) {
-            final Node child = childrenIt.next();
-            output.append(prefix);
-            final String branchLabel = child.getNodeInfo().getBranchLabel();
-
-            // The branchLabel is ignored when reading in the proof,
-            // print it if we have it, ignore it otherwise. (MU)
-            if (branchLabel == null) {
-                output.append("(branch\n");
-            } else {
-                output.append("(branch \"").append(escapeCharacters(branchLabel)).append("\"\n");
-            }
-
-            collectProof(child, prefix + "   ", output);
-            output.append(prefix).append(")\n");
-        }
-    }
-
-    /**
-     * Check whether the applied rule of the passed proof node was performed interactively. If this
-     * is the case, a user interaction label is appended.
-     *
-     * @param node the proof node to be checked
-     * @param output the writer to which the label should be appended
-     * @throws IOException an exception thrown in case printing fails
-     */
-    private void userInteraction2Proof(Node node, Appendable output) throws IOException {
-        if (node.getNodeInfo().getInteractiveRuleApplication()) {
-            output.append(" (userinteraction)");
-        }
-        if (node.getNodeInfo().getScriptRuleApplication()) {
-            output.append(" (proofscript)");
-        }
-    }
-
-    /**
-     * Saves user provided notes to the proof if present.
-     *
-     * @param node the node to check for notes
-     * @param output the writer to which to append the notes
-     * @throws IOException if printing fails
-     */
-    private void notes2Proof(Node node, Appendable output) throws IOException {
-        String notes = node.getNodeInfo().getNotes();
-        if (notes != null) {
-            output.append(" (notes \"");
-            // to allow for quotes inside the notes: escape backslashes and quotes
-            notes = notes.replace("\\\\", "\\\\\\\\");
-            notes = notes.replace("\\\"", "\\\\\"");
-            output.append(notes);
-            output.append("\")");
-        }
+    String openGoal(Node node) {
+        final LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
+        printer.printSequent(node.sequent());
+        return printer.result().replace('\n', ' ');
     }
 
     /**
@@ -703,9 +439,9 @@ public class OutputStreamProofSaver {
      * @throws IOException an exception thrown when printing fails
      */
     public void node2Proof(Node node, Appendable ps) throws IOException {
-        ps.append("(branch \"dummy ID\"\n");
-        collectProof(node, "", ps);
-        ps.append(")\n");
+        final ProofTextWriter text = new ProofTextWriter(ps);
+        new ProofEventWriter(this, text, 1).writeBranch(node);
+        text.checkError();
     }
 
     public static String posInOccurrence2Proof(Sequent seq,
@@ -722,12 +458,17 @@ public class OutputStreamProofSaver {
         if (pos == PosInTerm.getTopLevel()) {
             return "";
         }
-        String s = " (term \"";
+        return " (term \"" + termPosition(pos) + "\")";
+    }
+
+    /**
+     * @param pos a position in a term
+     * @return the indices of the position in reverse order, separated by commas
+     */
+    static String termPosition(PosInTerm pos) {
         final String list = pos.integerList(pos.reverseIterator()); // cheaper to read
         // in
-        s = s + list.substring(1, list.length() - 1); // chop off "[" and "]"
-        s = s + "\")";
-        return s;
+        return list.substring(1, list.length() - 1); // chop off "[" and "]"
     }
 
     /**
@@ -759,16 +500,6 @@ public class OutputStreamProofSaver {
         return s;
     }
 
-    private String getInteresting(SVInstantiations inst) {
-        StringBuilder s = new StringBuilder();
-
-        for (String singleInstantiation : getInterestingInstantiations(inst)) {
-            s.append(" (inst \"").append(escapeCharacters(singleInstantiation)).append("\")");
-        }
-
-        return s.toString();
-    }
-
     public String assumesFormulaInsts(Node node,
             ImmutableList<AssumesFormulaInstantiation> instantiations) {
         StringBuilder s = new StringBuilder();
@@ -0,0 +1,252 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.Modality;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+import de.uka.ilkd.key.rule.ContractRuleApp;
+import de.uka.ilkd.key.rule.IBuiltInRuleApp;
+import de.uka.ilkd.key.rule.TacletApp;
+import de.uka.ilkd.key.rule.UseDependencyContractRule;
+import de.uka.ilkd.key.rule.UseOperationContractRule;
+import de.uka.ilkd.key.rule.merge.CloseAfterMergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.rule.merge.MergeProcedure;
+import de.uka.ilkd.key.rule.merge.MergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.rule.merge.procedures.MergeWithLatticeAbstraction;
+import de.uka.ilkd.key.rule.merge.procedures.MergeWithPredicateAbstraction;
+import de.uka.ilkd.key.smt.SMTRuleApp;
+
+import org.key_project.logic.PosInTerm;
+import org.key_project.prover.rules.RuleApp;
+import org.key_project.prover.rules.instantiation.AssumesFormulaInstDirect;
+import org.key_project.prover.rules.instantiation.AssumesFormulaInstSeq;
+import org.key_project.prover.rules.instantiation.AssumesFormulaInstantiation;
+import org.key_project.prover.sequent.PosInOccurrence;
+import org.key_project.util.collection.ImmutableList;
+
+import org.jspecify.annotations.Nullable;
+
+import static de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID.*;
+
+/**
+ * Walks the proof tree and passes the steps of a proof to an {@link IProofFileParser} as the
+ * events that {@link de.uka.ilkd.key.nparser.ProofReplayer} reads from the {@code \proof} section
+ * of a proof file. This is the only walk over the proof tree for saving proofs:
+ * {@link OutputStreamProofSaver} prints the events with a {@link ProofTextWriter}, and
+ * {@link BinaryProofSaver} encodes them as {@link BinaryProofFormat binary proof}.
+ * <p>
+ * The line numbers passed to {@link IProofFileParser#endExpr(ProofElementID, int)} are those of
+ * the text printed by a {@link ProofTextWriter}.
+ */
+public final class ProofEventWriter {
+    /** provides the printed arguments of the proof elements */
+    private final OutputStreamProofSaver saver;
+    private final Proof proof;
+    private final IProofFileParser out;
+    /** the open elements */
+    private final ArrayDeque<ProofElementID> elements = new ArrayDeque<>();
+    /** the lines of the open elements */
+    private final ArrayDeque<Integer> lines = new ArrayDeque<>();
+    /** the current line */
+    private int line;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param saver the saver of the proof
+     * @param out the receiver of the events
+     * @param firstLine the line of the first event
+     */
+    public ProofEventWriter(OutputStreamProofSaver saver, IProofFileParser out, int firstLine) {
+        this.saver = saver;
+        this.proof = saver.proof;
+        this.out = out;
+        this.line = firstLine;
+    }
+
+    /**
+     * Writes the whole proof, i.e., the log of users and KeY versions, the auto mode time and the
+     * proof tree. This adds the current user and KeY version to the log.
+     */
+    public void writeProof() {
+        saver.advanceLog();
+        for (int i = 0; i < proof.userLog.size(); i++) {
+            begin(KeY_LOG, Integer.toString(i));
+            element(KeY_USER, proof.userLog.get(i));
+            element(KeY_VERSION, proof.keyVersionLog.get(i));
+            end();
+        }
+        element(AUTOMODE_TIME, Long.toString(proof.getAutoModeTime()));
+        writeBranch(proof.root());
+    }
+
+    /**
+     * Writes the subtree of a node as a branch.
+     *
+     * @param node the first node of the branch
+     */
+    public void writeBranch(Node node) {
+        begin(BRANCH, "dummy ID");
+        writeSubtree(node);
+        end();
+    }
+
+    private void writeSubtree(Node node) {
+        writeNode(node);
+        while (node.childrenCount() == 1) {
+            node = node.child(0);
+            writeNode(node);
+        }
+        final Iterator<Node> children = node.childrenIterator();
+        while (children.hasNext()) {
+            final Node child = children.next();
+            begin(BRANCH, child.getNodeInfo().getBranchLabel());
+            writeSubtree(child);
+            end();
+        }
+    }
+
+    private void writeNode(Node node) {
+        final RuleApp appliedRuleApp = node.getAppliedRuleApp();
+        if (appliedRuleApp == null && proof.getOpenGoal(node) != null) {
+            element(OPEN_GOAL, saver.openGoal(node));
+        } else if (appliedRuleApp instanceof TacletApp app) {
+            begin(RULE, app.rule().name().toString());
+            writePosition(node, app.posInOccurrence());
+            writeNewNames(node);
+            for (String inst : saver.getInterestingInstantiations(app.instantiations())) {
+                element(INSTANTIATION, inst);
+            }
+            final ImmutableList<AssumesFormulaInstantiation> assumes =
+                app.assumesFormulaInstantiations();
+            if (assumes != null) {
+                writeAssumes(node, assumes);
+            }
+            writeNodeInfo(node);
+            end();
+        } else if (appliedRuleApp instanceof IBuiltInRuleApp app) {
+            begin(BUILT_IN_RULE, app.rule().name().toString());
+            writePosition(node, app.posInOccurrence());
+            writeNewNames(node);
+            for (PosInOccurrence assumes : app.assumesInsts()) {
+                begin(ASSUMES_INST_BUILT_IN, "");
+                writePosition(node, assumes);
+                end();
+            }
+            if (app.rule() instanceof UseOperationContractRule
+                    || app.rule() instanceof UseDependencyContractRule) {
+                element(CONTRACT, saver.contractName(app));
+                if (app.rule() instanceof UseOperationContractRule
+                        && app instanceof ContractRuleApp contractApp) {
+                    element(MODALITY, ((Modality) contractApp.programTerm().op()).toString());
+                }
+            }
+            if (app instanceof MergeRuleBuiltInRuleApp mergeApp) {
+                writeMerge(mergeApp);
+            }
+            if (app instanceof CloseAfterMergeRuleBuiltInRuleApp closeApp) {
+                element(MERGE_NODE,
+                    Integer.toString(closeApp.getCorrespondingMergeNode().parent().serialNr()));
+            } else if (app instanceof SMTRuleApp smtApp) {
+                element(SOLVERTYPE, smtApp.getSuccessfulSolverName());
+            }
+            writeNodeInfo(node);
+            end();
+        }
+    }
+
+    private void writePosition(Node node, @Nullable PosInOccurrence pos) {
+        if (pos == null) {
+            return;
+        }
+        element(FORMULA, Integer.toString(
+            node.sequent().formulaNumberInSequent(pos.isInAntec(), pos.sequentFormula())));
+        if (pos.posInTerm() != PosInTerm.getTopLevel()) {
+            element(TERM, OutputStreamProofSaver.termPosition(pos.posInTerm()));
+        }
+    }
+
+    private void writeNewNames(Node node) {
+        final String names = OutputStreamProofSaver.newNames(node);
+        if (names != null) {
+            element(NEW_NAMES, names);
+        }
+    }
+
+    private void writeAssumes(Node node, ImmutableList<AssumesFormulaInstantiation> assumes) {
+        for (AssumesFormulaInstantiation inst : assumes) {
+            if (inst instanceof AssumesFormulaInstSeq inSequent) {
+                element(ASSUMES_FORMULA_IN_SEQUENT, Integer.toString(node.sequent()
+                        .formulaNumberInSequent(inSequent.inAntecedent(),
+                            inst.getSequentFormula())));
+            } else if (inst instanceof AssumesFormulaInstDirect) {
+                element(ASSUMES_FORMULA_DIRECT, OutputStreamProofSaver.printTerm(
+                    (Term) inst.getSequentFormula().formula(), proof.getServices()));
+            } else {
+                throw new IllegalArgumentException("Unknown Assumes-Seq-Formula type");
+            }
+        }
+    }
+
+    private void writeMerge(MergeRuleBuiltInRuleApp mergeApp) {
+        final MergeProcedure concreteRule = mergeApp.getConcreteRule();
+        element(MERGE_PROCEDURE, concreteRule.toString());
+        element(NUMBER_MERGE_PARTNERS, Integer.toString(mergeApp.getMergePartners().size()));
+        element(MERGE_ID, Integer.toString(mergeApp.getMergeNode().serialNr()));
+        if (mergeApp.getDistinguishingFormula() != null) {
+            element(MERGE_DIST_FORMULA, saver.distinguishingFormula(mergeApp));
+        }
+        if (concreteRule instanceof MergeWithPredicateAbstraction predAbstrRule
+                && !predAbstrRule.getPredicates().isEmpty()) {
+            element(MERGE_ABSTRACTION_PREDICATES, saver.abstractionPredicates(predAbstrRule));
+            element(MERGE_PREDICATE_ABSTRACTION_LATTICE_TYPE,
+                predAbstrRule.getLatticeType().getName());
+        }
+        if (concreteRule instanceof MergeWithLatticeAbstraction latticeRule
+                && !latticeRule.getUserChoices().isEmpty()) {
+            element(MERGE_USER_CHOICES, saver.userChoices(latticeRule));
+        }
+    }
+
+    private void writeNodeInfo(Node node) {
+        if (node.getNodeInfo().getInteractiveRuleApplication()) {
+            element(USER_INTERACTION, null);
+        }
+        if (node.getNodeInfo().getScriptRuleApplication()) {
+            element(PROOF_SCRIPT, null);
+        }
+        final String notes = node.getNodeInfo().getNotes();
+        if (notes != null) {
+            element(NOTES, notes);
+        }
+    }
+
+    private void element(ProofElementID eid, @Nullable String arg) {
+        begin(eid, arg);
+        end();
+    }
+
+    private void begin(ProofElementID eid, @Nullable String arg) {
+        out.beginExpr(eid, arg);
+        elements.push(eid);
+        lines.push(line);
+        if (ProofTextWriter.breaksLineAfterBegin(eid)) {
+            line++;
+        }
+    }
+
+    private void end() {
+        final ProofElementID eid = elements.pop();
+        out.endExpr(eid, lines.pop());
+        if (ProofTextWriter.breaksLineAfterEnd(eid)) {
+            line++;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import static de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID.*;
+
+/**
+ * Prints the events of a proof in the textual format of the {@code \proof} section, which is read
+ * by {@link de.uka.ilkd.key.nparser.ProofReplayer}. Every rule application and open goal is
+ * printed on a line of its own, indented by the depth of its branch.
+ * <p>
+ * Used by {@link OutputStreamProofSaver} with the events of a {@link ProofEventWriter} and by
+ * {@link BinaryProofFormat#toText(BinaryProofFormat.Reader, Appendable)}.
+ */
+@NullMarked
+final class ProofTextWriter implements IProofFileParser {
+    /** the elements followed by a line break */
+    private static final Set<ProofElementID> LINE_ELEMENTS =
+        EnumSet.of(BRANCH, RULE, BUILT_IN_RULE, KeY_LOG, AUTOMODE_TIME, OPEN_GOAL);
+
+    private static final String INDENT = "   ";
+
+    private final Appendable out;
+    /** the number of open branches */
+    private int branches;
+    /** whether nothing has been printed on the current line yet */
+    private boolean lineStart = true;
+    /** the first exception thrown by {@link #out} */
+    private @Nullable IOException error;
+
+    ProofTextWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * @param eid a proof element
+     * @return true iff the beginning of the element is followed by a line break
+     */
+    static boolean breaksLineAfterBegin(ProofElementID eid) {
+        return eid == BRANCH;
+    }
+
+    /**
+     * @param eid a proof element
+     * @return true iff the end of the element is followed by a line break
+     */
+    static boolean breaksLineAfterEnd(ProofElementID eid) {
+        return LINE_ELEMENTS.contains(eid);
+    }
+
+    /**
+     * Escapes a string literal as expected by {@link de.uka.ilkd.key.nparser.ProofReplayer}.
+     */
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * @throws IOException the first exception thrown while printing, if any
+     */
+    void checkError() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void indent() throws IOException {
+        // the elements of the outermost branch are not indented
+        for (int i = 1; i < branches; i++) {
+            out.append(INDENT);
+        }
+    }
+
+    @Override
+    public void beginExpr(ProofElementID eid, @Nullable String str) {
+        try {
+            if (lineStart) {
+                indent();
+            } else {
+                out.append(' ');
+            }
+            out.append('(').append(eid.getRawName());
+            if (str != null) {
+                out.append(" \"").append(escape(str)).append('"');
+            }
+            lineStart = breaksLineAfterBegin(eid);
+            if (lineStart) {
+                out.append('\n');
+            }
+            if (eid == BRANCH) {
+                branches++;
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public void endExpr(ProofElementID eid, int stringLiteralLine) {
+        try {
+            if (eid == BRANCH) {
+                branches--;
+            }
+            if (lineStart) {
+                indent();
+            }
+            out.append(')');
+            lineStart = breaksLineAfterEnd(eid);
+            if (lineStart) {
+                out.append('\n');
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public String getStatus() {
+        return "";
+    }
+
+    @Override
+    public List<Throwable> getErrors() {
+        return List.of();
+    }
+}
@@ -54,7 +54,9 @@ public class RuleSourceFactory {
      * @return the rule source read from the file.
      */
     public static RuleSource initRuleFile(final Path file, boolean compressed) {
-        if (compressed) {
+        if (BinaryProofFormat.isBinaryProof(file)) {
+            return new BinaryProofRuleSource(file);
+        } else if (compressed) {
             return new GZipFileRuleSource(file);
         } else {
             return new FileRuleSource(file);
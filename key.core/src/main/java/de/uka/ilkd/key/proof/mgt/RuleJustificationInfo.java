@@ -18,7 +18,21 @@ import org.jspecify.annotations.Nullable;
 
 public class RuleJustificationInfo {
 
-    private final Map<RuleKey, RuleJustification> rule2Justification = new LinkedHashMap<>();
+    private Map<RuleKey, RuleJustification> rule2Justification = new LinkedHashMap<>();
+
+    /**
+     * whether {@link #rule2Justification} is shared with a copy; a shared map is replaced by a
+     * private copy before it is modified (see {@link #copy()})
+     */
+    private volatile boolean shared;
+
+    private Map<RuleKey, RuleJustification> modifiableMap() {
+        if (shared) {
+            rule2Justification = new LinkedHashMap<>(rule2Justification);
+            shared = false;
+        }
+        return rule2Justification;
+    }
 
     public void addJustification(Rule r, RuleJustification j) {
         final RuleKey ruleKey = new RuleKey(r);
@@ -33,7 +47,7 @@ public class RuleJustificationInfo {
                 }
             }
         } else {
-            rule2Justification.put(ruleKey, j);
+            modifiableMap().put(ruleKey, j);
         }
     }
 
@@ -54,12 +68,20 @@ public class RuleJustificationInfo {
         if (InfFlowContractAppTaclet.hasType(rule)) {
             InfFlowContractAppTaclet.unregister(rule.name());
         }
-        rule2Justification.remove(new RuleKey(rule));
+        modifiableMap().remove(new RuleKey(rule));
     }
 
+    /**
+     * Creates a copy of this justification info. The justifications are copied lazily, i.e., both
+     * objects share them until one of them registers or removes a justification.
+     *
+     * @return the copy
+     */
     public RuleJustificationInfo copy() {
         RuleJustificationInfo info = new RuleJustificationInfo();
-        info.rule2Justification.putAll(rule2Justification);
+        shared = true;
+        info.rule2Justification = rule2Justification;
+        info.shared = true;
         return info;
     }
 }
@@ -0,0 +1,496 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.label.TermLabel;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.ProofEvent;
+import de.uka.ilkd.key.proof.RuleAppListener;
+import de.uka.ilkd.key.proof.io.BinaryProofFormat;
+import de.uka.ilkd.key.proof.io.IntermediatePresentationProofFileParser;
+import de.uka.ilkd.key.proof.io.IntermediateProofReplayer;
+import de.uka.ilkd.key.proof.io.OutputStreamProofSaver;
+import de.uka.ilkd.key.proof.io.ProofEventWriter;
+import de.uka.ilkd.key.proof.io.intermediate.BranchNodeIntermediate;
+import de.uka.ilkd.key.proof.replay.CopyingProofReplayer;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.rule.merge.CloseAfterMergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.rule.merge.MergeRuleBuiltInRuleApp;
+import de.uka.ilkd.key.util.KeYConstants;
+
+import org.key_project.logic.op.QuantifiableVariable;
+import org.key_project.prover.sequent.Semisequent;
+import org.key_project.prover.sequent.Sequent;
+import org.key_project.prover.sequent.SequentFormula;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of closed proof branches, shared between sessions (e.g. nightly
+ * re-verification runs). In contrast to {@link ClosedBy} references, which point to another
+ * proof loaded in the same session, a cache entry contains the proof steps of the branch itself.
+ * <p>
+ * Each entry is stored as a {@link BinaryProofFormat binary proof} in the cache directory. Its
+ * file name is a fingerprint of
+ * <ul>
+ * <li>the sequent at the start of the branch (modulo proof irrelevant term labels),</li>
+ * <li>the KeY version, the choice settings and the activated taclets (name and text).</li>
+ * </ul>
+ * Since the formulas of the sequent are numbered in the stored proof steps, an entry is only
+ * used for a goal with exactly the same sequent. A goal is closed by replaying the stored steps
+ * into it, so every rule application is checked again: an entry that does not close the goal
+ * (e.g. because a taclet changed) is simply a cache miss. Such an entry is not used again in
+ * this session.
+ * <p>
+ * Entries that have not been used for {@link #getMaxAge()} are evicted, afterwards the least
+ * recently used entries are evicted until the cache is smaller than {@link #getMaxSize()}.
+ * <p>
+ * Usage in auto mode: register the cache as {@link RuleAppListener} of the proof. Goals created
+ * by branching rule applications are then looked up in the cache and, if found, disabled (see
+ * {@link Hit}). Once the auto mode has finished, {@link #closeMarkedGoals(Proof, List)} replays the
+ * cached steps into these goals and returns the goals that could not be closed, on which the auto
+ * mode has to be run again. Closed proofs are added to the cache by {@link #store(Proof)}.
+ */
+public final class ProofCache implements RuleAppListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProofCache.class);
+
+    /** the default maximal size of the cache in bytes */
+    public static final long DEFAULT_MAX_SIZE = 512L * 1024 * 1024;
+    /** the default time after which unused entries are evicted */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    /** separates the parts of a fingerprint */
+    private static final byte SEPARATOR = 0;
+
+    /**
+     * Registered on the node of a goal that can be closed by a cache entry.
+     *
+     * @param entry the cache entry
+     */
+    public record Hit(Path entry) {
+    }
+
+    /** the directory containing the entries */
+    private final Path directory;
+    /** the maximal size of the cache in bytes */
+    private final long maxSize;
+    /** the time after which unused entries are evicted */
+    private final Duration maxAge;
+    /** fingerprints of the environment (taclets, choices) of the proofs */
+    private final Map<Proof, byte[]> environments = new WeakHashMap<>();
+    /** entries that did not close their goal in this session */
+    private final Set<Path> failedEntries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Opens the cache in the given directory, which is created if necessary.
+     *
+     * @param directory the cache directory
+     * @param maxSize the maximal size of the cache in bytes
+     * @param maxAge the time after which unused entries are evicted
+     * @throws IOException if the directory can not be created
+     */
+    public ProofCache(Path directory, long maxSize, Duration maxAge) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Looks up the cache entry for an open goal.
+     *
+     * @param goal the goal
+     * @return the entry or null if the goal is not cached or its entry failed to close a goal
+     *         before
+     */
+    public @Nullable Path lookup(Goal goal) {
+        Path entry = entryOf(goal.node());
+        return !failedEntries.contains(entry) && Files.isRegularFile(entry) ? entry : null;
+    }
+
+    /**
+     * Closes an open goal by replaying the cached proof steps into it.
+     *
+     * @param goal the goal
+     * @return whether the goal has been closed
+     */
+    public boolean close(Goal goal) {
+        Path entry = lookup(goal);
+        return entry != null && replay(entry, goal);
+    }
+
+    /**
+     * Marks the goal as cached if an entry is found: a {@link Hit} is registered on its node and
+     * the goal is disabled, such that the auto mode does not work on it.
+     *
+     * @param goal an open goal
+     * @return whether the goal has been marked
+     */
+    public boolean markHit(Goal goal) {
+        Path entry = lookup(goal);
+        if (entry == null) {
+            return false;
+        }
+        goal.node().register(new Hit(entry), Hit.class);
+        goal.setEnabled(false);
+        return true;
+    }
+
+    @Override
+    public void ruleApplied(ProofEvent e) {
+        Proof proof = e.getSource();
+        if (proof.lookup(ProofCache.class) != null
+                || proof.lookup(CopyingProofReplayer.class) != null) {
+            return; // steps are being replayed or copied
+        }
+        // entries are only stored for the branches of a proof
+        if (e.getNewGoals().size() <= 1) {
+            return;
+        }
+        for (Goal goal : e.getNewGoals()) {
+            markHit(goal);
+        }
+    }
+
+    /**
+     * Closes all goals marked by {@link #markHit(Goal)}. Goals that can not be closed are
+     * enabled again.
+     *
+     * @param proof the proof
+     * @return the number of closed goals
+     */
+    public int closeMarkedGoals(Proof proof) {
+        return closeMarkedGoals(proof, new ArrayList<>());
+    }
+
+    /**
+     * Closes all goals marked by {@link #markHit(Goal)}. Goals that can not be closed are
+     * enabled again and added to {@code failed}: the auto mode skipped them, so it has to be run
+     * on them again.
+     *
+     * @param proof the proof
+     * @param failed receives the marked goals that could not be closed
+     * @return the number of closed goals
+     */
+    public int closeMarkedGoals(Proof proof, List<Goal> failed) {
+        int closed = 0;
+        for (Goal goal : proof.openGoals()) {
+            Hit hit = goal.node().lookup(Hit.class);
+            if (hit == null) {
+                continue;
+            }
+            goal.node().deregister(hit, Hit.class);
+            goal.setEnabled(true);
+            if (replay(hit.entry(), goal)) {
+                closed++;
+            } else {
+                failedEntries.add(hit.entry());
+                // pruning the replayed steps may have replaced the goal of the node
+                Goal open = proof.getOpenGoal(goal.node());
+                failed.add(open != null ? open : goal);
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Replays a cache entry into a goal. If the goal is not closed afterwards, the replayed
+     * steps are pruned again.
+     *
+     * @param entry the cache entry
+     * @param goal the goal
+     * @return whether the goal has been closed
+     */
+    private boolean replay(Path entry, Goal goal) {
+        Proof proof = goal.proof();
+        Node node = goal.node();
+        BranchNodeIntermediate branch;
+        try {
+            IntermediatePresentationProofFileParser parser =
+                new IntermediatePresentationProofFileParser(proof);
+            BinaryProofFormat.Reader.open(entry).replay(parser);
+            branch = parser.getResult().parsedResult();
+            touch(entry);
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable proof cache entry {}", entry, e);
+            return false;
+        }
+        if (branch == null || branch.getChildren().isEmpty()) {
+            return false;
+        }
+
+        proof.register(this, ProofCache.class);
+        try {
+            OneStepSimplifier.refreshOSS(proof);
+            OneStepSimplifier.beginReplay(proof);
+            // replay the steps of the branch, keeping the branch label of the goal
+            IntermediateProofReplayer.Result result =
+                new IntermediateProofReplayer(null, proof, node, branch.getChildren().get(0))
+                        .replay(null, null);
+            if (node.isClosed()) {
+                return true;
+            }
+            LOGGER.debug("Cache entry {} does not close goal {}: {}", entry, node.serialNr(),
+                result.getErrors());
+            proof.pruneProof(node);
+            return false;
+        } finally {
+            OneStepSimplifier.endReplay(proof);
+            proof.deregister(this, ProofCache.class);
+        }
+    }
+
+    /**
+     * Adds the closed branches of a proof to the cache and evicts old entries afterwards.
+     * Branches are the root of the proof and the children of branching nodes. Branches closed
+     * by reference or containing state merging steps are not stored.
+     *
+     * @param proof the proof
+     * @return the number of new entries
+     * @throws IOException if the cache can not be written
+     */
+    public int store(Proof proof) throws IOException {
+        // collect the branches in pre-order
+        List<Node> branches = new ArrayList<>();
+        Deque<Node> todo = new ArrayDeque<>();
+        todo.push(proof.root());
+        while (!todo.isEmpty()) {
+            Node branch = todo.pop();
+            branches.add(branch);
+            Node end = branch;
+            while (end.childrenCount() == 1) {
+                end = end.child(0);
+            }
+            for (int i = end.childrenCount() - 1; i >= 0; i--) {
+                todo.push(end.child(i));
+            }
+        }
+
+        // decide which branches can be stored, children before parents
+        Map<Node, Boolean> storable = new IdentityHashMap<>();
+        for (int i = branches.size() - 1; i >= 0; i--) {
+            Node branch = branches.get(i);
+            boolean ok = branch.isClosed();
+            Node end = branch;
+            while (ok) {
+                if (end.getAppliedRuleApp() instanceof MergeRuleBuiltInRuleApp
+                        || end.getAppliedRuleApp() instanceof CloseAfterMergeRuleBuiltInRuleApp) {
+                    ok = false;
+                } else if (end.childrenCount() == 1) {
+                    end = end.child(0);
+                    continue;
+                } else if (end.childrenCount() == 0) {
+                    ok = end.lookup(ClosedBy.class) == null;
+                } else {
+                    for (int c = 0; c < end.childrenCount(); c++) {
+                        ok &= storable.get(end.child(c));
+                    }
+                }
+                break;
+            }
+            storable.put(branch, ok);
+        }
+
+        OutputStreamProofSaver saver = new OutputStreamProofSaver(proof);
+        int stored = 0;
+        for (Node branch : branches) {
+            if (!storable.get(branch)) {
+                continue;
+            }
+            Path entry = entryOf(branch);
+            if (Files.exists(entry)) {
+                touch(entry);
+                continue;
+            }
+            BinaryProofFormat.Writer writer = new BinaryProofFormat.Writer();
+            new ProofEventWriter(saver, writer, 2).writeBranch(branch);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.write("", out);
+            write(entry, out.toByteArray());
+            stored++;
+        }
+        LOGGER.debug("Stored {} new branches of proof {} in the proof cache", stored,
+            proof.name());
+        evict();
+        return stored;
+    }
+
+    /**
+     * Evicts entries not used for {@link #getMaxAge()}, then the least recently used entries
+     * until the cache is smaller than {@link #getMaxSize()}.
+     *
+     * @throws IOException if the cache directory can not be read
+     */
+    public void evict() throws IOException {
+        record Entry(Path file, long size, FileTime lastUsed) {
+        }
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(BinaryProofFormat::isBinaryProof).toList()) {
+                try {
+                    entries.add(
+                        new Entry(file, Files.size(file), Files.getLastModifiedTime(file)));
+                } catch (NoSuchFileException e) {
+                    // evicted concurrently
+                }
+            }
+        }
+        FileTime oldest = FileTime.fromMillis(System.currentTimeMillis() - maxAge.toMillis());
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        long size = entries.stream().mapToLong(Entry::size).sum();
+        for (Entry entry : entries) {
+            if (size <= maxSize && entry.lastUsed().compareTo(oldest) >= 0) {
+                break;
+            }
+            Files.deleteIfExists(entry.file());
+            size -= entry.size();
+        }
+    }
+
+    /**
+     * Marks an entry as recently used.
+     */
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // evicted concurrently, the entry has been read already
+        }
+    }
+
+    /**
+     * Writes an entry atomically, such that concurrent sessions never read partial entries.
+     */
+    private void write(Path entry, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @param node a proof node
+     * @return the path of the cache entry of the sequent of the node
+     */
+    private Path entryOf(Node node) {
+        MessageDigest digest = newDigest();
+        digest.update(environmentOf(node.proof()));
+        Sequent seq = node.sequent();
+        update(digest, seq.antecedent());
+        digest.update(SEPARATOR);
+        update(digest, seq.succedent());
+        return directory.resolve(
+            HexFormat.of().formatHex(digest.digest()) + BinaryProofFormat.FILE_EXTENSION);
+    }
+
+    /**
+     * @param proof a proof
+     * @return the fingerprint of the KeY version, the choice settings and the taclets of the
+     *         proof, including their text such that a changed taclet changes the fingerprint
+     */
+    private byte[] environmentOf(Proof proof) {
+        synchronized (environments) {
+            return environments.computeIfAbsent(proof, p -> {
+                MessageDigest digest = newDigest();
+                update(digest, KeYConstants.INTERNAL_VERSION);
+                update(digest, p.getServices().getProfile().name());
+                new TreeMap<>(p.getSettings().getChoiceSettings().getDefaultChoices())
+                        .forEach((category, choice) -> {
+                            update(digest, category);
+                            update(digest, choice);
+                        });
+                p.getInitConfig().activatedTaclets().stream()
+                        .sorted(Comparator.comparing(t -> t.name().toString()))
+                        .forEach(taclet -> {
+                            update(digest, taclet.name().toString());
+                            update(digest, taclet.toString());
+                        });
+                return digest.digest();
+            });
+        }
+    }
+
+    private static void update(MessageDigest digest, Semisequent semi) {
+        for (SequentFormula sf : semi) {
+            update(digest, (Term) sf.formula());
+        }
+    }
+
+    /**
+     * Adds a term to the fingerprint, ignoring proof irrelevant term labels.
+     */
+    private static void update(MessageDigest digest, Term term) {
+        update(digest, term.op().name().toString());
+        update(digest, term.sort().name().toString());
+        for (QuantifiableVariable bv : term.boundVars()) {
+            update(digest, bv.name().toString());
+            update(digest, bv.sort().name().toString());
+        }
+        if (!term.javaBlock().isEmpty()) {
+            update(digest, term.javaBlock().toString());
+        }
+        for (TermLabel label : term.getLabels()) {
+            if (label.isProofRelevant()) {
+                update(digest, label.toString());
+            }
+        }
+        digest.update((byte) term.arity());
+        for (Term sub : term.subs()) {
+            update(digest, sub);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
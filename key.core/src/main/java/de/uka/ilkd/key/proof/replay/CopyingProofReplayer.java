@@ -45,7 +45,18 @@ public class CopyingProofReplayer extends AbstractProofReplayer {
         newNode.proof().register(this, CopyingProofReplayer.class);
         newNode.proof().setMutedProofCloseEvents(true);
         OneStepSimplifier.refreshOSS(newNode.proof());
+        OneStepSimplifier.beginReplay(newNode.proof());
+        try {
+            copySteps(originalNode, newNode, skippedNodes);
+        } finally {
+            OneStepSimplifier.endReplay(newNode.proof());
+        }
+        newNode.proof().setMutedProofCloseEvents(false);
+        newNode.proof().deregister(this, CopyingProofReplayer.class);
+    }
 
+    private void copySteps(Node originalNode, Goal newNode, Set<Node> skippedNodes)
+            throws IntermediateProofReplayer.BuiltInConstructionException {
         // nodeQueue: nodes in the ORIGINAL proof
         Deque<Node> nodeQueue = new ArrayDeque<>();
         // queue: nodes in the NEW proof
@@ -75,7 +86,5 @@ public class CopyingProofReplayer extends AbstractProofReplayer {
                 queue.addFirst(g);
             }
         }
-        newNode.proof().setMutedProofCloseEvents(false);
-        newNode.proof().deregister(this, CopyingProofReplayer.class);
     }
 }
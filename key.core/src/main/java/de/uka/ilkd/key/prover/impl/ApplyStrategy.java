@@ -34,8 +34,6 @@ import org.slf4j.LoggerFactory;
 public class ApplyStrategy extends DefaultProver<Proof, Goal> {
     public static final Logger LOGGER = LoggerFactory.getLogger(ApplyStrategy.class);
 
-    public static final AtomicLong PERF_GOAL_APPLY = new AtomicLong();
-
     /**
      * The default {@link GoalChooser} to choose goals to which rules are applied if the
      * {@link StrategySettings} of the proof provides no customized one.
@@ -173,6 +171,8 @@ public class ApplyStrategy extends DefaultProver<Proof, Goal> {
     private void finishStrategy(ApplyStrategyInfo<Proof, Goal> result) {
         assert result != null; // CS
         proof.addAutoModeTime(result.getTime());
+        PerfScope.report(result.getMetrics());
+        PerfScope.reportStatistics(proof.getServices().getCaches());
         fireTaskFinished(new DefaultTaskFinishedInfo(this, result, proof, result.getTime(),
             result.getNumberOfAppliedRuleApps(), result.getNumberOfClosedGoals()));
     }
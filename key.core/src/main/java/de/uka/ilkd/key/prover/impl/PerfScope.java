@@ -6,68 +6,35 @@ package de.uka.ilkd.key.prover.impl;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
 
-import de.uka.ilkd.key.proof.Goal;
-import de.uka.ilkd.key.proof.SemisequentTacletAppIndex;
-import de.uka.ilkd.key.proof.TacletAppIndex;
-import de.uka.ilkd.key.rule.AbstractBuiltInRuleApp;
-import de.uka.ilkd.key.rule.TacletApp;
-import de.uka.ilkd.key.rule.executor.javadl.FindTacletExecutor;
-import de.uka.ilkd.key.rule.executor.javadl.NoFindTacletExecutor;
-import de.uka.ilkd.key.strategy.JavaCardDLStrategy;
-import de.uka.ilkd.key.strategy.QueueRuleApplicationManager;
+import de.uka.ilkd.key.java.ServiceCaches;
+import de.uka.ilkd.key.proof.TacletIndexKit;
 
-import org.key_project.util.collection.Pair;
+import org.key_project.util.ConcurrentLRUCache;
+import org.key_project.util.metrics.Histogram;
+import org.key_project.util.metrics.MetricsScope;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Logs the measurements of the instrumented code sections (see
+ * {@link org.key_project.util.metrics.Metrics}) and statistics of the caches at trace level.
+ */
 public class PerfScope {
     private static final Logger LOGGER = LoggerFactory.getLogger(PerfScope.class);
-    private static final Pair<String, AtomicLong>[] PERF_COUNTERS = new Pair[] {
-        new Pair<>("JavaCardDLStrategy approve", JavaCardDLStrategy.PERF_APPROVE),
-        new Pair<>("JavaCardDLStrategy instantiate", JavaCardDLStrategy.PERF_INSTANTIATE),
-        new Pair<>("JavaCardDLStrategy compute", JavaCardDLStrategy.PERF_COMPUTE),
-        new Pair<>("QueueRuleApplicationManager peek", QueueRuleApplicationManager.PERF_PEEK),
-        new Pair<>("QueueRuleApplicationManager queue ops",
-            QueueRuleApplicationManager.PERF_QUEUE_OPS),
-        new Pair<>("QueueRuleApplicationManager create container",
-            QueueRuleApplicationManager.PERF_CREATE_CONTAINER),
-        new Pair<>("Goal apply", ApplyStrategy.PERF_GOAL_APPLY),
-        new Pair<>("RuleApp execute", Goal.PERF_APP_EXECUTE),
-        new Pair<>("Goal setSequent", Goal.PERF_SET_SEQUENT),
-        new Pair<>("Goal update tag manager", Goal.PERF_UPDATE_TAG_MANAGER),
-        new Pair<>("Goal update rule app index", Goal.PERF_UPDATE_RULE_APP_INDEX),
-        new Pair<>("Taclet app index update", TacletAppIndex.PERF_UPDATE),
-        new Pair<>("Semi Taclet app index update remove", SemisequentTacletAppIndex.PERF_REMOVE),
-        new Pair<>("Semi Taclet app index update add", SemisequentTacletAppIndex.PERF_ADD),
-        new Pair<>("Semi Taclet app index update update", SemisequentTacletAppIndex.PERF_UPDATE),
-        new Pair<>("Taclet app index create all", TacletAppIndex.PERF_CREATE_ALL),
-        new Pair<>("Goal update listeners", Goal.PERF_UPDATE_LISTENERS),
-        new Pair<>("TacletApp execute", TacletApp.PERF_EXECUTE),
-        new Pair<>("TacletApp pre", TacletApp.PERF_PRE),
-        new Pair<>("TacletApp Goal setSequent", TacletApp.PERF_SET_SEQUENT),
-        new Pair<>("NoFindTacletExecutor apply", NoFindTacletExecutor.PERF_APPLY),
-        new Pair<>("NoFindTacletExecutor setSequent", NoFindTacletExecutor.PERF_SET_SEQUENT),
-        new Pair<>("NoFindTacletExecutor term labels", NoFindTacletExecutor.PERF_TERM_LABELS),
-        new Pair<>("FindTacletExecutor apply", FindTacletExecutor.PERF_APPLY),
-        new Pair<>("FindTacletExecutor setSequent", FindTacletExecutor.PERF_SET_SEQUENT),
-        new Pair<>("FindTacletExecutor term labels", FindTacletExecutor.PERF_TERM_LABELS),
-        new Pair<>("AbstractBuiltInRuleApp execute", AbstractBuiltInRuleApp.PERF_EXECUTE),
-        new Pair<>("AbstractBuiltInRuleApp Goal setSequent",
-            AbstractBuiltInRuleApp.PERF_SET_SEQUENT),
-    };
     private static final DecimalFormat DECIMAL_FORMAT =
         new DecimalFormat("#.##", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
 
     private final long timeNs = System.nanoTime();
-    private final long[] timesBefore = new long[PERF_COUNTERS.length];
 
+    /**
+     * Creates a new scope and resets the measurements of the {@link MetricsScope#GLOBAL global
+     * scope}, such that {@link #report()} reports the measurements taken since then.
+     */
     public PerfScope() {
-        for (int i = 0; i < PERF_COUNTERS.length; i++) {
-            timesBefore[i] = PERF_COUNTERS[i].second.get();
-        }
+        MetricsScope.GLOBAL.reset();
     }
 
     public static String formatTime(long dt) {
@@ -93,12 +60,43 @@ public class PerfScope {
 
     public void report() {
         displayTime("Total", System.nanoTime() - timeNs);
+        report(MetricsScope.GLOBAL.snapshot());
+        MetricsScope.GLOBAL.reset();
+    }
 
-        for (int i = 0; i < PERF_COUNTERS.length; i++) {
-            Pair<String, AtomicLong> perf = PERF_COUNTERS[i];
-            long timeBefore = timesBefore[i];
-            var dt = perf.second.getAndSet(0) - timeBefore;
-            displayTime(perf.first, dt);
+    /**
+     * Logs measurements, e.g., those of {@link
+     * org.key_project.prover.engine.impl.ApplyStrategyInfo#getMetrics()}.
+     *
+     * @param metrics the measurements keyed by timer names
+     */
+    public static void report(Map<String, Histogram.Snapshot> metrics) {
+        if (!LOGGER.isTraceEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, Histogram.Snapshot> entry : metrics.entrySet()) {
+            final Histogram.Snapshot s = entry.getValue();
+            LOGGER.trace("{}: {} in {} calls (mean {}, p99 {}, max {})", entry.getKey(),
+                formatTime(s.totalNanos()), s.count(), formatTime(s.meanNanos()),
+                formatTime(s.percentileNanos(99)), formatTime(s.maxNanos()));
+        }
+    }
+
+    /**
+     * Logs the statistics of the size-bounded caches and of the term cache of a proof as well as
+     * the decisions of the multi-threaded taclet index.
+     *
+     * @param caches the caches of the proof
+     */
+    public static void reportStatistics(ServiceCaches caches) {
+        if (!LOGGER.isTraceEnabled()) {
+            return;
+        }
+        for (ConcurrentLRUCache.Stats stats : caches.getCacheStatistics()) {
+            LOGGER.trace("Cache {}", stats);
         }
+        LOGGER.trace("Cache terms: {}", caches.getTermFactoryCache());
+        LOGGER.trace("Taclet matching: {} parallel, {} sequential",
+            TacletIndexKit.PARALLEL_MATCHINGS.sum(), TacletIndexKit.SEQUENTIAL_MATCHINGS.sum());
     }
 }
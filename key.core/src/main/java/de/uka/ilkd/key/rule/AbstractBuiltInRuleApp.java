@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.logic.op.LocationVariable;
 import de.uka.ilkd.key.proof.Goal;
@@ -14,13 +13,16 @@ import org.key_project.logic.op.Function;
 import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 
 
 public abstract class AbstractBuiltInRuleApp implements IBuiltInRuleApp {
-    public static final AtomicLong PERF_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
+    public static final Timer PERF_EXECUTE = Metrics.timer("AbstractBuiltInRuleApp execute");
+    public static final Timer PERF_SET_SEQUENT =
+        Metrics.timer("AbstractBuiltInRuleApp Goal setSequent");
 
     protected final BuiltInRule builtInRule;
 
@@ -10,7 +10,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.TermServices;
 import de.uka.ilkd.key.logic.label.TermLabel;
@@ -40,7 +39,7 @@ import org.key_project.prover.rules.RuleSet;
 import org.key_project.prover.rules.instantiation.AssumesFormulaInstDirect;
 import org.key_project.prover.rules.instantiation.AssumesFormulaInstantiation;
 import org.key_project.prover.sequent.*;
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableArray;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
@@ -51,6 +50,17 @@ import org.jspecify.annotations.NonNull;
 import static de.uka.ilkd.key.logic.equality.RenamingTermProperty.RENAMING_TERM_PROPERTY;
 
 
+/**
+ * Applies the taclets of some rule sets (see {@link #ruleSets}) and replace-known steps to a
+ * formula exhaustively in one step.
+ * <p>
+ * The simplifier is shared by all proofs of a profile. Its state for a proof (the taclets taken
+ * over from the goals, the taclet indices and the caches) is kept in the user data of that proof,
+ * see {@link ProofState}. The simplifier itself takes no locks, so proofs running in different
+ * threads do not block each other. As for all rules, a single proof must not be modified by
+ * several threads at once.
+ * </p>
+ */
 public final class OneStepSimplifier implements BuiltInRule {
 
     /**
@@ -83,23 +93,42 @@ public final class OneStepSimplifier implements BuiltInRule {
             .append("update_apply").append("update_join").append("elimQuantifier");
 
     private static final boolean[] bottomUp = { false, false, true, true, true, false };
-    private final Map<SequentFormula, Boolean> applicabilityCache =
-        new LRUCache<>(APPLICABILITY_CACHE_SIZE);
 
-    private Proof lastProof;
-    private ImmutableList<NoPosTacletApp> appsTakenOver;
-    private TacletIndex[] indices;
-    private Map<Term, Term>[] notSimplifiableCaches;
-    private boolean active;
+    /**
+     * The state of a simplifier for one proof, registered in the user data of the proof.
+     */
+    private static final class ProofState {
+        /** the simplifier this state belongs to */
+        private final OneStepSimplifier owner;
+        /** whether one step simplification is switched on for the proof */
+        private boolean active;
+        /**
+         * the number of replays in progress, which keep the indices up even if one step
+         * simplification is switched off
+         */
+        private int replays;
+        /** the taclet apps removed from the goals, null if the indices are shut down */
+        private ImmutableList<NoPosTacletApp> appsTakenOver;
+        private TacletIndex[] indices;
+        /*
+         * The caches are consulted by isApplicable, which the rule app managers of different
+         * goals of the proof may call concurrently, hence they must be thread-safe.
+         */
+        private ConcurrentLRUCache<Term, Term>[] notSimplifiableCaches;
+        private final ConcurrentLRUCache<SequentFormula, Boolean> applicabilityCache =
+            new ConcurrentLRUCache<>("OSS applicability", APPLICABILITY_CACHE_SIZE);
+
+        private ProofState(OneStepSimplifier owner) {
+            this.owner = owner;
+        }
+    }
 
     // -------------------------------------------------------------------------
     // constructors
     // -------------------------------------------------------------------------
 
     public OneStepSimplifier() { // Visibility must be public because it is no longer a singleton in
-                                 // general. Side proofs use own OneStepSimplifier instances for
-                                 // parallelization. This is required thanks to the internal state
-                                 // of this rule.
+                                 // general. Side proofs use own OneStepSimplifier instances.
         assert bottomUp.length == ruleSets.size();
     }
 
@@ -109,14 +138,42 @@ public final class OneStepSimplifier implements BuiltInRule {
     // internal methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Returns the state of this simplifier for the given proof.
+     *
+     * @param proof a proof
+     * @return the state or null if this simplifier has not been used for the proof yet
+     */
+    private ProofState stateOf(Proof proof) {
+        ProofState state = proof.lookup(ProofState.class);
+        if (state == null || state.owner == this) {
+            return state;
+        }
+        for (ProofState other : proof.getUserData().lookupAll(ProofState.class)) {
+            if (other.owner == this) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private ProofState stateFor(Proof proof) {
+        ProofState state = stateOf(proof);
+        if (state == null) {
+            state = new ProofState(this);
+            proof.register(state, ProofState.class);
+        }
+        return state;
+    }
+
     /**
      * Selects the taclets suitable for one step simplification out of the given rule set (where
      * taclets that also belong to one of the "excluded" rule sets are not considered). Removes
-     * these taclets from the goal's taclet index, remembers them in the "appsTakenOver" field so
-     * they can be restored later, and returns them.
+     * these taclets from the goal's taclet index, remembers them in the "appsTakenOver" field of
+     * the proof state so they can be restored later, and returns them.
      */
-    private ImmutableList<Taclet> tacletsForRuleSet(Proof proof, String ruleSetName,
-            ImmutableList<String> excludedRuleSetNames) {
+    private ImmutableList<Taclet> tacletsForRuleSet(Proof proof, ProofState state,
+            String ruleSetName, ImmutableList<String> excludedRuleSetNames) {
         assert !proof.openGoals().isEmpty();
         ImmutableList<Taclet> result = ImmutableSLList.nil();
 
@@ -152,7 +209,7 @@ public final class OneStepSimplifier implements BuiltInRule {
             }
 
             if (accept) {
-                appsTakenOver = appsTakenOver.prepend(app);
+                state.appsTakenOver = state.appsTakenOver.prepend(app);
                 result = result.prepend(tac);
             }
         }
@@ -162,13 +219,13 @@ public final class OneStepSimplifier implements BuiltInRule {
         // (Checks are pretty expensive O(n); could be removed after some time)
         // MU May 2016
 
-        assert Immutables.isDuplicateFree(appsTakenOver)
+        assert Immutables.isDuplicateFree(state.appsTakenOver)
                 : "If this fails unexpectedly, add a call to Immutables.removeDuplicates.";
         assert Immutables.isDuplicateFree(result)
                 : "If this fails unexpectedly, add a call to Immutables.removeDuplicates.";
 
         // remove apps in appsTakenOver from taclet indices of all goals
-        for (NoPosTacletApp app : appsTakenOver) {
+        for (NoPosTacletApp app : state.appsTakenOver) {
             for (Goal goal : proof.allGoals()) {
                 goal.ruleAppIndex().removeNoPosTacletApp(app);
             }
@@ -179,60 +236,73 @@ public final class OneStepSimplifier implements BuiltInRule {
 
 
     /**
-     * If the rule is applied to a different proof than last time, then clear all caches and
-     * initialise the taclet indices.
+     * If the indices of the proof are shut down, then initialise them and the caches.
      */
     @SuppressWarnings("unchecked")
-    private void initIndices(Proof proof) {
-        if (proof != lastProof) {
-            shutdownIndices();
-            lastProof = proof;
-            appsTakenOver = ImmutableSLList.nil();
-            indices = new TacletIndex[ruleSets.size()];
-            notSimplifiableCaches = (Map<Term, Term>[]) new LRUCache[indices.length];
+    private void initIndices(Proof proof, ProofState state) {
+        if (state.indices == null) {
+            state.appsTakenOver = ImmutableSLList.nil();
+            TacletIndex[] indices = new TacletIndex[ruleSets.size()];
+            ConcurrentLRUCache<Term, Term>[] caches = new ConcurrentLRUCache[indices.length];
             int i = 0;
             ImmutableList<String> done = ImmutableSLList.nil();
             for (String ruleSet : ruleSets) {
-                ImmutableList<Taclet> taclets = tacletsForRuleSet(proof, ruleSet, done);
+                ImmutableList<Taclet> taclets = tacletsForRuleSet(proof, state, ruleSet, done);
                 indices[i] = TacletIndexKit.getKit().createTacletIndex(taclets);
-                notSimplifiableCaches[i] = new LRUCache<>(DEFAULT_CACHE_SIZE);
+                caches[i] = new ConcurrentLRUCache<>("OSS " + ruleSet, DEFAULT_CACHE_SIZE);
                 i++;
                 done = done.prepend(ruleSet);
             }
+            state.notSimplifiableCaches = caches;
+            state.indices = indices;
         }
     }
 
 
-    /**
-     * Deactivate one-step simplification: clear caches, restore taclets to the goals' taclet
-     * indices.
-     */
-    public synchronized void shutdownIndices() {
-        if (lastProof != null) {
-            if (!lastProof.isDisposed()) {
+    private void shutdownIndices(Proof proof, ProofState state) {
+        if (state.indices != null) {
+            if (!proof.isDisposed()) {
                 // We need to treat all goals here instead of just open goals;
                 // otherwise pruning a (partially) closed proof leads to errors where
                 // some rule applications are missing.
-                for (Goal g : lastProof.allGoals()) {
-                    g.ruleAppIndex().addNoPosTacletApp(appsTakenOver);
+                for (Goal g : proof.allGoals()) {
+                    // invalidate first, otherwise the rule app index matches the taclets taken
+                    // over and the rule app manager costs their apps only to discard them
                     g.getRuleAppManager().clearCache();
                     g.ruleAppIndex().clearIndexes();
+                    g.ruleAppIndex().addNoPosTacletApp(state.appsTakenOver);
                 }
             }
-            applicabilityCache.clear();
-            lastProof = null;
-            appsTakenOver = null;
-            indices = null;
-            notSimplifiableCaches = null;
+            state.applicabilityCache.clear();
+            state.appsTakenOver = null;
+            state.indices = null;
+            state.notSimplifiableCaches = null;
         }
     }
 
 
     /**
-     * returns true if the indices are shutdown
+     * Deactivate one-step simplification for the given proof: clear caches, restore taclets to
+     * the goals' taclet indices.
+     *
+     * @param proof the proof
      */
-    public boolean isShutdown() {
-        return indices == null;
+    public void shutdownIndices(Proof proof) {
+        ProofState state = stateOf(proof);
+        if (state != null) {
+            shutdownIndices(proof, state);
+        }
+    }
+
+
+    /**
+     * returns true if the indices for the given proof are shutdown
+     *
+     * @param proof the proof
+     */
+    public boolean isShutdown(Proof proof) {
+        ProofState state = stateOf(proof);
+        return state == null || state.indices == null;
     }
 
     /**
@@ -241,12 +311,12 @@ public final class OneStepSimplifier implements BuiltInRule {
      *
      * @param protocol
      */
-    private SequentFormula simplifyPos(Goal goal,
+    private SequentFormula simplifyPos(ProofState state, Goal goal,
             PosInOccurrence pos,
             int indexNr, Protocol protocol) {
         var services = goal.getOverlayServices();
         final ImmutableList<NoPosTacletApp> apps =
-            indices[indexNr].getRewriteTaclet(pos, TacletFilter.TRUE, services);
+            state.indices[indexNr].getRewriteTaclet(pos, TacletFilter.TRUE, services);
         for (TacletApp app : apps) {
             app = app.setPosInOccurrence(pos, services);
             if (app == null) {
@@ -277,12 +347,12 @@ public final class OneStepSimplifier implements BuiltInRule {
      *
      * @param protocol
      */
-    private SequentFormula simplifySub(Goal goal,
+    private SequentFormula simplifySub(ProofState state, Goal goal,
             PosInOccurrence pos,
             int indexNr, Protocol protocol) {
         for (int i = 0, n = pos.subTerm().arity(); i < n; i++) {
             SequentFormula result =
-                simplifyPosOrSub(goal, pos.down(i), indexNr, protocol);
+                simplifyPosOrSub(state, goal, pos.down(i), indexNr, protocol);
             if (result != null) {
                 return result;
             }
@@ -297,29 +367,29 @@ public final class OneStepSimplifier implements BuiltInRule {
      *
      * @param protocol
      */
-    private SequentFormula simplifyPosOrSub(Goal goal,
+    private SequentFormula simplifyPosOrSub(ProofState state, Goal goal,
             PosInOccurrence pos,
             int indexNr, Protocol protocol) {
         final Term term = (Term) pos.subTerm();
-        if (notSimplifiableCaches[indexNr].get(term) != null) {
+        if (state.notSimplifiableCaches[indexNr].get(term) != null) {
             return null;
         }
 
         SequentFormula result;
         if (bottomUp[indexNr]) {
-            result = simplifySub(goal, pos, indexNr, protocol);
+            result = simplifySub(state, goal, pos, indexNr, protocol);
             if (result == null) {
-                result = simplifyPos(goal, pos, indexNr, protocol);
+                result = simplifyPos(state, goal, pos, indexNr, protocol);
             }
         } else {
-            result = simplifyPos(goal, pos, indexNr, protocol);
+            result = simplifyPos(state, goal, pos, indexNr, protocol);
             if (result == null) {
-                result = simplifySub(goal, pos, indexNr, protocol);
+                result = simplifySub(state, goal, pos, indexNr, protocol);
             }
         }
 
         if (result == null) {
-            notSimplifiableCaches[indexNr].put(term, term);
+            state.notSimplifiableCaches[indexNr].put(term, term);
         }
 
         return result;
@@ -343,7 +413,7 @@ public final class OneStepSimplifier implements BuiltInRule {
         if (pos != null) {
             ifInsts.add(pos);
             if (protocol != null) {
-                protocol.add(makeReplaceKnownTacletApp(in, inAntecedent, pos));
+                protocol.add(makeReplaceKnownTacletApp(goal.proof(), in, inAntecedent, pos));
             }
             Term result =
                 pos.isInAntec() ? services.getTermBuilder().tt() : services.getTermBuilder().ff();
@@ -403,21 +473,21 @@ public final class OneStepSimplifier implements BuiltInRule {
         }
     }
 
-    private RuleApp makeReplaceKnownTacletApp(Term formula,
+    private RuleApp makeReplaceKnownTacletApp(Proof proof, Term formula,
             boolean inAntecedent,
             PosInOccurrence pio) {
         FindTaclet taclet;
         if (pio.isInAntec()) {
-            taclet = (FindTaclet) lastProof.getInitConfig()
+            taclet = (FindTaclet) proof.getInitConfig()
                     .lookupActiveTaclet(new Name("replace_known_left"));
         } else {
-            taclet = (FindTaclet) lastProof.getInitConfig()
+            taclet = (FindTaclet) proof.getInitConfig()
                     .lookupActiveTaclet(new Name("replace_known_right"));
         }
 
         SVInstantiations svi = SVInstantiations.EMPTY_SVINSTANTIATIONS;
         FormulaSV sv = SchemaVariableFactory.createFormulaSV(new Name("b"));
-        svi.add(sv, (Term) pio.sequentFormula().formula(), lastProof.getServices());
+        svi.add(sv, (Term) pio.sequentFormula().formula(), proof.getServices());
 
         PosInOccurrence applicatinPIO =
             new PosInOccurrence(new SequentFormula(formula), PosInTerm.getTopLevel(), // TODO: This
@@ -430,7 +500,7 @@ public final class OneStepSimplifier implements BuiltInRule {
         ImmutableList<AssumesFormulaInstantiation> ifInst = ImmutableSLList.nil();
         ifInst = ifInst.append(new AssumesFormulaInstDirect(pio.sequentFormula()));
         TacletApp ta = PosTacletApp.createPosTacletApp(taclet, svi, ifInst, applicatinPIO,
-            lastProof.getServices());
+            proof.getServices());
         return ta;
     }
 
@@ -440,7 +510,7 @@ public final class OneStepSimplifier implements BuiltInRule {
      *
      * @param protocol
      */
-    private SequentFormula simplifyConstrainedFormula(
+    private SequentFormula simplifyConstrainedFormula(ProofState state,
             SequentFormula cf,
             boolean inAntecedent,
             Map<TermReplacementKey, PosInOccurrence> context,
@@ -453,10 +523,10 @@ public final class OneStepSimplifier implements BuiltInRule {
             return result;
         }
 
-        for (int i = 0; i < indices.length; i++) {
+        for (int i = 0; i < state.indices.length; i++) {
             PosInOccurrence pos =
                 new PosInOccurrence(cf, PosInTerm.getTopLevel(), inAntecedent);
-            result = simplifyPosOrSub(goal, pos, i, protocol);
+            result = simplifyPosOrSub(state, goal, pos, i, protocol);
             if (result != null) {
                 return result;
             }
@@ -471,7 +541,7 @@ public final class OneStepSimplifier implements BuiltInRule {
      *
      * @param protocol
      */
-    private Instantiation computeInstantiation(PosInOccurrence ossPIO,
+    private Instantiation computeInstantiation(ProofState state, PosInOccurrence ossPIO,
             Sequent seq, Protocol protocol, Goal goal,
             RuleApp ruleApp) {
         // collect context formulas (potential if-insts for replace-known)
@@ -497,7 +567,7 @@ public final class OneStepSimplifier implements BuiltInRule {
         ImmutableList<SequentFormula> list = ImmutableSLList.nil();
         SequentFormula simplifiedCf = cf;
         while (true) {
-            simplifiedCf = simplifyConstrainedFormula(simplifiedCf, ossPIO.isInAntec(),
+            simplifiedCf = simplifyConstrainedFormula(state, simplifiedCf, ossPIO.isInAntec(),
                 context, ifInsts, protocol, goal, ruleApp);
             if (simplifiedCf != null && !list.contains(simplifiedCf)) {
                 list = list.prepend(simplifiedCf);
@@ -518,24 +588,24 @@ public final class OneStepSimplifier implements BuiltInRule {
     /**
      * Tells whether the passed formula can be simplified
      */
-    private synchronized boolean applicableTo(Services services,
+    private boolean applicableTo(ProofState state,
             SequentFormula cf,
             boolean inAntecedent, Goal goal, RuleApp ruleApp) {
-        final Boolean b = applicabilityCache.get(cf);
+        final Boolean b = state.applicabilityCache.get(cf);
         if (b != null) {
             return b;
         } else {
             // try one simplification step without replace-known
             final SequentFormula simplifiedCf =
-                simplifyConstrainedFormula(cf,
+                simplifyConstrainedFormula(state, cf,
                     inAntecedent, null, null, null, goal, ruleApp);
             final boolean result = simplifiedCf != null && !simplifiedCf.equals(cf);
-            applicabilityCache.put(cf, result);
+            state.applicabilityCache.put(cf, result);
             return result;
         }
     }
 
-    private synchronized void refresh(Proof proof) {
+    private void refresh(Proof proof) {
         ProofSettings settings = proof.getSettings();
         if (settings == null) {
             settings = ProofSettings.DEFAULT_SETTINGS;
@@ -544,14 +614,13 @@ public final class OneStepSimplifier implements BuiltInRule {
         final boolean newActive = settings.getStrategySettings().getActiveStrategyProperties()
                 .get(StrategyProperties.OSS_OPTIONS_KEY).equals(StrategyProperties.OSS_ON);
 
-        if (active != newActive || lastProof != proof || // The setting or proof has changed.
-                (isShutdown() && !proof.closed())) { // A closed proof was pruned.
-            active = newActive;
-            if (active && proof != null && !proof.closed()) {
-                initIndices(proof);
-            } else {
-                shutdownIndices();
-            }
+        ProofState state = stateFor(proof);
+        state.active = newActive;
+        if (newActive && !proof.closed()) {
+            // does nothing if the indices are up already
+            initIndices(proof, state);
+        } else {
+            shutdownIndices(proof, state);
         }
     }
 
@@ -577,7 +646,8 @@ public final class OneStepSimplifier implements BuiltInRule {
     @Override
     public boolean isApplicable(Goal goal, PosInOccurrence pio) {
         // abort if switched off
-        if (!active) {
+        final ProofState state = stateOf(goal.proof());
+        if (state == null || !state.active || state.indices == null) {
             return false;
         }
 
@@ -592,17 +662,64 @@ public final class OneStepSimplifier implements BuiltInRule {
         }
 
         // applicable to the formula?
-        return applicableTo(goal.proof().getServices(), pio.sequentFormula(),
+        return applicableTo(state, pio.sequentFormula(),
             pio.isInAntec(), goal,
             null);
     }
 
     @Override
-    public synchronized @NonNull ImmutableList<Goal> apply(Goal goal, RuleApp ruleApp) {
+    public @NonNull ImmutableList<Goal> apply(Goal goal, RuleApp ruleApp) {
 
         assert ruleApp instanceof OneStepSimplifierRuleApp
                 : "The rule app must be suitable for OSS";
 
+        // the indices may be shut down if the step is replayed while OSS is switched off
+        final Proof proof = goal.proof();
+        final ProofState state = stateFor(proof);
+        initIndices(proof, state);
+        try {
+            return apply(state, goal, ruleApp);
+        } finally {
+            if (!state.active && state.replays == 0) {
+                // give the taclets taken over back to the goals, otherwise they would be lost
+                // while isApplicable refuses all further simplification steps
+                shutdownIndices(proof, state);
+            }
+        }
+    }
+
+    /**
+     * Announces that steps are going to be replayed in the given proof. Until the matching call of
+     * {@link #endReplay(Proof)}, the indices of the one step simplifier are kept up even if one
+     * step simplification is switched off, instead of being rebuilt for every replayed step.
+     *
+     * @param proof the proof in which steps are replayed
+     */
+    public static void beginReplay(Proof proof) {
+        OneStepSimplifier simplifierInstance = MiscTools.findOneStepSimplifier(proof);
+        if (simplifierInstance != null) {
+            simplifierInstance.stateFor(proof).replays++;
+        }
+    }
+
+    /**
+     * Announces the end of a replay started by {@link #beginReplay(Proof)}. After the last replay
+     * of the proof has ended, the indices are shut down if one step simplification is switched
+     * off.
+     *
+     * @param proof the proof in which steps were replayed
+     */
+    public static void endReplay(Proof proof) {
+        OneStepSimplifier simplifierInstance = MiscTools.findOneStepSimplifier(proof);
+        if (simplifierInstance != null) {
+            ProofState state = simplifierInstance.stateOf(proof);
+            if (state != null && state.replays > 0 && --state.replays == 0 && !state.active) {
+                simplifierInstance.shutdownIndices(proof, state);
+            }
+        }
+    }
+
+    private @NonNull ImmutableList<Goal> apply(ProofState state, Goal goal, RuleApp ruleApp) {
         final PosInOccurrence pos = ruleApp.posInOccurrence();
         assert pos != null && pos.isTopLevel();
 
@@ -637,7 +754,7 @@ public final class OneStepSimplifier implements BuiltInRule {
         }
         // get instantiation
         final Instantiation inst =
-            computeInstantiation(pos, seq, protocol, goal, ruleApp);
+            computeInstantiation(state, pos, seq, protocol, goal, ruleApp);
 
         ((OneStepSimplifierRuleApp) ruleApp).setProtocol(protocol);
 
@@ -672,13 +789,16 @@ public final class OneStepSimplifier implements BuiltInRule {
     }
 
     /**
-     * Gets an immutable set containing all the taclets captured by the OSS.
+     * Gets an immutable set containing all the taclets captured by the OSS for the given proof.
      *
+     * @param proof the proof
      * @return the captured taclets (as NoPosTacletApps)
      */
-    public Set<NoPosTacletApp> getCapturedTaclets() {
+    public Set<NoPosTacletApp> getCapturedTaclets(Proof proof) {
         Set<NoPosTacletApp> result = new LinkedHashSet<>();
-        synchronized (this) {
+        ProofState state = stateOf(proof);
+        TacletIndex[] indices = state == null ? null : state.indices;
+        if (indices != null) {
             for (TacletIndex index : indices) {
                 result.addAll(index.allNoPosTacletApps());
             }
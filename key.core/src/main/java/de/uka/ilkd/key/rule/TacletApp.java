@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.*;
 import de.uka.ilkd.key.java.abstraction.KeYJavaType;
@@ -31,6 +30,8 @@ import org.key_project.prover.rules.instantiation.IllegalInstantiationException;
 import org.key_project.prover.rules.instantiation.MatchConditions;
 import org.key_project.prover.sequent.*;
 import org.key_project.util.collection.*;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -47,9 +48,9 @@ import org.jspecify.annotations.Nullable;
  * complete, so that is can be applied.
  */
 public abstract class TacletApp implements RuleApp {
-    public static final AtomicLong PERF_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_PRE = new AtomicLong();
+    public static final Timer PERF_EXECUTE = Metrics.timer("TacletApp execute");
+    public static final Timer PERF_SET_SEQUENT = Metrics.timer("TacletApp Goal setSequent");
+    public static final Timer PERF_PRE = Metrics.timer("TacletApp pre");
 
     /** the taclet for which the application information is collected */
     private final /* @NonNull */ org.key_project.prover.rules.Taclet taclet;
@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule.executor.javadl;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.label.TermLabelManager;
@@ -19,13 +18,15 @@ import org.key_project.prover.rules.instantiation.MatchConditions;
 import org.key_project.prover.rules.tacletbuilder.TacletGoalTemplate;
 import org.key_project.prover.sequent.*;
 import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 
 public abstract class FindTacletExecutor extends TacletExecutor {
-    public static final AtomicLong PERF_APPLY = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_TERM_LABELS = new AtomicLong();
+    public static final Timer PERF_APPLY = Metrics.timer("FindTacletExecutor apply");
+    public static final Timer PERF_SET_SEQUENT = Metrics.timer("FindTacletExecutor setSequent");
+    public static final Timer PERF_TERM_LABELS = Metrics.timer("FindTacletExecutor term labels");
 
     protected FindTacletExecutor(Taclet taclet) {
         super(taclet);
@@ -108,7 +109,7 @@ public abstract class FindTacletExecutor extends TacletExecutor {
             final Goal currentGoal = goalIt.next();
             final SequentChangeInfo currentSequent = newSequentsIt.next();
 
-            var timeApply = System.nanoTime();
+            var timeApply = Metrics.nanoTime();
             applyReplacewith(gt, termLabelState, currentSequent, tacletApp.posInOccurrence(), mc,
                 currentGoal, tacletApp, services);
 
@@ -129,22 +130,22 @@ public abstract class FindTacletExecutor extends TacletExecutor {
             // in the new sequent
             applyAddProgVars(gt.addedProgVars(), currentSequent, currentGoal,
                 tacletApp.posInOccurrence(), services, mc);
-            PERF_APPLY.getAndAdd(System.nanoTime() - timeApply);
+            PERF_APPLY.stop(timeApply);
 
-            var timeTermLabels = System.nanoTime();
+            var timeTermLabels = Metrics.nanoTime();
             TermLabelManager.mergeLabels(currentSequent, services);
-            timeTermLabels = System.nanoTime() - timeTermLabels;
+            timeTermLabels = Metrics.nanoTime() - timeTermLabels;
 
-            var timeSetSequent = System.nanoTime();
+            var timeSetSequent = Metrics.nanoTime();
             currentGoal.setSequent(currentSequent);
-            PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - timeSetSequent);
+            PERF_SET_SEQUENT.stop(timeSetSequent);
 
             currentGoal.setBranchLabel(gt.name());
 
-            timeTermLabels = System.nanoTime() + timeTermLabels;
+            timeTermLabels = Metrics.nanoTime() - timeTermLabels;
             TermLabelManager.refactorSequent(termLabelState, services, ruleApp.posInOccurrence(),
                 tacletApp.rule(), currentGoal, null, null);
-            PERF_TERM_LABELS.getAndAdd(System.nanoTime() - timeTermLabels);
+            PERF_TERM_LABELS.stop(timeTermLabels);
         }
 
         // in case the assumes sequent of the taclet did not
@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule.executor.javadl;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.logic.label.TermLabelManager;
 import de.uka.ilkd.key.logic.label.TermLabelState;
@@ -17,11 +16,13 @@ import org.key_project.prover.rules.RuleApp;
 import org.key_project.prover.sequent.Sequent;
 import org.key_project.prover.sequent.SequentChangeInfo;
 import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 public class NoFindTacletExecutor extends TacletExecutor {
-    public static final AtomicLong PERF_APPLY = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_TERM_LABELS = new AtomicLong();
+    public static final Timer PERF_APPLY = Metrics.timer("NoFindTacletExecutor apply");
+    public static final Timer PERF_SET_SEQUENT = Metrics.timer("NoFindTacletExecutor setSequent");
+    public static final Timer PERF_TERM_LABELS = Metrics.timer("NoFindTacletExecutor term labels");
 
     public NoFindTacletExecutor(NoFindTaclet taclet) {
         super(taclet);
@@ -80,29 +81,29 @@ public class NoFindTacletExecutor extends TacletExecutor {
 
             SequentChangeInfo currentSequent = newSequentsIt.next();
 
-            var timeApply = System.nanoTime();
+            var timeApply = Metrics.nanoTime();
             applyAdd(termLabelState, gt.sequent(), currentSequent, mc, goal, tacletApp);
 
             applyAddrule(gt.rules(), currentGoal, services, mc);
 
             applyAddProgVars(gt.addedProgVars(), currentSequent, currentGoal,
                 tacletApp.posInOccurrence(), services, mc);
-            PERF_APPLY.getAndAdd(System.nanoTime() - timeApply);
+            PERF_APPLY.stop(timeApply);
 
-            var timeTermLabels = System.nanoTime();
+            var timeTermLabels = Metrics.nanoTime();
             TermLabelManager.mergeLabels(currentSequent, services);
-            timeTermLabels = System.nanoTime() - timeTermLabels;
+            timeTermLabels = Metrics.nanoTime() - timeTermLabels;
 
-            var timeSetSequent = System.nanoTime();
+            var timeSetSequent = Metrics.nanoTime();
             currentGoal.setSequent(currentSequent);
-            PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - timeSetSequent);
+            PERF_SET_SEQUENT.stop(timeSetSequent);
 
             currentGoal.setBranchLabel(gt.name());
-            timeTermLabels = System.nanoTime() + timeTermLabels;
+            timeTermLabels = Metrics.nanoTime() - timeTermLabels;
             TermLabelManager.refactorSequent(termLabelState, services,
                 ruleApp.posInOccurrence(),
                 ruleApp.rule(), currentGoal, null, null);
-            PERF_TERM_LABELS.getAndAdd(System.nanoTime() - timeTermLabels);
+            PERF_TERM_LABELS.stop(timeTermLabels);
         }
 
         return newGoals;
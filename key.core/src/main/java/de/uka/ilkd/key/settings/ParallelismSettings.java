@@ -0,0 +1,203 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.settings;
+
+/**
+ * Settings for the thread pools used to parallelize work inside the prover, e.g., the matching of
+ * taclets by the multi-threaded taclet index or the parsing of included files, and for the external
+ * SMT solver processes.
+ * <p>
+ * The pools are long-lived and created on first use, hence changes take effect after a restart.
+ * </p>
+ */
+public class ParallelismSettings extends AbstractPropertiesSettings {
+
+    public static final String CATEGORY = "Parallelism";
+
+    /**
+     * Config key for {@link #tacletMatchingThreads}.
+     */
+    private static final String KEY_TACLET_MATCHING_THREADS = "tacletMatchingThreads";
+
+    /**
+     * Config key for {@link #tacletMatchingMinCandidates}.
+     */
+    private static final String KEY_TACLET_MATCHING_MIN_CANDIDATES =
+        "tacletMatchingMinCandidates";
+
+    /**
+     * Config key for {@link #tacletMatchingAdaptive}.
+     */
+    private static final String KEY_TACLET_MATCHING_ADAPTIVE = "tacletMatchingAdaptive";
+
+    /**
+     * Config key for {@link #smtProcesses}.
+     */
+    private static final String KEY_SMT_PROCESSES = "smtProcesses";
+
+    /**
+     * Config key for {@link #smtProcessPooling}.
+     */
+    private static final String KEY_SMT_PROCESS_POOLING = "smtProcessPooling";
+
+    /**
+     * Config key for {@link #smtPortfolio}.
+     */
+    private static final String KEY_SMT_PORTFOLIO = "smtPortfolio";
+
+    /**
+     * Config key for {@link #parsingThreads}.
+     */
+    private static final String KEY_PARSING_THREADS = "parsingThreads";
+
+    /**
+     * Config key for {@link #replayThreads}.
+     */
+    private static final String KEY_REPLAY_THREADS = "replayThreads";
+
+    /**
+     * Number of worker threads of the pool matching taclets in parallel.
+     */
+    private final PropertyEntry<Integer> tacletMatchingThreads = createIntegerProperty(
+        KEY_TACLET_MATCHING_THREADS, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Minimal number of candidate taclets for which a parallel matching is considered.
+     */
+    private final PropertyEntry<Integer> tacletMatchingMinCandidates =
+        createIntegerProperty(KEY_TACLET_MATCHING_MIN_CANDIDATES, 64);
+
+    /**
+     * Whether the decision between parallel and sequential matching takes the measured matching
+     * costs into account.
+     */
+    private final PropertyEntry<Boolean> tacletMatchingAdaptive =
+        createBooleanProperty(KEY_TACLET_MATCHING_ADAPTIVE, true);
+
+    /**
+     * Maximal number of external SMT solver processes running at the same time, summed up over
+     * all solver launchers.
+     */
+    private final PropertyEntry<Integer> smtProcesses =
+        createIntegerProperty(KEY_SMT_PROCESSES, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Whether external SMT solver processes are kept alive and reused for further problems.
+     */
+    private final PropertyEntry<Boolean> smtProcessPooling =
+        createBooleanProperty(KEY_SMT_PROCESS_POOLING, false);
+
+    /**
+     * Whether the remaining solvers of a problem are cancelled as soon as one solver has proven or
+     * disproven it.
+     */
+    private final PropertyEntry<Boolean> smtPortfolio =
+        createBooleanProperty(KEY_SMT_PORTFOLIO, false);
+
+    /**
+     * Number of worker threads of the pool parsing included rule files in parallel; one disables
+     * parallel parsing.
+     */
+    private final PropertyEntry<Integer> parsingThreads =
+        createIntegerProperty(KEY_PARSING_THREADS, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of worker threads replaying independent proofs in parallel (e.g. the proofs of a
+     * proof bundle); one disables parallel replay.
+     */
+    private final PropertyEntry<Integer> replayThreads =
+        createIntegerProperty(KEY_REPLAY_THREADS, Runtime.getRuntime().availableProcessors());
+
+    public ParallelismSettings() {
+        super(CATEGORY);
+    }
+
+    /**
+     * @return the number of worker threads used for matching taclets in parallel (at least one)
+     */
+    public int getTacletMatchingThreads() {
+        return Math.max(1, tacletMatchingThreads.get());
+    }
+
+    public void setTacletMatchingThreads(int threads) {
+        tacletMatchingThreads.set(threads);
+    }
+
+    /**
+     * @return the minimal number of candidate taclets for which parallel matching is considered
+     */
+    public int getTacletMatchingMinCandidates() {
+        return tacletMatchingMinCandidates.get();
+    }
+
+    public void setTacletMatchingMinCandidates(int candidates) {
+        tacletMatchingMinCandidates.set(candidates);
+    }
+
+    /**
+     * @return true iff the matching costs measured so far decide whether to match in parallel
+     */
+    public boolean isTacletMatchingAdaptive() {
+        return tacletMatchingAdaptive.get();
+    }
+
+    public void setTacletMatchingAdaptive(boolean adaptive) {
+        tacletMatchingAdaptive.set(adaptive);
+    }
+
+    /**
+     * @return the maximal number of concurrently running SMT solver processes (at least one)
+     */
+    public int getSmtProcesses() {
+        return Math.max(1, smtProcesses.get());
+    }
+
+    public void setSmtProcesses(int processes) {
+        smtProcesses.set(processes);
+    }
+
+    /**
+     * @return true iff SMT solver processes are reused for several problems
+     */
+    public boolean isSmtProcessPooling() {
+        return smtProcessPooling.get();
+    }
+
+    public void setSmtProcessPooling(boolean pooling) {
+        smtProcessPooling.set(pooling);
+    }
+
+    /**
+     * @return true iff the first definite result for an SMT problem cancels the other solvers
+     */
+    public boolean isSmtPortfolio() {
+        return smtPortfolio.get();
+    }
+
+    public void setSmtPortfolio(boolean portfolio) {
+        smtPortfolio.set(portfolio);
+    }
+
+    /**
+     * @return the number of worker threads used for parsing included files (at least one)
+     */
+    public int getParsingThreads() {
+        return Math.max(1, parsingThreads.get());
+    }
+
+    public void setParsingThreads(int threads) {
+        parsingThreads.set(threads);
+    }
+
+    /**
+     * @return the number of worker threads used for replaying independent proofs (at least one)
+     */
+    public int getReplayThreads() {
+        return Math.max(1, replayThreads.get());
+    }
+
+    public void setReplayThreads(int threads) {
+        replayThreads.set(threads);
+    }
+}
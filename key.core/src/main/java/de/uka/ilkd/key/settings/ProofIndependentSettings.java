@@ -46,6 +46,7 @@ public class ProofIndependentSettings {
     private final ViewSettings viewSettings = new ViewSettings();
     private final TermLabelSettings termLabelSettings = new TermLabelSettings();
     private final FeatureSettings featureSettings = new FeatureSettings();
+    private final ParallelismSettings parallelismSettings = new ParallelismSettings();
 
     private File filename;
 
@@ -62,6 +63,7 @@ public class ProofIndependentSettings {
         addSettings(generalSettings);
         addSettings(viewSettings);
         addSettings(featureSettings);
+        addSettings(parallelismSettings);
     }
 
     private ProofIndependentSettings(File filename) {
@@ -173,6 +175,10 @@ public class ProofIndependentSettings {
         return featureSettings;
     }
 
+    public ParallelismSettings getParallelismSettings() {
+        return parallelismSettings;
+    }
+
     /**
      * Checks if pretty printing is enabled or not.
      *
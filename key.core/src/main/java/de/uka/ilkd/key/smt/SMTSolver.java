@@ -24,10 +24,11 @@ import de.uka.ilkd.key.taclettranslation.assumptions.TacletSetTranslation;
 public interface SMTSolver {
 
     /**
-     * Possible reasons for why a solver process was interrupted/stopped.
+     * Possible reasons for why a solver process was interrupted/stopped. <code>Portfolio</code>
+     * means that another solver has already decided the problem.
      */
     enum ReasonOfInterruption {
-        User, Timeout, Exception, NoInterruption
+        User, Timeout, Exception, NoInterruption, Portfolio
     }
 
     /**
@@ -87,8 +88,9 @@ public interface SMTSolver {
      * Use this method in order to interrupt a running solver process.
      *
      * @param reasonOfInterruption The reason of interruption. Can only be set to
-     *        <code>ReasonOfInterruption.Timeout</code> or <code>ReasonOfInterruption.User</code>
-     *        other wise a <code>IllegalArgumentException</code> is thrown.
+     *        <code>ReasonOfInterruption.Timeout</code>, <code>ReasonOfInterruption.User</code> or
+     *        <code>ReasonOfInterruption.Portfolio</code> other wise a
+     *        <code>IllegalArgumentException</code> is thrown.
      */
     void interrupt(ReasonOfInterruption reasonOfInterruption);
 
@@ -16,6 +16,8 @@ import de.uka.ilkd.key.smt.communication.AbstractSolverSocket;
 import de.uka.ilkd.key.smt.communication.ExternalProcessLauncher;
 import de.uka.ilkd.key.smt.communication.SolverCommunication;
 import de.uka.ilkd.key.smt.communication.SolverCommunication.Message;
+import de.uka.ilkd.key.smt.communication.SolverProcessPool;
+import de.uka.ilkd.key.smt.communication.SolverResultCache;
 import de.uka.ilkd.key.smt.solvertypes.SolverType;
 import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
 import de.uka.ilkd.key.taclettranslation.assumptions.TacletSetTranslation;
@@ -161,7 +163,9 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
         this.type = myType;
         // Why not just call type.getSocket(query) here?
         this.socket = AbstractSolverSocket.createSocket(type, query);
-        processLauncher = new ExternalProcessLauncher(solverCommunication, myType.getDelimiters());
+        SolverProcessPool pool = SolverProcessPool.getDefault();
+        processLauncher = new ExternalProcessLauncher(solverCommunication, myType.getDelimiters(),
+            pool.isPooling() ? pool : null);
     }
 
     /**
@@ -264,10 +268,22 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             return;
         }
 
-        // Thirdly: start the external process.
+        // Thirdly: look for the result of an identical run.
+        final String modifiedProblem = type.modifyProblem(problemString);
+        final SolverResultCache cache = SolverResultCache.getDefault();
+        final String cacheKey =
+            cache == null ? null : computeCacheKey(modifiedProblem, commands);
+        if (cacheKey != null && cache.restore(cacheKey, solverCommunication, type.getName())) {
+            solverTimeout.cancel();
+            setSolverState(SolverState.Stopped);
+            listener.processStopped(this, problem);
+            return;
+        }
+
+        // Fourthly: start the external process.
         try {
             processLauncher.launch(commands);
-            processLauncher.getPipe().sendMessage(type.modifyProblem(problemString));
+            processLauncher.getPipe().sendMessage(modifiedProblem);
             // processLauncher.getPipe().sendEOF();
 
             String msg = processLauncher.getPipe().readMessage();
@@ -275,6 +291,9 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
                 socket.messageIncoming(processLauncher.getPipe(), msg);
                 msg = processLauncher.getPipe().readMessage();
             }
+            if (cacheKey != null && reasonOfInterruption == ReasonOfInterruption.NoInterruption) {
+                cache.store(cacheKey, solverCommunication);
+            }
         } catch (IllegalStateException | IOException | InterruptedException e) {
             interruptionOccurred(e);
             Thread.currentThread().interrupt();
@@ -287,6 +306,32 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
         }
     }
 
+    /**
+     * Computes the key of this run for the {@link SolverResultCache}.
+     *
+     * @return the key or null if the run should not be cached
+     */
+    private String computeCacheKey(String modifiedProblem, String[] commands) {
+        if (type == SolverTypes.Z3_CE_SOLVER) {
+            // the counterexample generator queries the model interactively
+            return null;
+        }
+        String version = type.getInstalledVersion();
+        if (version == null || version.isEmpty()) {
+            try {
+                version = VersionChecker.INSTANCE.getCachedVersionFor(type.getSolverCommand(),
+                    type.getVersionParameter());
+            } catch (RuntimeException e) {
+                LOGGER.debug("Could not determine the version of {}", type.getName(), e);
+            }
+        }
+        if (version == null) {
+            // results of an unknown version may not be reused for another one
+            return null;
+        }
+        return SolverResultCache.computeKey(modifiedProblem, commands, version, timeout);
+    }
+
     private void interruptionOccurred(Throwable e) {
         ReasonOfInterruption reason = getReasonOfInterruption();
         setReasonOfInterruption(ReasonOfInterruption.Exception, e);
@@ -296,7 +341,7 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             listener.processInterrupted(this, problem, e);
         }
         case Timeout -> listener.processTimeout(this, problem);
-        case User -> listener.processUser(this, problem);
+        case User, Portfolio -> listener.processUser(this, problem);
         }
     }
 
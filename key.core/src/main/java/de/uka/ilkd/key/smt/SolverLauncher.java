@@ -4,12 +4,17 @@
 package de.uka.ilkd.key.smt;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
 import de.uka.ilkd.key.smt.SMTSolver.ReasonOfInterruption;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+import de.uka.ilkd.key.smt.communication.SolverProcessPool;
 import de.uka.ilkd.key.smt.solvertypes.SolverType;
 
 /**
@@ -74,6 +79,13 @@ import de.uka.ilkd.key.smt.solvertypes.SolverType;
  * NOTE: In case that you add at least one listener to a launcher no exception is thrown when a
  * solver produces an error. The exceptions of the solvers are stored within the solver object and
  * can be accessed by <code>solver.getException</code>.
+ * <p>
+ * The number of solver processes running at the same time is bounded per launcher by the
+ * {@link SMTSettings} and for all launchers together by the {@link SolverProcessPool}. In
+ * portfolio mode (see {@link #setPortfolio(boolean)}), the first solver proving or disproving a
+ * problem cancels the other solvers of this problem with
+ * {@link ReasonOfInterruption#Portfolio}.
+ * </p>
  */
 
 public class SolverLauncher implements SolverListener {
@@ -103,6 +115,17 @@ public class SolverLauncher implements SolverListener {
         listeners.remove(listener);
     }
 
+    /**
+     * Enables or disables the portfolio mode, in which the first solver deciding a problem
+     * cancels the remaining solvers of the problem. By default, the mode is taken from the
+     * {@link de.uka.ilkd.key.settings.ParallelismSettings}.
+     *
+     * @param portfolio whether to cancel the remaining solvers once a problem is decided
+     */
+    public void setPortfolio(boolean portfolio) {
+        this.portfolio = portfolio;
+    }
+
     /**
      * Launches several solvers for the problem that is handed over.<br>
      * Note: Calling this methods does not create an extra thread, i.e. the calling thread is
@@ -183,6 +206,32 @@ public class SolverLauncher implements SolverListener {
 
     private final LinkedList<SolverLauncherListener> listeners = new LinkedList<>();
 
+    /**
+     * Bounds the number of solver processes of all launchers.
+     */
+    private final SolverProcessPool processPool = SolverProcessPool.getDefault();
+
+    /**
+     * The started solvers that have not yet given back their permit to the process pool.
+     */
+    private final Set<SMTSolver> permitHolders = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The problem of every solver to be launched.
+     */
+    private final Map<SMTSolver, SMTProblem> problemOfSolver = new HashMap<>();
+
+    /**
+     * The problems that have already been proven or disproven by one of their solvers.
+     */
+    private final Set<SMTProblem> decidedProblems = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the first definite result for a problem cancels its other solvers.
+     */
+    private volatile boolean portfolio =
+        ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings().isSmtPortfolio();
+
     /**
      * Every launcher object should be used only once.
      */
@@ -239,19 +288,37 @@ public class SolverLauncher implements SolverListener {
 
         LinkedList<SMTSolver> solvers = new LinkedList<>();
         for (SMTProblem problem : problems) {
-            solvers.addAll(problem.getSolvers());
+            for (SMTSolver solver : problem.getSolvers()) {
+                solvers.add(solver);
+                problemOfSolver.put(solver, problem);
+            }
         }
         launchSolvers(solvers, problems, factories);
     }
 
     /**
-     * Takes the next solvers from the queue and starts them. It depends on the settings how many
-     * solvers can be executed concurrently.
+     * Takes the next solvers from the queue and starts them. It depends on the settings and on the
+     * solvers of other launchers how many solvers can be executed concurrently. Solvers of problems
+     * that have already been decided are not started in portfolio mode.
+     *
+     * @return false iff no further solver could be started since the process pool has no permits
+     *         left
      */
-    private void fillRunningList(Queue<SMTSolver> solvers) {
+    private boolean fillRunningList(Queue<SMTSolver> solvers) {
         while (startNextSolvers(solvers) && !isInterrupted()) {
-            SMTSolver solver = solvers.poll();
+            SMTSolver solver = solvers.peek();
             Objects.requireNonNull(solver);
+            if (decidedProblems.contains(problemOfSolver.get(solver))) {
+                solvers.poll();
+                solver.interrupt(ReasonOfInterruption.Portfolio);
+                session.addFinishedSolver(solver);
+                continue;
+            }
+            if (!processPool.tryAcquirePermit()) {
+                return false;
+            }
+            solvers.poll();
+            permitHolders.add(solver);
 
             SolverTimeout solverTimeout = new SolverTimeout(solver, session);
             timer.schedule(solverTimeout, solver.getTimeout(), PERIOD);
@@ -261,6 +328,7 @@ public class SolverLauncher implements SolverListener {
             // SMTSolverImplementation that implements SMTSolver.
             solver.start(solverTimeout, settings);
         }
+        return true;
     }
 
     /**
@@ -312,12 +380,18 @@ public class SolverLauncher implements SolverListener {
             lock.lock();
             try {
                 // start solvers as many as possible
-                fillRunningList(solvers);
-                if (!startNextSolvers(solvers) && !isInterrupted()) {
+                boolean permitsLeft = fillRunningList(solvers);
+                if (!solvers.isEmpty() && !isInterrupted()) {
                     try {
-                        // if there is nothing to do, wait for the next solver
-                        // finishing its task.
-                        wait.await();
+                        if (!permitsLeft) {
+                            // permits are given back by other launchers as well, which do not
+                            // signal this launcher
+                            wait.await(PERIOD, TimeUnit.MILLISECONDS);
+                        } else if (!startNextSolvers(solvers)) {
+                            // if there is nothing to do, wait for the next solver
+                            // finishing its task.
+                            wait.await();
+                        }
                     } catch (InterruptedException e) {
                         launcherInterrupted(e);
                     }
@@ -380,6 +454,9 @@ public class SolverLauncher implements SolverListener {
      * list of the currently running solvers and tries to wake up the launcher.
      */
     private void notifySolverHasFinished(SMTSolver solver) {
+        if (permitHolders.remove(solver)) {
+            processPool.releasePermit();
+        }
         lock.lock();
         try {
             session.removeCurrentlyRunning(solver);
@@ -404,9 +481,27 @@ public class SolverLauncher implements SolverListener {
     @Override
     public void processStopped(SMTSolver solver, SMTProblem problem) {
         session.addFinishedSolver(solver);
+        if (portfolio && !solver.wasInterrupted() && solver.getFinalResult() != null
+                && solver.getFinalResult().isValid() != ThreeValuedTruth.UNKNOWN) {
+            cancelCompetitors(solver, problem);
+        }
         notifySolverHasFinished(solver);
     }
 
+    /**
+     * Interrupts the other running solvers of a problem that has been decided by the given
+     * solver. Queued solvers of the problem are not started anymore.
+     */
+    private void cancelCompetitors(SMTSolver winner, SMTProblem problem) {
+        if (decidedProblems.add(problem)) {
+            for (SMTSolver solver : problem.getSolvers()) {
+                if (solver != winner) {
+                    session.interruptSolver(solver, ReasonOfInterruption.Portfolio);
+                }
+            }
+        }
+    }
+
     @Override
     public void processInterrupted(SMTSolver solver, SMTProblem problem, Throwable e) {
         session.addProblemSolver(solver);
@@ -6,6 +6,9 @@ package de.uka.ilkd.key.smt;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.jspecify.annotations.Nullable;
@@ -19,6 +22,25 @@ public class VersionChecker {
 
     private static final long MAX_DELAY = 1000;
 
+    /**
+     * the versions determined by {@link #getCachedVersionFor(String, String)}, keyed by command
+     * and parameter
+     */
+    private final Map<String, Optional<String>> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Like {@link #getVersionFor(String, String)}, but the solver is started only on the first
+     * call for a command; later calls return the version determined then.
+     *
+     * @param command to start the solver process
+     * @param parameter version parameter of the solver
+     * @return the returned version String of the solver, if any was returned, null otherwise
+     */
+    public @Nullable String getCachedVersionFor(String command, String parameter) {
+        return versions.computeIfAbsent(command + " " + parameter,
+            k -> Optional.ofNullable(getVersionFor(command, parameter))).orElse(null);
+    }
+
     /**
      *
      * @param command to start the solver process
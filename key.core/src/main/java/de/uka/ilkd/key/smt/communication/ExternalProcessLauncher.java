@@ -4,8 +4,10 @@
 package de.uka.ilkd.key.smt.communication;
 
 import java.io.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 /**
  * This class is responsible for starting external processes:
@@ -15,6 +17,10 @@ import org.jspecify.annotations.NonNull;
  * <li>Starts the process and returns.</li>
  * </ol>
  * Remark: Does not block the invoking thread.
+ * <p>
+ * If a {@link SolverProcessPool} is given, the process is leased from the pool instead and given
+ * back to it when the launcher is stopped.
+ * </p>
  *
  * @author Wolfram Pfeifer (overhaul)
  */
@@ -37,7 +43,17 @@ public class ExternalProcessLauncher {
     /**
      * the pipe for sending and receiving to/from the process
      */
-    private SimplePipe pipe;
+    private Pipe pipe;
+
+    /**
+     * the pool to lease the process from, null if a new process is started
+     */
+    private final @Nullable SolverProcessPool pool;
+
+    /**
+     * the pipe leased from the pool until it is given back
+     */
+    private final AtomicReference<PooledPipe> leased = new AtomicReference<>();
 
     /**
      * Creates the external process launcher.
@@ -47,8 +63,21 @@ public class ExternalProcessLauncher {
      */
     public ExternalProcessLauncher(@NonNull SolverCommunication session,
             @NonNull String[] messageDelimiters) {
+        this(session, messageDelimiters, null);
+    }
+
+    /**
+     * Creates the external process launcher.
+     *
+     * @param session the store for the messages send to and received from the process
+     * @param messageDelimiters delimiters which separate the messages
+     * @param pool the pool to lease the process from, null to start a new process
+     */
+    public ExternalProcessLauncher(@NonNull SolverCommunication session,
+            @NonNull String[] messageDelimiters, @Nullable SolverProcessPool pool) {
         this.session = session;
         this.messageDelimiters = messageDelimiters;
+        this.pool = pool;
     }
 
     /**
@@ -59,6 +88,12 @@ public class ExternalProcessLauncher {
      * @throws IOException if an I/O error occurs
      */
     public void launch(final String[] command) throws IOException {
+        if (pool != null) {
+            final PooledPipe pooledPipe = pool.lease(command, messageDelimiters, session);
+            leased.set(pooledPipe);
+            pipe = pooledPipe;
+            return;
+        }
         try {
             ProcessBuilder builder = new ProcessBuilder(command);
             builder.redirectErrorStream(true);
@@ -76,6 +111,10 @@ public class ExternalProcessLauncher {
      * Stops the external process: In particular the pipe is closed and the process is destroyed.
      */
     public void stop() {
+        final PooledPipe pooledPipe = leased.getAndSet(null);
+        if (pooledPipe != null) {
+            pool.release(pooledPipe);
+        }
         if (process != null) {
             // make sure the solver process is properly killed,
             // otherwise it may consume excessive CPU and RAM
@@ -0,0 +1,200 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pipe to an external SMT solver process that is kept alive by a {@link SolverProcessPool} and
+ * used for several problems one after another.
+ * <p>
+ * The solver sockets end the communication for a problem by sending {@code (exit)}. This pipe
+ * does not forward this command, but asks the solver to echo a marker instead. All messages the
+ * solver sends before the marker (e.g., an unsat core or a model) are still delivered; once the
+ * marker arrives, {@link #readMessage()} returns {@code null} as if the process had terminated.
+ * The pipe is then <em>clean</em> and the pool can reset the solver and hand it out again.
+ * </p>
+ *
+ * @see SolverProcessPool
+ */
+public final class PooledPipe implements Pipe {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledPipe.class);
+
+    /** the marker the solver is asked to echo at the end of a problem */
+    static final String END_MARKER = "key-pool-end-of-problem";
+
+    /** the command used to request the marker */
+    private static final String ECHO_END_MARKER = "(echo \"" + END_MARKER + "\")";
+
+    /** the key under which the process is pooled */
+    private final SolverProcessPool.ProcessKey key;
+
+    /** the process this pipe is attached to */
+    private final @NonNull Process process;
+
+    /** the Writer connected to stdin of the external process */
+    private final @NonNull Writer smtIn;
+
+    /** the Reader that splits the merged stdout and stderr at the given delimiters */
+    private final @NonNull BufferedMessageReader reader;
+
+    /** the record of the communication for the current problem */
+    private volatile @NonNull SolverCommunication session;
+
+    /** set when the socket has finished the current problem, i.e., has sent {@code (exit)} */
+    private volatile boolean exitRequested;
+
+    /** set when the marker after {@code (exit)} has been read, i.e., the problem is finished */
+    private volatile boolean clean;
+
+    /** set when the process can not be reused, e.g., after an error or interruption */
+    private volatile boolean broken;
+
+    /** the number of problems handled by the process so far */
+    private int uses;
+
+    PooledPipe(SolverProcessPool.ProcessKey key, @NonNull Process process) {
+        this.key = key;
+        this.process = process;
+        smtIn = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        reader = new BufferedMessageReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8),
+            key.delimiters().toArray(new String[0]));
+        session = new SolverCommunication();
+    }
+
+    SolverProcessPool.ProcessKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return the number of problems that have been sent to the process before the current one
+     */
+    public int getPreviousUses() {
+        return uses;
+    }
+
+    /**
+     * prepares the pipe for the next problem
+     *
+     * @param session the record of the communication for the next problem
+     */
+    void attach(@NonNull SolverCommunication session) {
+        this.session = session;
+        exitRequested = false;
+        clean = false;
+    }
+
+    /**
+     * @return true iff the current problem has been finished regularly and the process is alive
+     */
+    boolean isReusable() {
+        return clean && !broken && process.isAlive();
+    }
+
+    /**
+     * Resets the solver to its initial state and waits until it has processed the reset.
+     *
+     * @return true iff the reset succeeded and the process can be handed out again
+     */
+    boolean reset() {
+        try {
+            write("(reset)");
+            write(ECHO_END_MARKER);
+            String msg = reader.readMessage();
+            while (msg != null && !msg.contains(END_MARKER)) {
+                msg = reader.readMessage();
+            }
+            if (msg == null) {
+                broken = true;
+                return false;
+            }
+            uses++;
+            return true;
+        } catch (IOException e) {
+            LOGGER.debug("Failed to reset pooled solver process", e);
+            broken = true;
+            return false;
+        }
+    }
+
+    private void write(String message) throws IOException {
+        smtIn.write(message + System.lineSeparator());
+        smtIn.flush();
+    }
+
+    @Override
+    public void sendMessage(@NonNull String message) throws IOException {
+        if ("(exit)".equals(message.trim())) {
+            // keep the process alive, but find out when it has answered all previous commands
+            exitRequested = true;
+            write(ECHO_END_MARKER);
+            return;
+        }
+        session.addMessage(message, SolverCommunication.MessageType.INPUT);
+        try {
+            write(message);
+        } catch (IOException e) {
+            broken = true;
+            if (!process.isAlive()) {
+                throw new IllegalStateException(
+                    "Process terminated (exit code " + process.exitValue() + ").");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public @Nullable String readMessage() throws IOException, InterruptedException {
+        if (clean) {
+            return null;
+        }
+        final String msg;
+        try {
+            msg = reader.readMessage();
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        }
+        if (msg == null) {
+            broken = true;
+        } else if (exitRequested && msg.contains(END_MARKER)) {
+            clean = true;
+            return null;
+        }
+        return msg;
+    }
+
+    @Override
+    public @NonNull SolverCommunication getSolverCommunication() {
+        return session;
+    }
+
+    @Override
+    public void close() {
+        broken = true;
+        try {
+            smtIn.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close process writer", e);
+        }
+        process.destroyForcibly();
+    }
+
+    @Override
+    public void sendEOF() {
+        broken = true;
+        try {
+            smtIn.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close process writer", e);
+        }
+    }
+}
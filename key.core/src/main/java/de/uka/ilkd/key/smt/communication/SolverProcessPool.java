@@ -0,0 +1,228 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.uka.ilkd.key.settings.ParallelismSettings;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Manages the external SMT solver processes of all solver launchers:
+ * <ul>
+ * <li>It bounds the number of solver processes running at the same time by a number of permits
+ * (see {@link #tryAcquirePermit()}).</li>
+ * <li>If pooling is enabled, it keeps solver processes alive after a problem has been solved and
+ * hands them out again for the next problem with the same command line (see
+ * {@link #lease(String[], String[], SolverCommunication)}). Between two problems the solver is
+ * reset via {@code (reset)}, which spares the costs of starting the process and of loading the
+ * solver.</li>
+ * </ul>
+ * The default pool is configured by the {@link ParallelismSettings}.
+ *
+ * @see PooledPipe
+ */
+public final class SolverProcessPool {
+
+    /**
+     * The command line and message delimiters of a pooled process; only processes with equal keys
+     * are interchangeable.
+     *
+     * @param command the command (program and arguments)
+     * @param delimiters the delimiters which separate the messages of the solver
+     */
+    record ProcessKey(List<String> command, List<String> delimiters) {
+    }
+
+    /**
+     * A snapshot of the statistics of a pool.
+     *
+     * @param started number of processes started
+     * @param reused number of problems handled by an already running process
+     * @param discarded number of processes destroyed since they could not be reused
+     * @param idle number of processes currently waiting for a problem
+     */
+    public record Statistics(long started, long reused, long discarded, int idle) {
+    }
+
+    /** whether processes are kept alive after a problem */
+    private final boolean pooling;
+
+    /** the maximal number of idle processes kept per command line */
+    private final int maxIdlePerKey;
+
+    /** the permits for running solver processes */
+    private final Semaphore permits;
+
+    /** the idle processes, the most recently used first */
+    private final Map<ProcessKey, Deque<PooledPipe>> idle = new ConcurrentHashMap<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxProcesses the maximal number of solver processes running at the same time
+     * @param pooling whether processes are kept alive and reused
+     */
+    public SolverProcessPool(int maxProcesses, boolean pooling) {
+        if (maxProcesses < 1) {
+            throw new IllegalArgumentException("At least one process must be allowed.");
+        }
+        this.pooling = pooling;
+        this.maxIdlePerKey = maxProcesses;
+        this.permits = new Semaphore(maxProcesses, true);
+    }
+
+    /**
+     * @return the pool shared by all solver launchers
+     */
+    public static SolverProcessPool getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @return true iff processes are kept alive and reused
+     */
+    public boolean isPooling() {
+        return pooling;
+    }
+
+    /**
+     * Acquires the permit to run a solver process if one is available. Every acquired permit has
+     * to be returned by {@link #releasePermit()}.
+     *
+     * @return true iff the permit has been acquired
+     */
+    public boolean tryAcquirePermit() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * returns a permit acquired by {@link #tryAcquirePermit()}
+     */
+    public void releasePermit() {
+        permits.release();
+    }
+
+    /**
+     * Hands out a solver process for the given command line, starting a new one if no idle
+     * process is available. The returned pipe has to be given back by
+     * {@link #release(PooledPipe)}.
+     *
+     * @param command the command (program and arguments)
+     * @param delimiters the delimiters which separate the messages of the solver
+     * @param session the record of the communication for the problem to solve
+     * @return the pipe connected to the process
+     * @throws IOException if the process can not be started
+     */
+    public @NonNull PooledPipe lease(String[] command, String[] delimiters,
+            @NonNull SolverCommunication session) throws IOException {
+        final ProcessKey key = new ProcessKey(List.of(command), List.of(delimiters));
+        PooledPipe pipe = pollIdle(key);
+        if (pipe != null) {
+            reused.increment();
+        } else {
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.redirectErrorStream(true);
+            pipe = new PooledPipe(key, builder.start());
+            started.increment();
+        }
+        pipe.attach(session);
+        return pipe;
+    }
+
+    private @Nullable PooledPipe pollIdle(ProcessKey key) {
+        final Deque<PooledPipe> queue = idle.get(key);
+        if (queue == null) {
+            return null;
+        }
+        PooledPipe pipe;
+        while ((pipe = queue.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            if (pipe.isReusable()) {
+                return pipe;
+            }
+            discard(pipe);
+        }
+        return null;
+    }
+
+    /**
+     * Gives back a pipe handed out by {@link #lease(String[], String[], SolverCommunication)}. If
+     * the problem has been finished regularly, the process is reset and kept for the next problem;
+     * otherwise (e.g., if the solver has been interrupted) it is destroyed.
+     *
+     * @param pipe the pipe to give back
+     */
+    public void release(@NonNull PooledPipe pipe) {
+        if (!pooling || !pipe.isReusable() || !pipe.reset()) {
+            discard(pipe);
+            return;
+        }
+        final Deque<PooledPipe> queue =
+            idle.computeIfAbsent(pipe.getKey(), k -> new ConcurrentLinkedDeque<>());
+        if (queue.size() >= maxIdlePerKey) {
+            discard(pipe);
+            return;
+        }
+        queue.addFirst(pipe);
+        idleCount.incrementAndGet();
+    }
+
+    private void discard(PooledPipe pipe) {
+        discarded.increment();
+        pipe.close();
+    }
+
+    /**
+     * destroys all idle processes
+     */
+    public void shutdown() {
+        for (Deque<PooledPipe> queue : idle.values()) {
+            PooledPipe pipe;
+            while ((pipe = queue.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                pipe.close();
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the statistics of this pool
+     */
+    public Statistics getStatistics() {
+        return new Statistics(started.sum(), reused.sum(), discarded.sum(), idleCount.get());
+    }
+
+    /**
+     * Lazily creates the default pool and destroys its idle processes on shutdown.
+     */
+    private static final class DefaultHolder {
+        static final SolverProcessPool INSTANCE;
+
+        static {
+            final ParallelismSettings settings =
+                ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings();
+            INSTANCE =
+                new SolverProcessPool(settings.getSmtProcesses(), settings.isSmtProcessPooling());
+            Runtime.getRuntime().addShutdownHook(
+                new Thread(INSTANCE::shutdown, "SMT process pool shutdown"));
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.uka.ilkd.key.smt.SMTSolverResult;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of the results of external SMT solvers. It allows to skip the solver run for
+ * a problem that has already been solved with the same solver (version), parameters and timeout,
+ * e.g., when the same proof obligations are checked again.
+ * <p>
+ * The cache is content-addressed: the key of a run is a SHA-256 hash of everything that
+ * influences its outcome (see {@link #computeKey(String, String[], String, long)}). For each key,
+ * the final result and the output messages of the solver (e.g., a model or an unsat core) are
+ * stored. Only regularly finished runs should be stored, never runs that have been interrupted.
+ * </p>
+ * <p>
+ * The entries are kept in memory and appended to a file with one line per entry, so that the file
+ * can be shared by consecutive sessions. Lines that can not be parsed are skipped. The cache used
+ * by the solvers is enabled by setting the system property {@value #CACHE_FILE_PROPERTY} to the
+ * path of the cache file.
+ * </p>
+ */
+public final class SolverResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverResultCache.class);
+
+    /** the system property holding the path of the file of the default cache */
+    public static final String CACHE_FILE_PROPERTY = "key.smt.resultCache";
+
+    /**
+     * A cached solver result.
+     *
+     * @param result the final result
+     * @param output the output messages of the solver
+     */
+    private record Entry(ThreeValuedTruth result, List<String> output) {
+    }
+
+    /** the file the entries are appended to */
+    private final Path file;
+
+    /** all known entries */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache backed by the given file, reading the entries already stored in it.
+     *
+     * @param file the file to read the entries from and to append new entries to
+     * @throws IOException if the existing file can not be read
+     */
+    public SolverResultCache(@NonNull Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                parseLine(line);
+            }
+        }
+    }
+
+    /**
+     * @return the cache to be used by the solvers or null if no cache file is configured
+     */
+    public static @Nullable SolverResultCache getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Computes the key of a solver run.
+     *
+     * @param problem the SMT problem as sent to the solver
+     * @param command the command line (program and arguments) of the solver
+     * @param version the version of the solver
+     * @param timeout the timeout of the run
+     * @return the key of the run
+     */
+    public static String computeKey(String problem, String[] command, String version,
+            long timeout) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : command) {
+                update(digest, part);
+            }
+            update(digest, version);
+            update(digest, Long.toString(timeout));
+            update(digest, problem);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        // separate the parts unambiguously
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Looks up the result of a run and, if present, restores it into the given communication
+     * record as if the solver had been run.
+     *
+     * @param key the key of the run
+     * @param communication the record to fill
+     * @param solverName the name of the solver for the result
+     * @return true iff the result has been found
+     */
+    public boolean restore(String key, SolverCommunication communication, String solverName) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        for (String message : entry.output()) {
+            communication.addMessage(message, SolverCommunication.MessageType.OUTPUT);
+        }
+        communication.setFinalResult(switch (entry.result()) {
+        case VALID -> SMTSolverResult.createValidResult(solverName);
+        case FALSIFIABLE -> SMTSolverResult.createInvalidResult(solverName);
+        case UNKNOWN -> SMTSolverResult.createUnknownResult(solverName, false);
+        });
+        return true;
+    }
+
+    /**
+     * Stores the result of a finished run. Nothing is stored if the solver has not sent a result.
+     *
+     * @param key the key of the run
+     * @param communication the record of the run
+     */
+    public void store(String key, SolverCommunication communication) {
+        if (communication.getFinalResult() == SMTSolverResult.NO_IDEA) {
+            return;
+        }
+        final List<String> output = new ArrayList<>();
+        for (SolverCommunication.Message message : communication
+                .getMessages(SolverCommunication.MessageType.OUTPUT)) {
+            if (!message.content().isEmpty()) {
+                output.add(message.content());
+            }
+        }
+        final Entry entry = new Entry(communication.getFinalResult().isValid(), output);
+        if (entries.putIfAbsent(key, entry) == null) {
+            append(key, entry);
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SMT result cache %s: %d entries, %d hits, %d misses", file,
+            entries.size(), hits.sum(), misses.sum());
+    }
+
+    /*
+     * An entry is stored as a line "<key> <result> <output>", where the output messages are
+     * separated by spaces, each of them Base64 encoded.
+     */
+
+    private synchronized void append(String key, Entry entry) {
+        final StringBuilder line = new StringBuilder(key).append(' ').append(entry.result().name());
+        final Base64.Encoder encoder = Base64.getEncoder();
+        for (String message : entry.output()) {
+            line.append(' ')
+                    .append(encoder.encodeToString(message.getBytes(StandardCharsets.UTF_8)));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write to the SMT result cache {}", file, e);
+        }
+    }
+
+    private void parseLine(String line) {
+        final String[] parts = line.trim().split(" ");
+        if (parts.length < 2) {
+            return;
+        }
+        try {
+            final ThreeValuedTruth result = ThreeValuedTruth.valueOf(parts[1]);
+            final List<String> output = new ArrayList<>(parts.length - 2);
+            final Base64.Decoder decoder = Base64.getDecoder();
+            for (int i = 2; i < parts.length; i++) {
+                output.add(new String(decoder.decode(parts[i]), StandardCharsets.UTF_8));
+            }
+            entries.put(parts[0], new Entry(result, output));
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("Skipping malformed entry of the SMT result cache: {}", line);
+        }
+    }
+
+    /**
+     * Lazily creates the default cache from the system property {@value #CACHE_FILE_PROPERTY}.
+     */
+    private static final class DefaultHolder {
+        static final @Nullable SolverResultCache INSTANCE = create();
+
+        private static @Nullable SolverResultCache create() {
+            final String path = System.getProperty(CACHE_FILE_PROPERTY);
+            if (path == null || path.isBlank()) {
+                return null;
+            }
+            try {
+                return new SolverResultCache(Paths.get(path));
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the SMT result cache {}", path, e);
+                return null;
+            }
+        }
+    }
+}
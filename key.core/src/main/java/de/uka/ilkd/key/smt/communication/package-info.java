@@ -12,6 +12,9 @@
  * behaviour for handling solver results.</li>
  * <li>{@link de.uka.ilkd.key.smt.communication.SolverCommunication} stores the messages sent to and
  * from the external solver.</li>
+ * <li>{@link de.uka.ilkd.key.smt.communication.SolverProcessPool} bounds the number of running
+ * solver processes and, if enabled, keeps them alive to reuse them via a
+ * {@link de.uka.ilkd.key.smt.communication.PooledPipe}.</li>
  * </ul>
  */
 package de.uka.ilkd.key.smt.communication;
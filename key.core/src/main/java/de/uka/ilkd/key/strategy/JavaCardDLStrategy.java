@@ -3,7 +3,6 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.strategy;
 
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.ldt.BooleanLDT;
@@ -55,6 +54,8 @@ import org.key_project.prover.strategy.costbased.termfeature.OperatorClassTF;
 import org.key_project.prover.strategy.costbased.termfeature.TermFeature;
 import org.key_project.prover.strategy.costbased.termgenerator.SequentFormulasGenerator;
 import org.key_project.prover.strategy.costbased.termgenerator.SubtermGenerator;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 
@@ -62,9 +63,9 @@ import org.jspecify.annotations.NonNull;
  * Strategy tailored to be used as long as a java program can be found in the sequent.
  */
 public class JavaCardDLStrategy extends AbstractFeatureStrategy {
-    public static final AtomicLong PERF_COMPUTE = new AtomicLong();
-    public static final AtomicLong PERF_APPROVE = new AtomicLong();
-    public static final AtomicLong PERF_INSTANTIATE = new AtomicLong();
+    public static final Timer PERF_COMPUTE = Metrics.timer("JavaCardDLStrategy compute");
+    public static final Timer PERF_APPROVE = Metrics.timer("JavaCardDLStrategy approve");
+    public static final Timer PERF_INSTANTIATE = Metrics.timer("JavaCardDLStrategy instantiate");
 
     public static final String JAVA_CARD_DL_STRATEGY = "JavaCardDLStrategy";
 
@@ -2083,11 +2084,11 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
             PosInOccurrence pio,
             Goal goal,
             MutableState mState) {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             return costComputationF.computeCost(app, pio, goal, mState);
         } finally {
-            PERF_COMPUTE.addAndGet(System.nanoTime() - time);
+            PERF_COMPUTE.stop(time);
         }
     }
 
@@ -2103,12 +2104,12 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
     @Override
     public final boolean isApprovedApp(RuleApp app,
             PosInOccurrence pio, Goal goal) {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             return !(approvalF.computeCost(app, pio, goal,
                 new MutableState()) == TopRuleAppCost.INSTANCE);
         } finally {
-            PERF_APPROVE.addAndGet(System.nanoTime() - time);
+            PERF_APPROVE.stop(time);
         }
     }
 
@@ -2116,11 +2117,11 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
     protected RuleAppCost instantiateApp(RuleApp app,
             PosInOccurrence pio, Goal goal,
             MutableState mState) {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             return instantiationF.computeCost(app, pio, goal, mState);
         } finally {
-            PERF_INSTANTIATE.addAndGet(System.nanoTime() - time);
+            PERF_INSTANTIATE.stop(time);
         }
     }
 
@@ -5,7 +5,6 @@ package de.uka.ilkd.key.strategy;
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.proof.Goal;
 
@@ -21,6 +20,8 @@ import org.key_project.util.collection.ImmutableHeap;
 import org.key_project.util.collection.ImmutableLeftistHeap;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.NullMarked;
@@ -34,12 +35,24 @@ import org.jspecify.annotations.Nullable;
  * {@link RuleAppCost} by converting it into a {@link RuleAppContainer}. The cost of a
  * {@link RuleApp} is computed according to a given {@link Strategy} (see
  * {@link Feature#computeCost(RuleApp, PosInOccurrence, ProofGoal, MutableState)}).
+ * <p>
+ * The queue is maintained incrementally: rule apps reported by the rule index after a sequent
+ * change are costed and added one by one, obsolete containers are discarded lazily when they reach
+ * the top of the queue. Only {@link #clearCache()} (e.g., after a change of the strategy, which
+ * may change the cost of every rule app) causes a full rebuild from the rule index, which is timed
+ * by {@link #PERF_REBUILD}.
  */
 @NullMarked
 public class QueueRuleApplicationManager implements RuleApplicationManager<Goal> {
-    public static final AtomicLong PERF_QUEUE_OPS = new AtomicLong();
-    public static final AtomicLong PERF_PEEK = new AtomicLong();
-    public static final AtomicLong PERF_CREATE_CONTAINER = new AtomicLong();
+    public static final Timer PERF_QUEUE_OPS =
+        Metrics.timer("QueueRuleApplicationManager queue ops");
+    public static final Timer PERF_PEEK = Metrics.timer("QueueRuleApplicationManager peek");
+    /** creation of containers, also the ones created during a rebuild */
+    public static final Timer PERF_CREATE_CONTAINER =
+        Metrics.timer("QueueRuleApplicationManager create container");
+    /** full rebuilds of the queue from the rule index */
+    public static final Timer PERF_REBUILD =
+        Metrics.timer("QueueRuleApplicationManager rebuild queue");
 
     /**
      * The goal this manager belongs to.
@@ -105,12 +118,14 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
         queue = ImmutableLeftistHeap.nilHeap();
         previousMinimum = null;
 
+        var time = Metrics.nanoTime();
         // to support encapsulating rule managers (delegation, like in
         // <code>FocussedRuleApplicationManager</code>) the rule index
         // reports its contents to the rule manager of the goal, which is not
         // necessarily this object
         goal.ruleAppIndex().reportAutomatedRuleApps(goal.getRuleAppManager(),
             goal.proof().getServices());
+        PERF_REBUILD.stop(time);
     }
 
     /**
@@ -125,9 +140,9 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
             return;
         }
 
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         RuleAppContainer c = RuleAppContainer.createAppContainer(rule, pos, goal);
-        PERF_CREATE_CONTAINER.addAndGet(System.nanoTime() - time);
+        PERF_CREATE_CONTAINER.stop(time);
 
         ensureQueueExists();
         addRuleApp(c);
@@ -146,10 +161,10 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
             return;
         }
 
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         final ImmutableList<RuleAppContainer> containers =
             RuleAppContainer.createAppContainers(rules, pos, goal);
-        PERF_CREATE_CONTAINER.addAndGet(System.nanoTime() - time);
+        PERF_CREATE_CONTAINER.stop(time);
         ensureQueueExists();
         for (RuleAppContainer rac : containers) {
             addRuleApp(rac);
@@ -157,11 +172,11 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
     }
 
     private void addRuleApp(RuleAppContainer rac) {
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             queue = push(rac, queue);
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+            PERF_QUEUE_OPS.stop(time);
         }
     }
 
@@ -205,11 +220,11 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
             }
             actualApps.add(app);
         }
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             return ImmutableLeftistHeap.<RuleAppContainer>nilHeap().insert(actualApps.iterator());
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+            PERF_QUEUE_OPS.stop(time);
         }
     }
 
@@ -221,7 +236,7 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
      */
     @Override
     public RuleApp peekNext() {
-        var otime = System.nanoTime();
+        var otime = Metrics.nanoTime();
         try {
             ensureQueueExists();
 
@@ -248,7 +263,7 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
             computeNextRuleApp(furtherAppsQueue);
             return nextRuleApp;
         } finally {
-            PERF_PEEK.addAndGet(System.nanoTime() - otime);
+            PERF_PEEK.stop(otime);
         }
     }
 
@@ -294,27 +309,27 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
             if (queue.isEmpty()) {
                 // Use furtherAppsQueue in case queue is empty.
                 furtherAppsQueueUsed = true;
-                var time = System.nanoTime();
+                var time = Metrics.nanoTime();
                 try {
                     minRuleAppContainer = furtherAppsQueue.findMin();
                     furtherAppsQueue = furtherAppsQueue.deleteMin();
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    PERF_QUEUE_OPS.stop(time);
                 }
             } else if (furtherAppsQueue.isEmpty()) {
                 // Use queue in case furtherAppsQueueUsed is empty.
                 furtherAppsQueueUsed = false;
-                var time = System.nanoTime();
+                var time = Metrics.nanoTime();
                 try {
                     minRuleAppContainer = queue.findMin();
                     queue = queue.deleteMin();
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    PERF_QUEUE_OPS.stop(time);
                 }
             } else {
                 // Neither queue is empty. Find a minimum that ranges over both
                 // queues.
-                var time = System.nanoTime();
+                var time = Metrics.nanoTime();
                 try {
                     RuleAppContainer queueMin = queue.findMin();
                     RuleAppContainer furtherAppsQueueMin = furtherAppsQueue.findMin();
@@ -328,7 +343,7 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
                         minRuleAppContainer = queueMin;
                     }
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    PERF_QUEUE_OPS.stop(time);
                 }
             }
 
@@ -353,13 +368,13 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
                      * Create further apps if found in main queue. Rule apps obtained this way will
                      * be considered during the current round.
                      */
-                    var time = System.nanoTime();
+                    var time = Metrics.nanoTime();
                     try {
                         furtherAppsQueue =
                             push(minRuleAppContainer.createFurtherApps(goal).iterator(),
                                 furtherAppsQueue);
                     } finally {
-                        PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                        PERF_QUEUE_OPS.stop(time);
                     }
                 }
             } else {
@@ -373,15 +388,33 @@ public class QueueRuleApplicationManager implements RuleApplicationManager<Goal>
         /*
          * Put remaining elements into main queue, so they can be considered in the upcoming rounds.
          */
-        var time = System.nanoTime();
+        var time = Metrics.nanoTime();
         try {
             queue = queue.insert(workingList.iterator());
             queue = queue.insert(furtherAppsQueue);
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+            PERF_QUEUE_OPS.stop(time);
         }
     }
 
+    /**
+     * Returns the rule app containers currently considered, i.e., the ones in the queue and the
+     * minimum of the previous round. The queue is rebuilt first if necessary. This is only used
+     * for testing purposes.
+     *
+     * @return the containers in no particular order
+     */
+    ImmutableList<RuleAppContainer> queuedContainers() {
+        ensureQueueExists();
+        ImmutableList<RuleAppContainer> result = ImmutableSLList.nil();
+        if (queue != null) {
+            for (RuleAppContainer c : queue) {
+                result = result.prepend(c);
+            }
+        }
+        return previousMinimum == null ? result : result.prepend(previousMinimum);
+    }
+
     @Override
     public RuleApplicationManager<Goal> copy() {
         // noinspection unchecked
@@ -0,0 +1,155 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.nparser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.settings.ParallelismSettings;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
+
+import org.key_project.logic.Named;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that parsing a graph of included files in parallel leads to the same results as parsing
+ * them one after another.
+ */
+public class IncludeGraphParsingTest {
+    /** the files of the include graph: a includes b and c, both of them include d */
+    private static final Map<String, String> FILES = Map.of("a.key", """
+            \\include "b.key", "c.key";
+            \\sorts { A; }
+            \\predicates { pa(A); }
+            \\problem { \\forall A x; (pa(x) -> pa(x)) }
+            """, "b.key", """
+            \\include "d.key";
+            \\sorts { B; }
+            \\functions { D fb(B); }
+            """, "c.key", """
+            \\include "d.key";
+            \\sorts { C; }
+            \\functions { D fc(C); }
+            """, "d.key", """
+            \\sorts { D; }
+            \\predicates { pd; }
+            \\rules { dRule { \\find(pd) \\replacewith(true) }; }
+            """);
+
+    @TempDir
+    Path tmpDir;
+
+    private final ParallelismSettings settings =
+        ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings();
+    private int parsingThreads;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        parsingThreads = settings.getParsingThreads();
+        for (Map.Entry<String, String> file : FILES.entrySet()) {
+            Files.writeString(tmpDir.resolve(file.getKey()), file.getValue());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        settings.setParsingThreads(parsingThreads);
+    }
+
+    private <T> T withParsingThreads(int threads, Callable<T> action) throws Exception {
+        settings.setParsingThreads(threads);
+        try {
+            return action.call();
+        } finally {
+            settings.setParsingThreads(parsingThreads);
+        }
+    }
+
+    private List<String> parseFiles() throws Exception {
+        List<String> result = new ArrayList<>();
+        for (KeyAst.File file : ParsingFacade.parseFiles(tmpDir.resolve("a.key").toUri().toURL())) {
+            result.add(ParsingFacade.getParseRuleContext(file).getText());
+        }
+        return result;
+    }
+
+    @Test
+    public void testParseFiles() throws Exception {
+        List<String> sequential = withParsingThreads(1, this::parseFiles);
+        List<String> parallel = withParsingThreads(4, this::parseFiles);
+        assertEquals(4, sequential.size(), "every file is parsed once");
+        assertEquals(sequential, parallel);
+    }
+
+    private static Set<String> names(Iterable<? extends Named> elements) {
+        Set<String> result = new TreeSet<>();
+        for (Named element : elements) {
+            result.add(element.name().toString());
+        }
+        return result;
+    }
+
+    /**
+     * @return the names of the sorts, functions and taclets of the loaded problem
+     */
+    private List<Set<String>> loadProblem() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(tmpDir.resolve("a.key"));
+        try {
+            Services services = env.getLoadedProof().getServices();
+            Set<String> taclets = new TreeSet<>();
+            for (Taclet taclet : env.getLoadedProof().getInitConfig().activatedTaclets()) {
+                taclets.add(taclet.name().toString());
+            }
+            return List.of(names(services.getNamespaces().sorts().allElements()),
+                names(services.getNamespaces().functions().allElements()), taclets);
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    public void testProblemIncludes() throws Exception {
+        List<Set<String>> sequential = withParsingThreads(1, this::loadProblem);
+        List<Set<String>> parallel = withParsingThreads(4, this::loadProblem);
+        assertTrue(sequential.get(0).containsAll(List.of("A", "B", "C", "D")));
+        assertTrue(sequential.get(1).containsAll(List.of("pa", "fb", "fc", "pd")));
+        assertTrue(sequential.get(2).contains("dRule"));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testParseTransitively() throws Exception {
+        // 0 includes 1 and 2, 1 and 2 include 3, and 3 includes 0 again; 2 cannot be parsed
+        Map<Integer, List<Integer>> graph =
+            Map.of(0, List.of(1, 2), 1, List.of(3), 2, List.of(3), 3, List.of(0));
+        Callable<Map<Integer, String>> parse =
+            () -> ParsingFacade.parseTransitively(List.of(0), i -> {
+                if (i == 2) {
+                    throw new IllegalStateException("syntax error");
+                }
+                return "file" + i;
+            }, (i, parsed) -> graph.get(i));
+
+        assertTrue(withParsingThreads(1, parse).isEmpty(), "nothing is parsed in advance");
+        // the includes of a file that cannot be parsed are not followed, 3 is reached via 1
+        assertEquals(Map.of(0, "file0", 1, "file1", 3, "file3"), withParsingThreads(4, parse));
+    }
+}
@@ -0,0 +1,117 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.proof.calculus.JavaDLSequentKit;
+import de.uka.ilkd.key.proof.init.AbstractProfile;
+import de.uka.ilkd.key.proof.init.InitConfig;
+import de.uka.ilkd.key.rule.TacletForTests;
+
+import org.key_project.logic.PosInTerm;
+import org.key_project.prover.sequent.PosInOccurrence;
+import org.key_project.prover.sequent.Sequent;
+import org.key_project.prover.sequent.SequentFormula;
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableSLList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the formula tags of goals created by a split evolve independently.
+ */
+public class TestFormulaTagManager {
+    /** number of formulas in the antecedent, enough to make the maps of the manager hash tries */
+    private static final int ANTECEDENT_SIZE = 20;
+
+    private Proof proof;
+    private SequentFormula a;
+    private SequentFormula b;
+    private ImmutableList<SequentFormula> antecedent = ImmutableSLList.nil();
+
+    @BeforeEach
+    public void setUp() {
+        TacletForTests.parse();
+        String term = "A";
+        for (int i = 0; i < ANTECEDENT_SIZE; i++) {
+            term = "!" + term;
+            antecedent = antecedent.append(new SequentFormula(TacletForTests.parseTerm(term)));
+        }
+        a = new SequentFormula(TacletForTests.parseTerm("A"));
+        b = new SequentFormula(TacletForTests.parseTerm("B"));
+        Sequent seq = JavaDLSequentKit.createSequent(antecedent,
+            ImmutableSLList.<SequentFormula>nil().append(a).append(b));
+
+        final InitConfig initConfig =
+            new InitConfig(new Services(AbstractProfile.getDefaultProfile()));
+        proof = new Proof("", seq, "", initConfig.createTacletIndex(),
+            initConfig.createBuiltInRuleIndex(), initConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        proof.dispose();
+        proof = null;
+    }
+
+    private static PosInOccurrence succ(SequentFormula sf) {
+        return new PosInOccurrence(sf, PosInTerm.getTopLevel(), false);
+    }
+
+    @Test
+    public void testSplitAndUpdate() {
+        Goal root = proof.openGoals().head();
+        FormulaTag tagA = root.getFormulaTagManager().getTagForPos(succ(a));
+        FormulaTag tagB = root.getFormulaTagManager().getTagForPos(succ(b));
+        assertNotNull(tagA);
+        assertNotNull(tagB);
+
+        ImmutableList<Goal> goals = root.split(2);
+        Goal first = goals.head();
+        Goal second = goals.tail().head();
+        for (Goal g : goals) {
+            assertSame(tagA, g.getFormulaTagManager().getTagForPos(succ(a)));
+            for (SequentFormula sf : antecedent) {
+                assertNotNull(g.getFormulaTagManager()
+                        .getTagForPos(new PosInOccurrence(sf, PosInTerm.getTopLevel(), true)));
+            }
+        }
+
+        // modify the first goal only
+        SequentFormula changed = new SequentFormula(TacletForTests.parseTerm("A -> B"));
+        first.changeFormula(changed, succ(a));
+        first.removeFormula(succ(b));
+        SequentFormula added = new SequentFormula(TacletForTests.parseTerm("D"));
+        first.addFormula(added, true, true);
+
+        FormulaTagManager firstTags = first.getFormulaTagManager();
+        assertSame(tagA, firstTags.getTagForPos(succ(changed)));
+        assertNull(firstTags.getTagForPos(succ(a)));
+        assertSame(changed, firstTags.getPosForTag(tagA).sequentFormula());
+        assertEquals(1, firstTags.getModifications(tagA).size());
+        assertNull(firstTags.getTagForPos(succ(b)));
+        assertNull(firstTags.getPosForTag(tagB));
+        assertNotNull(
+            firstTags.getTagForPos(new PosInOccurrence(added, PosInTerm.getTopLevel(), true)));
+
+        // the second goal still sees the formulas of the split
+        FormulaTagManager secondTags = second.getFormulaTagManager();
+        assertSame(tagA, secondTags.getTagForPos(succ(a)));
+        assertNull(secondTags.getTagForPos(succ(changed)));
+        assertSame(a, secondTags.getPosForTag(tagA).sequentFormula());
+        assertTrue(secondTags.getModifications(tagA).isEmpty());
+        assertSame(tagB, secondTags.getTagForPos(succ(b)));
+        assertNull(
+            secondTags.getTagForPos(new PosInOccurrence(added, PosInTerm.getTopLevel(), true)));
+
+        // and a later change of the second goal does not affect the first one
+        second.removeFormula(succ(a));
+        assertNull(second.getFormulaTagManager().getPosForTag(tagA));
+        assertSame(changed, firstTags.getPosForTag(tagA).sequentFormula());
+    }
+}
@@ -0,0 +1,122 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.settings.ParallelismSettings;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
+
+import org.key_project.logic.PosInTerm;
+import org.key_project.prover.proof.rulefilter.TacletFilter;
+import org.key_project.prover.sequent.PosInOccurrence;
+import org.key_project.prover.sequent.SequentFormula;
+import org.key_project.util.collection.ImmutableList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the multi-threaded taclet index finds the same taclet applications as the
+ * single-threaded one.
+ */
+public class TestMultiThreadedTacletIndex {
+    /** a problem with program, arithmetic and propositional subterms */
+    private static final String PROBLEM = """
+            \\programVariables { int i; int j; }
+            \\problem {
+                i >= 0 & j = i * 2 + 1
+                -> \\<{ i = j + 1; if (i > 0) { j = i * 2; } else { j = -i; } }\\>
+                       (j >= 0 & i + j * 3 <= 10 - i | !(i = j))
+            }
+            """;
+
+    @TempDir
+    Path tmpDir;
+
+    private static List<String> describe(ImmutableList<NoPosTacletApp> apps) {
+        List<String> result = new ArrayList<>();
+        for (NoPosTacletApp app : apps) {
+            result.add(app.taclet().name() + " " + app.instantiations());
+        }
+        return result;
+    }
+
+    /**
+     * compares the applications of the rewrite taclets of both indices at {@code pos} and all of
+     * its subterms
+     *
+     * @return the number of compared positions
+     */
+    private static int compareRewriteTaclets(TacletIndex single, TacletIndex multi,
+            PosInOccurrence pos, Services services) {
+        assertEquals(describe(single.getRewriteTaclet(pos, TacletFilter.TRUE, services)),
+            describe(multi.getRewriteTaclet(pos, TacletFilter.TRUE, services)),
+            () -> "rewrite taclets at " + pos.subTerm());
+        int positions = 1;
+        for (int i = 0; i < pos.subTerm().arity(); i++) {
+            positions += compareRewriteTaclets(single, multi, pos.down(i), services);
+        }
+        return positions;
+    }
+
+    @Test
+    public void testSameTacletAppsAsSingleThreaded() throws Exception {
+        // force the parallel matching of all candidate sets that are large enough
+        final ParallelismSettings settings =
+            ProofIndependentSettings.DEFAULT_INSTANCE.getParallelismSettings();
+        final int minCandidates = settings.getTacletMatchingMinCandidates();
+        final boolean adaptive = settings.isTacletMatchingAdaptive();
+        settings.setTacletMatchingMinCandidates(0);
+        settings.setTacletMatchingAdaptive(false);
+
+        Path problem = tmpDir.resolve("matching.key");
+        Files.writeString(problem, PROBLEM);
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            Proof proof = env.getLoadedProof();
+            Services services = proof.getServices();
+            List<Taclet> taclets = new ArrayList<>(proof.getInitConfig().activatedTaclets());
+            TacletIndex single = new SingleThreadedTacletIndex(taclets);
+            TacletIndex multi = new MultiThreadedTacletIndex(taclets);
+
+            final long parallelBefore = TacletIndexKit.PARALLEL_MATCHINGS.sum();
+            int positions = 0;
+            for (boolean antec : new boolean[] { true, false }) {
+                for (SequentFormula sf : antec ? proof.root().sequent().antecedent()
+                        : proof.root().sequent().succedent()) {
+                    PosInOccurrence pos = new PosInOccurrence(sf, PosInTerm.getTopLevel(), antec);
+                    assertEquals(
+                        describe(single.getAntecedentTaclet(pos, TacletFilter.TRUE, services)),
+                        describe(multi.getAntecedentTaclet(pos, TacletFilter.TRUE, services)));
+                    assertEquals(
+                        describe(single.getSuccedentTaclet(pos, TacletFilter.TRUE, services)),
+                        describe(multi.getSuccedentTaclet(pos, TacletFilter.TRUE, services)));
+                    positions += compareRewriteTaclets(single, multi, pos, services);
+                }
+            }
+            assertTrue(positions > 20, "too few positions: " + positions);
+            assertEquals(describe(single.getNoFindTaclet(TacletFilter.TRUE, services)),
+                describe(multi.getNoFindTaclet(TacletFilter.TRUE, services)));
+            if (settings.getTacletMatchingThreads() > 1) {
+                assertTrue(TacletIndexKit.PARALLEL_MATCHINGS.sum() > parallelBefore,
+                    "nothing was matched in parallel");
+            }
+        } finally {
+            env.dispose();
+            settings.setTacletMatchingMinCandidates(minCandidates);
+            settings.setTacletMatchingAdaptive(adaptive);
+        }
+    }
+}
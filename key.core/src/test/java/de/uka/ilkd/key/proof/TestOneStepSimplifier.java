@@ -3,16 +3,29 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
 
 import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
 import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.init.JavaProfile;
 import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.strategy.StrategyProperties;
+import de.uka.ilkd.key.util.MiscTools;
 
+import org.key_project.logic.PosInTerm;
+import org.key_project.prover.sequent.PosInOccurrence;
+import org.key_project.prover.sequent.SequentFormula;
 import org.key_project.util.helper.FindResources;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class TestOneStepSimplifier {
     public static final Path testCaseDirectory = FindResources.getTestCasesDirectory();
@@ -29,4 +42,87 @@ public class TestOneStepSimplifier {
         Assertions.assertTrue(env.getLoadedProof().closed());
         env.dispose();
     }
+
+    private static KeYEnvironment<DefaultUserInterfaceControl> load(Path file, String oss)
+            throws ProblemLoaderException {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(JavaProfile.getDefaultInstance(), file, null, null, null, true);
+        Proof proof = env.getLoadedProof();
+        StrategyProperties props =
+            proof.getSettings().getStrategySettings().getActiveStrategyProperties();
+        props.setProperty(StrategyProperties.OSS_OPTIONS_KEY, oss);
+        proof.getSettings().getStrategySettings().setActiveStrategyProperties(props);
+        OneStepSimplifier.refreshOSS(proof);
+        return env;
+    }
+
+    /**
+     * Applies one step simplification to the first formula of the succedent of the first goal.
+     *
+     * @return the simplified formula
+     */
+    private static String simplify(Proof proof) {
+        Goal goal = proof.openGoals().head();
+        SequentFormula sf = goal.sequent().succedent().getFirst();
+        goal.apply(MiscTools.findOneStepSimplifier(proof).createApp(
+            new PosInOccurrence(sf, PosInTerm.getTopLevel(), false), proof.getServices()));
+        SequentFormula simplified = proof.openGoals().head().sequent().succedent().getFirst();
+        Assertions.assertNotEquals(sf, simplified);
+        return simplified.formula().toString();
+    }
+
+    private static Set<String> names(Iterable<NoPosTacletApp> apps) {
+        Set<String> result = new TreeSet<>();
+        for (NoPosTacletApp app : apps) {
+            result.add(app.taclet().name().toString());
+        }
+        return result;
+    }
+
+    @Test
+    void interleavedProofs(@TempDir Path tmpDir) throws Exception {
+        Path file = tmpDir.resolve("problem.key");
+        Files.writeString(file, """
+                \\predicates { p; q; }
+                \\problem { (p & true) -> (q | false) }
+                """);
+        KeYEnvironment<DefaultUserInterfaceControl> envOn =
+            load(file, StrategyProperties.OSS_ON);
+        KeYEnvironment<DefaultUserInterfaceControl> envOff =
+            load(file, StrategyProperties.OSS_OFF);
+        try {
+            Proof on = envOn.getLoadedProof();
+            Proof off = envOff.getLoadedProof();
+            OneStepSimplifier oss = MiscTools.findOneStepSimplifier(on);
+            Assertions.assertSame(oss, MiscTools.findOneStepSimplifier(off));
+            Set<String> captured = names(oss.getCapturedTaclets(on));
+            Assertions.assertFalse(captured.isEmpty());
+            Assertions.assertTrue(oss.isShutdown(off));
+
+            // the indices of the proof with OSS switched off are kept up during the replay
+            OneStepSimplifier.beginReplay(off);
+            String simplified = simplify(off);
+            Assertions.assertFalse(oss.isShutdown(off));
+            Assertions.assertEquals(captured, names(oss.getCapturedTaclets(off)));
+            Assertions.assertEquals(captured, names(oss.getCapturedTaclets(on)));
+
+            Assertions.assertEquals(simplified, simplify(on));
+            Assertions.assertFalse(oss.isShutdown(off));
+            Assertions.assertEquals(captured, names(oss.getCapturedTaclets(on)));
+            Assertions.assertEquals(captured, names(oss.getCapturedTaclets(off)));
+
+            // and shut down at its end, which gives the taclets back to the goals
+            OneStepSimplifier.endReplay(off);
+            Assertions.assertTrue(oss.isShutdown(off));
+            Assertions.assertTrue(names(off.openGoals().head().ruleAppIndex().tacletIndex()
+                    .allNoPosTacletApps()).containsAll(captured));
+            Assertions.assertFalse(oss.isShutdown(on));
+            Assertions.assertEquals(captured, names(oss.getCapturedTaclets(on)));
+            Assertions.assertTrue(Collections.disjoint(captured, names(on.openGoals().head()
+                    .ruleAppIndex().tacletIndex().allNoPosTacletApps())));
+        } finally {
+            envOff.dispose();
+            envOn.dispose();
+        }
+    }
 }
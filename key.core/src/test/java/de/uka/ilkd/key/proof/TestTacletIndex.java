@@ -5,12 +5,20 @@ package de.uka.ilkd.key.proof;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
+import de.uka.ilkd.key.control.KeYEnvironment;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.*;
+import de.uka.ilkd.key.logic.op.UpdateApplication;
 import de.uka.ilkd.key.proof.calculus.JavaDLSequentKit;
 import de.uka.ilkd.key.proof.init.AbstractProfile;
 import de.uka.ilkd.key.proof.init.InitConfig;
+import de.uka.ilkd.key.proof.init.JavaProfile;
 import de.uka.ilkd.key.rule.*;
 import de.uka.ilkd.key.util.HelperClassForTests;
 
@@ -30,7 +38,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -210,6 +220,131 @@ public class TestTacletIndex {
             "ruleSucc matched but matching not possible");
     }
 
+    @Test
+    public void testCopyIsIndependent() {
+        Services services = new Services(AbstractProfile.getDefaultProfile());
+        Term term_p1 = TacletForTests.parseTerm("p(one, zero)");
+        PosInOccurrence posSucc =
+            new PosInOccurrence(new SequentFormula(term_p1), PosInTerm.getTopLevel(), false);
+
+        TacletIndex copy = variante_one.copy();
+        copy.remove(ruleSucc);
+        assertFalse(isRuleIn(copy.getSuccedentTaclet(posSucc, TacletFilter.TRUE, services),
+            ruleSucc), "ruleSucc has been removed from the copy.");
+        assertTrue(isRuleIn(variante_one.getSuccedentTaclet(posSucc, TacletFilter.TRUE, services),
+            ruleSucc), "Removing a taclet from a copy must not affect the original index.");
+
+        variante_one.remove(ruleSucc);
+        variante_one.add(ruleSucc);
+        TacletIndex secondCopy = variante_one.copy();
+        variante_one.remove(ruleSucc);
+        assertTrue(isRuleIn(secondCopy.getSuccedentTaclet(posSucc, TacletFilter.TRUE, services),
+            ruleSucc), "Removing a taclet from the original must not affect its copies.");
+    }
+
+    @Test
+    public void testDiscriminationTreePrunesOnSubterms() {
+        NoPosTacletApp removeF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_f"));
+        NoPosTacletApp removeFF = NoPosTacletApp.createNoPosTacletApp(taclet("remove_ff"));
+
+        DiscriminationTree tree = DiscriminationTree.EMPTY
+                .insert(removeF, ((FindTaclet) removeF.taclet()).find())
+                .insert(removeFF, ((FindTaclet) removeFF.taclet()).find());
+
+        ImmutableList<NoPosTacletApp> candidates =
+            tree.getCandidates(TacletForTests.parseTerm("f(f(zero))"));
+        assertEquals(2, candidates.size());
+        assertSame(removeFF, candidates.head(), "most recently inserted taclet comes first");
+
+        candidates = tree.getCandidates(TacletForTests.parseTerm("f(zero)"));
+        assertEquals(1, candidates.size());
+        assertSame(removeF, candidates.head());
+
+        tree = tree.remove(removeF, ((FindTaclet) removeF.taclet()).find());
+        assertTrue(tree.getCandidates(TacletForTests.parseTerm("f(zero)")).isEmpty());
+        assertEquals(1, tree.getAll().size());
+    }
+
+    /**
+     * @return the taclets of {@code apps} whose find pattern matches {@code term}, in the order of
+     *         {@code apps}
+     */
+    private static List<NoPosTacletApp> matching(ImmutableList<NoPosTacletApp> apps, Term term,
+            Services services) {
+        List<NoPosTacletApp> result = new ArrayList<>();
+        for (NoPosTacletApp app : apps) {
+            // the taclet index looks such taclets up with the term below the updates
+            if (term.op() instanceof UpdateApplication
+                    && ((FindTaclet) app.taclet()).ignoreTopLevelUpdates()) {
+                continue;
+            }
+            if (app.taclet().getMatcher().matchFind(term, MatchConditions.EMPTY_MATCHCONDITIONS,
+                services) != null) {
+                result.add(app);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSubsequence(ImmutableList<NoPosTacletApp> sub,
+            ImmutableList<NoPosTacletApp> list) {
+        for (NoPosTacletApp app : list) {
+            if (!sub.isEmpty() && sub.head() == app) {
+                sub = sub.tail();
+            }
+        }
+        return sub.isEmpty();
+    }
+
+    private static void addSubterms(Term term, Set<Term> terms) {
+        if (terms.add(term)) {
+            for (int i = 0; i < term.arity(); i++) {
+                addSubterms(term.sub(i), terms);
+            }
+        }
+    }
+
+    /**
+     * Compares the discrimination trees built from the standard rule base with the plain lists of
+     * their buckets: for the terms of a proof, both retrieve the same matching taclets in the same
+     * order.
+     */
+    @Test
+    public void testDiscriminationTreesAgreeWithBucketLists() throws Exception {
+        KeYEnvironment<?> env = KeYEnvironment.load(JavaProfile.getDefaultInstance(),
+            HelperClassForTests.TESTCASE_DIRECTORY.resolve("merge/gcd.closed.proof"), null, null,
+            null, true);
+        try {
+            Proof proof = env.getLoadedProof();
+            Services services = proof.getServices();
+            // bound the number of terms, each is matched against all taclets
+            Set<Term> terms = new LinkedHashSet<>();
+            for (Iterator<Node> it = proof.root().subtreeIterator(); it.hasNext()
+                    && terms.size() < 500;) {
+                for (SequentFormula sf : it.next().sequent()) {
+                    addSubterms((Term) sf.formula(), terms);
+                }
+            }
+
+            TacletIndex index = proof.getInitConfig().createTacletIndex();
+            List<DiscriminationTree> trees = new ArrayList<>(index.rwList.values());
+            trees.addAll(index.antecList.values());
+            trees.addAll(index.succList.values());
+            assertTrue(trees.size() > 100, "the standard rule base is loaded");
+            for (DiscriminationTree tree : trees) {
+                for (Term term : terms) {
+                    ImmutableList<NoPosTacletApp> candidates = tree.getCandidates(term);
+                    assertTrue(isSubsequence(candidates, tree.getAll()),
+                        () -> "candidates out of order for " + term);
+                    assertEquals(matching(tree.getAll(), term, services),
+                        matching(candidates, term, services), () -> "candidates for " + term);
+                }
+            }
+        } finally {
+            env.dispose();
+        }
+    }
+
     @Test
     public void testMatchConflictOccurs() {
         Services services = new Services(AbstractProfile.getDefaultProfile());
@@ -5,7 +5,6 @@ package de.uka.ilkd.key.proof;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
 
 import de.uka.ilkd.key.java.ServiceCaches;
 import de.uka.ilkd.key.java.Services;
@@ -21,7 +20,7 @@ import org.key_project.prover.proof.rulefilter.SetRuleFilter;
 import org.key_project.prover.proof.rulefilter.TacletFilter;
 import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.prover.sequent.SequentFormula;
-import org.key_project.util.LRUCache;
+import org.key_project.util.ConcurrentLRUCache;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
@@ -84,8 +83,9 @@ public class TestTermTacletAppIndex {
         noCache = null;
     }
 
-    private final Map<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
-        new LRUCache<>(ServiceCaches.MAX_TERM_TACLET_APP_INDEX_ENTRIES);
+    private final ConcurrentLRUCache<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
+        new ConcurrentLRUCache<>("termTacletAppIndex",
+            ServiceCaches.MAX_TERM_TACLET_APP_INDEX_WEIGHT, (key, index) -> index.weight());
 
     private TermTacletAppIndexCacheSet realCache =
         new TermTacletAppIndexCacheSet(termTacletAppIndexCache);
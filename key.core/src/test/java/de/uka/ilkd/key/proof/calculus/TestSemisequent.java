@@ -4,6 +4,8 @@
 package de.uka.ilkd.key.proof.calculus;
 
 
+import java.util.Arrays;
+
 import de.uka.ilkd.key.ldt.JavaDLTheory;
 import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.TermBuilder;
@@ -12,21 +14,28 @@ import de.uka.ilkd.key.logic.sort.SortImpl;
 import de.uka.ilkd.key.rule.TacletForTests;
 
 import org.key_project.logic.Name;
+import org.key_project.logic.PosInTerm;
 import org.key_project.logic.op.Function;
 import org.key_project.logic.sort.Sort;
+import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.prover.sequent.Semisequent;
 import org.key_project.prover.sequent.SemisequentChangeInfo;
+import org.key_project.prover.sequent.Sequent;
 import org.key_project.prover.sequent.SequentFormula;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestSemisequent {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestSemisequent.class);
 
     private SequentFormula[] con;
 
@@ -329,4 +338,117 @@ public class TestSemisequent {
         assertSame(a, b);
     }
 
+    private static SequentFormula[] distinctFormulas(int n) {
+        TermBuilder TB = TacletForTests.services().getTermBuilder();
+        SequentFormula[] result = new SequentFormula[n];
+        for (int i = 0; i < n; i++) {
+            Function f = new JFunction(new Name("large" + i), JavaDLTheory.FORMULA);
+            result[i] = new SequentFormula(TB.func(f));
+        }
+        return result;
+    }
+
+    @Test
+    public void testPositionalAccessOnLargeSemisequent() {
+        SequentFormula[] formulas = distinctFormulas(300);
+        Semisequent seq = extract(JavaDLSequentKit.emptySemisequent()
+                .insertLast(ImmutableSLList.<SequentFormula>nil().prepend(formulas)));
+        assertEquals(formulas.length, seq.size());
+        for (int i = 0; i < formulas.length; i++) {
+            assertSame(formulas[i], seq.get(i));
+            assertEquals(i, seq.indexOf(formulas[i]));
+        }
+        assertEquals(-1, seq.indexOf(new SequentFormula(formulas[0].formula())));
+
+        SemisequentChangeInfo removed = seq.remove(150);
+        assertEquals(ImmutableSLList.singleton(formulas[150]), removed.removedFormulas());
+        Semisequent shorter = extract(removed);
+        assertEquals(formulas.length - 1, shorter.size());
+        assertSame(formulas[149], shorter.get(149));
+        assertSame(formulas[151], shorter.get(150));
+        // the formulas behind the removed one are shared with the original semisequent
+        assertSame(seq.asList().take(151), shorter.asList().take(150));
+
+        SequentFormula replacement = distinctFormulas(1)[0];
+        Semisequent replaced = extract(seq.replace(42, replacement));
+        assertEquals(formulas.length, replaced.size());
+        assertSame(replacement, replaced.get(42));
+        assertEquals(42, replaced.indexOf(replacement));
+        assertEquals(-1, replaced.indexOf(formulas[42]));
+        assertSame(formulas[43], replaced.get(43));
+        assertSame(seq.asList().take(43), replaced.asList().take(43));
+        // the original semisequent is not affected
+        assertSame(formulas[42], seq.get(42));
+    }
+
+    private static void assertPositionalAccess(Semisequent seq) {
+        int i = 0;
+        for (SequentFormula sf : seq.asList()) {
+            assertSame(sf, seq.get(i));
+            assertEquals(i, seq.indexOf(sf));
+            i++;
+        }
+        assertEquals(seq.size(), i);
+    }
+
+    /**
+     * The sequent operations pass the formula array of a changed semisequent on to the new one.
+     */
+    @Test
+    public void testPositionalAccessAfterSequentChanges() {
+        SequentFormula[] all = distinctFormulas(80);
+        SequentFormula[] formulas = Arrays.copyOf(all, 60);
+        SequentFormula[] added = Arrays.copyOfRange(all, 60, 80);
+        Sequent seq = JavaDLSequentKit
+                .createAnteSequent(ImmutableSLList.<SequentFormula>nil().prepend(formulas));
+        assertPositionalAccess(seq.antecedent());
+        for (int i = 0; i < added.length; i++) {
+            SequentFormula sf = seq.antecedent().get((7 * i) % seq.antecedent().size());
+            PosInOccurrence pos = new PosInOccurrence(sf, PosInTerm.getTopLevel(), true);
+            seq = switch (i % 4) {
+            case 0 -> seq.changeFormula(added[i], pos).sequent();
+            case 1 -> seq.removeFormula(pos).sequent();
+            case 2 -> seq.addFormula(added[i], pos).sequent();
+            default -> seq.addFormula(added[i], true, i % 8 == 3).sequent();
+            };
+            assertPositionalAccess(seq.antecedent());
+        }
+        // every fourth step removes a formula, two of four add one
+        assertEquals(formulas.length + added.length / 4, seq.antecedent().size());
+    }
+
+    /**
+     * Measures positional access and updates on semisequents of the size which occurs in proofs
+     * about heap-heavy programs.
+     */
+    @Tag("performance")
+    @Test
+    public void benchmarkLargeSemisequents() {
+        for (int n : new int[] { 50, 200, 800 }) {
+            SequentFormula[] formulas = distinctFormulas(n);
+            Semisequent seq = extract(JavaDLSequentKit.emptySemisequent()
+                    .insertLast(ImmutableSLList.<SequentFormula>nil().prepend(formulas)));
+            int rounds = 200_000 / n;
+            long start = System.nanoTime();
+            int found = 0;
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < n; i += 3) {
+                    found += seq.get(i) == formulas[i] ? 1 : 0;
+                    found += seq.indexOf(formulas[i]) == i ? 1 : 0;
+                }
+            }
+            long accessTime = System.nanoTime() - start;
+            assertTrue(found > 0);
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                int idx = r % n;
+                assertEquals(n - 1, seq.remove(idx).getFormulaList().size());
+                assertEquals(n, seq.replace(idx, formulas[idx]).getFormulaList().size());
+            }
+            long updateTime = System.nanoTime() - start;
+            LOGGER.info("{} formulas: get/indexOf {} ms, remove/replace {} ms", n,
+                accessTime / 1_000_000, updateTime / 1_000_000);
+        }
+    }
 }
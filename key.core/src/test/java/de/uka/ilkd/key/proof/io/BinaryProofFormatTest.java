@@ -0,0 +1,290 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.nparser.KeYLexer;
+import de.uka.ilkd.key.nparser.ParsingFacade;
+import de.uka.ilkd.key.nparser.ProofReplayer;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.key_project.util.helper.FindResources;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryProofFormatTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryProofFormatTest.class);
+
+    private static final String HEADER = """
+            \\profile "Java Profile";
+            \\problem { true }
+            """;
+
+    private static final String PROOF = HEADER + """
+            \\proof {
+            (keyLog "0" (keyUser "me" ) (keyVersion "abc"))
+            (autoModeTime "123456789012")
+            (branch "dummy ID"
+            (rule "andRight" (formula "1") (term "1,0")
+             (inst "x=a \\"q\\" \\\\ b") (userinteraction))
+            (branch "Case 1"
+             (builtin "One Step Simplification" (formula "-3") (newnames "a,b"))
+             (rule "closeTrue" (formula "1"))
+            )
+            (branch
+             (rule "andRight" (formula "1") (term ""))
+             (opengoal "==> x")
+            )
+            )
+            }
+            """;
+
+    @TempDir
+    Path tmpDir;
+
+    /**
+     * Records the events of a proof as strings.
+     */
+    private static final class Recorder implements IProofFileParser {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginExpr(ProofElementID eid, String str) {
+            events.add("(" + eid + " " + str);
+        }
+
+        @Override
+        public void endExpr(ProofElementID eid, int lineNr) {
+            events.add(")" + eid);
+        }
+
+        @Override
+        public String getStatus() {
+            return "";
+        }
+
+        @Override
+        public List<Throwable> getErrors() {
+            return List.of();
+        }
+    }
+
+    private static List<String> textEvents(String text) {
+        CharStream stream = CharStreams.fromString(text, "test.proof");
+        KeYLexer lexer = ParsingFacade.createLexer(stream);
+        Token token;
+        do {
+            token = lexer.nextToken();
+        } while (token.getType() != KeYLexer.PROOF);
+        Recorder recorder = new Recorder();
+        ProofReplayer.run(token, stream, recorder, URI.create("test:proof"));
+        return recorder.events;
+    }
+
+    private static BinaryProofFormat.Reader toBinary(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryProofFormat.fromText(CharStreams.fromString(text, "test.proof"), out);
+        return new BinaryProofFormat.Reader(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Test
+    public void testReplayedEventsAreEqual() throws IOException {
+        BinaryProofFormat.Reader reader = toBinary(PROOF);
+        assertEquals(HEADER, reader.getHeader());
+        assertFalse(reader.mayContainMergeRuleApps());
+
+        Recorder recorder = new Recorder();
+        reader.replay(recorder);
+        assertEquals(textEvents(PROOF), recorder.events);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        StringBuilder text = new StringBuilder();
+        BinaryProofFormat.toText(toBinary(PROOF), text);
+        assertTrue(text.toString().startsWith(HEADER));
+        assertEquals(textEvents(PROOF), textEvents(text.toString()));
+    }
+
+    @Test
+    public void testReplaySingleBranch() throws IOException {
+        BinaryProofFormat.Reader reader = toBinary(PROOF);
+        assertEquals(3, reader.getBranchOffsets().length);
+
+        Recorder recorder = new Recorder();
+        reader.replay(reader.getBranchOffsets()[2], recorder);
+        assertEquals(List.of("(BRANCH null", "(RULE andRight", "(FORMULA 1", ")FORMULA", "(TERM ",
+            ")TERM", ")RULE", "(OPEN_GOAL ==> x", ")OPEN_GOAL", ")BRANCH"), recorder.events);
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryProofFormat.fromText(CharStreams.fromString(PROOF, "test.proof"), out);
+        byte[] bytes = out.toByteArray();
+        assertThrows(IOException.class, () -> new BinaryProofFormat.Reader(
+            ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3))));
+        assertThrows(IOException.class,
+            () -> new BinaryProofFormat.Reader(ByteBuffer.wrap(PROOF.getBytes())));
+    }
+
+    private static KeYEnvironment<?> loadTestCase(String name) throws Exception {
+        Path file = FindResources.getTestCasesDirectory().resolve(name);
+        return KeYEnvironment.load(JavaProfile.getDefaultInstance(), file, null, null, null,
+            true);
+    }
+
+    /**
+     * Checks that the text printed by the saver is read back as the events of the proof tree and
+     * that the saved proof can be loaded again.
+     */
+    private void assertTextualProofHasEventsOfProofTree(Path file) throws Exception {
+        Path saved = tmpDir.resolve("saved.proof");
+        int nodes;
+        boolean closed;
+        KeYEnvironment<?> env = KeYEnvironment.load(JavaProfile.getDefaultInstance(), file, null,
+            null, null, true);
+        try {
+            Proof proof = env.getLoadedProof();
+            OutputStreamProofSaver saver = new OutputStreamProofSaver(proof, "n/a");
+            StringBuilder text = new StringBuilder("\\proof {\n");
+            saver.node2Proof(proof.root(), text);
+            text.append("}\n");
+
+            Recorder recorder = new Recorder();
+            new ProofEventWriter(saver, recorder, 2).writeBranch(proof.root());
+            assertEquals(textEvents(text.toString()), recorder.events);
+
+            nodes = proof.countNodes();
+            closed = proof.closed();
+            assertNull(new ProofSaver(proof, saved, "n/a").save());
+        } finally {
+            env.dispose();
+        }
+
+        KeYEnvironment<?> loaded = KeYEnvironment.load(saved);
+        try {
+            assertEquals(nodes, loaded.getLoadedProof().countNodes());
+            assertEquals(closed, loaded.getLoadedProof().closed());
+        } finally {
+            loaded.dispose();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "merge/gcd.closed.proof",
+        "merge/gcd.closed.predicateAbstractionWithUserChoices.proof" })
+    public void testEventsOfProofTreeEqualTextualProof(String name) throws Exception {
+        assertTextualProofHasEventsOfProofTree(FindResources.getTestCasesDirectory().resolve(name));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "standard_key/java_dl/while2.key.proof",
+        "standard_key/BookExamples/08ProofObligations/Sect8.1.4.key.proof",
+        "standard_key/arith/overflow1_add.proof", "standard_key/java_dl/continue2.key.proof",
+        "standard_key/arith/jdivevenodd.key.proof", "standard_key/reachable/getLast.key.proof",
+        "standard_key/java_dl/casts.key.proof", "standard_key/strings/proofs/charAtConcat.proof",
+        "standard_key/strings/Case_Studies/example1_contains_respectsMod_id4.proof" })
+    public void testEventsOfExampleProofTreesEqualTextualProof(String name) throws Exception {
+        Path examples = FindResources.getExampleDirectory();
+        assertNotNull(examples);
+        assertTextualProofHasEventsOfProofTree(examples.resolve(name));
+    }
+
+    /**
+     * Compares saving and loading binary proofs with gzipped textual proofs.
+     */
+    @Tag("performance")
+    @Test
+    public void benchmarkAgainstGZip() throws Exception {
+        final int runs = 5;
+        Path gzip = tmpDir.resolve("gcd.proof.gz");
+        Path binary = tmpDir.resolve("gcd" + BinaryProofFormat.FILE_EXTENSION);
+
+        KeYEnvironment<?> env = loadTestCase("merge/gcd.closed.proof");
+        long gzipSave = Long.MAX_VALUE;
+        long binarySave = Long.MAX_VALUE;
+        try {
+            Proof proof = env.getLoadedProof();
+            for (int i = 0; i < runs; i++) {
+                long start = System.nanoTime();
+                assertNull(new GZipProofSaver(proof, gzip.toString(), "n/a").save());
+                gzipSave = Math.min(gzipSave, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                assertNull(new BinaryProofSaver(proof, binary, "n/a").save());
+                binarySave = Math.min(binarySave, System.nanoTime() - start);
+            }
+        } finally {
+            env.dispose();
+        }
+
+        long gzipLoad = Long.MAX_VALUE;
+        long binaryLoad = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            KeYEnvironment<?> loaded = KeYEnvironment.load(gzip);
+            gzipLoad = Math.min(gzipLoad, System.nanoTime() - start);
+            assertTrue(loaded.getLoadedProof().closed());
+            loaded.dispose();
+
+            start = System.nanoTime();
+            loaded = KeYEnvironment.load(binary);
+            binaryLoad = Math.min(binaryLoad, System.nanoTime() - start);
+            assertTrue(loaded.getLoadedProof().closed());
+            loaded.dispose();
+        }
+
+        LOGGER.info("gzip: {} bytes, save {} ms, load {} ms", Files.size(gzip),
+            gzipSave / 1_000_000, gzipLoad / 1_000_000);
+        LOGGER.info("binary: {} bytes, save {} ms, load {} ms", Files.size(binary),
+            binarySave / 1_000_000, binaryLoad / 1_000_000);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Path file = tmpDir.resolve("keyZipTest.key");
+        Path target = tmpDir.resolve("keyZipTest" + BinaryProofFormat.FILE_EXTENSION);
+        try (InputStream in = getClass().getResourceAsStream("keyZipTest.key")) {
+            Files.copy(in, file);
+        }
+
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(file);
+        env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+        assertNull(new BinaryProofSaver(env.getLoadedProof(), target, "n/a").save());
+        env.dispose();
+        assertTrue(BinaryProofFormat.isBinaryProof(target));
+
+        KeYEnvironment<DefaultUserInterfaceControl> loaded = KeYEnvironment.load(target);
+        try {
+            assertTrue(loaded.getLoadedProof().closed());
+        } finally {
+            loaded.dispose();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.logic.NamespaceSet;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.parser.DefaultTermParser;
+import de.uka.ilkd.key.pp.AbbrevMap;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.key_project.prover.sequent.SequentFormula;
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static de.uka.ilkd.key.logic.equality.RenamingTermProperty.RENAMING_TERM_PROPERTY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastTermReaderTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FastTermReaderTest.class);
+
+    private static KeYEnvironment<?> env;
+    private static Proof proof;
+    private static List<String> printedTerms;
+
+    @BeforeAll
+    static void loadProof() throws Exception {
+        Path file = FindResources.getTestCasesDirectory().resolve("merge/gcd.closed.proof");
+        env = KeYEnvironment.load(JavaProfile.getDefaultInstance(), file, null, null, null, true);
+        proof = env.getLoadedProof();
+
+        Set<String> terms = new LinkedHashSet<>();
+        Iterator<Node> it = proof.root().subtreeIterator();
+        while (it.hasNext()) {
+            for (SequentFormula sf : it.next().sequent()) {
+                terms.add(OutputStreamProofSaver.printTerm((Term) sf.formula(),
+                    proof.getServices()));
+            }
+        }
+        printedTerms = new ArrayList<>(terms);
+    }
+
+    @AfterAll
+    static void dispose() {
+        env.dispose();
+    }
+
+    private static Term read(String text) {
+        NamespaceSet nss = proof.getNamespaces();
+        return FastTermReader.forProof(proof).read(text, nss.variables(), nss.programVariables(),
+            nss.functions());
+    }
+
+    private static Term parse(String text) throws Exception {
+        NamespaceSet nss = proof.getNamespaces();
+        return new DefaultTermParser().parse(new StringReader(text), null, proof.getServices(),
+            nss.variables(), nss.functions(), nss.sorts(), nss.programVariables(),
+            new AbbrevMap());
+    }
+
+    @Test
+    void readsLikeParser() throws Exception {
+        int read = 0;
+        for (String text : printedTerms) {
+            Term parsed;
+            try {
+                parsed = parse(text);
+            } catch (Exception e) {
+                // uses symbols local to some branch
+                continue;
+            }
+            // read twice, the second time the memoized subterms are used
+            for (int i = 0; i < 2; i++) {
+                Term term = read(text);
+                if (term != null) {
+                    assertTrue(RENAMING_TERM_PROPERTY.equalsModThisProperty(parsed, term),
+                        "Read " + term + " instead of " + parsed);
+                    read++;
+                }
+            }
+        }
+        assertTrue(read > 0);
+    }
+
+    @Test
+    void givesUpOnUnknownConstructs() {
+        assertNotNull(read("\\forall int x; x = x"));
+        assertNotNull(read("\\if (true) \\then (Z(1(#))) \\else (Z(2(#)))"));
+        assertNull(read("\\<{ }\\>true"));
+        assertNull(read("lt(Z(1(#)), Z(2(#)))<<origin(\"x\")>>"));
+        assertNull(read("Z(1(#)) + Z(2(#))"));
+        assertNull(read("unknownSymbol"));
+        assertNull(read("true & "));
+    }
+
+    @Tag("performance")
+    @Test
+    void compareWithParser() throws Exception {
+        List<String> texts = new ArrayList<>();
+        for (String text : printedTerms) {
+            try {
+                parse(text);
+                texts.add(text);
+            } catch (Exception ignored) {
+            }
+        }
+        long start = System.nanoTime();
+        for (String text : texts) {
+            parse(text);
+        }
+        long parserTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int read = 0;
+        for (String text : texts) {
+            if (read(text) != null) {
+                read++;
+            }
+        }
+        long readerTime = System.nanoTime() - start;
+
+        LOGGER.info("{} terms: parser {} ms, reader {} ms ({} read without parser)",
+            texts.size(), parserTime / 1_000_000, readerTime / 1_000_000, read);
+        assertTrue(readerTime < parserTime);
+    }
+}
@@ -0,0 +1,90 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that replaying proofs while parsing them leads to the same proofs as replaying the
+ * intermediate proof tree.
+ */
+public class StreamingReplayTest {
+    /**
+     * The shape of a loaded proof.
+     *
+     * @param nodes per serial number, the applied rule and the number of children
+     * @param closedGoals the number of closed goals
+     * @param openGoals the number of open goals
+     */
+    private record Shape(List<String> nodes, int closedGoals, int openGoals) {
+    }
+
+    private static Shape load(Path file, boolean streaming) throws Exception {
+        AbstractProblemLoader loader = new SingleThreadProblemLoader(file, null, null, null,
+            JavaProfile.getDefaultInstance(), false, new DefaultUserInterfaceControl(null), false,
+            null);
+        loader.setStreamingReplay(streaming);
+        loader.load();
+        Proof proof = loader.getProof();
+        try {
+            assertTrue(loader.getResult().getErrorList().isEmpty(),
+                () -> "errors: " + loader.getResult().getErrorList());
+            List<String> nodes = new ArrayList<>();
+            for (int i = 0; i < proof.countNodes(); i++) {
+                final int serialNr = i;
+                Node node = proof.findAny(n -> n.serialNr() == serialNr);
+                assertNotNull(node, "missing node " + serialNr);
+                nodes.add((node.getAppliedRuleApp() == null ? "leaf"
+                        : node.getAppliedRuleApp().rule().name().toString())
+                    + "/" + node.childrenCount());
+            }
+            return new Shape(nodes, proof.closedGoals().size(), proof.openGoals().size());
+        } finally {
+            proof.dispose();
+        }
+    }
+
+    private static void assertSameShape(Path file) throws Exception {
+        Shape tree = load(file, false);
+        Shape streamed = load(file, true);
+        assertEquals(tree.nodes().size(), streamed.nodes().size(), "number of nodes");
+        assertEquals(tree, streamed);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "standard_key/java_dl/while2.key.proof",
+        "standard_key/BookExamples/08ProofObligations/Sect8.1.4.key.proof",
+        "standard_key/arith/overflow1_add.proof", "standard_key/java_dl/continue2.key.proof",
+        "standard_key/arith/jdivevenodd.key.proof", "standard_key/reachable/getLast.key.proof",
+        "standard_key/java_dl/casts.key.proof", "standard_key/strings/proofs/charAtConcat.proof",
+        "standard_key/strings/Case_Studies/example1_contains_respectsMod_id4.proof" })
+    public void testExamples(String name) throws Exception {
+        Path examples = FindResources.getExampleDirectory();
+        assertNotNull(examples);
+        assertSameShape(examples.resolve(name));
+    }
+
+    /**
+     * Proofs with merge rule applications fall back to the replay of the proof tree.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "merge/gcd.closed.proof" })
+    public void testMergeProofs(String name) throws Exception {
+        assertSameShape(FindResources.getTestCasesDirectory().resolve(name));
+    }
+}
@@ -0,0 +1,91 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProofCacheTest {
+    @TempDir
+    Path tmpDir;
+
+    private Path problem;
+
+    @BeforeEach
+    void copyProblem() throws Exception {
+        problem = tmpDir.resolve("keyZipTest.key");
+        try (InputStream in =
+            getClass().getResourceAsStream("/de/uka/ilkd/key/proof/io/keyZipTest.key")) {
+            Files.copy(in, problem);
+        }
+    }
+
+    private void proveAndStore(ProofCache cache) throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+            assertTrue(env.getLoadedProof().closed());
+            assertTrue(cache.store(env.getLoadedProof()) > 0);
+            assertEquals(0, cache.store(env.getLoadedProof()));
+        } finally {
+            env.dispose();
+        }
+    }
+
+    private static long countEntries(ProofCache cache) throws Exception {
+        try (Stream<Path> files = Files.list(cache.getDirectory())) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void closesGoalInNewSession() throws Exception {
+        ProofCache cache = new ProofCache(tmpDir.resolve("cache"), ProofCache.DEFAULT_MAX_SIZE,
+            ProofCache.DEFAULT_MAX_AGE);
+        proveAndStore(cache);
+
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            Proof proof = env.getLoadedProof();
+            Goal root = proof.openGoals().head();
+            assertNotNull(cache.lookup(root));
+            assertTrue(cache.markHit(root));
+            assertFalse(root.isAutomatic());
+
+            assertEquals(1, cache.closeMarkedGoals(proof));
+            assertTrue(proof.closed());
+            assertNull(proof.root().lookup(ProofCache.Hit.class));
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    void evictsEntries() throws Exception {
+        ProofCache cache = new ProofCache(tmpDir.resolve("cache"), 0,
+            ProofCache.DEFAULT_MAX_AGE);
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            env.getProofControl().startAndWaitForAutoMode(env.getLoadedProof());
+            // the entries are stored and evicted immediately
+            assertTrue(cache.store(env.getLoadedProof()) > 0);
+        } finally {
+            env.dispose();
+        }
+        assertEquals(0, countEntries(cache));
+    }
+}
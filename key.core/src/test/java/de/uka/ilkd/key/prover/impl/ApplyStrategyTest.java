@@ -0,0 +1,71 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplyStrategyTest {
+    /** a problem whose proof branches several times */
+    private static final String PROBLEM = """
+            \\predicates { p; q; r; }
+            \\problem {
+                (p & q -> q & p) & (p | r -> r | p) & (p -> (q -> p)) & (r & (p | q) -> r)
+            }
+            """;
+
+    @TempDir
+    Path tmpDir;
+
+    /**
+     * Proves the problem in a new environment.
+     *
+     * @return the name of the applied rule and the number of children of every node in the order
+     *         of their serial numbers
+     */
+    private List<String> prove(Path problem) throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            Proof proof = env.getLoadedProof();
+            env.getProofControl().startAndWaitForAutoMode(proof);
+            assertTrue(proof.closed());
+            assertTrue(proof.countBranches() > 1, "the proof does not branch");
+
+            List<String> steps = new ArrayList<>();
+            for (int i = 0; i < proof.countNodes(); i++) {
+                final int serialNr = i;
+                Node node = proof.findAny(n -> n.serialNr() == serialNr);
+                assertNotNull(node, "missing node " + serialNr);
+                steps.add((node.getAppliedRuleApp() == null ? "leaf"
+                        : node.getAppliedRuleApp().rule().name().toString())
+                    + "/" + node.childrenCount());
+            }
+            return steps;
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Test
+    void closesProofDeterministically() throws Exception {
+        Path problem = tmpDir.resolve("branching.key");
+        Files.writeString(problem, PROBLEM);
+        List<String> first = prove(problem);
+        List<String> second = prove(problem);
+        assertEquals(first.size(), second.size());
+        assertEquals(first, second);
+    }
+}
@@ -0,0 +1,76 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays several proofs with one step simplification steps at the same time. The simplifier
+ * keeps its state per proof, so the proofs must neither block nor disturb each other.
+ */
+class OneStepSimplifierConcurrencyTest {
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(OneStepSimplifierConcurrencyTest.class);
+
+    private static final int PROOFS = 4;
+
+    private static boolean replay(Path file) throws Exception {
+        KeYEnvironment<?> env =
+            KeYEnvironment.load(JavaProfile.getDefaultInstance(), file, null, null, null, true);
+        try {
+            return env.getLoadedProof().closed();
+        } finally {
+            env.dispose();
+        }
+    }
+
+    @Tag("performance")
+    @Test
+    void compareConcurrentWithSequentialReplay() throws Exception {
+        Path file = FindResources.getTestCasesDirectory().resolve("merge/gcd.closed.proof");
+        // warm up
+        assertTrue(replay(file));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < PROOFS; i++) {
+            assertTrue(replay(file));
+        }
+        long sequentialTime = System.nanoTime() - start;
+
+        ExecutorService pool = Executors.newFixedThreadPool(PROOFS);
+        try {
+            start = System.nanoTime();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < PROOFS; i++) {
+                results.add(pool.submit(() -> replay(file)));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Proof not closed after concurrent replay");
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long concurrentTime = System.nanoTime() - start;
+
+        LOGGER.info("{} proofs: sequential {} ms, concurrent {} ms", PROOFS,
+            sequentialTime / 1_000_000, concurrentTime / 1_000_000);
+    }
+}
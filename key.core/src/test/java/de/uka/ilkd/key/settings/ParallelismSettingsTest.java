@@ -0,0 +1,54 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.settings;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelismSettingsTest {
+    @Test
+    void readsWrittenSettings() throws IOException {
+        var settings = new ParallelismSettings();
+        settings.setTacletMatchingThreads(3);
+        settings.setTacletMatchingMinCandidates(17);
+        settings.setTacletMatchingAdaptive(false);
+        settings.setSmtProcesses(5);
+        settings.setSmtProcessPooling(false);
+        settings.setSmtPortfolio(true);
+        settings.setParsingThreads(2);
+        settings.setReplayThreads(7);
+
+        var config = new Configuration();
+        settings.writeSettings(config);
+        var out = new StringWriter();
+        config.save(out, "");
+
+        var read = new ParallelismSettings();
+        read.readSettings(Configuration.load(CharStreams.fromString(out.toString())));
+        assertEquals(3, read.getTacletMatchingThreads());
+        assertEquals(17, read.getTacletMatchingMinCandidates());
+        assertFalse(read.isTacletMatchingAdaptive());
+        assertEquals(5, read.getSmtProcesses());
+        assertFalse(read.isSmtProcessPooling());
+        assertTrue(read.isSmtPortfolio());
+        assertEquals(2, read.getParsingThreads());
+        assertEquals(7, read.getReplayThreads());
+    }
+
+    @Test
+    void keepsDefaultsOfMissingSettings() {
+        var defaults = new ParallelismSettings();
+        var read = new ParallelismSettings();
+        read.readSettings(new Configuration());
+        assertEquals(defaults.getTacletMatchingMinCandidates(),
+            read.getTacletMatchingMinCandidates());
+        assertEquals(defaults.isTacletMatchingAdaptive(), read.isTacletMatchingAdaptive());
+        assertEquals(defaults.getReplayThreads(), read.getReplayThreads());
+    }
+}
@@ -0,0 +1,69 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A stand-in for an external SMT solver that understands just enough SMT-LIB to test the
+ * communication with solver processes without a real solver installed. The answer to
+ * {@code (check-sat)} is taken from a comment {@code ; fake: <answer>} in the problem, e.g.,
+ * {@code ; fake: unsat}; {@code ; fake: sleep <ms>} delays the answer.
+ */
+public final class FakeSolver {
+
+    private FakeSolver() {
+    }
+
+    /**
+     * @return the command line starting a fake solver in a new JVM
+     */
+    public static String[] command() {
+        return new String[] { System.getProperty("java.home") + "/bin/java", "-cp",
+            System.getProperty("java.class.path"), FakeSolver.class.getName() };
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BufferedReader in =
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        List<String> directives = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("; fake:")) {
+                directives.add(line.substring("; fake:".length()).trim());
+            } else if (line.equals("(check-sat)")) {
+                String answer = "unknown";
+                for (String directive : directives) {
+                    if (directive.startsWith("sleep ")) {
+                        Thread.sleep(Long.parseLong(directive.substring("sleep ".length())));
+                    } else {
+                        answer = directive;
+                    }
+                }
+                reply(answer);
+            } else if (line.equals("(reset)")) {
+                directives.clear();
+            } else if (line.startsWith("(echo \"")) {
+                reply(line.substring("(echo \"".length(), line.length() - 2));
+            } else if (line.equals("(get-unsat-core)") || line.equals("(get-model)")) {
+                reply("()");
+            } else if (line.equals("(get-info :pid)")) {
+                reply(String.valueOf(ProcessHandle.current().pid()));
+            } else if (line.equals("(exit)")) {
+                return;
+            }
+        }
+    }
+
+    private static void reply(String message) {
+        System.out.println(message);
+        System.out.flush();
+    }
+}
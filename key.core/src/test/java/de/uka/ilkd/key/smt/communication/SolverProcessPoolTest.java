@@ -0,0 +1,120 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the reuse and cancellation of solver processes by the {@link SolverProcessPool}, using
+ * the {@link FakeSolver} instead of a real SMT solver.
+ */
+@Timeout(60)
+public class SolverProcessPoolTest {
+    private static final String[] DELIMITERS = { "\n", "\r" };
+
+    private final SolverProcessPool pool = new SolverProcessPool(2, true);
+
+    @AfterEach
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * runs a problem the way SMTSolverImplementation does and returns its result
+     */
+    private static ThreeValuedTruth solve(Pipe pipe, String answer)
+            throws IOException, InterruptedException {
+        Z3Socket socket = new Z3Socket("fake", null);
+        pipe.sendMessage("; fake: " + answer + "\n(check-sat)");
+        String msg = pipe.readMessage();
+        while (msg != null) {
+            socket.messageIncoming(pipe, msg);
+            msg = pipe.readMessage();
+        }
+        return pipe.getSolverCommunication().getFinalResult().isValid();
+    }
+
+    @Test
+    public void testProcessIsReused() throws Exception {
+        SolverCommunication first = new SolverCommunication();
+        PooledPipe pipe = pool.lease(FakeSolver.command(), DELIMITERS, first);
+        assertEquals(ThreeValuedTruth.VALID, solve(pipe, "unsat"));
+        pool.release(pipe);
+        assertEquals(1, pool.getStatistics().idle());
+
+        SolverCommunication second = new SolverCommunication();
+        PooledPipe again = pool.lease(FakeSolver.command(), DELIMITERS, second);
+        assertSame(pipe, again);
+        assertSame(second, again.getSolverCommunication());
+        assertEquals(1, again.getPreviousUses());
+        assertEquals(ThreeValuedTruth.FALSIFIABLE, solve(again, "sat"));
+        // the result of the first problem is not affected
+        assertEquals(ThreeValuedTruth.VALID, first.getFinalResult().isValid());
+        pool.release(again);
+
+        SolverProcessPool.Statistics stats = pool.getStatistics();
+        assertEquals(1, stats.started());
+        assertEquals(1, stats.reused());
+        assertEquals(0, stats.discarded());
+    }
+
+    @Test
+    public void testInterruptedProcessIsDiscarded() throws Exception {
+        ExternalProcessLauncher launcher =
+            new ExternalProcessLauncher(new SolverCommunication(), DELIMITERS, pool);
+        launcher.launch(FakeSolver.command());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ThreeValuedTruth> result =
+                executor.submit(() -> solve(launcher.getPipe(), "sleep 600000"));
+            Thread.sleep(200);
+            // this is what happens if a solver is interrupted
+            launcher.stop();
+            assertEquals(ThreeValuedTruth.UNKNOWN, result.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        SolverProcessPool.Statistics stats = pool.getStatistics();
+        assertEquals(1, stats.discarded());
+        assertEquals(0, stats.idle());
+
+        // the next problem gets a fresh process
+        PooledPipe pipe = pool.lease(FakeSolver.command(), DELIMITERS, new SolverCommunication());
+        assertEquals(0, pipe.getPreviousUses());
+        assertEquals(ThreeValuedTruth.VALID, solve(pipe, "unsat"));
+        pool.release(pipe);
+        assertEquals(2, pool.getStatistics().started());
+    }
+
+    @Test
+    public void testUnpooledProcessIsDiscarded() throws Exception {
+        SolverProcessPool unpooled = new SolverProcessPool(1, false);
+        PooledPipe pipe =
+            unpooled.lease(FakeSolver.command(), DELIMITERS, new SolverCommunication());
+        assertEquals(ThreeValuedTruth.VALID, solve(pipe, "unsat"));
+        unpooled.release(pipe);
+        assertEquals(0, unpooled.getStatistics().idle());
+        assertEquals(1, unpooled.getStatistics().discarded());
+    }
+
+    @Test
+    public void testPermits() {
+        assertTrue(pool.tryAcquirePermit());
+        assertTrue(pool.tryAcquirePermit());
+        assertFalse(pool.tryAcquirePermit());
+        pool.releasePermit();
+        assertTrue(pool.tryAcquirePermit());
+        pool.releasePermit();
+        pool.releasePermit();
+    }
+}
@@ -0,0 +1,96 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.smt.SMTSolverResult;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverResultCacheTest {
+    private static final String[] COMMAND = { "z3", "-in", "-smt2" };
+
+    private static List<String> output(SolverCommunication communication) {
+        List<String> result = new ArrayList<>();
+        for (SolverCommunication.Message m : communication.getOutMessages()) {
+            result.add(m.content());
+        }
+        return result;
+    }
+
+    @Test
+    public void testKeyDependsOnAllParts() {
+        String key = SolverResultCache.computeKey("(check-sat)", COMMAND, "4.12", 2000);
+        assertEquals(key, SolverResultCache.computeKey("(check-sat)", COMMAND, "4.12", 2000));
+        assertNotEquals(key, SolverResultCache.computeKey("(check-sat) ", COMMAND, "4.12", 2000));
+        assertNotEquals(key, SolverResultCache.computeKey("(check-sat)", COMMAND, "4.13", 2000));
+        assertNotEquals(key, SolverResultCache.computeKey("(check-sat)", COMMAND, "4.12", 3000));
+        assertNotEquals(key, SolverResultCache.computeKey("(check-sat)",
+            new String[] { "z3", "-in" }, "4.12", 2000));
+    }
+
+    @Test
+    public void testResultsPersist() throws IOException {
+        Path file = Files.createTempFile("smtResultCache", ".txt");
+        try {
+            SolverResultCache cache = new SolverResultCache(file);
+            String unsat = SolverResultCache.computeKey("unsat problem", COMMAND, "4.12", 2000);
+            String sat = SolverResultCache.computeKey("sat problem", COMMAND, "4.12", 2000);
+
+            SolverCommunication run = new SolverCommunication();
+            run.addMessage("(check-sat)", SolverCommunication.MessageType.INPUT);
+            run.addMessage("unsat", SolverCommunication.MessageType.OUTPUT);
+            run.addMessage("(a1 a2)", SolverCommunication.MessageType.OUTPUT);
+            run.setFinalResult(SMTSolverResult.createValidResult("Z3"));
+            cache.store(unsat, run);
+
+            run = new SolverCommunication();
+            run.addMessage("sat", SolverCommunication.MessageType.OUTPUT);
+            run.addMessage("(model\n  (define-fun x () Int 1)\n)",
+                SolverCommunication.MessageType.OUTPUT);
+            run.setFinalResult(SMTSolverResult.createInvalidResult("Z3"));
+            cache.store(sat, run);
+
+            // runs without a result are not stored
+            cache.store(SolverResultCache.computeKey("broken", COMMAND, "4.12", 2000),
+                new SolverCommunication());
+            assertEquals(2, cache.size());
+
+            // append a corrupt line which has to be skipped
+            Files.writeString(file, "garbage\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+            SolverResultCache reloaded = new SolverResultCache(file);
+            assertEquals(2, reloaded.size());
+
+            SolverCommunication restored = new SolverCommunication();
+            assertTrue(reloaded.restore(unsat, restored, "Z3"));
+            assertEquals(ThreeValuedTruth.VALID, restored.getFinalResult().isValid());
+            assertEquals(List.of("unsat", "(a1 a2)"), output(restored));
+
+            restored = new SolverCommunication();
+            assertTrue(reloaded.restore(sat, restored, "Z3"));
+            assertEquals(ThreeValuedTruth.FALSIFIABLE, restored.getFinalResult().isValid());
+            assertEquals(List.of("sat", "(model\n  (define-fun x () Int 1)\n)"),
+                output(restored));
+
+            restored = new SolverCommunication();
+            assertFalse(reloaded.restore(
+                SolverResultCache.computeKey("other", COMMAND, "4.12", 2000), restored, "Z3"));
+            assertSame(SMTSolverResult.NO_IDEA, restored.getFinalResult());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
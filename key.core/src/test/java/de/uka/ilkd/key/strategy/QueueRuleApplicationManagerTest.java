@@ -0,0 +1,84 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.key_project.prover.rules.RuleApp;
+import org.key_project.prover.strategy.costbased.TopRuleAppCost;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the queue maintained incrementally while rules are applied offers the same rule apps
+ * as the queue rebuilt from the rule index.
+ */
+class QueueRuleApplicationManagerTest {
+    private static final String PROBLEM = """
+            \\predicates { p; q; r; }
+            \\problem {
+                (p & q -> q & p) & (p | r -> r | p) & (p -> (q -> p)) & (r & (p | q) -> r)
+            }
+            """;
+
+    /** the number of rules applied before the queues are compared */
+    private static final int STEPS = 6;
+
+    @TempDir
+    Path tmpDir;
+
+    /**
+     * @return the applicable rule apps offered by the queue of the manager
+     */
+    private static Set<String> offeredApps(QueueRuleApplicationManager manager, Goal goal) {
+        Set<String> result = new TreeSet<>();
+        for (RuleAppContainer c : manager.queuedContainers()) {
+            // obsolete containers are only discarded once they reach the top of the queue
+            RuleApp app = c.completeRuleApp(goal);
+            if (app != null && !(RuleAppContainer
+                    .createAppContainer(app, app.posInOccurrence(), goal)
+                    .getCost() instanceof TopRuleAppCost)) {
+                result.add(app.rule().name() + "@" + app.posInOccurrence());
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void rebuiltQueueOffersSameApps() throws Exception {
+        Path problem = tmpDir.resolve("problem.key");
+        Files.writeString(problem, PROBLEM);
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment.load(problem);
+        try {
+            Proof proof = env.getLoadedProof();
+            Goal goal = proof.openGoals().head();
+            for (int i = 0; i < STEPS && goal != null; i++) {
+                RuleApp app = goal.getRuleAppManager().next();
+                assertNotNull(app);
+                goal = goal.apply(app).head();
+
+                QueueRuleApplicationManager manager =
+                    assertInstanceOf(QueueRuleApplicationManager.class,
+                        goal.getRuleAppManager());
+                Set<String> incremental = offeredApps(manager, goal);
+                assertFalse(incremental.isEmpty());
+                manager.clearCache();
+                assertEquals(incremental, offeredApps(manager, goal), "after step " + i);
+            }
+        } finally {
+            env.dispose();
+        }
+    }
+}
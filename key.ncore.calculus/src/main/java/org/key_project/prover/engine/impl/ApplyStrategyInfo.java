@@ -3,9 +3,13 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package org.key_project.prover.engine.impl;
 
+import java.util.Map;
+
 import org.key_project.prover.engine.ProofSearchInformation;
 import org.key_project.prover.proof.ProofGoal;
 import org.key_project.prover.proof.ProofObject;
+import org.key_project.util.metrics.Histogram;
+import org.key_project.util.metrics.Metrics;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -32,6 +36,7 @@ import org.jspecify.annotations.Nullable;
  * <li>Tracking the time taken for the strategy execution.</li>
  * <li>Recording the number of applied rule applications and closed goals.</li>
  * <li>Providing details of unresolved goals and any errors encountered.</li>
+ * <li>Breaking down the time spent per instrumented code section, if enabled.</li>
  * </ul>
  * </p>
  *
@@ -67,6 +72,9 @@ public class ApplyStrategyInfo<Proof extends ProofObject<@NonNull Goal>, Goal ex
     /** The proof object associated with this strategy application. */
     private final Proof proof;
 
+    /** The measurements of the instrumented code sections keyed by timer names. */
+    private final Map<String, Histogram.Snapshot> metrics;
+
     /**
      * Constructs an {@code ApplyStrategyInfo} object with all necessary details
      * of the strategy execution.
@@ -82,6 +90,26 @@ public class ApplyStrategyInfo<Proof extends ProofObject<@NonNull Goal>, Goal ex
     public ApplyStrategyInfo(String message, Proof proof, Throwable error,
             @Nullable Goal nonCloseableGoal,
             long timeInMillis, int appliedRuleAppsCount, int nrClosedGoals) {
+        this(message, proof, error, nonCloseableGoal, timeInMillis, appliedRuleAppsCount,
+            nrClosedGoals, Map.of());
+    }
+
+    /**
+     * Constructs an {@code ApplyStrategyInfo} object with all necessary details
+     * of the strategy execution and the measurements taken during it.
+     *
+     * @param message the message explaining the reason for the termination of strategy execution
+     * @param proof the proof object associated with the strategy execution
+     * @param error the exception encountered during execution, or {@code null} if no error occurred
+     * @param nonCloseableGoal the non-closeable goal, or {@code null} if all goals were closed
+     * @param timeInMillis the total execution time in milliseconds
+     * @param appliedRuleAppsCount the number of applied rule applications
+     * @param nrClosedGoals the number of successfully closed goals
+     * @param metrics the measurements of the instrumented code sections keyed by timer names
+     */
+    public ApplyStrategyInfo(String message, Proof proof, @Nullable Throwable error,
+            @Nullable Goal nonCloseableGoal, long timeInMillis, int appliedRuleAppsCount,
+            int nrClosedGoals, Map<String, Histogram.Snapshot> metrics) {
         this.message = message;
         this.proof = proof;
         this.error = error;
@@ -89,6 +117,7 @@ public class ApplyStrategyInfo<Proof extends ProofObject<@NonNull Goal>, Goal ex
         this.timeInMillis = timeInMillis;
         this.appliedRuleAppsCount = appliedRuleAppsCount;
         this.nrClosedGoals = nrClosedGoals;
+        this.metrics = metrics;
     }
 
     /** {@inheritDoc} */
@@ -139,6 +168,16 @@ public class ApplyStrategyInfo<Proof extends ProofObject<@NonNull Goal>, Goal ex
         return proof;
     }
 
+    /**
+     * Returns the time spent in the instrumented code sections during the strategy execution.
+     * The map is empty unless instrumentation is enabled (see {@link Metrics#ENABLED}).
+     *
+     * @return the measurements keyed by timer names
+     */
+    public Map<String, Histogram.Snapshot> getMetrics() {
+        return metrics;
+    }
+
     /**
      * Provides a string representation of this {@code ApplyStrategyInfo} object,
      * including all key details such as message, error status, applied rules,
@@ -3,7 +3,7 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package org.key_project.prover.engine.impl;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
 
 import org.key_project.prover.engine.AbstractProverCore;
 import org.key_project.prover.engine.GoalChooser;
@@ -12,6 +12,9 @@ import org.key_project.prover.engine.StopCondition;
 import org.key_project.prover.proof.ProofGoal;
 import org.key_project.prover.proof.ProofObject;
 import org.key_project.prover.rules.RuleApp;
+import org.key_project.util.metrics.Metrics;
+import org.key_project.util.metrics.MetricsScope;
+import org.key_project.util.metrics.Timer;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -36,8 +39,8 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
     /** Logger for tracing and debugging the prover's execution. */
     private final static Logger LOGGER = LoggerFactory.getLogger(DefaultProver.class);
 
-    /** Counter for tracking performance metrics related to goal application. */
-    public static final AtomicLong PERF_GOAL_APPLY = new AtomicLong();
+    /** Timer measuring the application of rules to goals. */
+    public static final Timer PERF_GOAL_APPLY = Metrics.timer("Goal apply");
 
     /** The proof currently being constructed or manipulated by this prover. */
     protected Proof proof;
@@ -71,6 +74,13 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
     /** A strategy component that selects the next goal to be processed. */
     protected GoalChooser<Proof, Goal> goalChooser;
 
+    /**
+     * The scope collecting the measurements of the current invocation of
+     * {@link #doWork(GoalChooser, StopCondition)}, or {@code null} if instrumentation is disabled
+     * (see {@link Metrics#ENABLED}).
+     */
+    private @Nullable MetricsScope metricsScope;
+
     /**
      * This is currently a hook method for the JavaDL prover as according to a
      * comment the built-in-rule index is not updated when rules are applied.
@@ -102,6 +112,9 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
         SingleRuleApplicationInfo srInfo = null;
 
         long applyAutomatic = 0;
+        metricsScope = Metrics.ENABLED ? new MetricsScope("strategy") : null;
+        final MetricsScope.@Nullable Activation activation =
+            metricsScope == null ? null : metricsScope.activate();
         try {
             LOGGER.trace("Strategy started.");
             boolean shouldStop = stopCondition.shouldStop(maxApplications, timeout, time,
@@ -115,8 +128,7 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
                     applyAutomatic += System.nanoTime() - applyAutomaticTime;
                 }
                 if (!srInfo.isSuccess()) {
-                    return new ApplyStrategyInfo<>(srInfo.message(), proof, null, srInfo.getGoal(),
-                        System.currentTimeMillis() - time, countApplied, closedGoals);
+                    return createInfo(srInfo.message(), null, srInfo.getGoal(), time);
                 }
                 countApplied++;
                 fireTaskProgress();
@@ -126,26 +138,43 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
                 shouldStop =
                     stopCondition.shouldStop(maxApplications, timeout, time, countApplied, srInfo);
             }
-            return new ApplyStrategyInfo<>(
-                stopCondition.getStopMessage(maxApplications, timeout, time,
-                    countApplied, srInfo),
-                proof, null, null, System.currentTimeMillis() - time, countApplied,
-                closedGoals);
+            return createInfo(
+                stopCondition.getStopMessage(maxApplications, timeout, time, countApplied, srInfo),
+                null, null, time);
         } catch (InterruptedException e) {
             cancelled = true;
-            return new ApplyStrategyInfo<>("Interrupted.", proof, null, goalChooser.getNextGoal(),
-                System.currentTimeMillis() - time, countApplied, closedGoals);
+            return createInfo("Interrupted.", null, goalChooser.getNextGoal(), time);
         } catch (Throwable t) { // treated later in finished()
             LOGGER.warn("doWork exception", t);
-            return new ApplyStrategyInfo<>("Error.", proof, t, null,
-                System.currentTimeMillis() - time, countApplied, closedGoals);
+            return createInfo("Error.", t, null, time);
         } finally {
             time = (System.currentTimeMillis() - time);
             LOGGER.trace("Strategy stopped, applied {} steps in {}ms", countApplied, time);
             LOGGER.trace("applyAutomaticRule: " + applyAutomatic);
+            if (activation != null) {
+                activation.close();
+            }
+            metricsScope = null;
         }
     }
 
+    /**
+     * Creates the result of {@link #doWork(GoalChooser, StopCondition)} including the
+     * measurements of the current invocation if instrumentation is enabled.
+     *
+     * @param message the reason for the termination of the strategy
+     * @param error the exception encountered during execution, or {@code null}
+     * @param nonCloseableGoal the non-closeable goal, or {@code null}
+     * @param startTime the start time of the strategy execution in milliseconds
+     * @return the result of the strategy execution
+     */
+    private ApplyStrategyInfo<Proof, Goal> createInfo(String message, @Nullable Throwable error,
+            @Nullable Goal nonCloseableGoal, long startTime) {
+        return new ApplyStrategyInfo<>(message, proof, error, nonCloseableGoal,
+            System.currentTimeMillis() - startTime, countApplied, closedGoals,
+            metricsScope == null ? Map.of() : metricsScope.snapshot());
+    }
+
     /**
      * Applies rules to goals using the active strategy until a stopping condition is met.
      *
@@ -187,10 +216,11 @@ public abstract class DefaultProver<Proof extends ProofObject<@NonNull Goal>, Go
             return new SingleRuleApplicationInfo(
                 "No more rules automatically applicable to any goal.", g, app);
         } else {
+            final long applyTime = Metrics.nanoTime();
             try {
                 g.apply(app);
             } finally {
-                PERF_GOAL_APPLY.getAndAdd(System.nanoTime() - time);
+                PERF_GOAL_APPLY.stop(applyTime);
             }
             return new SingleRuleApplicationInfo(g, app);
         }
@@ -3,21 +3,34 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package org.key_project.prover.sequent;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Implements a redundancy free list of sequent formulas
+ * <p>
+ * The formulas are kept in an {@link ImmutableList}, so that semisequents derived from each other
+ * (e.g., in different branches of a proof) share the suffix behind the changed position and
+ * {@link #asList()} stays cheap. For positional access an array of the formulas is created on
+ * demand; {@link #get(int)} is then constant time and {@link #indexOf(SequentFormula)},
+ * {@link #remove(int)} and the replace operations scan the array instead of walking the list.
+ * Changes of a semisequent whose array exists derive the array of the new semisequent from it
+ * and pass it on via the {@link SemisequentChangeInfo}, so that the list is not walked again.
  */
 public abstract class Semisequent implements Iterable<SequentFormula> {
 
     /** list with the {@link SequentFormula}s of the {@link Semisequent} */
     private final ImmutableList<SequentFormula> seqList;
 
+    /** the formulas of {@link #seqList} for positional access, computed lazily */
+    private volatile SequentFormula @Nullable [] formulas;
+
     /**
      * Create a new {@link Semisequent} from an ordered collection of formulas.
      * The provided list must be redundancy free, i.e., the created sequent must be exactly
@@ -52,8 +65,7 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
      *         information, which formulas have been added or removed
      */
     public SemisequentChangeInfo insert(int idx, SequentFormula sequentFormula) {
-        return insertAndRemoveRedundancyHelper(idx, sequentFormula,
-            createSemisequentChangeInfo(seqList), null);
+        return insertAndRemoveRedundancyHelper(idx, sequentFormula, createChangeInfo(), null);
     }
 
     /**
@@ -101,22 +113,20 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
             @NonNull SequentFormula sequentFormula, SemisequentChangeInfo semiCI,
             FormulaChangeInfo fci) {
         // Search for equivalent formulas and weakest constraint
-        ImmutableList<SequentFormula> searchList = semiCI.getFormulaList();
-        final var newSeqList = new SequentFormula[searchList.size()];
-        SequentFormula sf;
-        int pos = -1;
-
-        while (!searchList.isEmpty()) {
-            ++pos;
-            sf = searchList.head();
-            searchList = searchList.tail();
+        final ImmutableList<SequentFormula> orig = semiCI.getFormulaList();
+        final int pos = Math.min(idx, orig.size());
+        // only the formulas in front of the insertion point have to be copied
+        final var prefix = new SequentFormula[Math.max(pos, 0)];
+        int i = 0;
 
+        for (SequentFormula sf : orig) {
             if (sequentFormula != null && isRedundant(sf, sequentFormula)) {
                 semiCI.rejectedFormula(sequentFormula);
                 return semiCI; // semisequent already contains formula
-
             }
-            newSeqList[pos] = sf;
+            if (i < pos) {
+                prefix[i++] = sf;
+            }
         }
 
 
@@ -127,18 +137,19 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
             semiCI.modifiedFormula(idx, fci);
         }
 
-        final var orig = semiCI.getFormulaList();
-        pos = Math.min(idx, orig.size());
-
-        searchList = semiCI.getFormulaList().take(pos).prepend(sequentFormula);
-
-        while (pos > 0) {
-            --pos;
-            searchList = searchList.prepend(newSeqList[pos]);
-        }
-
         // add new formula list to result object
-        semiCI.setFormulaList(searchList);
+        final ImmutableList<SequentFormula> newList =
+            orig.take(pos).prepend(sequentFormula).prepend(prefix);
+        final SequentFormula[] origFormulas = semiCI.getFormulaArray();
+        if (origFormulas != null && pos >= 0) {
+            final var newFormulas = new SequentFormula[origFormulas.length + 1];
+            System.arraycopy(origFormulas, 0, newFormulas, 0, pos);
+            newFormulas[pos] = sequentFormula;
+            System.arraycopy(origFormulas, pos, newFormulas, pos + 1, origFormulas.length - pos);
+            semiCI.setFormulaList(newList, newFormulas);
+        } else {
+            semiCI.setFormulaList(newList);
+        }
 
         return semiCI;
     }
@@ -157,6 +168,19 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
         return new SemisequentChangeInfo(seqList);
     }
 
+    /**
+     * @return a fresh change information object starting at this semisequent, which knows the
+     *         formula array of this semisequent if it has been created already
+     */
+    private SemisequentChangeInfo createChangeInfo() {
+        final SemisequentChangeInfo sci = createSemisequentChangeInfo(seqList);
+        final SequentFormula[] result = formulas;
+        if (result != null) {
+            sci.setFormulaList(seqList, result);
+        }
+        return sci;
+    }
+
     /**
      * Inserts new {@link SequentFormula}s starting at index {@code idx} and removes duplicates,
      * perform simplifications etc.
@@ -200,7 +224,31 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
         if (idx < 0 || idx >= seqList.size()) {
             throw new IndexOutOfBoundsException();
         }
-        return seqList.take(idx).head();
+        return formulas()[idx];
+    }
+
+    /**
+     * Takes over the formula array of the change information if it describes the formulas of this
+     * semisequent, which saves creating the array on the first positional access.
+     *
+     * @param semiCI the change which resulted in this semisequent
+     */
+    void adoptFormulas(SemisequentChangeInfo semiCI) {
+        final SequentFormula[] array = semiCI.getFormulaArray();
+        if (array != null && formulas == null && semiCI.getFormulaList() == seqList
+                && !seqList.isEmpty()) {
+            formulas = array;
+        }
+    }
+
+    /** @return the formulas of this {@link Semisequent} as array, must not be modified */
+    private SequentFormula[] formulas() {
+        SequentFormula[] result = formulas;
+        if (result == null) {
+            result = seqList.toArray(new SequentFormula[seqList.size()]);
+            formulas = result;
+        }
+        return result;
     }
 
     /** @return the first {@link SequentFormula} of this {@link Semisequent} */
@@ -269,7 +317,7 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
      */
     public SemisequentChangeInfo insert(int idx,
             ImmutableList<SequentFormula> insertions) {
-        return insertAndRemoveRedundancy(idx, insertions, createSemisequentChangeInfo(seqList));
+        return insertAndRemoveRedundancy(idx, insertions, createChangeInfo());
     }
 
     /**
@@ -293,14 +341,11 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
      * @return index of sequentFormula (-1 if not found)
      */
     public int indexOf(SequentFormula sequentFormula) {
-        ImmutableList<SequentFormula> searchList = seqList;
-        int index = 0;
-        while (!searchList.isEmpty()) {
-            if (searchList.head() == sequentFormula) {
-                return index;
+        final SequentFormula[] formulas = formulas();
+        for (int i = 0; i < formulas.length; i++) {
+            if (formulas[i] == sequentFormula) {
+                return i;
             }
-            searchList = searchList.tail();
-            index++;
         }
         return -1;
     }
@@ -353,31 +398,22 @@ public abstract class Semisequent implements Iterable<SequentFormula> {
      *         which formulas have been added or removed
      */
     public SemisequentChangeInfo remove(int idx) {
-        ImmutableList<SequentFormula> newList = seqList;
-        int index = 0;
-
         if (idx < 0 || idx >= size()) {
-            return createSemisequentChangeInfo(seqList);
+            return createChangeInfo();
         }
 
-        final SequentFormula[] temp = new SequentFormula[idx];
-
-        while (index < idx) {// go to idx
-            temp[index] = newList.head();
-            newList = newList.tail();
-            index++;
-        }
-
-        // remove the element that is at head of newList
-        final SequentFormula removedFormula = newList.head();
-        newList = newList.tail();
-
-        for (int k = index - 1; k >= 0; k--) {
-            newList = newList.prepend(temp[k]);
-        }
+        final SequentFormula[] formulas = formulas();
+        final SequentFormula removedFormula = formulas[idx];
+        // share the suffix behind the removed formula, only the prefix is rebuilt
+        final ImmutableList<SequentFormula> newList =
+            seqList.take(idx + 1).prepend(Arrays.copyOf(formulas, idx));
+        final var newFormulas = new SequentFormula[formulas.length - 1];
+        System.arraycopy(formulas, 0, newFormulas, 0, idx);
+        System.arraycopy(formulas, idx + 1, newFormulas, idx, newFormulas.length - idx);
 
         // create change info object
         final SemisequentChangeInfo sci = createSemisequentChangeInfo(newList);
+        sci.setFormulaList(newList, newFormulas);
         sci.removedFormula(idx, removedFormula);
 
         return sci;
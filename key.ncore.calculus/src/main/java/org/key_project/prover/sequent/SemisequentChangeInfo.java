@@ -6,6 +6,8 @@ package org.key_project.prover.sequent;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
+import org.jspecify.annotations.Nullable;
+
 public class SemisequentChangeInfo {
     /** contains the added formulas to the semisequent */
     private ImmutableList<SequentFormula> added = ImmutableSLList.nil();
@@ -15,6 +17,13 @@ public class SemisequentChangeInfo {
     private ImmutableList<FormulaChangeInfo> modified = ImmutableSLList.nil();
     /** stores the redundance free formula list of the semisequent */
     private ImmutableList<SequentFormula> modifiedSemisequent = ImmutableSLList.nil();
+    /**
+     * the formulas of {@link #formulaArrayList} as array, passed on to the new semisequent for
+     * positional access; must not be modified
+     */
+    private SequentFormula @Nullable [] formulaArray;
+    /** the formula list {@link #formulaArray} belongs to */
+    private @Nullable ImmutableList<SequentFormula> formulaArrayList;
     /**
      * contains formulas that have been tried to add, but which have been rejected due to already
      * existing formulas in the sequent subsuming these formulas
@@ -36,6 +45,8 @@ public class SemisequentChangeInfo {
         this.removed = o.removed;
         this.modified = o.modified;
         this.modifiedSemisequent = o.modifiedSemisequent;
+        this.formulaArray = o.formulaArray;
+        this.formulaArrayList = o.formulaArrayList;
         this.rejected = o.rejected;
         this.lastFormulaIndex = o.lastFormulaIndex;
     }
@@ -63,6 +74,27 @@ public class SemisequentChangeInfo {
         modifiedSemisequent = list;
     }
 
+    /**
+     * sets the list of formulas of the semisequent after the operation together with the same
+     * formulas as array
+     *
+     * @param list the formulas
+     * @param array the formulas of {@code list} in the same order, must not be modified afterwards
+     */
+    void setFormulaList(ImmutableList<SequentFormula> list, SequentFormula[] array) {
+        modifiedSemisequent = list;
+        formulaArray = array;
+        formulaArrayList = list;
+    }
+
+    /**
+     * @return the formulas of the new semisequent as array, or null if they are not known as
+     *         array; the array must not be modified
+     */
+    SequentFormula @Nullable [] getFormulaArray() {
+        return formulaArrayList == modifiedSemisequent ? formulaArray : null;
+    }
+
     /**
      * returns the list of constrained formula of the new semisequent
      */
@@ -209,6 +241,8 @@ public class SemisequentChangeInfo {
 
         predecessor.lastFormulaIndex = succ.lastFormulaIndex;
         predecessor.modifiedSemisequent = succ.modifiedSemisequent;
+        predecessor.formulaArray = succ.formulaArray;
+        predecessor.formulaArrayList = succ.formulaArrayList;
     }
 
     /**
@@ -195,7 +195,7 @@ public abstract class Sequent implements Iterable<SequentFormula> {
             first ? seq.insertFirst(sequentFormula) : seq.insertLast(sequentFormula);
 
         return SequentChangeInfo.createSequentChangeInfo(inAntecedent, semiCI,
-            composeSequent(inAntecedent, createSemisequent(semiCI.getFormulaList())),
+            composeSequent(inAntecedent, createSemisequent(semiCI)),
             this);
     }
 
@@ -228,7 +228,7 @@ public abstract class Sequent implements Iterable<SequentFormula> {
             first ? seq.insertFirst(insertions) : seq.insertLast(insertions);
 
         return SequentChangeInfo.createSequentChangeInfo(inAntecedent, semiCI,
-            composeSequent(inAntecedent, createSemisequent(semiCI.getFormulaList())),
+            composeSequent(inAntecedent, createSemisequent(semiCI)),
             this);
     }
 
@@ -292,9 +292,7 @@ public abstract class Sequent implements Iterable<SequentFormula> {
             seq.insert(seq.indexOf(pos.sequentFormula()), sequentFormula);
 
         return SequentChangeInfo.createSequentChangeInfo(pos.isInAntec(), semiCI,
-            composeSequent(pos.isInAntec(),
-                createSemisequent(semiCI.getFormulaList())),
-            this);
+            composeSequent(pos.isInAntec(), createSemisequent(semiCI)), this);
     }
 
     /**
@@ -307,7 +305,9 @@ public abstract class Sequent implements Iterable<SequentFormula> {
      * @return a {@link Semisequent} representing the semisequent described by the change object
      */
     private Semisequent createSemisequent(SemisequentChangeInfo semiCI) {
-        return createSemisequent(semiCI.getFormulaList());
+        final Semisequent semisequent = createSemisequent(semiCI.getFormulaList());
+        semisequent.adoptFormulas(semiCI);
+        return semisequent;
     }
 
     /**
@@ -426,7 +426,7 @@ public abstract class Sequent implements Iterable<SequentFormula> {
         final SemisequentChangeInfo semiCI = getSemisequent(p).replace(p, newCF);
 
         return SequentChangeInfo.createSequentChangeInfo(p.isInAntec(), semiCI,
-            composeSequent(p.isInAntec(), createSemisequent(semiCI.getFormulaList())),
+            composeSequent(p.isInAntec(), createSemisequent(semiCI)),
             this);
     }
 
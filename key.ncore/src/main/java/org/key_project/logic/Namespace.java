@@ -4,7 +4,11 @@
 package org.key_project.logic;
 
 import java.util.*;
+import java.util.function.Predicate;
 
+import org.key_project.util.collection.DefaultImmutableMap;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableMapEntry;
 import org.key_project.util.collection.ImmutableSet;
 
 import org.jspecify.annotations.Nullable;
@@ -15,6 +19,11 @@ import org.slf4j.LoggerFactory;
  * A Namespace keeps track of already used {@link Name}s and the objects carrying these names. These
  * objects have to implement the interface {@link Named}. It is possible to have nested namespaces
  * in order to represent different visibility scopes.
+ * <br>
+ * The symbols are kept in a persistent map, so copies and extensions (as created for every goal)
+ * share the symbols of their origin instead of duplicating them. Lookups do not walk up the parent
+ * chain: every namespace caches the symbols visible in it as one persistent map built on top of
+ * its parent's one, which is kept up to date when symbols are added.
  */
 public class Namespace<E extends Named> {
     private static final Logger LOGGER = LoggerFactory.getLogger(Namespace.class);
@@ -27,7 +36,114 @@ public class Namespace<E extends Named> {
     /**
      * The map that maps a name to a symbols of that name if it is defined in this Namespace.
      */
-    private @Nullable Map<Name, E> symbols;
+    private ImmutableMap<Name, E> symbols = DefaultImmutableMap.nilMap();
+
+    /**
+     * All symbols visible in this namespace, see {@link #visibleSymbols()}.
+     */
+    private volatile @Nullable Flattened<E> flattened;
+
+    /**
+     * The symbols visible in a namespace together with the maps they were computed from.
+     *
+     * @param symbols the symbols of the namespace itself
+     * @param parentSymbols the symbols visible in the parent or {@code null} if there is none
+     * @param all the symbols of the parent overridden by the ones of the namespace
+     */
+    private record Flattened<T>(ImmutableMap<Name, T> symbols,
+            @Nullable ImmutableMap<Name, T> parentSymbols, ImmutableMap<Name, T> all) {
+    }
+
+    /**
+     * The epoch of the tree of namespaces this namespace belongs to; it is shared with the parent
+     * and with copies.
+     */
+    private final FreshNameEpoch epoch;
+
+    /**
+     * Per base name, the index of the last name found by {@link #freshName(String, Predicate)}.
+     * All names with lower indices are known to be taken.
+     */
+    private ImmutableMap<String, Integer> freshNameCounters = DefaultImmutableMap.nilMap();
+
+    /**
+     * The epochs of the namespaces {@link #freshNameCounters} depend on, as of the time the
+     * counters were recorded, or {@code null} if there are no counters.
+     */
+    private @Nullable FreshNameStamp freshNameStamp;
+
+    /**
+     * Counts the occasions on which names may have become free in a tree of namespaces (see
+     * {@link #forgetFreshNames()}). The value only advances if counters of
+     * {@link #freshName(String, Predicate)} have been recorded for the current value, so that
+     * frequent changes of namespaces nobody generates names for do not invalidate anything.
+     */
+    private static final class FreshNameEpoch {
+        private long value;
+        private boolean observed;
+
+        void advance() {
+            if (observed) {
+                value++;
+                observed = false;
+            }
+        }
+    }
+
+    /**
+     * The values of a number of epochs at the time counters were recorded.
+     *
+     * @param epochs the epochs of the namespace and of the other namespaces the name generation
+     *        looked at
+     * @param values the values of the epochs
+     */
+    private record FreshNameStamp(FreshNameEpoch[] epochs, long[] values) {
+        static FreshNameStamp of(FreshNameEpoch[] epochs) {
+            final long[] values = new long[epochs.length];
+            for (int i = 0; i < epochs.length; i++) {
+                values[i] = epochs[i].value;
+                epochs[i].observed = true;
+            }
+            return new FreshNameStamp(epochs, values);
+        }
+
+        /**
+         * @param current the epochs of the namespaces a name is generated for
+         * @return true iff no names have become free since the stamp was taken and the stamp
+         *         covers all the given epochs
+         */
+        boolean isValidFor(FreshNameEpoch[] current) {
+            for (int i = 0; i < epochs.length; i++) {
+                if (epochs[i].value != values[i]) {
+                    return false;
+                }
+            }
+            for (FreshNameEpoch e : current) {
+                if (!Arrays.asList(epochs).contains(e)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean sameAs(FreshNameStamp other) {
+            return Arrays.equals(epochs, other.epochs) && Arrays.equals(values, other.values);
+        }
+    }
+
+    /**
+     * The list returned by {@link #elements()} together with the symbol map it was created from.
+     */
+    private volatile @Nullable Elements<E> elements;
+
+    /**
+     * The elements of a symbol map in insertion order.
+     *
+     * @param symbols the symbol map
+     * @param list the symbols of the map in insertion order
+     */
+    private record Elements<T>(ImmutableMap<Name, T> symbols, List<T> list) {
+    }
 
     /**
      * A namespace can be made immutable, this is called "sealing". This flag indicates whether this
@@ -48,6 +164,12 @@ public class Namespace<E extends Named> {
      */
     public Namespace(@Nullable Namespace<E> parent) {
         this.parent = parent;
+        this.epoch = parent == null ? new FreshNameEpoch() : parent.epoch;
+    }
+
+    private Namespace(@Nullable Namespace<E> parent, FreshNameEpoch epoch) {
+        this.parent = parent;
+        this.epoch = epoch;
     }
 
     /**
@@ -58,20 +180,10 @@ public class Namespace<E extends Named> {
      * TODO:The problem of saving to localSym, symbols, and symbolRefs is not solved yet. (This is
      * no longer self-explanatory. mu 2016)
      * <br>
-     * If the local table is empty, then the new symbol is added as "singleton map". This has been
-     * adapted from an earlier implementation, done for memory efficiency reasons: Many namespaces
-     * only contain a single element; no need to allocate a hash map. The hash map is only created
-     * when the 2nd element is added.
-     * <br>
      * This is not threadsafe.
      */
     public void add(E sym) {
-
-        if (sealed) {
-            LOGGER.warn("Namespace is SEALED");
-            throw new IllegalStateException(
-                "This namespace has been sealed; addition is not possible.");
-        }
+        checkNotSealed();
 
         /*
          * TODO ulbrich: Investigate in a future version Named old = lookup(sym.name()); if(old !=
@@ -79,15 +191,23 @@ public class Namespace<E extends Named> {
          * }
          */
 
-        if (symbols == null) {
-            symbols = Collections.singletonMap(sym.name(), sym);
-        } else {
-            if (symbols.size() == 1) {
-                symbols = new LinkedHashMap<>(symbols);
-            }
-            symbols.put(sym.name(), sym);
+        final ImmutableMap<Name, E> old = symbols;
+        symbols = old.put(sym.name(), sym);
+        // keep the visible symbols up to date instead of recomputing them on the next lookup
+        final Flattened<E> f = flattened;
+        if (f != null) {
+            flattened = f.symbols() == old
+                    ? new Flattened<>(symbols, f.parentSymbols(), f.all().put(sym.name(), sym))
+                    : null;
         }
+    }
 
+    private void checkNotSealed() {
+        if (sealed) {
+            LOGGER.warn("Namespace is SEALED");
+            throw new IllegalStateException(
+                "This namespace has been sealed; modification is not possible.");
+        }
     }
 
     public void add(Namespace<E> source) {
@@ -127,17 +247,26 @@ public class Namespace<E extends Named> {
      * @param name non-null name whose symbol is to be removed.
      */
     public void remove(Name name) {
-        if (symbols != null) {
-            symbols.remove(name);
-        }
+        checkNotSealed();
+        symbols = symbols.remove(name);
+        flattened = null;
+        // the name may be free again, also for namespaces that look up names in this one
+        forgetFreshNames();
+    }
+
+    /**
+     * Makes {@link #freshName(String, Predicate)} forget the names known to be taken in the tree
+     * of namespaces this one belongs to, and in all namespaces whose counters took this one into
+     * account. This is necessary whenever a name may have become free: besides
+     * {@link #remove(Name)}, this is the case if a namespace is replaced by one not containing all
+     * of its symbols (e.g. when a set of namespaces leaves the scope of bound variables).
+     */
+    public void forgetFreshNames() {
+        epoch.advance();
     }
 
     protected @Nullable E lookupLocally(Name name) {
-        if (symbols != null) {
-            return symbols.get(name);
-        } else {
-            return null;
-        }
+        return symbols.get(name);
     }
 
 
@@ -163,16 +292,44 @@ public class Namespace<E extends Named> {
      * @return Object with name "name" or null if no such an object has been found
      */
     public @Nullable E lookup(Name name) {
-        E symbol = lookupLocally(name);
-        if (symbol != null) {
-            return symbol;
-        }
+        return visibleSymbols().get(name);
+    }
 
-        if (parent != null) {
-            return parent.lookup(name);
+    /**
+     * Returns the symbols visible in this namespace, i.e., the ones of the parent overridden by
+     * the ones of this namespace. The result is cached and stays valid as long as neither the
+     * symbols of this namespace other than by {@link #add(Named)} nor the ones visible in the
+     * parent change. It is rebuilt from the smaller of both maps otherwise.
+     *
+     * @return the visible symbols
+     */
+    private ImmutableMap<Name, E> visibleSymbols() {
+        final Namespace<E> p = parent;
+        if (p == null) {
+            return symbols;
         }
-
-        return null;
+        final ImmutableMap<Name, E> parentSymbols = p.visibleSymbols();
+        final ImmutableMap<Name, E> own = symbols;
+        final Flattened<E> f = flattened;
+        if (f != null && f.symbols() == own && f.parentSymbols() == parentSymbols) {
+            return f.all();
+        }
+        ImmutableMap<Name, E> all;
+        if (own.size() <= parentSymbols.size()) {
+            all = parentSymbols;
+            for (ImmutableMapEntry<Name, E> entry : own) {
+                all = all.put(entry.key(), entry.value());
+            }
+        } else {
+            all = own;
+            for (ImmutableMapEntry<Name, E> entry : parentSymbols) {
+                if (!own.containsKey(entry.key())) {
+                    all = all.put(entry.key(), entry.value());
+                }
+            }
+        }
+        flattened = new Flattened<>(own, parentSymbols, all);
+        return all;
     }
 
     /** Convenience method to look up. */
@@ -187,11 +344,71 @@ public class Namespace<E extends Named> {
      * @return the list of the named objects
      */
     public Collection<E> elements() {
-        if (symbols == null) {
+        final ImmutableMap<Name, E> map = symbols;
+        if (map.isEmpty()) {
             return Collections.emptyList();
-        } else {
-            return Collections.unmodifiableCollection(symbols.values());
         }
+        final Elements<E> cached = elements;
+        if (cached != null && cached.symbols() == map) {
+            return cached.list();
+        }
+        final List<E> result = new ArrayList<>(map.size());
+        map.valueIterator().forEachRemaining(result::add);
+        // the map iterates most recent first
+        Collections.reverse(result);
+        final List<E> list = Collections.unmodifiableList(result);
+        elements = new Elements<>(map, list);
+        return list;
+    }
+
+    /**
+     * Returns the first of the names {@code baseName}, {@code baseName_0}, {@code baseName_1}, ...
+     * which is not taken.
+     * <br>
+     * Instead of probing all candidates on each call, the namespace remembers per base name the
+     * index of the last returned name; all names below are taken already. The counters are
+     * inherited by child namespaces and copies. Whenever a name may have become free (see
+     * {@link #forgetFreshNames()}) in this namespace or in one of the given related namespaces,
+     * the counters are forgotten, so that the returned name is always the first free one.
+     *
+     * @param baseName the base name
+     * @param taken tells whether a name is already in use (usually by looking it up in this
+     *        namespace and related ones)
+     * @param related the other namespaces {@code taken} looks names up in
+     * @return a name which is not taken
+     */
+    public Name freshName(String baseName, Predicate<Name> taken, Namespace<?>... related) {
+        final FreshNameEpoch[] epochs = new FreshNameEpoch[related.length + 1];
+        epochs[0] = epoch;
+        for (int i = 0; i < related.length; i++) {
+            epochs[i + 1] = related[i].epoch;
+        }
+
+        int index = -1;
+        for (Namespace<E> ns = this; ns != null; ns = ns.parent) {
+            final FreshNameStamp stamp = ns.freshNameStamp;
+            final Integer counter = stamp != null && stamp.isValidFor(epochs)
+                    ? ns.freshNameCounters.get(baseName)
+                    : null;
+            if (counter != null) {
+                index = counter;
+                break;
+            }
+        }
+
+        Name result = index < 0 ? new Name(baseName) : new Name(baseName + "_" + index);
+        while (taken.test(result)) {
+            index++;
+            result = new Name(baseName + "_" + index);
+        }
+        if (index >= 0 && !sealed) {
+            if (freshNameStamp == null || !freshNameStamp.isValidFor(epochs)) {
+                freshNameCounters = DefaultImmutableMap.nilMap();
+                freshNameStamp = FreshNameStamp.of(epochs);
+            }
+            freshNameCounters = freshNameCounters.put(baseName, index);
+        }
+        return result;
     }
 
 
@@ -221,18 +438,28 @@ public class Namespace<E extends Named> {
         return res + "]";
     }
 
+    /**
+     * Creates a copy of this namespace with the same parent. Both namespaces share the persistent
+     * symbol map, hence copying takes constant time and namespaces which are never modified
+     * afterwards (like the ones of the rule base) are not duplicated.
+     *
+     * @return the copy
+     */
     public Namespace<E> copy() {
-        Namespace<E> copy = new Namespace<>(parent);
-        if (symbols != null) {
-            copy.add(symbols.values());
-        }
-
+        Namespace<E> copy = new Namespace<>(parent, epoch);
+        copy.symbols = symbols;
+        copy.flattened = flattened;
+        copy.freshNameCounters = freshNameCounters;
+        copy.freshNameStamp = freshNameStamp;
         return copy;
     }
 
     private void reset() {
+        checkNotSealed();
         parent = null;
-        symbols = null;
+        symbols = DefaultImmutableMap.nilMap();
+        flattened = null;
+        forgetFreshNames();
     }
 
     public <T extends E> void set(ImmutableSet<T> names) {
@@ -240,12 +467,15 @@ public class Namespace<E extends Named> {
         addSafely(names);
     }
 
+    /**
+     * Makes this namespace immutable.
+     */
     public void seal() {
         sealed = true;
     }
 
     public boolean isEmpty() {
-        return symbols == null || symbols.isEmpty();
+        return symbols.isEmpty();
     }
 
     public boolean isSealed() {
@@ -275,14 +505,34 @@ public class Namespace<E extends Named> {
         if (parent == null) {
             return;
         }
+        checkNotSealed();
 
         var parent = this.parent;
 
         for (E element : elements()) {
             parent.add(element);
         }
+        // the names known to be taken are taken in the parent now
+        final FreshNameStamp stamp = freshNameStamp;
+        if (stamp != null) {
+            if (parent.freshNameStamp == null || !parent.freshNameStamp.sameAs(stamp)) {
+                parent.freshNameCounters = freshNameCounters;
+                parent.freshNameStamp = stamp;
+            } else {
+                for (ImmutableMapEntry<String, Integer> counter : freshNameCounters) {
+                    final Integer old = parent.freshNameCounters.get(counter.key());
+                    if (old == null || old < counter.value()) {
+                        parent.freshNameCounters =
+                            parent.freshNameCounters.put(counter.key(), counter.value());
+                    }
+                }
+            }
+        }
         // all symbols are contained in parent now ... we are empty again.
-        symbols = null;
+        symbols = DefaultImmutableMap.nilMap();
+        flattened = null;
+        freshNameCounters = DefaultImmutableMap.nilMap();
+        freshNameStamp = null;
     }
 
 }
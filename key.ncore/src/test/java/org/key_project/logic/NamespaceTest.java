@@ -0,0 +1,241 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.logic;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import org.key_project.util.collection.DefaultImmutableSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamespaceTest {
+
+    private record Symbol(Name name) implements Named {
+        Symbol(String name) {
+            this(new Name(name));
+        }
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        final Namespace<Symbol> original = new Namespace<>();
+        original.add(new Symbol("a"));
+        original.add(new Symbol("b"));
+
+        final Namespace<Symbol> copy = original.copy();
+        assertNotNull(copy.lookup("a"));
+        assertNotNull(copy.lookup("b"));
+
+        copy.add(new Symbol("c"));
+        copy.remove(new Name("a"));
+        assertNull(original.lookup("c"));
+        assertNotNull(original.lookup("a"));
+        assertNull(copy.lookup("a"));
+
+        original.add(new Symbol("d"));
+        assertNull(copy.lookup("d"));
+        assertEquals(3, original.elements().size());
+        assertEquals(2, copy.elements().size());
+    }
+
+    @Test
+    void testCopyOfSingleton() {
+        final Namespace<Symbol> original = new Namespace<>();
+        original.add(new Symbol("a"));
+        final Namespace<Symbol> copy = original.copy();
+        copy.remove(new Name("a"));
+        assertTrue(copy.isEmpty());
+        assertNotNull(original.lookup("a"));
+    }
+
+    @Test
+    void testCopyKeepsParent() {
+        final Namespace<Symbol> parent = new Namespace<>();
+        parent.add(new Symbol("p"));
+        final Namespace<Symbol> child = new Namespace<>(parent);
+        child.add(new Symbol("c"));
+
+        final Namespace<Symbol> copy = child.copy();
+        assertSame(parent, copy.parent());
+        assertNotNull(copy.lookup("p"));
+        assertNotNull(copy.lookup("c"));
+    }
+
+    @Test
+    void testFreshNameSkipsTakenNames() {
+        final Namespace<Symbol> parent = new Namespace<>();
+        parent.add(new Symbol("x"));
+        parent.add(new Symbol("x_0"));
+        assertEquals(new Name("x_1"), parent.freshName("x", n -> parent.lookup(n) != null));
+        assertEquals(new Name("y"), parent.freshName("y", n -> parent.lookup(n) != null));
+
+        final Namespace<Symbol> child = new Namespace<>(parent);
+        child.add(new Symbol("x_1"));
+        child.add(new Symbol("x_2"));
+        final Name fresh = child.freshName("x", n -> child.lookup(n) != null);
+        assertEquals(new Name("x_3"), fresh);
+        child.add(new Symbol(fresh));
+        assertEquals(new Name("x_4"), child.freshName("x", n -> child.lookup(n) != null));
+
+        // names which became free are found again
+        child.remove(new Name("x_1"));
+        assertEquals(new Name("x_1"), child.freshName("x", n -> child.lookup(n) != null));
+    }
+
+    @Test
+    void testFreshNameAfterRemovalFromOtherNamespace() {
+        final Namespace<Symbol> functions = new Namespace<>();
+        final Namespace<Symbol> variables = new Namespace<>();
+        final Predicate<Name> taken =
+            n -> functions.lookup(n) != null || variables.lookup(n) != null;
+        variables.add(new Symbol("x"));
+        variables.add(new Symbol("x_0"));
+        assertEquals(new Name("x_1"), functions.freshName("x", taken, variables));
+
+        // the counters are kept in functions, but the name became free in variables
+        variables.remove(new Name("x_0"));
+        assertEquals(new Name("x_0"), functions.freshName("x", taken, variables));
+    }
+
+    @Test
+    void testFreshNameCountersAreScopedToTheirTree() {
+        final Namespace<Symbol> ns = new Namespace<>();
+        ns.add(new Symbol("x"));
+        for (int i = 0; i < 10; i++) {
+            ns.add(new Symbol("x_" + i));
+        }
+        final Namespace<Symbol> child = new Namespace<>(ns);
+        final int[] probes = new int[1];
+        final Predicate<Name> taken = n -> {
+            probes[0]++;
+            return child.lookup(n) != null;
+        };
+        final Name fresh = child.freshName("x", taken);
+        assertEquals(new Name("x_10"), fresh);
+        child.add(new Symbol(fresh));
+
+        // removals in an unrelated namespace keep the counters
+        final Namespace<Symbol> other = new Namespace<>();
+        other.add(new Symbol("x_3"));
+        other.remove(new Name("x_3"));
+        other.forgetFreshNames();
+        probes[0] = 0;
+        assertEquals(new Name("x_11"), child.freshName("x", taken));
+        assertEquals(2, probes[0]);
+
+        // a removal in the tree makes the names be probed from the start again
+        final Namespace<Symbol> sibling = new Namespace<>(ns);
+        sibling.add(new Symbol("y"));
+        sibling.remove(new Name("y"));
+        probes[0] = 0;
+        assertEquals(new Name("x_11"), child.freshName("x", taken));
+        assertEquals(13, probes[0]);
+
+        // a related namespace of another tree has not been taken into account so far
+        final Namespace<Symbol> variables = new Namespace<>();
+        variables.add(new Symbol("x_11"));
+        assertEquals(new Name("x_12"), child.freshName("x",
+            n -> child.lookup(n) != null || variables.lookup(n) != null, variables));
+    }
+
+    @Test
+    void testLookupFollowsChangesOfTheChain() {
+        final Namespace<Symbol> root = new Namespace<>();
+        for (int i = 0; i < 40; i++) {
+            root.add(new Symbol("r" + i));
+        }
+        final Namespace<Symbol> middle = new Namespace<>(root);
+        for (int i = 0; i < 60; i++) {
+            middle.add(new Symbol("m" + i));
+        }
+        final Namespace<Symbol> leaf = new Namespace<>(middle);
+        leaf.add(new Symbol("l"));
+        assertNotNull(leaf.lookup("r0"));
+        assertNotNull(leaf.lookup("m59"));
+        assertNotNull(leaf.lookup("l"));
+        assertNull(middle.lookup("l"));
+
+        // additions anywhere in the chain are visible below
+        root.add(new Symbol("r40"));
+        middle.add(new Symbol("m60"));
+        leaf.add(new Symbol("l2"));
+        assertNotNull(leaf.lookup("r40"));
+        assertNotNull(leaf.lookup("m60"));
+        assertNotNull(leaf.lookup("l2"));
+
+        // shadowing symbols are found first and removals uncover the shadowed ones
+        final Symbol shadow = new Symbol("r1");
+        middle.add(shadow);
+        assertSame(shadow, leaf.lookup("r1"));
+        middle.remove(new Name("r1"));
+        assertNotSame(shadow, leaf.lookup("r1"));
+        assertNotNull(leaf.lookup("r1"));
+        root.remove(new Name("r2"));
+        assertNull(leaf.lookup("r2"));
+
+        // flushing and copying keep the visible symbols
+        final Namespace<Symbol> copy = leaf.copy();
+        leaf.flushToParent();
+        assertNotNull(middle.lookup("l"));
+        assertNotNull(leaf.lookup("l2"));
+        assertNotNull(copy.lookup("l2"));
+        copy.add(new Symbol("c"));
+        assertNull(leaf.lookup("c"));
+        assertNotNull(copy.lookup("c"));
+
+        leaf.set(DefaultImmutableSet.nil());
+        assertNull(leaf.lookup("r0"));
+    }
+
+    @Test
+    void testSealMakesImmutable() {
+        final Namespace<Symbol> root = new Namespace<>();
+        root.add(new Symbol("a"));
+        root.seal();
+        final Namespace<Symbol> child = new Namespace<>(root);
+        child.add(new Symbol("b"));
+        child.add(new Symbol("a"));
+        child.seal();
+
+        final Namespace<Symbol> grandChild = new Namespace<>(child);
+        grandChild.add(new Symbol("c"));
+        assertNotNull(grandChild.lookup("a"));
+        assertNotSame(root.lookup("a"), grandChild.lookup("a"));
+        assertSame(child.lookup("a"), grandChild.lookup("a"));
+        assertNotNull(grandChild.lookup("b"));
+        assertNotNull(grandChild.lookup("c"));
+        assertNull(child.lookup("c"));
+        assertThrows(IllegalStateException.class, () -> child.add(new Symbol("d")));
+        assertThrows(IllegalStateException.class, () -> child.remove(new Name("a")));
+    }
+
+    @Test
+    void testElementsInInsertionOrder() {
+        final Namespace<Symbol> ns = new Namespace<>();
+        for (int i = 0; i < 100; i++) {
+            ns.add(new Symbol("s" + i));
+        }
+        int i = 0;
+        for (Symbol symbol : ns.elements()) {
+            assertEquals("s" + i++, symbol.name().toString());
+        }
+        assertEquals(100, i);
+    }
+
+    @Test
+    void testElementsAreReusedUntilChanged() {
+        final Namespace<Symbol> ns = new Namespace<>();
+        ns.add(new Symbol("a"));
+        final Collection<Symbol> elements = ns.elements();
+        assertSame(elements, ns.elements());
+
+        ns.add(new Symbol("b"));
+        assertNotSame(elements, ns.elements());
+        assertEquals(1, elements.size());
+        assertEquals(2, ns.elements().size());
+    }
+}
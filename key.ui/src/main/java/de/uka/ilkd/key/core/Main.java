@@ -27,6 +27,7 @@ import de.uka.ilkd.key.macros.SkipMacro;
 import de.uka.ilkd.key.proof.init.AbstractProfile;
 import de.uka.ilkd.key.proof.io.AutoSaver;
 import de.uka.ilkd.key.proof.io.RuleSourceFactory;
+import de.uka.ilkd.key.proof.reference.ProofCache;
 import de.uka.ilkd.key.settings.GeneralSettings;
 import de.uka.ilkd.key.settings.PathConfig;
 import de.uka.ilkd.key.settings.ProofIndependentSettings;
@@ -83,6 +84,10 @@ public final class Main {
     private static final String TIMEOUT = "--timeout";
     private static final String EXAMPLES = "--examples";
     private static final String RIFL = "--rifl";
+    /**
+     * Directory of the persistent proof cache used in auto mode, see {@link ProofCache}.
+     */
+    private static final String PROOF_CACHE = "--proof-cache";
     public static final String JKEY_PREFIX = "--jr-";
     public static final String JMAX_RULES = JKEY_PREFIX + "maxRules";
     // deprecated
@@ -154,6 +159,11 @@ public final class Main {
      */
     private static Path riflFileName = null;
 
+    /**
+     * Directory of the persistent proof cache (null if not used).
+     */
+    private static Path proofCacheDirectory = null;
+
     /**
      * Save all contracts in selected location to automate the creation of multiple ".key"-files
      */
@@ -280,6 +290,8 @@ public final class Main {
         cl.addOption(TIMEOUT, "<timeout>",
             "timeout for each automatic proof of a problem in ms (default: "
                 + LemmataAutoModeOptions.DEFAULT_TIMEOUT + ", i.e., no timeout)");
+        cl.addOption(PROOF_CACHE, "<dir>",
+            "reuse closed branches stored in this directory by earlier runs (auto mode only)");
         cl.addSection("Options for justify rules:");
         cl.addOption(JUSTIFY_RULES, "<filename>",
             "autoprove taclets (options always with prefix --jr) needs the path to the rule file as argument");
@@ -396,6 +408,10 @@ public final class Main {
             examplesDir = cl.getString(EXAMPLES, null);
         }
 
+        if (cl.isSet(PROOF_CACHE)) {
+            proofCacheDirectory = Paths.get(cl.getString(PROOF_CACHE, null));
+        }
+
         if (Debug.ENABLE_DEBUG) {
             LOGGER.info("Running in debug mode");
         }
@@ -521,7 +537,16 @@ public final class Main {
                 printUsageAndExit(true, "Error: No file to load from.", -4);
             }
 
-            return new ConsoleUserInterfaceControl(loadOnly);
+            ConsoleUserInterfaceControl ui = new ConsoleUserInterfaceControl(loadOnly);
+            if (proofCacheDirectory != null) {
+                try {
+                    ui.setProofCache(new ProofCache(proofCacheDirectory,
+                        ProofCache.DEFAULT_MAX_SIZE, ProofCache.DEFAULT_MAX_AGE));
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to open proof cache {}", proofCacheDirectory, e);
+                }
+            }
+            return ui;
         } else {
             /*
              * explicitly enable pruning in closed branches for interactive mode (if not manually
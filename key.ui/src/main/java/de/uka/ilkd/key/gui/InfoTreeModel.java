@@ -126,8 +126,8 @@ public class InfoTreeModel extends DefaultTreeModel {
                 }
                 Set<NoPosTacletApp> set = goal.ruleAppIndex().tacletIndex().allNoPosTacletApps();
                 OneStepSimplifier simplifier = MiscTools.findOneStepSimplifier(goal.proof());
-                if (simplifier != null && !simplifier.isShutdown()) {
-                    set.addAll(simplifier.getCapturedTaclets());
+                if (simplifier != null && !simplifier.isShutdown(goal.proof())) {
+                    set.addAll(simplifier.getCapturedTaclets(goal.proof()));
                 }
 
                 for (final NoPosTacletApp app : sort(set)) {
@@ -7,6 +7,7 @@ package de.uka.ilkd.key.ui;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import de.uka.ilkd.key.control.AbstractProofControl;
@@ -32,11 +33,13 @@ import de.uka.ilkd.key.proof.init.Profile;
 import de.uka.ilkd.key.proof.init.ProofOblInput;
 import de.uka.ilkd.key.proof.io.ProblemLoader;
 import de.uka.ilkd.key.proof.io.ProofSaver;
+import de.uka.ilkd.key.proof.reference.ProofCache;
 import de.uka.ilkd.key.prover.impl.DefaultTaskStartedInfo;
 import de.uka.ilkd.key.rule.IBuiltInRuleApp;
 import de.uka.ilkd.key.scripts.ProofScriptEngine;
 import de.uka.ilkd.key.speclang.PositionedString;
 import de.uka.ilkd.key.util.MiscTools;
+import de.uka.ilkd.key.util.ProofStarter;
 
 import org.key_project.prover.engine.ProverCore;
 import org.key_project.prover.engine.TaskFinishedInfo;
@@ -77,6 +80,11 @@ public class ConsoleUserInterfaceControl extends AbstractMediatorUserInterfaceCo
      */
     private Path keyProblemFile = null;
 
+    /**
+     * The persistent proof cache (null if not used).
+     */
+    private ProofCache proofCache = null;
+
     /**
      * We want to record whether there was a proof that could not be proven. {@link Main} calls
      * System.exit() after all files have been loaded with
@@ -91,6 +99,48 @@ public class ConsoleUserInterfaceControl extends AbstractMediatorUserInterfaceCo
         this.loadOnly = loadOnly;
     }
 
+    /**
+     * Use a persistent proof cache: goals found in the cache are closed by replaying the cached
+     * steps, closed proofs are added to the cache.
+     *
+     * @param proofCache the cache
+     */
+    public void setProofCache(ProofCache proofCache) {
+        this.proofCache = proofCache;
+    }
+
+    /**
+     * Closes the goals found in the proof cache and stores the proof in the cache if it is
+     * closed. The auto mode skipped the cached goals, so it is run again on the goals that the
+     * cache failed to close (which may in turn find new goals in the cache).
+     *
+     * @param proof the proof
+     */
+    private void useProofCache(Proof proof) {
+        List<Goal> failed = new ArrayList<>();
+        int closed = proofCache.closeMarkedGoals(proof, failed);
+        while (!failed.isEmpty()) {
+            LOGGER.info("Proof cache failed to close {} goal(s), continuing auto mode",
+                failed.size());
+            // called from the finishing auto mode, hence the search is run on this thread
+            ProofStarter starter = new ProofStarter(false);
+            starter.init(proof);
+            starter.start(ImmutableList.fromList(failed));
+            failed.clear();
+            closed += proofCache.closeMarkedGoals(proof, failed);
+        }
+        if (closed > 0) {
+            LOGGER.info("Closed {} goal(s) using the proof cache", closed);
+        }
+        if (proof.closed()) {
+            try {
+                proofCache.store(proof);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to store proof in proof cache", e);
+            }
+        }
+    }
+
     private void printResults(final int openGoals, TaskFinishedInfo info, final Object result2) {
         LOGGER.info("]"); // end progress bar
         LOGGER.info("[ DONE  ... rule application ]");
@@ -146,7 +196,12 @@ public class ConsoleUserInterfaceControl extends AbstractMediatorUserInterfaceCo
         final int openGoals = proof.openGoals().size();
         if (info.getSource() instanceof ProverCore || info.getSource() instanceof ProofMacro) {
             if (!isAtLeastOneMacroRunning()) {
-                printResults(openGoals, info, result);
+                if (proofCache != null) {
+                    useProofCache(proof);
+                    printResults(proof.openGoals().size(), info, result);
+                } else {
+                    printResults(openGoals, info, result);
+                }
             }
         } else if (info.getSource() instanceof ProblemLoader) {
             if (result != null) {
@@ -160,6 +215,12 @@ public class ConsoleUserInterfaceControl extends AbstractMediatorUserInterfaceCo
                 LOGGER.info("Number of open goals after loading: {}", openGoals);
                 System.exit(0);
             }
+            if (proofCache != null) {
+                proof.addRuleAppListener(proofCache);
+                for (Goal goal : proof.openGoals()) {
+                    proofCache.markHit(goal);
+                }
+            }
             ProblemLoader problemLoader = (ProblemLoader) info.getSource();
             if (problemLoader.hasProofScript()) {
                 try {
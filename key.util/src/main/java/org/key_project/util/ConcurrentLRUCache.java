@@ -0,0 +1,614 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A thread-safe, size-bounded cache with a W-TinyLFU eviction policy per lock stripe.
+ * <p>
+ * In contrast to {@link LRUCache}, no external locking is required: the cache is split into
+ * segments (lock stripes), each of which is guarded by its own lock. Keys are distributed among the
+ * segments by their hash code, and each segment evicts entries independently once its share of
+ * the total bound is exceeded.
+ * </p>
+ * <p>
+ * Each segment consists of a small admission window (about one percent of its weight) and a main
+ * area, which is a segmented LRU with a probationary and a protected part. New entries enter the
+ * window. Entries leaving the window are only admitted to the main area if they have been
+ * requested more often than the entry which would be evicted for them; otherwise they are evicted
+ * themselves. An entry in the probationary part is promoted to the protected part when it is
+ * accessed again. The request frequencies are estimated by a count-min sketch of 4-bit counters
+ * which are halved periodically, so that the frequencies age. In consequence, a scan over many
+ * keys used only once does not evict the frequently used entries, as it would with plain LRU
+ * eviction.
+ * </p>
+ * <p>
+ * The bound is given as a maximal total <em>weight</em>. By default every entry weighs one, i.e.,
+ * the bound is the maximal number of entries; a custom {@link Weigher} can be used to bound the
+ * cache by an estimate of the memory its entries retain instead.
+ * </p>
+ * <p>
+ * The cache records the number of hits, misses and evictions, which can be obtained via
+ * {@link #getStats()}. Neither keys nor values may be {@code null}.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class ConcurrentLRUCache<K, V> {
+
+    /**
+     * Computes the weight of a cache entry. The weight of an entry must not change while it is
+     * in the cache.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        /**
+         * @param key the key of the entry
+         * @param value the value of the entry
+         * @return the (positive) weight of the entry
+         */
+        int weigh(K key, V value);
+    }
+
+    /**
+     * A snapshot of the statistics of a cache.
+     *
+     * @param name the name of the cache
+     * @param hits number of lookups which found an entry
+     * @param misses number of lookups which did not find an entry
+     * @param evictions number of entries removed to stay within the bound
+     * @param size the current number of entries
+     * @param weight the current total weight of all entries
+     * @param maxWeight the maximal total weight
+     */
+    public record Stats(String name, long hits, long misses, long evictions, int size,
+            long weight, long maxWeight) {
+        /**
+         * @return the ratio of successful lookups or 0 if the cache has not been used yet
+         */
+        public double hitRate() {
+            final long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size %d (weight %d of %d), hits %d, misses %d (%.1f%%), "
+                + "evictions %d", name, size, weight, maxWeight, hits, misses, 100 * hitRate(),
+                evictions);
+        }
+    }
+
+    /** the maximal number of segments */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * the minimal weight per segment; small caches use fewer segments to keep the eviction order
+     * close to the one of a single segment
+     */
+    private static final long MIN_SEGMENT_WEIGHT = 64;
+
+    /** name of the cache used in the statistics */
+    private final String name;
+
+    /** the maximal total weight of all entries */
+    private final long maxWeight;
+
+    private final Weigher<? super K, ? super V> weigher;
+
+    /** the segments; their number is a power of two */
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * creates a cache bounded by the number of its entries
+     *
+     * @param name the name of the cache (used for the statistics)
+     * @param maxEntries the maximal number of entries
+     */
+    public ConcurrentLRUCache(String name, long maxEntries) {
+        this(name, maxEntries, (k, v) -> 1);
+    }
+
+    /**
+     * creates a cache bounded by the total weight of its entries
+     *
+     * @param name the name of the cache (used for the statistics)
+     * @param maxWeight the maximal total weight of all entries
+     * @param weigher computes the weight of an entry
+     */
+    public ConcurrentLRUCache(String name, long maxWeight, Weigher<? super K, ? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("The maximal weight must be positive.");
+        }
+        this.name = Objects.requireNonNull(name);
+        this.maxWeight = maxWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS
+                && maxWeight / (segmentCount << 1) >= MIN_SEGMENT_WEIGHT) {
+            segmentCount <<= 1;
+        }
+        @SuppressWarnings("unchecked")
+        final Segment<K, V>[] newSegments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        segments = newSegments;
+        final long segmentWeight = (maxWeight + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentWeight);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return segments[h & (segments.length - 1)];
+    }
+
+    /**
+     * @return the name of this cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the maximal total weight of all entries
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Looks up the value cached for the given key, marks the entry as recently used and counts
+     * the request in the frequency estimate of the key.
+     *
+     * @param key the key
+     * @return the cached value or {@code null} if there is none
+     */
+    public @Nullable V get(K key) {
+        final V result = segmentFor(key).get(key);
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a value is cached for the given key without marking the entry as recently
+     * used and without affecting the statistics or the frequency estimate.
+     *
+     * @param key the key
+     * @return true iff a value is cached for the key
+     */
+    public boolean containsKey(K key) {
+        return segmentFor(key).containsKey(key);
+    }
+
+    /**
+     * Caches the given value for the given key, replacing a previously cached value. A new entry
+     * may be evicted immediately if it is requested less often than the entries already cached.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(value);
+        segmentFor(key).put(key, value, false, weigher, evictions);
+    }
+
+    /**
+     * Caches the given value for the given key unless a value is already cached.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previously cached value or {@code null} if {@code value} has been stored
+     */
+    public @Nullable V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        return segmentFor(key).put(key, value, true, weigher, evictions);
+    }
+
+    /**
+     * Returns the cached value for the given key, computing and caching it if absent.
+     * <p>
+     * The value is computed without holding a lock, so the computation may access this cache
+     * recursively. If several threads compute a value for the same key concurrently, the value
+     * stored first wins and is returned to all of them.
+     * </p>
+     *
+     * @param key the key
+     * @param mappingFunction computes the value for the key; it must not return {@code null}
+     * @return the cached value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        final V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V value = mappingFunction.apply(key);
+        final V previous = putIfAbsent(key, value);
+        return previous != null ? previous : value;
+    }
+
+    /**
+     * Removes the entry of the given key.
+     *
+     * @param key the key
+     * @return the removed value or {@code null} if there was none
+     */
+    public @Nullable V remove(K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * removes all entries; the statistics are kept
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return the current number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return a snapshot of the statistics of this cache
+     */
+    public Stats getStats() {
+        int size = 0;
+        long weight = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+                weight += segment.weight;
+            }
+        }
+        return new Stats(name, hits.sum(), misses.sum(), evictions.sum(), size, weight,
+            maxWeight);
+    }
+
+    /**
+     * resets the hit, miss and eviction counters
+     */
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return getStats().toString();
+    }
+
+    /** the queues of a segment an entry can be in */
+    private static final byte WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    /**
+     * An entry of a segment; it is linked into the access order of the queue it belongs to.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        int weight;
+        byte queue = WINDOW;
+        @Nullable
+        Node<K, V> prev, next;
+
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A doubly linked list of entries from the least to the most recently used one.
+     */
+    private static final class AccessQueue<K, V> {
+        @Nullable
+        Node<K, V> first, last;
+        long weight;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+            weight = 0;
+        }
+    }
+
+    /**
+     * A count-min sketch with four 4-bit counters per key estimating how often a key has been
+     * requested. All counters are halved once a number of increments proportional to the number
+     * of counters has been performed, so that old requests count less than recent ones.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        /** the maximal number of longs of the table (16 counters each) */
+        private static final int MAX_TABLE_LENGTH = 1 << 14;
+
+        private long[] table = new long[8];
+        private int additions;
+
+        /**
+         * grows the table to provide at least one long per entry of the segment; the counters
+         * are reset on growth
+         */
+        void ensureCapacity(int entries) {
+            if (entries > table.length && table.length < MAX_TABLE_LENGTH) {
+                table = new long[Math.min(Integer.highestOneBit(entries - 1) << 1,
+                    MAX_TABLE_LENGTH)];
+                additions = 0;
+            }
+        }
+
+        private long hash(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return h + (h >>> 32);
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                final long h = hash(hash, i);
+                final int offset = (int) ((h >>> 40) & 15) << 2;
+                frequency = Math.min(frequency,
+                    (int) ((table[(int) h & (table.length - 1)] >>> offset) & 15));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                final long h = hash(hash, i);
+                final int index = (int) h & (table.length - 1);
+                final int offset = (int) ((h >>> 40) & 15) << 2;
+                if (((table[index] >>> offset) & 15) != 15) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == 10 * table.length) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            additions = 0;
+        }
+    }
+
+    /**
+     * A W-TinyLFU cache guarded by its own monitor: an LRU admission window in front of a segmented
+     * LRU main area, whose entries are only replaced by entries leaving the window if these are
+     * estimated to be requested more often.
+     */
+    private static final class Segment<K, V> {
+        private final HashMap<K, Node<K, V>> map = new HashMap<>();
+        private final AccessQueue<K, V> window = new AccessQueue<>();
+        private final AccessQueue<K, V> probation = new AccessQueue<>();
+        private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+        private final FrequencySketch sketch = new FrequencySketch();
+        private final long maxWeight;
+        /** the maximal weight of the admission window */
+        private final long maxWindowWeight;
+        /** the maximal weight of the protected part of the main area */
+        private final long maxProtectedWeight;
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxWindowWeight = Math.max(1, maxWeight / 100);
+            this.maxProtectedWeight = (maxWeight - maxWindowWeight) * 4 / 5;
+        }
+
+        private static int spread(Object key) {
+            final int h = key.hashCode();
+            return h ^ (h >>> 16);
+        }
+
+        synchronized @Nullable V get(K key) {
+            sketch.increment(spread(key));
+            final Node<K, V> node = map.get(key);
+            if (node == null) {
+                return null;
+            }
+            onAccess(node);
+            return node.value;
+        }
+
+        synchronized boolean containsKey(K key) {
+            return map.containsKey(key);
+        }
+
+        synchronized @Nullable V put(K key, V value, boolean onlyIfAbsent,
+                Weigher<? super K, ? super V> weigher, LongAdder evictions) {
+            sketch.increment(spread(key));
+            final Node<K, V> node = map.get(key);
+            if (node != null) {
+                final V previous = node.value;
+                if (!onlyIfAbsent) {
+                    final AccessQueue<K, V> queue = queueOf(node);
+                    final int newWeight = weigher.weigh(key, value);
+                    queue.weight += newWeight - node.weight;
+                    weight += newWeight - node.weight;
+                    node.value = value;
+                    node.weight = newWeight;
+                }
+                onAccess(node);
+                evict(evictions);
+                return previous;
+            }
+            final Node<K, V> added = new Node<>(key, value, weigher.weigh(key, value));
+            map.put(key, added);
+            sketch.ensureCapacity(map.size());
+            window.addLast(added);
+            weight += added.weight;
+            evict(evictions);
+            return null;
+        }
+
+        private AccessQueue<K, V> queueOf(Node<K, V> node) {
+            return switch (node.queue) {
+                case WINDOW -> window;
+                case PROBATION -> probation;
+                default -> protectedQueue;
+            };
+        }
+
+        private void onAccess(Node<K, V> node) {
+            switch (node.queue) {
+                case WINDOW -> window.moveToLast(node);
+                case PROBATION -> {
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedQueue.addLast(node);
+                    // demote the least recently used protected entries
+                    while (protectedQueue.weight > maxProtectedWeight) {
+                        final Node<K, V> demoted = protectedQueue.first;
+                        assert demoted != null;
+                        protectedQueue.remove(demoted);
+                        demoted.queue = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                }
+                default -> protectedQueue.moveToLast(node);
+            }
+        }
+
+        /**
+         * moves the entries exceeding the window into the probationary part as candidates and
+         * evicts, while the segment is too heavy, either the least recently used entry of the main
+         * area or the candidate, whichever is requested less often
+         */
+        private void evict(LongAdder evictions) {
+            Node<K, V> candidate = null;
+            while (window.weight > maxWindowWeight && window.first != null) {
+                final Node<K, V> node = window.first;
+                window.remove(node);
+                node.queue = PROBATION;
+                probation.addLast(node);
+                if (candidate == null) {
+                    candidate = node;
+                }
+            }
+            while (weight > maxWeight) {
+                // the candidates are the most recently used entries of the probationary part
+                Node<K, V> victim = probation.first;
+                if (victim == null || victim == candidate) {
+                    victim = protectedQueue.first;
+                }
+                final Node<K, V> evicted;
+                if (candidate == null) {
+                    evicted = victim != null ? victim
+                            : probation.first != null ? probation.first : window.first;
+                } else if (victim == null || sketch.frequency(spread(candidate.key)) <= sketch
+                        .frequency(spread(victim.key))) {
+                    evicted = candidate;
+                    candidate = candidate.next;
+                } else {
+                    evicted = victim;
+                }
+                assert evicted != null;
+                queueOf(evicted).remove(evicted);
+                map.remove(evicted.key);
+                weight -= evicted.weight;
+                evictions.increment();
+            }
+        }
+
+        synchronized @Nullable V remove(K key) {
+            final Node<K, V> removed = map.remove(key);
+            if (removed == null) {
+                return null;
+            }
+            queueOf(removed).remove(removed);
+            weight -= removed.weight;
+            return removed.value;
+        }
+
+        synchronized void clear() {
+            map.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+            sketch.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.Iterator;
+
+import org.key_project.util.Strings;
+import org.key_project.util.collection.ChampNode.Leaf;
+import org.key_project.util.collection.ChampNode.LeafIterator;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * This class implements {@code ImmutableMap<S,T>} as a persistent hash trie (CHAMP). Lookups and
+ * updates take O(log32 n) steps and share the unchanged parts of the trie with the original map.
+ * <p>
+ * {@link DefaultImmutableMap} switches to this implementation once it reaches
+ * {@link DefaultImmutableMap#HASH_TRIE_THRESHOLD} entries. Like the list based map, iteration is
+ * most recent first; the insertion order is kept in a list of leaves which is shared between
+ * versions like the trie (see {@link ChampNode}).
+ */
+public final class ChampImmutableMap<S, T> implements ImmutableMap<S, T> {
+
+    /** the root of the trie */
+    private final ChampNode<S, T> root;
+
+    /** number of entries in the map */
+    private final int size;
+
+    /** the leaves most recent first, possibly including stale ones */
+    private final ImmutableList<Leaf<S, T>> order;
+
+    private ChampImmutableMap(ChampNode<S, T> root, int size, ImmutableList<Leaf<S, T>> order) {
+        this.root = root;
+        this.size = size;
+        this.order = ChampNode.compact(root, size, order);
+    }
+
+    /**
+     * creates a hash trie map with the entries of the given map
+     *
+     * @param map the map to copy
+     * @return a hash trie map with the same entries and iteration order
+     */
+    static <S, T> ChampImmutableMap<S, T> fromMap(ImmutableMap<S, T> map) {
+        ChampNode<S, T> root = ChampNode.empty();
+        ImmutableList<Leaf<S, T>> reversed = ImmutableSLList.nil();
+        for (ImmutableMapEntry<S, T> e : map) {
+            final Leaf<S, T> leaf = new Leaf<>(e.key(), e.value());
+            root = root.put(leaf, 0);
+            reversed = reversed.prepend(leaf);
+        }
+        return new ChampImmutableMap<>(root, map.size(), reversed.reverse());
+    }
+
+    @Override
+    public ImmutableMap<S, T> put(S key, T value) {
+        final Leaf<S, T> old = root.find(key, ChampNode.hash(key), 0);
+        if (old != null && old.value() == value && order.head() == old) {
+            return this;
+        }
+        final Leaf<S, T> leaf = new Leaf<>(key, value);
+        return new ChampImmutableMap<>(root.put(leaf, 0), old == null ? size + 1 : size,
+            order.prepend(leaf));
+    }
+
+    @Override
+    public @Nullable T get(S key) {
+        final Leaf<S, T> leaf = root.find(key, ChampNode.hash(key), 0);
+        return leaf == null ? null : leaf.value();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public boolean containsKey(S key) {
+        return root.find(key, ChampNode.hash(key), 0) != null;
+    }
+
+    @Override
+    public boolean containsValue(T value) {
+        final Iterator<T> it = valueIterator();
+        while (it.hasNext()) {
+            final T entryVal = it.next();
+            if (entryVal == value || entryVal.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ImmutableMap<S, T> remove(S key) {
+        final ChampNode<S, T> newRoot = root.remove(key, ChampNode.hash(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return size == 1 ? DefaultImmutableMap.nilMap()
+                : new ChampImmutableMap<>(newRoot, size - 1, order);
+    }
+
+    @Override
+    public ImmutableMap<S, T> removeAll(T value) {
+        ImmutableMap<S, T> result = this;
+        for (ImmutableMapEntry<S, T> e : this) {
+            final T entryVal = e.value();
+            if (entryVal == value || entryVal.equals(value)) {
+                result = result.remove(e.key());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<S> keyIterator() {
+        return new LeafIterator<>(root, size, order, Leaf::key);
+    }
+
+    @Override
+    public Iterator<T> valueIterator() {
+        return new LeafIterator<>(root, size, order, Leaf::value);
+    }
+
+    @Override
+    public Iterator<ImmutableMapEntry<S, T>> iterator() {
+        return new LeafIterator<>(root, size, order,
+            leaf -> new DefaultImmutableMap.MapEntry<>(leaf.key(), leaf.value()));
+    }
+
+    @Override
+    public String toString() {
+        return Strings.formatAsList(this, "[", ",", "]");
+    }
+
+    /**
+     * The equality checks if the argument is another immutable map with the same
+     * entries.
+     *
+     * @return true iff the other object is an immutable map with the same entries
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(@Nullable Object o) {
+        if (!(o instanceof ImmutableMap)) {
+            return false;
+        }
+        if (o == this) {
+            return true;
+        }
+
+        final ImmutableMap<S, T> o1 = (ImmutableMap<S, T>) o;
+        if (o1.size() != size()) {
+            return false;
+        }
+        for (ImmutableMapEntry<S, T> e : this) {
+            if (!e.value().equals(o1.get(e.key()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return the same hash code as a {@link DefaultImmutableMap} with the same entries */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (ImmutableMapEntry<S, T> e : this) {
+            hashCode += 7 * e.hashCode();
+        }
+        return hashCode;
+    }
+}
@@ -0,0 +1,224 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.key_project.util.Strings;
+import org.key_project.util.collection.ChampNode.Leaf;
+import org.key_project.util.collection.ChampNode.LeafIterator;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * implementation of a persistent set as hash trie (CHAMP). Adding, removing and searching an
+ * element take O(log32 n) steps and share the unchanged parts of the trie with the original set.
+ * <p>
+ * {@link DefaultImmutableSet} switches to this implementation once it reaches
+ * {@link DefaultImmutableSet#HASH_TRIE_THRESHOLD} elements. Like the list based set, iteration is
+ * most recent first; the insertion order is kept in a list of leaves which is shared between
+ * versions like the trie (see {@link ChampNode}).
+ *
+ * @param <T> type of object to store
+ */
+public final class ChampImmutableSet<T extends @Nullable Object> implements ImmutableSet<T> {
+
+    private static final long serialVersionUID = -2409722850916409146L;
+
+    /** the root of the trie, every element is stored as key and value */
+    private final ChampNode<T, T> root;
+
+    /** the cardinality of the set */
+    private final int size;
+
+    /** the leaves most recent first, possibly including stale ones */
+    private final ImmutableList<Leaf<T, T>> order;
+
+    private ChampImmutableSet(ChampNode<T, T> root, int size, ImmutableList<Leaf<T, T>> order) {
+        this.root = root;
+        this.size = size;
+        this.order = ChampNode.compact(root, size, order);
+    }
+
+    /**
+     * creates a hash trie set from a list
+     *
+     * @param list the elements, most recent first
+     * @return a hash trie set containing the elements of the list in the same iteration order
+     */
+    static <T extends @Nullable Object> ChampImmutableSet<T> fromList(ImmutableList<T> list) {
+        ChampNode<T, T> root = ChampNode.empty();
+        int size = 0;
+        ImmutableList<Leaf<T, T>> order = ImmutableSLList.nil();
+        for (T element : list.reverse()) {
+            final int hash = ChampNode.hash(element);
+            if (root.find(element, hash, 0) == null) {
+                final Leaf<T, T> leaf = new Leaf<>(element, element, hash);
+                root = root.put(leaf, 0);
+                order = order.prepend(leaf);
+                size++;
+            }
+        }
+        return new ChampImmutableSet<>(root, size, order);
+    }
+
+    @Override
+    public Set<T> toSet() {
+        final Set<T> result = new HashSet<>();
+        for (T element : this) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Override
+    public ChampImmutableSet<T> add(T element) {
+        final int hash = ChampNode.hash(element);
+        if (root.find(element, hash, 0) != null) {
+            return this;
+        }
+        final Leaf<T, T> leaf = new Leaf<>(element, element, hash);
+        return new ChampImmutableSet<>(root.put(leaf, 0), size + 1, order.prepend(leaf));
+    }
+
+    @Override
+    public ImmutableSet<T> addUnique(T element) throws NotUniqueException {
+        final ChampImmutableSet<T> result = add(element);
+        if (result == this) {
+            throw new NotUniqueException(element);
+        }
+        return result;
+    }
+
+    @Override
+    public ImmutableSet<T> union(ImmutableSet<? extends T> set) {
+        ChampImmutableSet<T> result = this;
+        for (T element : set) {
+            result = result.add(element);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ImmutableSet<T> intersect(ImmutableSet<? extends T> set) {
+        if (set.isEmpty()) {
+            // This cast is safe due to the set's immutability.
+            return (ImmutableSet<T>) set;
+        }
+        ImmutableSet<T> result = DefaultImmutableSet.nil();
+        for (T element : set) {
+            if (contains(element)) {
+                result = result.add(element);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new LeafIterator<>(root, size, order, Leaf::key);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public boolean exists(Predicate<T> predicate) {
+        for (T element : this) {
+            if (predicate.test(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object obj) {
+        return root.find(obj, ChampNode.hash(obj), 0) != null;
+    }
+
+    @Override
+    public boolean subset(ImmutableSet<? extends @Nullable Object> s) {
+        if (size() > s.size()) {
+            return false;
+        }
+        for (T element : this) {
+            if (!s.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public ImmutableSet<T> remove(T element) {
+        final ChampNode<T, T> newRoot = root.remove(element, ChampNode.hash(element), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return size == 1 ? DefaultImmutableSet.nil()
+                : new ChampImmutableSet<>(newRoot, size - 1, order);
+    }
+
+    /**
+     * @return true iff the this set is subset of o and vice versa.
+     */
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ImmutableSet)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        ImmutableSet<T> o = (ImmutableSet<T>) obj;
+        return o.size() == size && this.subset(o);
+    }
+
+    /** @return the same hash code as a {@link DefaultImmutableSet} with the same elements */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (T element : this) {
+            hashCode += element == null ? 0 : element.hashCode();
+        }
+        return hashCode;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <S> S[] toArray(S[] array) {
+        final S[] result = array.length < size
+                ? (S[]) Array.newInstance(array.getClass().getComponentType(), size)
+                : array;
+        int i = 0;
+        for (T element : this) {
+            result[i++] = (S) element;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.formatAsList(this, "{", ",", "}");
+    }
+}
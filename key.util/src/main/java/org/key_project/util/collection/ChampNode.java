@@ -0,0 +1,373 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A node of a compressed hash-array mapped prefix tree (CHAMP) as used by
+ * {@link ChampImmutableMap} and {@link ChampImmutableSet}.
+ * <p>
+ * Each node consumes {@value #BITS} bits of the key hash. The content array stores the leaves
+ * selected by {@link #dataMap} at its front and the sub nodes selected by {@link #nodeMap} at its
+ * end (in reverse order). Once all hash bits are consumed, a node is a collision node whose
+ * content only consists of leaves with the same hash. Removing entries keeps the trie canonical:
+ * a sub node never holds a single leaf only.
+ * <p>
+ * The trie itself does not record the insertion order. To iterate most recent first like their
+ * list based counterparts, the collections additionally keep a persistent list of their leaves,
+ * most recent first, which is shared between versions like the trie. Replacing or removing an
+ * entry leaves a stale leaf in that list; iteration skips stale leaves and
+ * {@link #compact(ChampNode, int, ImmutableList)} drops them once they make up half of the list.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class ChampNode<K extends @Nullable Object, V extends @Nullable Object>
+        implements Serializable {
+
+    private static final long serialVersionUID = 6318519403384522409L;
+
+    /** number of hash bits consumed per level */
+    static final int BITS = 5;
+
+    /** mask selecting the hash bits of one level */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** shift at which all bits of the hash are consumed */
+    private static final int HASH_BITS = 32;
+
+    /** the empty node */
+    private static final ChampNode<?, ?> EMPTY = new ChampNode<>(0, 0, new Object[0]);
+
+    /** bitmap of the hash fragments which are stored as leaves in this node */
+    private final int dataMap;
+
+    /** bitmap of the hash fragments which are stored in sub nodes */
+    private final int nodeMap;
+
+    /** the leaves followed by the sub nodes in reverse order */
+    private final Object[] content;
+
+    private ChampNode(int dataMap, int nodeMap, Object[] content) {
+        this.dataMap = dataMap;
+        this.nodeMap = nodeMap;
+        this.content = content;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends @Nullable Object, V extends @Nullable Object> ChampNode<K, V> empty() {
+        return (ChampNode<K, V>) EMPTY;
+    }
+
+    /** @return the hash used to place the given key */
+    static int hash(@Nullable Object key) {
+        int h = Objects.hashCode(key);
+        // spread the bits like HashMap does, hash codes often differ in the upper bits only
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean keyEquals(@Nullable Object a, @Nullable Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
+
+    private static int fragment(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private int dataIndex(int bit) {
+        return Integer.bitCount(dataMap & (bit - 1));
+    }
+
+    private int nodeIndex(int bit) {
+        return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> leafAt(int index) {
+        return (Leaf<K, V>) content[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChampNode<K, V> nodeAt(int index) {
+        return (ChampNode<K, V>) content[index];
+    }
+
+    /**
+     * looks up the leaf of the given key
+     *
+     * @param key the key to look up
+     * @param hash the hash of the key as computed by {@link #hash(Object)}
+     * @param shift the number of hash bits consumed by the parents of this node
+     * @return the leaf of the key or {@code null} if the key is not contained
+     */
+    @Nullable
+    Leaf<K, V> find(@Nullable Object key, int hash, int shift) {
+        ChampNode<K, V> node = this;
+        while (shift < HASH_BITS) {
+            final int bit = 1 << fragment(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                final Leaf<K, V> leaf = node.leafAt(node.dataIndex(bit));
+                return leaf.hash == hash && keyEquals(leaf.key, key) ? leaf : null;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return null;
+            }
+            node = node.nodeAt(node.nodeIndex(bit));
+            shift += BITS;
+        }
+        for (Object o : node.content) {
+            @SuppressWarnings("unchecked")
+            final Leaf<K, V> leaf = (Leaf<K, V>) o;
+            if (keyEquals(leaf.key, key)) {
+                return leaf;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * adds the given leaf, replacing the leaf of an equal key
+     *
+     * @param leaf the leaf to be added
+     * @param shift the number of hash bits consumed by the parents of this node
+     * @return the new node
+     */
+    ChampNode<K, V> put(Leaf<K, V> leaf, int shift) {
+        if (shift >= HASH_BITS) {
+            for (int i = 0; i < content.length; i++) {
+                if (keyEquals(leafAt(i).key, leaf.key)) {
+                    return withReplaced(i, leaf);
+                }
+            }
+            final Object[] newContent = Arrays.copyOf(content, content.length + 1);
+            newContent[content.length] = leaf;
+            return new ChampNode<>(0, 0, newContent);
+        }
+
+        final int bit = 1 << fragment(leaf.hash, shift);
+        if ((dataMap & bit) != 0) {
+            final int index = dataIndex(bit);
+            final Leaf<K, V> old = leafAt(index);
+            if (old.hash == leaf.hash && keyEquals(old.key, leaf.key)) {
+                return withReplaced(index, leaf);
+            }
+            final ChampNode<K, V> sub = merge(old, leaf, shift + BITS);
+            // the leaf moves from the data section into the node section
+            final Object[] newContent = new Object[content.length];
+            System.arraycopy(content, 0, newContent, 0, index);
+            final int nodeIndex = nodeIndex(bit);
+            System.arraycopy(content, index + 1, newContent, index, nodeIndex - index);
+            newContent[nodeIndex] = sub;
+            System.arraycopy(content, nodeIndex + 1, newContent, nodeIndex + 1,
+                content.length - nodeIndex - 1);
+            return new ChampNode<>(dataMap ^ bit, nodeMap | bit, newContent);
+        }
+        if ((nodeMap & bit) != 0) {
+            final int index = nodeIndex(bit);
+            return withReplaced(index, nodeAt(index).put(leaf, shift + BITS));
+        }
+        final int index = dataIndex(bit);
+        final Object[] newContent = new Object[content.length + 1];
+        System.arraycopy(content, 0, newContent, 0, index);
+        newContent[index] = leaf;
+        System.arraycopy(content, index, newContent, index + 1, content.length - index);
+        return new ChampNode<>(dataMap | bit, nodeMap, newContent);
+    }
+
+    /**
+     * removes the leaf of the given key
+     *
+     * @param key the key to be removed
+     * @param hash the hash of the key as computed by {@link #hash(Object)}
+     * @param shift the number of hash bits consumed by the parents of this node
+     * @return the new node or this node if the key is not contained
+     */
+    ChampNode<K, V> remove(@Nullable Object key, int hash, int shift) {
+        if (shift >= HASH_BITS) {
+            for (int i = 0; i < content.length; i++) {
+                if (keyEquals(leafAt(i).key, key)) {
+                    return new ChampNode<>(0, 0, without(i));
+                }
+            }
+            return this;
+        }
+
+        final int bit = 1 << fragment(hash, shift);
+        if ((dataMap & bit) != 0) {
+            final int index = dataIndex(bit);
+            final Leaf<K, V> old = leafAt(index);
+            if (old.hash != hash || !keyEquals(old.key, key)) {
+                return this;
+            }
+            return new ChampNode<>(dataMap ^ bit, nodeMap, without(index));
+        }
+        if ((nodeMap & bit) == 0) {
+            return this;
+        }
+        final int index = nodeIndex(bit);
+        final ChampNode<K, V> sub = nodeAt(index);
+        final ChampNode<K, V> newSub = sub.remove(key, hash, shift + BITS);
+        if (newSub == sub) {
+            return this;
+        }
+        final Leaf<K, V> single = newSub.singleLeaf();
+        if (single == null) {
+            return withReplaced(index, newSub);
+        }
+        // inline the remaining leaf of the sub node
+        final int dataIndex = dataIndex(bit);
+        final Object[] newContent = new Object[content.length];
+        System.arraycopy(content, 0, newContent, 0, dataIndex);
+        newContent[dataIndex] = single;
+        System.arraycopy(content, dataIndex, newContent, dataIndex + 1, index - dataIndex);
+        System.arraycopy(content, index + 1, newContent, index + 1, content.length - index - 1);
+        return new ChampNode<>(dataMap | bit, nodeMap ^ bit, newContent);
+    }
+
+    /**
+     * checks whether the given leaf is stored in this trie, i.e., whether it is not stale
+     *
+     * @param leaf the leaf
+     * @return true iff the leaf has neither been replaced nor removed
+     */
+    boolean contains(Leaf<K, V> leaf) {
+        return find(leaf.key, leaf.hash, 0) == leaf;
+    }
+
+    /**
+     * drops the stale leaves from an insertion order list once they make up half of it, so that
+     * the list stays linear in the size of the trie
+     *
+     * @param root the trie
+     * @param size the number of leaves in the trie
+     * @param order the leaves, most recent first, including stale ones
+     * @return the given list or the list of the leaves in the trie, most recent first
+     */
+    static <K extends @Nullable Object, V extends @Nullable Object>
+            ImmutableList<Leaf<K, V>> compact(ChampNode<K, V> root, int size,
+                    ImmutableList<Leaf<K, V>> order) {
+        if (order.size() <= 2 * size) {
+            return order;
+        }
+        ImmutableList<Leaf<K, V>> reversed = ImmutableSLList.nil();
+        for (Leaf<K, V> leaf : order) {
+            if (root.contains(leaf)) {
+                reversed = reversed.prepend(leaf);
+            }
+        }
+        return reversed.reverse();
+    }
+
+    /** @return the only leaf of this node if it has no other content, null otherwise */
+    private @Nullable Leaf<K, V> singleLeaf() {
+        return content.length == 1 && content[0] instanceof Leaf<?, ?> ? leafAt(0) : null;
+    }
+
+    private ChampNode<K, V> withReplaced(int index, Object value) {
+        final Object[] newContent = content.clone();
+        newContent[index] = value;
+        return new ChampNode<>(dataMap, nodeMap, newContent);
+    }
+
+    private Object[] without(int index) {
+        final Object[] newContent = new Object[content.length - 1];
+        System.arraycopy(content, 0, newContent, 0, index);
+        System.arraycopy(content, index + 1, newContent, index, content.length - index - 1);
+        return newContent;
+    }
+
+    private static <K extends @Nullable Object, V extends @Nullable Object> ChampNode<K, V> merge(
+            Leaf<K, V> a, Leaf<K, V> b, int shift) {
+        if (shift >= HASH_BITS) {
+            return new ChampNode<>(0, 0, new Object[] { a, b });
+        }
+        final int fragA = fragment(a.hash, shift);
+        final int fragB = fragment(b.hash, shift);
+        if (fragA == fragB) {
+            return new ChampNode<>(0, 1 << fragA, new Object[] { merge(a, b, shift + BITS) });
+        }
+        final Object[] content = fragA < fragB ? new Object[] { a, b } : new Object[] { b, a };
+        return new ChampNode<>((1 << fragA) | (1 << fragB), 0, content);
+    }
+
+    /**
+     * An entry of the trie.
+     *
+     * @param key the key
+     * @param value the value
+     * @param hash the hash of the key as computed by {@link #hash(Object)}
+     */
+    // @formatter:off
+    record Leaf<K extends @Nullable Object, V extends @Nullable Object>(K key, V value, int hash)
+            implements Serializable {
+        Leaf(K key, V value) {
+            this(key, value, ChampNode.hash(key));
+        }
+    }
+    // @formatter:on
+
+    /**
+     * iterator over the leaves of an insertion order list which are stored in a trie
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @param <R> the type of the iterated objects
+     */
+    static final class LeafIterator<K extends @Nullable Object, V extends @Nullable Object, R>
+            implements Iterator<R> {
+        /** the trie, null if the order list has no stale leaves */
+        private final @Nullable ChampNode<K, V> root;
+        private final Iterator<Leaf<K, V>> order;
+        private final Function<Leaf<K, V>, R> selector;
+        private @Nullable Leaf<K, V> next;
+
+        /**
+         * @param root the trie
+         * @param size the number of leaves in the trie
+         * @param order the leaves, most recent first, including stale ones
+         * @param selector maps the leaves to the iterated objects
+         */
+        LeafIterator(ChampNode<K, V> root, int size, ImmutableList<Leaf<K, V>> order,
+                Function<Leaf<K, V>, R> selector) {
+            this.root = order.size() == size ? null : root;
+            this.order = order.iterator();
+            this.selector = selector;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (order.hasNext()) {
+                final Leaf<K, V> leaf = order.next();
+                if (root == null || root.contains(leaf)) {
+                    next = leaf;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public R next() {
+            final Leaf<K, V> leaf = next;
+            if (leaf == null) {
+                throw new NoSuchElementException("No more elements in iterator");
+            }
+            advance();
+            return selector.apply(leaf);
+        }
+    }
+}
@@ -14,10 +14,18 @@ import org.jspecify.annotations.Nullable;
 
 /**
  * This class implements {@code ImmutableMap<S,T>} and provides a persistent map.
- * It is a simple implementation like lists
+ * It is a simple implementation like lists. Once a map reaches {@link #HASH_TRIE_THRESHOLD}
+ * entries, {@link #put(Object, Object)} continues with a {@link ChampImmutableMap} whose
+ * operations do not degrade linearly.
  */
 public final class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
 
+    /**
+     * Number of entries from which on maps are stored as hash tries. Below, the linear search is
+     * faster than hashing.
+     */
+    public static final int HASH_TRIE_THRESHOLD = 16;
+
     /** the empty map */
     private static final DefaultImmutableMap<?, ?> EMPTY_MAP = new DefaultImmutableMap<>();
 
@@ -69,7 +77,11 @@ public final class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
      *         with keys different from the given key
      */
     public ImmutableMap<S, T> put(S key, T value) {
-        return new DefaultImmutableMap<>(new MapEntry<>(key, value), this.remove(key));
+        final DefaultImmutableMap<S, T> rest = this.remove(key);
+        if (rest.size + 1 >= HASH_TRIE_THRESHOLD) {
+            return ChampImmutableMap.fromMap(rest).put(key, value);
+        }
+        return new DefaultImmutableMap<>(new MapEntry<>(key, value), rest);
     }
 
     /**
@@ -349,7 +361,7 @@ public final class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
      * @param value the value
      */
     // @formatter:off Spotless cannot deal with inner records yet or so it seems :(
-    private record MapEntry<S,T>(S key, T value) implements ImmutableMapEntry<S,T> {
+    record MapEntry<S,T>(S key, T value) implements ImmutableMapEntry<S,T> {
 
         /**
          * @return true iff both objects have equal pairs of key and value
@@ -14,7 +14,8 @@ import org.jspecify.annotations.Nullable;
 
 /**
  * implementation of a persistent set using the SLListOf<T> implementation with all its implications
- * (means e.g. O(n) for adding an element, searching for an element and so on).
+ * (means e.g. O(n) for adding an element, searching for an element and so on). Sets with at least
+ * {@link #HASH_TRIE_THRESHOLD} elements are therefore created as {@link ChampImmutableSet}.
  *
  * @param <T> type of object to store
  */
@@ -30,6 +31,12 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
      */
     public static final int UNION_OPTIMIZATION_SIZE = 100;
 
+    /**
+     * Number of elements from which on sets are stored as hash tries. Below, the linear search is
+     * faster than hashing.
+     */
+    public static final int HASH_TRIE_THRESHOLD = 16;
+
     /** list containing the elements */
     private final ImmutableList<T> elementList;
 
@@ -63,7 +70,21 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
     }
 
     public static <T> ImmutableSet<T> fromCollection(Collection<T> seq) {
-        return new DefaultImmutableSet<>(ImmutableList.fromList(seq));
+        return create(ImmutableList.fromList(seq));
+    }
+
+    /**
+     * creates a set containing all elements from the list, as hash trie if it is large
+     * PRECONDITION: elementList has no duplicates
+     *
+     * @param elementList IList<T> contains all elements of the new Set
+     */
+    private static <T extends @Nullable Object> ImmutableSet<T> create(
+            ImmutableList<T> elementList) {
+        if (elementList.size() >= HASH_TRIE_THRESHOLD) {
+            return ChampImmutableSet.fromList(elementList);
+        }
+        return new DefaultImmutableSet<>(elementList);
     }
 
     // private static HashSet<String> previousComplains = new HashSet<>();
@@ -96,7 +117,7 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
         if (elementList.contains(element)) {
             return this;
         }
-        return new DefaultImmutableSet<>(elementList.prepend(element));
+        return create(elementList.prepend(element));
     }
 
     /**
@@ -111,7 +132,7 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
         if (elementList.contains(element)) {
             throw new NotUniqueException(element);
         } else {
-            return new DefaultImmutableSet<>(elementList.prepend(element));
+            return create(elementList.prepend(element));
         }
     }
 
@@ -125,13 +146,13 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
         return originalUnion(set);
     }
 
-    private DefaultImmutableSet<T> newUnion(DefaultImmutableSet<? extends T> set) {
+    private ImmutableSet<T> newUnion(DefaultImmutableSet<? extends T> set) {
         ImmutableList<? extends T> otherList = set.elementList;
         ImmutableList<T> clean = Immutables.concatDuplicateFreeLists(this.elementList, otherList);
-        return new DefaultImmutableSet<>(clean);
+        return create(clean);
     }
 
-    private DefaultImmutableSet<T> originalUnion(ImmutableSet<? extends T> set) {
+    private ImmutableSet<T> originalUnion(ImmutableSet<? extends T> set) {
         if (set.isEmpty()) {
             return this;
         }
@@ -142,7 +163,7 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
                 unionElements = unionElements.prepend(otherEl);
             }
         }
-        return new DefaultImmutableSet<>(unionElements);
+        return create(unionElements);
     }
 
     /** @return intersection of this set with set */
@@ -295,7 +316,7 @@ public class DefaultImmutableSet<T extends @Nullable Object> implements Immutabl
         if (list.isEmpty()) {
             return nil();
         } else {
-            return new DefaultImmutableSet<>(Immutables.removeDuplicates(list));
+            return create(Immutables.removeDuplicates(list));
         }
     }
 
@@ -0,0 +1,282 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A thread-safe interning table (hash-consing) which maps each value to a canonical, structurally
+ * equal representative.
+ * <p>
+ * The representatives are only weakly referenced, i.e., the table does not prevent them from
+ * being garbage-collected and shrinks on its own once the interned values are no longer in use.
+ * Hence, no size bound is needed and, as long as a value is reachable, every equal value
+ * interned later is mapped to the very same object.
+ * </p>
+ * <p>
+ * The table is split into independently locked segments (lock striping), such that concurrent
+ * threads only contend if they access values whose hash codes fall into the same segment.
+ * The number of hits and misses of {@link #get(Object)} is recorded for diagnostic purposes.
+ * </p>
+ *
+ * @param <T> the type of the interned values; it must provide proper implementations of
+ *        {@link Object#equals(Object)} and {@link Object#hashCode()}
+ */
+public final class WeakInterner<T> {
+
+    /** the default number of segments */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    /** the segments; their number is a power of two */
+    private final Segment<T>[] segments;
+
+    /** the shift used to select the segment from the (spread) hash code */
+    private final int segmentShift;
+
+    /** number of successful lookups */
+    private final LongAdder hits = new LongAdder();
+
+    /** number of failed lookups */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * creates an interning table with the default number of segments
+     */
+    public WeakInterner() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * creates an interning table
+     *
+     * @param concurrencyLevel the estimated number of concurrently accessing threads; it is
+     *        rounded up to the next power of two and determines the number of segments
+     */
+    public WeakInterner(int concurrencyLevel) {
+        int n = 1;
+        int bits = 0;
+        while (n < concurrencyLevel && n < (1 << 16)) {
+            n <<= 1;
+            bits++;
+        }
+        segmentShift = 32 - bits;
+        @SuppressWarnings("unchecked")
+        final Segment<T>[] newSegments = (Segment<T>[]) new Segment<?>[n];
+        segments = newSegments;
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    private static int spread(int h) {
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    private Segment<T> segmentFor(int hash) {
+        // the segment is selected by the upper bits, the bucket inside the segment by the lower
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * Looks up the canonical representative of the given value.
+     *
+     * @param probe the value to look up
+     * @return the interned value equal to {@code probe} or {@code null} if there is none
+     */
+    public @Nullable T get(Object probe) {
+        final int hash = spread(probe.hashCode());
+        final T result = segmentFor(hash).get(probe, hash);
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical representative of the given value. If no equal value has been interned
+     * yet, {@code value} itself becomes the representative.
+     *
+     * @param value the value to intern
+     * @return the interned value equal to {@code value}
+     */
+    public T intern(T value) {
+        final int hash = spread(value.hashCode());
+        return segmentFor(hash).putIfAbsent(value, hash);
+    }
+
+    /**
+     * @return the number of values currently interned (values which have been garbage-collected
+     *         but not yet expunged are not counted)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * removes all interned values and resets the statistics
+     */
+    public void clear() {
+        for (Segment<T> segment : segments) {
+            segment.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return the number of lookups via {@link #get(Object)} which found an interned value
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups via {@link #get(Object)} which did not find an interned value
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "WeakInterner[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+            + "]";
+    }
+
+    /**
+     * Weak reference to an interned value which is chained in the bucket list of a segment.
+     */
+    private static final class Entry<T> extends WeakReference<T> {
+        /** the spread hash code of the referent */
+        private final int hash;
+        /** next entry in the same bucket */
+        private @Nullable Entry<T> next;
+
+        Entry(T referent, int hash, @Nullable Entry<T> next, ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A segment is a small, separately locked hash table with chained buckets.
+     */
+    private static final class Segment<T> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        /** queue of entries whose referent has been collected */
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        private @Nullable Entry<T>[] table = newTable(INITIAL_CAPACITY);
+
+        private int count;
+
+        @SuppressWarnings("unchecked")
+        private static <T> @Nullable Entry<T>[] newTable(int capacity) {
+            return (@Nullable Entry<T>[]) new Entry<?>[capacity];
+        }
+
+        synchronized @Nullable T get(Object probe, int hash) {
+            for (Entry<T> e = table[hash & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final T candidate = e.get();
+                    if (candidate != null && (candidate == probe || candidate.equals(probe))) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized T putIfAbsent(T value, int hash) {
+            expungeStaleEntries();
+            int idx = hash & (table.length - 1);
+            for (Entry<T> e = table[idx]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final T candidate = e.get();
+                    if (candidate != null && (candidate == value || candidate.equals(value))) {
+                        return candidate;
+                    }
+                }
+            }
+            if (count >= table.length - (table.length >>> 2)) {
+                resize();
+                idx = hash & (table.length - 1);
+            }
+            table[idx] = new Entry<>(value, hash, table[idx], queue);
+            count++;
+            return value;
+        }
+
+        synchronized int size() {
+            expungeStaleEntries();
+            return count;
+        }
+
+        synchronized void clear() {
+            while (queue.poll() != null) {
+                // drop references of the old table
+            }
+            table = newTable(INITIAL_CAPACITY);
+            count = 0;
+        }
+
+        private void resize() {
+            final @Nullable Entry<T>[] oldTable = table;
+            final @Nullable Entry<T>[] newTable = newTable(oldTable.length << 1);
+            for (Entry<T> e : oldTable) {
+                while (e != null) {
+                    final Entry<T> next = e.next;
+                    if (e.get() == null) {
+                        // stale, it will be ignored once it is polled from the queue
+                        e.next = null;
+                        count--;
+                    } else {
+                        final int idx = e.hash & (newTable.length - 1);
+                        e.next = newTable[idx];
+                        newTable[idx] = e;
+                    }
+                    e = next;
+                }
+            }
+            table = newTable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void expungeStaleEntries() {
+            Reference<? extends T> ref;
+            while ((ref = queue.poll()) != null) {
+                final Entry<T> stale = (Entry<T>) ref;
+                final int idx = stale.hash & (table.length - 1);
+                Entry<T> prev = null;
+                for (Entry<T> e = table[idx]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) {
+                            table[idx] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        e.next = null;
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A histogram of durations. The durations are counted in buckets whose bounds are powers of two
+ * (bucket {@code i} counts the durations {@code d} with {@code 2^(i-1) <= d < 2^i} nanoseconds),
+ * which allows to estimate percentiles within a factor of two. All counters are
+ * {@link LongAdder}s, so recording from several threads hardly contends.
+ */
+public final class Histogram {
+    /** the number of buckets, enough for all non-negative long values */
+    static final int BUCKETS = 64;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * records a duration
+     *
+     * @param nanos the duration in nanoseconds, negative durations are counted as 0
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+    }
+
+    /**
+     * @return a snapshot of the current state of this histogram
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(count.sum(), total.sum(), max.get(), counts);
+    }
+
+    /**
+     * resets all counters
+     */
+    public void reset() {
+        count.reset();
+        total.reset();
+        max.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    /**
+     * An immutable snapshot of a histogram.
+     *
+     * @param count the number of recorded durations
+     * @param totalNanos the sum of all recorded durations
+     * @param maxNanos the longest recorded duration
+     * @param buckets the number of durations per bucket
+     */
+    public record Snapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+        /**
+         * @return the average duration or 0 if nothing has been recorded
+         */
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        /**
+         * Estimates a percentile by the upper bound of the bucket containing it.
+         *
+         * @param percentile the percentile between 0 and 100
+         * @return an upper bound of the percentile (at most twice its value) in nanoseconds
+         */
+        public long percentileNanos(double percentile) {
+            final long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    // the upper bound of the last bucket overflows to Long.MAX_VALUE
+                    return Math.min(maxNanos, (1L << i) - 1);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            return o instanceof Snapshot s && count == s.count && totalNanos == s.totalNanos
+                    && maxNanos == s.maxNanos && Arrays.equals(buckets, s.buckets);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(totalNanos) + Arrays.hashCode(buckets);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count %d, total %dns, mean %dns, p50 %dns, p99 %dns, max %dns",
+                count, totalNanos, meanNanos(), percentileNanos(50), percentileNanos(99),
+                maxNanos);
+        }
+    }
+}
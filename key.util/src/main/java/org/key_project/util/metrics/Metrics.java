@@ -0,0 +1,80 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the instrumentation API.
+ * <p>
+ * Timers are created once per measured code section and usually stored in a static field:
+ *
+ * <pre>
+ * public static final Timer PERF_APPLY = Metrics.timer("FindTacletExecutor apply");
+ * ...
+ * long time = Metrics.nanoTime();
+ * try {
+ *     ...
+ * } finally {
+ *     PERF_APPLY.stop(time);
+ * }
+ * </pre>
+ *
+ * Instrumentation is enabled by the system property {@value #ENABLED_PROPERTY}. As
+ * {@link #ENABLED} is a constant, the JIT removes all instrumentation if it is disabled, i.e.,
+ * disabled instrumentation does not cost anything.
+ * </p>
+ */
+public final class Metrics {
+
+    /** the system property enabling the instrumentation */
+    public static final String ENABLED_PROPERTY = "key.metrics";
+
+    /** whether instrumentation is enabled */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /** the maximal number of timers */
+    static final int MAX_TIMERS = 256;
+
+    /** all timers in the order of their creation; the index of a timer is its id */
+    private static final List<Timer> TIMERS = new ArrayList<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Creates a new timer.
+     *
+     * @param name the name of the timer, should be unique
+     * @return the timer
+     */
+    public static Timer timer(String name) {
+        synchronized (TIMERS) {
+            if (TIMERS.size() == MAX_TIMERS) {
+                throw new IllegalStateException("Too many timers, cannot create " + name);
+            }
+            final Timer timer = new Timer(name, TIMERS.size());
+            TIMERS.add(timer);
+            return timer;
+        }
+    }
+
+    /**
+     * @return all timers created so far in the order of their creation
+     */
+    static List<Timer> timers() {
+        synchronized (TIMERS) {
+            return new ArrayList<>(TIMERS);
+        }
+    }
+
+    /**
+     * @return the current value of {@link System#nanoTime()} if instrumentation is enabled,
+     *         otherwise 0
+     */
+    public static long nanoTime() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+}
@@ -0,0 +1,194 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A set of histograms, one per {@link Timer}, that collects the measurements of a unit of work,
+ * e.g., a single proof search. A scope is activated for the current thread by
+ * {@link #activate()}; timers record into the scope active in the recording thread, or into
+ * {@link #GLOBAL} if there is none. Work delegated to other threads has to activate the scope
+ * there as well to be attributed to it.
+ *
+ * <pre>
+ * MetricsScope scope = new MetricsScope("proof");
+ * try (var ignored = scope.activate()) {
+ *     ...
+ * }
+ * String json = scope.toJson();
+ * </pre>
+ */
+public final class MetricsScope {
+
+    /** the scope collecting all measurements */
+    public static final MetricsScope GLOBAL = new MetricsScope("global");
+
+    /** the scope active in a thread */
+    private static final ThreadLocal<MetricsScope> CURRENT = new ThreadLocal<>();
+
+    /** the name of this scope */
+    private final String name;
+
+    /** the histograms of this scope, indexed by the ids of the timers; created lazily */
+    private final AtomicReferenceArray<Histogram> histograms =
+        new AtomicReferenceArray<>(Metrics.MAX_TIMERS);
+
+    /**
+     * Restores the previously active scope when closed.
+     */
+    @FunctionalInterface
+    public interface Activation extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * creates a new, empty scope
+     *
+     * @param name the name of the scope
+     */
+    public MetricsScope(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the scope active in the current thread or {@link #GLOBAL} if there is none
+     */
+    public static MetricsScope current() {
+        final MetricsScope scope = CURRENT.get();
+        return scope == null ? GLOBAL : scope;
+    }
+
+    /**
+     * Activates this scope for the current thread until the returned activation is closed.
+     *
+     * @return the activation, closing it restores the previously active scope
+     */
+    public Activation activate() {
+        final MetricsScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    Histogram histogram(Timer timer) {
+        Histogram histogram = histograms.get(timer.id);
+        if (histogram == null) {
+            histograms.compareAndSet(timer.id, null, new Histogram());
+            histogram = histograms.get(timer.id);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return snapshots of the histograms of all timers that have recorded something in this
+     *         scope, keyed by the names of the timers in the order of their creation
+     */
+    public Map<String, Histogram.Snapshot> snapshot() {
+        final Map<String, Histogram.Snapshot> result = new LinkedHashMap<>();
+        for (Timer timer : Metrics.timers()) {
+            final Histogram histogram = histograms.get(timer.id);
+            if (histogram != null) {
+                final Histogram.Snapshot snapshot = histogram.snapshot();
+                if (snapshot.count() > 0) {
+                    result.put(timer.getName(), snapshot);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * resets the histograms of this scope
+     */
+    public void reset() {
+        for (int i = 0; i < histograms.length(); i++) {
+            final Histogram histogram = histograms.get(i);
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * Exports the measurements of this scope as JSON object of the form
+     * {@code {"scope": name, "timers": {timer: {"count": .., "totalNanos": .., "meanNanos": ..,
+     * "p50Nanos": .., "p90Nanos": .., "p99Nanos": .., "maxNanos": ..}, ...}}}.
+     *
+     * @return the JSON representation of this scope
+     */
+    public String toJson() {
+        return toJson(name, snapshot());
+    }
+
+    /**
+     * Exports snapshots as JSON, see {@link #toJson()}.
+     *
+     * @param name the name of the scope
+     * @param snapshots the snapshots keyed by timer names
+     * @return the JSON representation
+     */
+    public static String toJson(String name, Map<String, Histogram.Snapshot> snapshots) {
+        final StringBuilder sb = new StringBuilder("{\"scope\":");
+        appendString(sb, name);
+        sb.append(",\"timers\":{");
+        boolean first = true;
+        for (Map.Entry<String, Histogram.Snapshot> entry : snapshots.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            final Histogram.Snapshot s = entry.getValue();
+            appendString(sb, entry.getKey());
+            sb.append(":{\"count\":").append(s.count())
+                    .append(",\"totalNanos\":").append(s.totalNanos())
+                    .append(",\"meanNanos\":").append(s.meanNanos())
+                    .append(",\"p50Nanos\":").append(s.percentileNanos(50))
+                    .append(",\"p90Nanos\":").append(s.percentileNanos(90))
+                    .append(",\"p99Nanos\":").append(s.percentileNanos(99))
+                    .append(",\"maxNanos\":").append(s.maxNanos()).append('}');
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            switch (c) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            case '\r' -> sb.append("\\r");
+            case '\t' -> sb.append("\\t");
+            default -> {
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsScope " + name;
+    }
+}
@@ -0,0 +1,58 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.metrics;
+
+/**
+ * Measures the duration of a code section. The durations are recorded in the histogram of this
+ * timer in the {@link MetricsScope#current() current scope} and in the
+ * {@link MetricsScope#GLOBAL global scope}. Timers are created by {@link Metrics#timer(String)}.
+ */
+public final class Timer {
+    /** the name of this timer */
+    private final String name;
+
+    /** the index of this timer, used to find its histogram in a scope */
+    final int id;
+
+    Timer(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * records the time elapsed since {@code start}
+     *
+     * @param start the start time obtained by {@link Metrics#nanoTime()}
+     */
+    public void stop(long start) {
+        if (Metrics.ENABLED) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * records a duration
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (!Metrics.ENABLED) {
+            return;
+        }
+        final MetricsScope scope = MetricsScope.current();
+        scope.histogram(this).record(nanos);
+        if (scope != MetricsScope.GLOBAL) {
+            MetricsScope.GLOBAL.histogram(this).record(nanos);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
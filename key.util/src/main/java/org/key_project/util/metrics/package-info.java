@@ -0,0 +1,11 @@
+/**
+ * A lightweight instrumentation API: {@link org.key_project.util.metrics.Timer}s record durations
+ * into {@link org.key_project.util.metrics.Histogram}s of the currently active
+ * {@link org.key_project.util.metrics.MetricsScope}, e.g., the scope of a single proof search.
+ * Instrumentation is disabled unless the system property {@code key.metrics} is set to
+ * {@code true}; see {@link org.key_project.util.metrics.Metrics}.
+ */
+@NullMarked
+package org.key_project.util.metrics;
+
+import org.jspecify.annotations.NullMarked;
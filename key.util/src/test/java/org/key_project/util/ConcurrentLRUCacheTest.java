@@ -0,0 +1,150 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLRUCacheTest {
+
+    @Test
+    void admitsOnlyFrequentlyRequestedEntries() {
+        // small enough to consist of a single segment
+        ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>("test", 3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertEquals("a", cache.get(1));
+        assertEquals("b", cache.get(2));
+        // the newest entry stays in the admission window, the one leaving the window (3) has
+        // been requested less often than the entries in the main area and is not admitted
+        cache.put(4, "d");
+        assertEquals(3, cache.size());
+        assertFalse(cache.containsKey(3));
+        // requested more often than the least recently used entry of the main area (1)
+        for (int i = 0; i < 3; i++) {
+            assertEquals("d", cache.get(4));
+        }
+        cache.put(5, "e");
+        assertEquals(3, cache.size());
+        assertFalse(cache.containsKey(1));
+        assertEquals("b", cache.get(2));
+        assertEquals("d", cache.get(4));
+        assertEquals("e", cache.get(5));
+    }
+
+    @Test
+    void frequentlyUsedEntriesSurviveScans() {
+        final int hotKeys = 60;
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>("scan", 100);
+        // a plain LRU cache of this size evicts every hot key before it is requested again
+        LRUCache<Integer, Integer> lru = new LRUCache<>(100);
+        int hits = 0;
+        int lruHits = 0;
+        for (int i = 0; i < 20000; i++) {
+            final Integer hot = i % hotKeys;
+            final Integer scanned = 1000 + i;
+            if (cache.get(hot) != null) {
+                hits++;
+            } else {
+                cache.put(hot, hot);
+            }
+            if (lru.get(hot) != null) {
+                lruHits++;
+            } else {
+                lru.put(hot, hot);
+            }
+            cache.computeIfAbsent(scanned, k -> k);
+            lru.computeIfAbsent(scanned, k -> k);
+        }
+        assertEquals(0, lruHits);
+        assertTrue(hits > 18000, "too few hits: " + hits);
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void putIfAbsentKeepsFirstValue() {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>("test", 10);
+        assertNull(cache.putIfAbsent("k", "first"));
+        assertEquals("first", cache.putIfAbsent("k", "second"));
+        assertEquals("first", cache.computeIfAbsent("k", k -> "third"));
+        assertEquals("v", cache.computeIfAbsent("x", k -> "v"));
+        assertEquals("first", cache.remove("k"));
+        assertFalse(cache.containsKey("k"));
+    }
+
+    @Test
+    void statistics() {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<>("stats", 2);
+        assertNull(cache.get(1));
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        assertNotNull(cache.get(3));
+        ConcurrentLRUCache.Stats stats = cache.getStats();
+        assertEquals("stats", stats.name());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(0.5, stats.hitRate());
+        cache.resetStats();
+        cache.clear();
+        stats = cache.getStats();
+        assertEquals(0, stats.hits());
+        assertEquals(0, stats.size());
+        assertEquals(0, stats.weight());
+    }
+
+    @Test
+    void boundedByWeight() {
+        ConcurrentLRUCache<Integer, String> cache =
+            new ConcurrentLRUCache<>("weight", 10, (k, v) -> v.length());
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        assertEquals(8, cache.getStats().weight());
+        cache.put(3, "cccc");
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getStats().weight());
+        assertFalse(cache.containsKey(3));
+        cache.put(2, "b");
+        assertEquals(5, cache.getStats().weight());
+        cache.get(3);
+        cache.put(3, "cccc");
+        assertEquals(9, cache.getStats().weight());
+        cache.put(4, "dddddddddddd");
+        assertTrue(cache.getStats().weight() <= 10);
+    }
+
+    @Test
+    void concurrentAccessStaysBounded() throws Exception {
+        final ConcurrentLRUCache<Integer, Integer> cache =
+            new ConcurrentLRUCache<>("concurrent", 1024);
+        final int threads = 8;
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        final Integer key = (i * 7 + offset) % 3000;
+                        assertEquals(key, cache.computeIfAbsent(key, k -> k));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            assertTrue(cache.size() <= 1024, "cache exceeds its bound: " + cache.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChampImmutableCollectionsTest {
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(ChampImmutableCollectionsTest.class);
+
+    /** a key with a configurable hash code to provoke collisions */
+    private record Key(int id, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    void switchesToHashTrie() {
+        ImmutableMap<Integer, String> map = DefaultImmutableMap.nilMap();
+        ImmutableSet<Integer> set = DefaultImmutableSet.nil();
+        for (int i = 1; i < DefaultImmutableMap.HASH_TRIE_THRESHOLD; i++) {
+            map = map.put(i, "v" + i);
+            set = set.add(i);
+        }
+        assertInstanceOf(DefaultImmutableMap.class, map);
+        assertInstanceOf(DefaultImmutableSet.class, set);
+        map = map.put(-1, "v");
+        set = set.add(-1);
+        assertInstanceOf(ChampImmutableMap.class, map);
+        assertInstanceOf(ChampImmutableSet.class, set);
+    }
+
+    @Test
+    void mapBehavesLikeHashMap() {
+        Random random = new Random(42);
+        ImmutableMap<Key, Integer> map = DefaultImmutableMap.nilMap();
+        Map<Key, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(500);
+            // every fourth key collides with many others
+            Key key = new Key(id, id % 4 == 0 ? 4 : id);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                expected.remove(key);
+            } else {
+                map = map.put(key, i);
+                expected.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Key, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), map.get(e.getKey()));
+        }
+        assertFalse(map.containsKey(new Key(1000, 4)));
+
+        ImmutableMap<Key, Integer> copy = DefaultImmutableMap.nilMap();
+        for (Map.Entry<Key, Integer> e : expected.entrySet()) {
+            copy = copy.put(e.getKey(), e.getValue());
+        }
+        assertEquals(copy, map);
+        assertEquals(copy.hashCode(), map.hashCode());
+
+        for (Key key : expected.keySet()) {
+            map = map.remove(key);
+        }
+        assertTrue(map.isEmpty());
+        assertSame(DefaultImmutableMap.nilMap(), map);
+    }
+
+    @Test
+    void iteratesMostRecentFirst() {
+        ImmutableMap<Integer, Integer> map = DefaultImmutableMap.nilMap();
+        ImmutableSet<Integer> set = DefaultImmutableSet.nil();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            map = map.put(i, i);
+            set = set.add(i);
+            expected.add(0, i);
+        }
+        map = map.put(50, 0);
+        set = set.add(50);
+        expected.remove(Integer.valueOf(50));
+        expected.add(0, 50);
+
+        List<Integer> keys = new ArrayList<>();
+        map.keyIterator().forEachRemaining(keys::add);
+        assertEquals(expected, keys);
+        assertEquals(0, map.get(50));
+        // adding an existing element does not change the set
+        assertEquals(100, set.size());
+        assertEquals(99, set.iterator().next());
+    }
+
+    @Test
+    void keepsOrderAcrossReplacementsAndRemovals() {
+        Random random = new Random(11);
+        ImmutableMap<Integer, Integer> map = DefaultImmutableMap.nilMap();
+        ImmutableSet<Integer> set = DefaultImmutableSet.nil();
+        LinkedList<Integer> expectedKeys = new LinkedList<>();
+        LinkedList<Integer> expectedElements = new LinkedList<>();
+        for (int i = 1000; i < 1000 + DefaultImmutableMap.HASH_TRIE_THRESHOLD; i++) {
+            map = map.put(i, i);
+            set = set.add(i);
+            expectedKeys.addFirst(i);
+            expectedElements.addFirst(i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            // few keys, so that most operations leave stale leaves in the order
+            Integer key = random.nextInt(40);
+            if (random.nextInt(3) == 0) {
+                map = map.remove(key);
+                set = set.remove(key);
+                expectedKeys.remove(key);
+                expectedElements.remove(key);
+            } else {
+                map = map.put(key, i);
+                set = set.add(key);
+                expectedKeys.remove(key);
+                expectedKeys.addFirst(key);
+                if (!expectedElements.contains(key)) {
+                    expectedElements.addFirst(key);
+                }
+            }
+            List<Integer> keys = new ArrayList<>();
+            map.keyIterator().forEachRemaining(keys::add);
+            assertEquals(expectedKeys, keys);
+            assertEquals(expectedElements, Arrays.asList(set.toArray(new Integer[0])));
+        }
+        assertInstanceOf(ChampImmutableMap.class, map);
+        assertInstanceOf(ChampImmutableSet.class, set);
+    }
+
+    @Test
+    void setBehavesLikeHashSet() {
+        Random random = new Random(7);
+        ImmutableSet<Key> set = DefaultImmutableSet.nil();
+        Set<Key> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(500);
+            Key key = new Key(id, id % 4 == 0 ? 4 : id);
+            if (random.nextInt(3) == 0) {
+                set = set.remove(key);
+                expected.remove(key);
+            } else {
+                set = set.add(key);
+                expected.add(key);
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        assertEquals(expected, set.toSet());
+        assertEquals(DefaultImmutableSet.fromCollection(expected), set);
+        assertEquals(set, DefaultImmutableSet.fromCollection(expected));
+        assertEquals(DefaultImmutableSet.fromCollection(expected).hashCode(), set.hashCode());
+
+        Key present = expected.iterator().next();
+        assertThrows(NotUniqueException.class, () -> DefaultImmutableSet.<Key>nil()
+                .union(DefaultImmutableSet.fromCollection(expected)).addUnique(present));
+
+        ImmutableSet<Key> small = DefaultImmutableSet.<Key>nil().add(present).add(new Key(-1, 4));
+        assertEquals(DefaultImmutableSet.nil().add(present), set.intersect(small));
+        assertEquals(expected.size() + 1, set.union(small).size());
+        assertTrue(set.subset(set.union(small)));
+        assertFalse(set.union(small).subset(set));
+    }
+
+    /**
+     * Compares the lookup in the hash tries with the linear search in the lists which backed
+     * the maps and sets before.
+     */
+    @Tag("performance")
+    @Test
+    void compareWithLists() {
+        for (int n : new int[] { 8, 16, 64, 256, 1024, 4096 }) {
+            ImmutableList<Integer> list = ImmutableSLList.nil();
+            ImmutableSet<Integer> set = DefaultImmutableSet.nil();
+            ImmutableMap<Integer, Integer> map = DefaultImmutableMap.nilMap();
+            for (int i = 0; i < n; i++) {
+                list = list.prepend(i);
+                set = set.add(i);
+                map = map.put(i, i);
+            }
+            int rounds = 2_000_000 / n;
+            long start = System.nanoTime();
+            int found = 0;
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < n; i += 7) {
+                    found += list.contains(i) ? 1 : 0;
+                }
+            }
+            long listTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                for (int i = 0; i < n; i += 7) {
+                    found += set.contains(i) ? 1 : 0;
+                    found += map.containsKey(i) ? 1 : 0;
+                }
+            }
+            long setTime = (System.nanoTime() - start) / 2;
+            assertTrue(found > 0);
+            LOGGER.info("{} elements: list lookup {} ms, set/map lookup {} ms", n,
+                listTime / 1_000_000, setTime / 1_000_000);
+            if (n >= 256) {
+                assertTrue(setTime < listTime);
+            }
+        }
+    }
+}
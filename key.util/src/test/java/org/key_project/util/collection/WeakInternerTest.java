@@ -0,0 +1,105 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeakInternerTest {
+
+    // make reasonably sure that gc has been run and collected unreachable objects
+    private void encourageGC(int nr) {
+        for (int i = 0; i < nr; i++) {
+            System.gc();
+        }
+    }
+
+    @Test
+    void internReturnsCanonical() {
+        WeakInterner<String> interner = new WeakInterner<>();
+        final String a = new String("term");
+        final String b = new String("term");
+        assertNotSame(a, b);
+        assertSame(a, interner.intern(a));
+        assertSame(a, interner.intern(b));
+        assertSame(a, interner.get(b));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    void hitsAndMisses() {
+        WeakInterner<String> interner = new WeakInterner<>(4);
+        assertNull(interner.get("a"));
+        interner.intern("a");
+        assertNotNull(interner.get("a"));
+        assertNotNull(interner.get("a"));
+        assertEquals(2, interner.getHits());
+        assertEquals(1, interner.getMisses());
+        interner.clear();
+        assertEquals(0, interner.size());
+        assertEquals(0, interner.getHits());
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        WeakInterner<Integer> interner = new WeakInterner<>(1);
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(interner.intern(i));
+        }
+        assertEquals(10000, interner.size());
+        for (int i = 0; i < 10000; i++) {
+            assertSame(values.get(i), interner.get(i));
+        }
+    }
+
+    @Test
+    void unreachableValuesAreDropped() {
+        WeakInterner<Object> interner = new WeakInterner<>();
+        final @Nullable Object[] values = { new Object(), new Object() };
+        interner.intern(values[0]);
+        interner.intern(values[1]);
+        values[1] = null;
+        encourageGC(100);
+        assertEquals(1, interner.size(),
+            "As the value is no longer reachable the previous calls to gc should have "
+                + "removed the entry");
+        assertSame(values[0], interner.get(values[0]));
+    }
+
+    @Test
+    void concurrentInterningYieldsOneRepresentative() throws Exception {
+        final WeakInterner<String> interner = new WeakInterner<>();
+        final int threads = 8;
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    final String[] canonical = new String[1000];
+                    for (int i = 0; i < canonical.length; i++) {
+                        canonical[i] = interner.intern(new String("v" + i));
+                    }
+                    return canonical;
+                }));
+            }
+            final String[] first = results.get(0).get();
+            for (Future<String[]> result : results) {
+                final String[] other = result.get();
+                for (int i = 0; i < first.length; i++) {
+                    assertSame(first[i], other[i]);
+                }
+            }
+            assertEquals(1000, interner.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.metrics;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.snapshot().percentileNanos(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10);
+        }
+        histogram.record(-5);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(101, snapshot.count());
+        assertEquals(50500, snapshot.totalNanos());
+        assertEquals(1000, snapshot.maxNanos());
+        assertEquals(500, snapshot.meanNanos());
+        // 0 is in bucket 0, 10 in [8, 16), 500 in [256, 512), 990 in [512, 1024)
+        assertEquals(1, snapshot.buckets()[0]);
+        assertEquals(1, snapshot.buckets()[4]);
+        assertEquals(0, snapshot.percentileNanos(0));
+        assertEquals(511, snapshot.percentileNanos(50));
+        assertEquals(1000, snapshot.percentileNanos(99));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().maxNanos());
+    }
+
+    @Test
+    public void testScopeActivation() {
+        MetricsScope outer = new MetricsScope("outer");
+        MetricsScope inner = new MetricsScope("inner");
+        assertSame(MetricsScope.GLOBAL, MetricsScope.current());
+        try (var ignored = outer.activate()) {
+            assertSame(outer, MetricsScope.current());
+            try (var ignored2 = inner.activate()) {
+                assertSame(inner, MetricsScope.current());
+            }
+            assertSame(outer, MetricsScope.current());
+        }
+        assertSame(MetricsScope.GLOBAL, MetricsScope.current());
+    }
+
+    @Test
+    public void testSnapshotAndJson() {
+        Timer used = Metrics.timer("MetricsTest \"used\"");
+        Timer unused = Metrics.timer("MetricsTest unused");
+        MetricsScope scope = new MetricsScope("test");
+        scope.histogram(used).record(3);
+        scope.histogram(used).record(5);
+        scope.histogram(unused);
+
+        Map<String, Histogram.Snapshot> snapshot = scope.snapshot();
+        assertEquals(1, snapshot.size());
+        assertEquals(2, snapshot.get(used.getName()).count());
+        assertEquals("{\"scope\":\"test\",\"timers\":{\"MetricsTest \\\"used\\\"\":{\"count\":2,"
+            + "\"totalNanos\":8,\"meanNanos\":4,\"p50Nanos\":3,\"p90Nanos\":5,\"p99Nanos\":5,"
+            + "\"maxNanos\":5}}}", scope.toJson());
+
+        scope.reset();
+        assertTrue(scope.snapshot().isEmpty());
+        assertEquals("{\"scope\":\"test\",\"timers\":{}}", scope.toJson());
+    }
+}
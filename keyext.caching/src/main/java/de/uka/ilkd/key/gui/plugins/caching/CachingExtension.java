@@ -3,6 +3,9 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.gui.plugins.caching;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -36,6 +39,7 @@ import de.uka.ilkd.key.proof.event.ProofDisposedEvent;
 import de.uka.ilkd.key.proof.event.ProofDisposedListener;
 import de.uka.ilkd.key.proof.reference.ClosedBy;
 import de.uka.ilkd.key.proof.reference.CopyReferenceResolver;
+import de.uka.ilkd.key.proof.reference.ProofCache;
 import de.uka.ilkd.key.proof.reference.ReferenceSearcher;
 import de.uka.ilkd.key.proof.replay.CopyingProofReplayer;
 import de.uka.ilkd.key.prover.impl.ApplyStrategy;
@@ -82,6 +86,10 @@ public class CachingExtension
     private ReferenceSearchButton referenceSearchButton;
     private CachingToggleAction toggleAction = null;
     private CachingPruneHandler cachingPruneHandler = null;
+    /**
+     * The persistent proof cache (null if not yet opened).
+     */
+    private ProofCache persistentCache = null;
 
     private void initActions(MainWindow mainWindow) {
         if (toggleAction == null) {
@@ -118,6 +126,32 @@ public class CachingExtension
         return toggleAction.isSelected();
     }
 
+    /**
+     * Returns the persistent proof cache as configured in the settings.
+     *
+     * @return the cache or null if it is disabled or can not be opened
+     */
+    private ProofCache getPersistentCache() {
+        ProofCachingSettings settings = CachingSettingsProvider.getCachingSettings();
+        if (!settings.getPersistent()) {
+            return null;
+        }
+        Path directory = settings.getPersistentDirectory();
+        long maxSize = settings.getPersistentMaxSize() * 1024L * 1024L;
+        Duration maxAge = Duration.ofDays(settings.getPersistentMaxAge());
+        if (persistentCache == null || !persistentCache.getDirectory().equals(directory)
+                || persistentCache.getMaxSize() != maxSize
+                || !persistentCache.getMaxAge().equals(maxAge)) {
+            try {
+                persistentCache = new ProofCache(directory, maxSize, maxAge);
+            } catch (IOException e) {
+                LOGGER.warn("failed to open persistent proof cache", e);
+                persistentCache = null;
+            }
+        }
+        return persistentCache;
+    }
+
     @Override
     public void selectedProofChanged(KeYSelectionEvent e) {
         Proof p = e.getSource().getSelectedProof();
@@ -137,9 +171,11 @@ public class CachingExtension
         if (!tryToClose) {
             return;
         }
-        if (e.getSource().lookup(CopyingProofReplayer.class) != null) {
+        if (e.getSource().lookup(CopyingProofReplayer.class) != null
+                || e.getSource().lookup(ProofCache.class) != null) {
             // either:
             // copy in progress,
+            // replay of persistently cached steps in progress,
             // macro that excepts the proof to really close in progress
             return;
         }
@@ -158,6 +194,7 @@ public class CachingExtension
         if (newGoals.size() <= 1) {
             return;
         }
+        ProofCache cache = getPersistentCache();
         for (Goal goal : newGoals) {
             ClosedBy c = null;
             try {
@@ -174,6 +211,9 @@ public class CachingExtension
                 c.proof()
                         .addProofDisposedListenerFirst(
                             new CopyBeforeDispose(mediator, c.proof(), p));
+            } else if (cache != null) {
+                // the steps are replayed once auto mode has finished
+                cache.markHit(goal);
             }
         }
     }
@@ -246,10 +286,24 @@ public class CachingExtension
             return; // try close macro was running, no need to do anything here
         }
         Proof p = (Proof) info.getProof();
-        if (p == null || p.isDisposed() || p.closed() || !(info.getSource() instanceof ApplyStrategy
+        if (p == null || p.isDisposed() || !(info.getSource() instanceof ApplyStrategy
                 || info.getSource() instanceof ProofMacro)) {
             return;
         }
+        ProofCache cache = getPersistentCache();
+        if (cache != null) {
+            cache.closeMarkedGoals(p);
+            if (p.closed()) {
+                try {
+                    cache.store(p);
+                } catch (IOException e) {
+                    LOGGER.warn("failed to store proof in persistent proof cache", e);
+                }
+            }
+        }
+        if (p.closed()) {
+            return;
+        }
         // unmark interactive goals
         if (p.countNodes() > 1 && p.openGoals().stream()
                 .anyMatch(goal -> goal.node().lookup(ClosedBy.class) != null)) {
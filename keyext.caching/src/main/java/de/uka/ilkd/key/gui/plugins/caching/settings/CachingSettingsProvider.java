@@ -47,6 +47,23 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
      */
     private static final String PRUNE_TITLE =
         "Behaviour when pruning into referenced proof";
+    /**
+     * Label for the persistent cache option.
+     */
+    private static final String PERSISTENT =
+        "Store closed branches in a persistent cache shared between sessions";
+    /**
+     * Label for the persistent cache directory.
+     */
+    private static final String PERSISTENT_DIRECTORY = "Persistent cache directory";
+    /**
+     * Label for the persistent cache size.
+     */
+    private static final String PERSISTENT_MAX_SIZE = "Maximal size of persistent cache (MiB)";
+    /**
+     * Label for the persistent cache age.
+     */
+    private static final String PERSISTENT_MAX_AGE = "Evict unused cache entries after (days)";
 
     /**
      * Checkbox for first option.
@@ -60,6 +77,22 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
      * Combobox for third option (prune behaviour).
      */
     private final JComboBox<String> pruneOption;
+    /**
+     * Checkbox for the persistent cache.
+     */
+    private final JCheckBox persistent;
+    /**
+     * Text field for the persistent cache directory.
+     */
+    private final JTextField persistentDirectory;
+    /**
+     * Spinner for the maximal size of the persistent cache.
+     */
+    private final JSpinner persistentMaxSize;
+    /**
+     * Spinner for the maximal age of persistent cache entries.
+     */
+    private final JSpinner persistentMaxAge;
 
     /**
      * Construct a new settings provider.
@@ -81,6 +114,14 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
                  all cached branches that reference it.""",
             0, x -> {
             }, PRUNE_REOPEN, PRUNE_COPY);
+        persistent = addCheckBox(PERSISTENT, """
+                Closed branches are stored on disk and reused in later sessions
+                 for goals with exactly the same sequent.""", false, emptyValidator());
+        persistentDirectory = addTextField(PERSISTENT_DIRECTORY, "",
+            "Leave empty to use the KeY configuration directory.", emptyValidator());
+        persistentMaxSize =
+            addNumberField(PERSISTENT_MAX_SIZE, 1, 1000000, 64, "", emptyValidator());
+        persistentMaxAge = addNumberField(PERSISTENT_MAX_AGE, 1, 10000, 1, "", emptyValidator());
     }
 
     @Override
@@ -102,6 +143,10 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
         strategySearch.setSelected(ss.getEnabled());
         disposeOption.setSelectedItem(ss.getDispose());
         pruneOption.setSelectedItem(ss.getPrune());
+        persistent.setSelected(ss.getPersistent());
+        persistentDirectory.setText(ss.getPersistentDirectory().toString());
+        persistentMaxSize.setValue(ss.getPersistentMaxSize());
+        persistentMaxAge.setValue(ss.getPersistentMaxAge());
         return this;
     }
 
@@ -111,6 +156,10 @@ public class CachingSettingsProvider extends SettingsPanel implements SettingsPr
         ss.setEnabled(strategySearch.isEnabled());
         ss.setDispose(disposeOption.getSelectedItem().toString());
         ss.setPrune(pruneOption.getSelectedItem().toString());
+        ss.setPersistent(persistent.isSelected());
+        ss.setPersistentDirectory(persistentDirectory.getText());
+        ss.setPersistentMaxSize((Integer) persistentMaxSize.getValue());
+        ss.setPersistentMaxAge((Integer) persistentMaxAge.getValue());
     }
 
 
@@ -3,7 +3,11 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.gui.plugins.caching.settings;
 
+import java.nio.file.Path;
+
+import de.uka.ilkd.key.proof.reference.ProofCache;
 import de.uka.ilkd.key.settings.AbstractPropertiesSettings;
+import de.uka.ilkd.key.settings.PathConfig;
 
 /**
  * Settings for the proof caching functionality.
@@ -28,6 +32,22 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
      * Key ID for {@link #prune}.
      */
     private static final String PRUNE_KEY = "Prune";
+    /**
+     * Key ID for {@link #persistent}.
+     */
+    private static final String PERSISTENT_KEY = "Persistent";
+    /**
+     * Key ID for {@link #persistentDirectory}.
+     */
+    private static final String PERSISTENT_DIRECTORY_KEY = "PersistentDirectory";
+    /**
+     * Key ID for {@link #persistentMaxSize}.
+     */
+    private static final String PERSISTENT_MAX_SIZE_KEY = "PersistentMaxSize";
+    /**
+     * Key ID for {@link #persistentMaxAge}.
+     */
+    private static final String PERSISTENT_MAX_AGE_KEY = "PersistentMaxAge";
 
 
     /**
@@ -45,6 +65,27 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
      */
     private final AbstractPropertiesSettings.PropertyEntry<String> prune =
         createStringProperty(PRUNE_KEY, "");
+    /**
+     * Whether closed branches are stored in (and taken from) the persistent proof cache.
+     */
+    private final AbstractPropertiesSettings.PropertyEntry<Boolean> persistent =
+        createBooleanProperty(PERSISTENT_KEY, false);
+    /**
+     * Directory of the persistent proof cache (empty: default location).
+     */
+    private final AbstractPropertiesSettings.PropertyEntry<String> persistentDirectory =
+        createStringProperty(PERSISTENT_DIRECTORY_KEY, "");
+    /**
+     * Maximal size of the persistent proof cache in MiB.
+     */
+    private final AbstractPropertiesSettings.PropertyEntry<Integer> persistentMaxSize =
+        createIntegerProperty(PERSISTENT_MAX_SIZE_KEY,
+            (int) (ProofCache.DEFAULT_MAX_SIZE / (1024 * 1024)));
+    /**
+     * Number of days after which unused entries of the persistent proof cache are evicted.
+     */
+    private final AbstractPropertiesSettings.PropertyEntry<Integer> persistentMaxAge =
+        createIntegerProperty(PERSISTENT_MAX_AGE_KEY, (int) ProofCache.DEFAULT_MAX_AGE.toDays());
 
     public ProofCachingSettings() {
         super("ProofCaching");
@@ -95,4 +136,62 @@ public class ProofCachingSettings extends AbstractPropertiesSettings {
     public void setPrune(String operation) {
         prune.set(operation);
     }
+
+    public boolean getPersistent() {
+        return persistent.get();
+    }
+
+    /**
+     * Set whether the persistent proof cache is used.
+     *
+     * @param persistent value
+     */
+    public void setPersistent(boolean persistent) {
+        this.persistent.set(persistent);
+    }
+
+    /**
+     * Returns the directory of the persistent proof cache.
+     *
+     * @return the configured directory or the default location in the KeY configuration directory
+     */
+    public Path getPersistentDirectory() {
+        String dir = persistentDirectory.get();
+        return dir.isBlank() ? Path.of(PathConfig.getKeyConfigDir(), "proofCache") : Path.of(dir);
+    }
+
+    /**
+     * Set the directory of the persistent proof cache.
+     *
+     * @param directory the directory (empty for the default location)
+     */
+    public void setPersistentDirectory(String directory) {
+        persistentDirectory.set(directory);
+    }
+
+    public int getPersistentMaxSize() {
+        return persistentMaxSize.get();
+    }
+
+    /**
+     * Set the maximal size of the persistent proof cache.
+     *
+     * @param megabytes maximal size in MiB
+     */
+    public void setPersistentMaxSize(int megabytes) {
+        persistentMaxSize.set(megabytes);
+    }
+
+    public int getPersistentMaxAge() {
+        return persistentMaxAge.get();
+    }
+
+    /**
+     * Set the time after which unused entries of the persistent proof cache are evicted.
+     *
+     * @param days maximal age in days
+     */
+    public void setPersistentMaxAge(int days) {
+        persistentMaxAge.set(days);
+    }
 }
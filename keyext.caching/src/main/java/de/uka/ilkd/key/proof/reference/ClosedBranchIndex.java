@@ -0,0 +1,438 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.ProofTreeEvent;
+import de.uka.ilkd.key.proof.ProofTreeListener;
+import de.uka.ilkd.key.proof.event.ProofDisposedEvent;
+import de.uka.ilkd.key.proof.event.ProofDisposedListener;
+import de.uka.ilkd.key.rule.EqualityModuloProofIrrelevancy;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.merge.CloseAfterMerge;
+
+import org.key_project.prover.sequent.Semisequent;
+import org.key_project.prover.sequent.Sequent;
+import org.key_project.prover.sequent.SequentFormula;
+import org.key_project.slicing.DependencyTracker;
+import org.key_project.slicing.analysis.AnalysisResults;
+
+/**
+ * Index of the closed branches of all proofs searched by the {@link ReferenceSearcher}.
+ * <p>
+ * Each branch is filed under the hash code (modulo proof irrelevancy) of one of its formulas.
+ * A lookup thus only compares the branches filed under a formula of the new sequent.
+ * The index of a proof is built when the proof is first searched. It is rebuilt after the proof
+ * has changed (e.g. by pruning) and dropped once the proof is disposed. Everything remembered
+ * about a searching proof is dropped once it is disposed as well.
+ * The result of a lookup is the same as the one of a linear search through all branches.
+ */
+final class ClosedBranchIndex {
+    /**
+     * The shared index.
+     */
+    static final ClosedBranchIndex INSTANCE = new ClosedBranchIndex();
+
+    /**
+     * The indexed proofs.
+     */
+    private final Map<Proof, ProofBranches> indexedProofs = new IdentityHashMap<>();
+    /**
+     * The proofs that searched the index. They are remembered by
+     * {@link ProofBranches#compatibleProofs} and have to be forgotten once disposed.
+     */
+    private final Set<Proof> searchingProofs = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Forgets about disposed proofs that searched the index.
+     */
+    private final ProofDisposedListener searchingProofDisposed = new ProofDisposedListener() {
+        @Override
+        public void proofDisposing(ProofDisposedEvent e) {
+            remove(e.getSource());
+        }
+
+        @Override
+        public void proofDisposed(ProofDisposedEvent e) {
+
+        }
+    };
+
+    private ClosedBranchIndex() {
+
+    }
+
+    /**
+     * Try to find a closed branch in another proof that is equivalent to the <code>newNode</code>.
+     * The proofs are searched in the provided order.
+     *
+     * @param previousProofs old proofs
+     * @param newNode new node (must be an open goal)
+     * @return a reference (or null, if none found)
+     */
+    synchronized ClosedBy findPreviousProof(List<Proof> previousProofs, Node newNode) {
+        Proof newProof = newNode.proof();
+        if (searchingProofs.add(newProof)) {
+            newProof.addProofDisposedListener(searchingProofDisposed);
+        }
+        Set<Long> newKeys = null;
+        for (Proof p : previousProofs) {
+            if (p == newProof) {
+                continue; // doesn't make sense to cache in the same proof
+            }
+            ProofBranches branches = indexedProofs.get(p);
+            if (branches == null) {
+                branches = new ProofBranches(p);
+                indexedProofs.put(p, branches);
+                p.addProofTreeListener(branches);
+                p.addProofDisposedListener(branches);
+            }
+            if (!branches.tacletsAvailableIn(newProof)) {
+                continue;
+            }
+            // only search in compatible proofs
+            if (!p.getSettings().getChoiceSettings()
+                    .equals(newProof.getSettings().getChoiceSettings())) {
+                continue;
+            }
+            if (newKeys == null) {
+                newKeys = new HashSet<>();
+                for (SequentFormula sf : newNode.sequent().antecedent()) {
+                    newKeys.add(key(sf, true));
+                }
+                for (SequentFormula sf : newNode.sequent().succedent()) {
+                    newKeys.add(key(sf, false));
+                }
+            }
+            ClosedBy c = branches.find(newNode.sequent(), newKeys);
+            if (c != null) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forget about a disposed proof.
+     *
+     * @param proof the proof
+     */
+    private synchronized void remove(Proof proof) {
+        indexedProofs.remove(proof);
+        searchingProofs.remove(proof);
+        for (ProofBranches branches : indexedProofs.values()) {
+            branches.compatibleProofs.remove(proof);
+        }
+    }
+
+    /**
+     * Computes the key of a sequent formula: its hash code modulo proof irrelevancy
+     * and its polarity.
+     *
+     * @param sf sequent formula
+     * @param antec whether the formula is in the antecedent
+     * @return index key
+     */
+    private static long key(SequentFormula sf, boolean antec) {
+        return ((long) EqualityModuloProofIrrelevancy.hashCodeModProofIrrelevancy(sf) << 1)
+                | (antec ? 1 : 0);
+    }
+
+    /**
+     * Check whether all formulas in {@code subset} are contained in {@code superset}.
+     *
+     * @param superset Semisequent supposed to contain {@code subset}
+     * @param subset Semisequent supposed to be in {@code superset}
+     * @return whether all formulas are present
+     */
+    private static boolean containedIn(Semisequent superset, Semisequent subset) {
+        for (SequentFormula sf : subset) {
+            boolean found = false;
+            for (SequentFormula sf2 : superset) {
+                if (EqualityModuloProofIrrelevancy.equalsModProofIrrelevancy(sf2, sf)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A closed branch that may be referenced.
+     *
+     * @param node the first node of the branch
+     * @param sequent the sequent required to close the branch
+     * @param keys keys of the formulas in the sequent
+     */
+    private record Branch(Node node, Sequent sequent, long[] keys) {
+        /**
+         * @param newKeys keys of the formulas of a new sequent
+         * @return whether the keys of all formulas of this branch are contained in newKeys
+         */
+        boolean keysContainedIn(Set<Long> newKeys) {
+            for (long key : keys) {
+                if (!newKeys.contains(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The indexed closed branches of a single proof.
+     */
+    private final class ProofBranches implements ProofTreeListener, ProofDisposedListener {
+        /**
+         * The proof.
+         */
+        private final Proof proof;
+        /**
+         * The user-defined taclets of the proof (in their string representation).
+         */
+        private final List<String> userTaclets;
+        /**
+         * Whether the user-defined taclets are available in another proof.
+         */
+        private final Map<Proof, Boolean> compatibleProofs = new IdentityHashMap<>();
+        /**
+         * Branches in the order a linear search visits them.
+         */
+        private final List<Branch> branches = new ArrayList<>();
+        /**
+         * Indices of the branches, filed under the key of one of their formulas.
+         */
+        private final Map<Long, List<Integer>> branchesByKey = new HashMap<>();
+        /**
+         * Indices of branches without any formulas.
+         */
+        private final List<Integer> emptyBranches = new ArrayList<>();
+        /**
+         * The dependency tracker used to reduce the branches. Null if not available.
+         */
+        private DependencyTracker tracker;
+        /**
+         * Analysis results used to reduce the branches. Null if not available.
+         */
+        private AnalysisResults results;
+        /**
+         * Whether the proof has changed since the branches were indexed.
+         */
+        private volatile boolean outdated = true;
+
+        ProofBranches(Proof proof) {
+            this.proof = proof;
+            // conservative check: all user-defined rules in a previous proof
+            // have to also be available in the new proof
+            var proofFile =
+                proof.getProofFile() != null ? proof.getProofFile().toString() : "////";
+            var tacletIndex = proof.allGoals().head().ruleAppIndex().tacletIndex();
+            userTaclets = tacletIndex.allNoPosTacletApps().stream()
+                    .filter(x -> x.taclet().getOrigin() != null
+                            && x.taclet().getOrigin().contains(proofFile))
+                    .map(x -> x.taclet().toString())
+                    .toList();
+        }
+
+        /**
+         * @param newProof another proof
+         * @return whether all user-defined taclets of this proof are available in newProof
+         */
+        boolean tacletsAvailableIn(Proof newProof) {
+            if (userTaclets.isEmpty()) {
+                return true;
+            }
+            return compatibleProofs.computeIfAbsent(newProof, _p -> {
+                var newTacletIndex = newProof.allGoals().head().ruleAppIndex().tacletIndex();
+                Set<NoPosTacletApp> newTaclets = newTacletIndex.allNoPosTacletApps();
+                Set<String> newTacletStrings = newTaclets.stream()
+                        .map(x -> x.taclet().toString())
+                        .collect(Collectors.toSet());
+                return newTacletStrings.containsAll(userTaclets);
+            });
+        }
+
+        /**
+         * Find the first branch (in the order of a linear search) whose sequent is contained
+         * in the new sequent.
+         *
+         * @param newSequent new sequent
+         * @param newKeys keys of the formulas of the new sequent
+         * @return a reference (or null, if none found)
+         */
+        ClosedBy find(Sequent newSequent, Set<Long> newKeys) {
+            ensureIndexed();
+            int best = emptyBranches.isEmpty() ? Integer.MAX_VALUE : emptyBranches.get(0);
+            for (long key : newKeys) {
+                List<Integer> candidates = branchesByKey.get(key);
+                if (candidates == null) {
+                    continue;
+                }
+                // candidates are sorted, so the first match is the best one in this list
+                for (int idx : candidates) {
+                    if (idx >= best) {
+                        break;
+                    }
+                    Branch branch = branches.get(idx);
+                    if (branch.keysContainedIn(newKeys)
+                            && containedIn(newSequent.antecedent(),
+                                branch.sequent().antecedent())
+                            && containedIn(newSequent.succedent(),
+                                branch.sequent().succedent())) {
+                        best = idx;
+                        break;
+                    }
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                return null;
+            }
+            Node n = branches.get(best).node();
+            Set<Node> toSkip = new HashSet<>();
+            if (results != null) {
+                // computed skipped nodes by iterating through all nodes
+                n.subtreeIterator().forEachRemaining(x -> {
+                    if (!results.usefulSteps.contains(x)) {
+                        toSkip.add(x);
+                    }
+                });
+            }
+            return new ClosedBy(proof, n, toSkip);
+        }
+
+        /**
+         * Rebuild the index of this proof if the proof has been changed.
+         */
+        private void ensureIndexed() {
+            DependencyTracker currentTracker = proof.lookup(DependencyTracker.class);
+            if (!outdated && tracker == currentTracker) {
+                return;
+            }
+            outdated = false;
+            tracker = currentTracker;
+            results = null;
+            branches.clear();
+            branchesByKey.clear();
+            emptyBranches.clear();
+
+            // only try to get analysis results if it is a pure proof
+            if (tracker != null && proof.closedGoals().stream()
+                    .noneMatch(x -> x.node().lookup(ClosedBy.class) != null)) {
+                try {
+                    results = tracker.analyze(true, false);
+                } catch (Exception ignored) {
+                    // if the analysis for some reason fails, we simply proceed as usual
+                }
+            }
+
+            Set<Node> checkedNodes = new HashSet<>();
+            Queue<Node> nodesToCheck = proof.closedGoals().stream().map(goal -> {
+                // first, find the initial node in this branch
+                Node n = goal.node();
+                if (n.parent() != null
+                        && n.parent().getAppliedRuleApp().rule() == CloseAfterMerge.INSTANCE) {
+                    // cannot reference this kind of branch
+                    return null;
+                }
+                return n;
+            }).filter(Objects::nonNull).collect(Collectors.toCollection(ArrayDeque::new));
+            while (!nodesToCheck.isEmpty()) {
+                Node n = nodesToCheck.remove();
+                if (checkedNodes.contains(n) || !n.isClosed()) {
+                    continue;
+                }
+                checkedNodes.add(n);
+
+                // find the first node in the branch
+                while (n.parent() != null && n.parent().childrenCount() == 1) {
+                    n = n.parent();
+                }
+                if (n.parent() != null) {
+                    nodesToCheck.add(n.parent());
+                }
+                add(n, results != null ? results.reduceSequent(n) : n.sequent());
+            }
+        }
+
+        /**
+         * Add a branch to the index. It is filed under its formula with the fewest
+         * branches filed so far.
+         *
+         * @param n first node of the branch
+         * @param seq sequent required to close the branch
+         */
+        private void add(Node n, Sequent seq) {
+            long[] keys = new long[seq.size()];
+            int i = 0;
+            for (SequentFormula sf : seq.antecedent()) {
+                keys[i++] = key(sf, true);
+            }
+            for (SequentFormula sf : seq.succedent()) {
+                keys[i++] = key(sf, false);
+            }
+            int idx = branches.size();
+            branches.add(new Branch(n, seq, keys));
+            if (keys.length == 0) {
+                emptyBranches.add(idx);
+                return;
+            }
+            List<Integer> bucket = null;
+            for (long key : keys) {
+                List<Integer> candidates =
+                    branchesByKey.computeIfAbsent(key, _k -> new ArrayList<>());
+                if (bucket == null || candidates.size() < bucket.size()) {
+                    bucket = candidates;
+                }
+            }
+            bucket.add(idx);
+        }
+
+        @Override
+        public void proofExpanded(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofPruned(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofStructureChanged(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofGoalRemoved(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofGoalsAdded(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofGoalsChanged(ProofTreeEvent e) {
+            outdated = true;
+        }
+
+        @Override
+        public void proofDisposing(ProofDisposedEvent e) {
+            remove(proof);
+        }
+
+        @Override
+        public void proofDisposed(ProofDisposedEvent e) {
+
+        }
+    }
+}
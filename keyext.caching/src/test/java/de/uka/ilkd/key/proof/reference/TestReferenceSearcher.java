@@ -148,4 +148,36 @@ class TestReferenceSearcher {
         p2.dispose();
         p3.dispose();
     }
+
+    @Test
+    void forgetsPrunedBranches() throws Exception {
+        GeneralSettings.noPruningClosed = false;
+        // Test scenario:
+        // A reference is found in proof 1.
+        // After proof 1 is pruned, the (now open) branch should not be found anymore.
+
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(testCaseDirectory.resolve(
+                "proofCaching/proofWithRule.proof"));
+        Proof p = env.getLoadedProof();
+        KeYEnvironment<DefaultUserInterfaceControl> env2 =
+            KeYEnvironment.load(testCaseDirectory.resolve(
+                "proofCaching/proofWithRule.proof"));
+        Proof p2 = env2.getLoadedProof();
+
+        List<Proof> previousProofs = new CopyOnWriteArrayList<>();
+        previousProofs.add(p);
+
+        p2.pruneProof(p2.root());
+        ClosedBy c = ReferenceSearcher.findPreviousProof(previousProofs, p2.root());
+        assertNotNull(c);
+        assertSame(p, c.proof());
+
+        p.pruneProof(p.root());
+        assertNull(ReferenceSearcher.findPreviousProof(previousProofs, p2.root()));
+
+        GeneralSettings.noPruningClosed = true;
+        p.dispose();
+        p2.dispose();
+    }
 }
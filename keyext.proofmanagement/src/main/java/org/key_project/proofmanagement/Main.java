@@ -32,6 +32,7 @@ import org.key_project.proofmanagement.merge.ProofBundleMerger;
  * --explicit (implies --auto) stores automatically found proofs explicitly as files
  * --report generate html report, needs the target filename as parameter
  * --missing check for contracts that have no proof
+ * --incremental skip the replay of proofs that are unchanged since their last successful replay
  * checks that are always enabled:
  * - check for duplicate proofs of the same contracts
  * individually and independently trigger different checks
@@ -85,6 +86,8 @@ public final class Main {
         CL_CHECK.addOption("--dependency", null, STRINGS.getString("check_dependency_desc"));
         CL_CHECK.addOption("--missing", null, STRINGS.getString("check_missing_desc"));
         CL_CHECK.addOption("--replay", null, STRINGS.getString("check_replay_desc"));
+        CL_CHECK.addOption("--incremental", null,
+            STRINGS.getString("check_incremental_desc"));
         // check.addOption("--auto", null, STRINGS.getString("check_auto_desc"));
         // check.addOption("--explicit", null, STRINGS.getString("check_explicit_desc"));
         CL_CHECK.addOption("--report", "out_path", STRINGS.getString("check_report_desc"));
@@ -100,6 +103,8 @@ public final class Main {
         CL_MERGE_CHECK.addOption("--dependency", null, STRINGS.getString("check_dependency_desc"));
         CL_MERGE_CHECK.addOption("--missing", null, STRINGS.getString("check_missing_desc"));
         CL_MERGE_CHECK.addOption("--replay", null, STRINGS.getString("check_replay_desc"));
+        CL_MERGE_CHECK.addOption("--incremental", null,
+            STRINGS.getString("check_incremental_desc"));
         // CL_MERGE_CHECK.addOption("--auto", null, STRINGS.getString("check_auto_desc"));
         // CL_MERGE_CHECK.addOption("--explicit", null, STRINGS.getString("check_explicit_desc"));
         CL_MERGE_CHECK.addOption("--report", "out_path", STRINGS.getString("check_report_desc"));
@@ -162,6 +167,24 @@ public final class Main {
      */
     public static void check(boolean missing, boolean settings, boolean replay, boolean dependency,
             Path bundlePath, Path reportPath) {
+        check(missing, settings, replay, false, dependency, bundlePath, reportPath);
+    }
+
+    /**
+     * The check subcommand applies the selected checks to the proof bundle and generates an HTML
+     * report if desired.
+     *
+     * @param missing checks if there are any unproven contracts in the bundle
+     * @param settings checks if the settings for the proofs are compatible
+     * @param replay checks whether the proofs in the bundle are replayable
+     * @param incremental skips the replay of proofs that are unchanged since their last
+     *        successful replay (see {@link ReplayManifest})
+     * @param dependency checks for unsound dependencies between contracts and proofs
+     * @param bundlePath the path of the bundle (directory or zip file)
+     * @param reportPath the output path for the HTML report (if selected)
+     */
+    public static void check(boolean missing, boolean settings, boolean replay,
+            boolean incremental, boolean dependency, Path bundlePath, Path reportPath) {
 
         // we accumulate results in this variable
         CheckerData globalResult = new CheckerData(LogLevel.DEBUG);
@@ -179,7 +202,7 @@ public final class Main {
                 new SettingsChecker().check(pbh, globalResult);
             }
             if (replay) {
-                new ReplayChecker().check(pbh, globalResult);
+                new ReplayChecker(incremental).check(pbh, globalResult);
             }
             if (dependency) {
                 new DependencyChecker().check(pbh, globalResult);
@@ -215,7 +238,8 @@ public final class Main {
         }
     }
 
-    // check [--settings] [--dependency] [--missing] [--replay] [--report <out_path>] <bundle_path>
+    // check [--settings] [--dependency] [--missing] [--replay] [--incremental]
+    // [--report <out_path>] <bundle_path>
     private static void check(CommandLine commandLine) {
         List<String> arguments = commandLine.getArguments();
         if (arguments.size() != 1) {
@@ -232,8 +256,8 @@ public final class Main {
         String pathStr = arguments.get(0);
         Path bundlePath = Paths.get(pathStr);
         check(commandLine.isSet("--missing"), commandLine.isSet("--settings"),
-            commandLine.isSet("--replay"), commandLine.isSet("--dependency"),
-            bundlePath, reportPath);
+            commandLine.isSet("--replay"), commandLine.isSet("--incremental"),
+            commandLine.isSet("--dependency"), bundlePath, reportPath);
     }
 
     // merge [--force] [--check "<check_args>"] <bundle1> <bundle2> ... <output>
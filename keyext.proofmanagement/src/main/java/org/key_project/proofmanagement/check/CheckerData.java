@@ -285,6 +285,10 @@ public final class CheckerData implements Logger {
         public String shortSrc;
         public IntermediatePresentationProofFileParser.Result parseResult;
         public AbstractProblemLoader.ReplayResult replayResult;
+        /** the time needed for replaying the proof in milliseconds */
+        public long replayTime;
+        /** indicates that the replay has been skipped since the proof is unchanged */
+        public boolean replayCached;
 
         public Integer settingsId() {
             return choices2Id.get(proof.getSettings().getChoiceSettings().getDefaultChoices());
@@ -320,7 +324,7 @@ public final class CheckerData implements Logger {
     }
 
     @Override
-    public void print(LogLevel level, String message) {
+    public synchronized void print(LogLevel level, String message) {
         // suppress message if level is smaller than current log level
         if (level.compareTo(minLogLevel) >= 0) {
             // for multiline strings, every line should have correct prefix
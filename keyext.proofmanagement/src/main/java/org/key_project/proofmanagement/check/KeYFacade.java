@@ -4,8 +4,15 @@
 package org.key_project.proofmanagement.check;
 
 import java.io.IOException;
+import java.net.URL;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
 import de.uka.ilkd.key.java.JavaSourceElement;
@@ -27,6 +34,7 @@ import de.uka.ilkd.key.proof.io.consistency.TrivialFileRepo;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.rule.OneStepSimplifier;
 import de.uka.ilkd.key.settings.Configuration;
+import de.uka.ilkd.key.settings.ProofIndependentSettings;
 import de.uka.ilkd.key.speclang.Contract;
 import de.uka.ilkd.key.speclang.SLEnvInput;
 import de.uka.ilkd.key.strategy.Strategy;
@@ -207,9 +215,8 @@ public final class KeYFacade {
         }
         Contract contract = contractPO.getContract();
         line.contract = contract;
-        Type type = contract.getTarget().getContainerType().getJavaType();
-        if (type instanceof JavaSourceElement jse) {
-            line.sourceFile = jse.getPositionInfo().getURL().orElseThrow();
+        line.sourceFile = getSourceFile(contract);
+        if (line.sourceFile != null) {
             String str = line.sourceFile.toString();
             line.shortSrc = str.substring(str.lastIndexOf('/') + 1);
         }
@@ -217,6 +224,20 @@ public final class KeYFacade {
         return proofList.getProofs();
     }
 
+    /**
+     * Determines the source file of the type a contract belongs to.
+     *
+     * @param contract the contract
+     * @return the URL of the source file or null if it is unknown
+     */
+    public static URL getSourceFile(Contract contract) {
+        Type type = contract.getTarget().getContainerType().getJavaType();
+        if (type instanceof JavaSourceElement jse) {
+            return jse.getPositionInfo().getURL().orElse(null);
+        }
+        return null;
+    }
+
     // TODO: adapted copy from AbstractProblemLoader
 
     /**
@@ -290,30 +311,124 @@ public final class KeYFacade {
      * @throws ProofManagementException
      */
     public static void ensureProofsReplayed(CheckerData data) throws ProofManagementException {
+        ensureProofsReplayed(data, null);
+    }
+
+    /**
+     * Ensures that a replay is attempted for each proof file in bundle. Independent proofs are
+     * replayed in parallel (see
+     * {@link de.uka.ilkd.key.settings.ParallelismSettings#getReplayThreads()}). If a manifest is
+     * given, proofs that are unchanged since their last successful replay are skipped and the
+     * manifest is updated with the new results.
+     *
+     * @param data the CheckerData object to store the result
+     * @param manifest the manifest of previous replays or null to replay all proofs
+     * @throws ProofManagementException
+     */
+    public static void ensureProofsReplayed(CheckerData data, ReplayManifest manifest)
+            throws ProofManagementException {
         List<Path> proofPaths = data.getProofPaths();
         ensureProofsLoaded(data);
 
+        Map<CheckerData.ProofEntry, String> fingerprints = new HashMap<>();
+        List<CheckerData.ProofEntry> toReplay = new ArrayList<>();
         for (CheckerData.ProofEntry line : data.getProofEntries()) {
-            // skip replay for proofs if not requested
-            if (proofPaths.contains(line.proofFile)) {
-                // skip proofs that have already been replayed
-                if (line.replayState == CheckerData.ReplayState.UNKNOWN) {
-                    Proof proof = line.proof;
-                    EnvInput envInput = line.envInput;
-
-                    if (proof != null) {
-                        OneStepSimplifier.refreshOSS(proof);
-                        try {
-                            // store result in CheckerData
-                            line.replayResult = replayProof(line, envInput, data);
-                        } catch (ProofInputException e) {
-                            throw new ProofManagementException(
-                                "Could not replay proof from " + envInput
-                                    + System.lineSeparator() + e);
-                        }
+            // skip replay for proofs if not requested and proofs that have already been replayed
+            if (!proofPaths.contains(line.proofFile) || line.proof == null
+                    || line.replayState != CheckerData.ReplayState.UNKNOWN) {
+                continue;
+            }
+            if (manifest != null) {
+                String fingerprint = manifest.fingerprint(line);
+                if (fingerprint != null && manifest.restore(line, fingerprint)) {
+                    line.replayState = CheckerData.ReplayState.SUCCESS;
+                    line.replayCached = true;
+                    data.print(LogLevel.INFO,
+                        "Skipping replay of unchanged proof " + line.proof.name());
+                    continue;
+                }
+                fingerprints.put(line, fingerprint);
+            }
+            toReplay.add(line);
+        }
+
+        try {
+            replayInParallel(toReplay, data);
+        } finally {
+            if (manifest != null) {
+                fingerprints.forEach(manifest::update);
+                try {
+                    manifest.store();
+                } catch (IOException e) {
+                    data.print(LogLevel.WARNING,
+                        "Could not store the replay manifest: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void replayInParallel(List<CheckerData.ProofEntry> lines,
+            CheckerData data) throws ProofManagementException {
+        int threads = Math.min(lines.size(), ProofIndependentSettings.DEFAULT_INSTANCE
+                .getParallelismSettings().getReplayThreads());
+        if (threads < 2) {
+            for (CheckerData.ProofEntry line : lines) {
+                replay(line, data);
+            }
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "key-replay-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (CheckerData.ProofEntry line : lines) {
+                futures.add(pool.submit(() -> {
+                    replay(line, data);
+                    return null;
+                }));
+            }
+            // wait for all replays, report the first failure
+            ProofManagementException error = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause() instanceof ProofManagementException pme ? pme
+                                : new ProofManagementException("Could not replay proof!",
+                                    e.getCause());
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProofManagementException("Replay has been interrupted!", e);
                 }
             }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void replay(CheckerData.ProofEntry line, CheckerData data)
+            throws ProofManagementException {
+        EnvInput envInput = line.envInput;
+        OneStepSimplifier.refreshOSS(line.proof);
+        long start = System.nanoTime();
+        try {
+            // store result in CheckerData
+            line.replayResult = replayProof(line, envInput, data);
+        } catch (ProofInputException e) {
+            throw new ProofManagementException(
+                "Could not replay proof from " + envInput + System.lineSeparator() + e);
+        } finally {
+            line.replayTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
         }
     }
 
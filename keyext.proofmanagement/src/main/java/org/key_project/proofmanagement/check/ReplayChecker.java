@@ -3,6 +3,8 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package org.key_project.proofmanagement.check;
 
+import java.io.IOException;
+
 import org.key_project.proofmanagement.io.ProofBundleHandler;
 
 /**
@@ -11,11 +13,38 @@ import org.key_project.proofmanagement.io.ProofBundleHandler;
  * @author Wolfram Pfeifer
  */
 public class ReplayChecker implements Checker {
+    /** indicates if unchanged proofs are skipped (see {@link ReplayManifest}) */
+    private final boolean incremental;
+
+    /**
+     * Creates a new checker replaying all proofs of the bundle.
+     */
+    public ReplayChecker() {
+        this(false);
+    }
+
+    /**
+     * Creates a new checker.
+     *
+     * @param incremental if true, proofs that are unchanged since their last successful replay
+     *        are skipped
+     */
+    public ReplayChecker(boolean incremental) {
+        this.incremental = incremental;
+    }
 
     @Override
     public void check(ProofBundleHandler pbh, CheckerData data) throws ProofManagementException {
         data.addCheck("replay");
         data.print("Running replay checker ...");
-        KeYFacade.ensureProofsReplayed(data);
+        ReplayManifest manifest = null;
+        if (incremental) {
+            try {
+                manifest = ReplayManifest.load(pbh, data);
+            } catch (IOException e) {
+                throw new ProofManagementException("Could not read the replay manifest!", e);
+            }
+        }
+        KeYFacade.ensureProofsReplayed(data, manifest);
     }
 }
@@ -0,0 +1,196 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement.check;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.util.KeYConstants;
+
+import org.key_project.proofmanagement.io.LogLevel;
+import org.key_project.proofmanagement.io.Logger;
+import org.key_project.proofmanagement.io.ProofBundleHandler;
+
+/**
+ * Remembers the proofs of a bundle that have been replayed successfully, such that the
+ * {@link ReplayChecker} can skip them as long as their inputs do not change. The manifest is
+ * stored inside the bundle as {@value #ENTRY_NAME}.
+ * <p>
+ * For each proof, the manifest stores a fingerprint, i.e., a SHA-256 hash of
+ * <ul>
+ * <li>the KeY version (which determines the taclet base),</li>
+ * <li>the classpath and bootclasspath of the bundle,</li>
+ * <li>all files in the <code>src</code> folder of the bundle and</li>
+ * <li>the proof file itself.</li>
+ * </ul>
+ * Since a proof may depend on any Java source of the bundle (e.g. the body of an inlined method
+ * of another class), a change to any source file invalidates all proofs of the bundle. This
+ * includes the sources of the proven contract and of all contracts the proof applies.
+ */
+public final class ReplayManifest {
+    /** the name of the manifest inside the bundle */
+    public static final String ENTRY_NAME = "replayManifest.properties";
+
+    /** the bundle the manifest belongs to */
+    private final ProofBundleHandler pbh;
+
+    /** maps relative proof paths to "fingerprint proofState replayTime" */
+    private final Properties entries = new Properties();
+
+    /** the hash of the inputs shared by all proofs of the bundle */
+    private final byte[] bundleFingerprint;
+
+    /** indicates if the manifest has been changed since loading */
+    private boolean modified = false;
+
+    private ReplayManifest(ProofBundleHandler pbh) throws IOException {
+        this.pbh = pbh;
+        MessageDigest digest = newDigest();
+        digest.update(KeYConstants.INTERNAL_VERSION.getBytes(StandardCharsets.UTF_8));
+        for (Path file : pbh.getClasspathFiles()) {
+            hashPath(digest, file);
+        }
+        Path bootclasspath = pbh.getBootclasspath();
+        if (bootclasspath != null) {
+            hashPath(digest, bootclasspath);
+        }
+        Path src = pbh.getPath("src");
+        if (Files.isDirectory(src)) {
+            hashPath(digest, src);
+        }
+        bundleFingerprint = digest.digest();
+    }
+
+    /**
+     * Loads the manifest of the given bundle. A missing or unreadable manifest results in an
+     * empty one.
+     *
+     * @param pbh the bundle
+     * @param logger the logger for warnings
+     * @return the manifest of the bundle
+     * @throws IOException if the classpath or the sources of the bundle can not be read
+     */
+    public static ReplayManifest load(ProofBundleHandler pbh, Logger logger) throws IOException {
+        ReplayManifest manifest = new ReplayManifest(pbh);
+        Path file = pbh.getPath(ENTRY_NAME);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                manifest.entries.load(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.print(LogLevel.WARNING, "Ignoring unreadable replay manifest: " + e);
+                manifest.entries.clear();
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Stores the manifest inside the bundle if it has been changed.
+     *
+     * @throws IOException if the bundle can not be written
+     */
+    public void store() throws IOException {
+        if (modified) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entries.store(out, "fingerprints of successfully replayed proofs");
+            pbh.writeEntry(ENTRY_NAME, out.toByteArray());
+            modified = false;
+        }
+    }
+
+    /**
+     * Looks up a proof whose fingerprint is unchanged since its last successful replay.
+     * If found, its proof state and (previous) replay time are restored in the entry.
+     *
+     * @param entry the loaded proof
+     * @param fingerprint the current fingerprint of the proof
+     * @return true iff the proof can be skipped
+     */
+    public boolean restore(CheckerData.ProofEntry entry, String fingerprint) {
+        String value = entries.getProperty(key(entry));
+        if (value == null) {
+            return false;
+        }
+        String[] parts = value.split(" ");
+        if (parts.length != 3 || !parts[0].equals(fingerprint)) {
+            return false;
+        }
+        try {
+            entry.proofState = CheckerData.ProofState.valueOf(parts[1]);
+            entry.replayTime = Long.parseLong(parts[2]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the manifest entry of a replayed proof. Only successful replays are remembered.
+     *
+     * @param entry the replayed proof
+     * @param fingerprint the fingerprint of the proof or null if it could not be computed
+     */
+    public void update(CheckerData.ProofEntry entry, String fingerprint) {
+        String key = key(entry);
+        if (fingerprint != null && entry.replaySuccess()) {
+            String value = fingerprint + " " + entry.proofState.name() + " " + entry.replayTime;
+            modified |= !value.equals(entries.setProperty(key, value));
+        } else {
+            modified |= entries.remove(key) != null;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a proof.
+     *
+     * @param entry the proof
+     * @return the fingerprint or null if the proof file can not be read
+     */
+    public String fingerprint(CheckerData.ProofEntry entry) {
+        try {
+            MessageDigest digest = newDigest();
+            digest.update(bundleFingerprint);
+            hashPath(digest, entry.proofFile);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String key(CheckerData.ProofEntry entry) {
+        return pbh.relativize(entry.proofFile).toString().replace('\\', '/');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void hashPath(MessageDigest digest, Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    String name = path.relativize(file).toString();
+                    digest.update(name.getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            }
+        } else {
+            digest.update(Files.readAllBytes(path));
+        }
+    }
+}
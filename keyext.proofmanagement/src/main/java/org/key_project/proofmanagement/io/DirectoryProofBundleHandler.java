@@ -120,6 +120,11 @@ public class DirectoryProofBundleHandler extends ProofBundleHandler {
         return rootPath.resolve(entryName);
     }
 
+    @Override
+    public void writeEntry(String entryName, byte[] content) throws IOException {
+        Files.write(getPath(entryName), content);
+    }
+
     @Override
     public void close() throws IOException {
         // nothing to do
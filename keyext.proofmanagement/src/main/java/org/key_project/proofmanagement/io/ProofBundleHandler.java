@@ -133,6 +133,15 @@ public abstract class ProofBundleHandler implements Closeable {
      */
     public abstract Path getPath(String entryName);
 
+    /**
+     * Writes the entry with the given name inside the bundle, replacing an existing entry.
+     *
+     * @param entryName the entry name inside the bundle
+     * @param content the new content of the entry
+     * @throws IOException if the bundle can not be written
+     */
+    public abstract void writeEntry(String entryName, byte[] content) throws IOException;
+
     /**
      * Static factory method to create a ProofBundleHandler based on the type of the proof bundle
      * (zipped bundle or directory).
@@ -4,6 +4,8 @@
 package org.key_project.proofmanagement.io;
 
 import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
@@ -129,6 +131,15 @@ public class ZipProofBundleHandler extends ProofBundleHandler {
         return dbh.getPath(entryName);
     }
 
+    @Override
+    public void writeEntry(String entryName, byte[] content) throws IOException {
+        // keep the unzipped copy consistent and update the zip file itself
+        dbh.writeEntry(entryName, content);
+        try (FileSystem fs = FileSystems.newFileSystem(zipPath)) {
+            Files.write(fs.getPath(entryName), content);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         // check if close has already been called
@@ -0,0 +1,200 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.proofmanagement.check;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.key_project.proofmanagement.io.LogLevel;
+import org.key_project.proofmanagement.io.ProofBundleHandler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayManifestTest {
+    @TempDir
+    Path tmpDir;
+
+    private final CheckerData data = new CheckerData(LogLevel.ERROR);
+
+    /**
+     * Creates a bundle directory with one source file and two proofs.
+     */
+    private Path createBundle() throws IOException {
+        Path bundle = tmpDir.resolve("bundle");
+        Files.createDirectories(bundle.resolve("src"));
+        Files.writeString(bundle.resolve("src/A.java"), "class A { }");
+        Files.writeString(bundle.resolve("a.proof"), "proof a");
+        Files.writeString(bundle.resolve("b.proof"), "proof b");
+        return bundle;
+    }
+
+    private Path zip(Path bundle) throws IOException {
+        Path zip = tmpDir.resolve("bundle.zproof");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip));
+                Stream<Path> files = Files.walk(bundle)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                out.putNextEntry(
+                    new ZipEntry(bundle.relativize(file).toString().replace('\\', '/')));
+                out.write(Files.readAllBytes(file));
+                out.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private CheckerData.ProofEntry entry(ProofBundleHandler pbh, String name) {
+        CheckerData.ProofEntry entry = data.new ProofEntry();
+        entry.proofFile = pbh.getPath(name);
+        return entry;
+    }
+
+    private static void replayed(CheckerData.ProofEntry entry, long time) {
+        entry.replayState = CheckerData.ReplayState.SUCCESS;
+        entry.proofState = CheckerData.ProofState.CLOSED;
+        entry.replayTime = time;
+    }
+
+    @Test
+    void fingerprintDependsOnProofAndSources() throws IOException {
+        Path bundle = createBundle();
+        String a;
+        String b;
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            a = manifest.fingerprint(entry(pbh, "a.proof"));
+            b = manifest.fingerprint(entry(pbh, "b.proof"));
+            assertNotNull(a);
+            assertNotEquals(a, b);
+            assertEquals(a, manifest.fingerprint(entry(pbh, "a.proof")));
+            assertNull(manifest.fingerprint(entry(pbh, "missing.proof")));
+        }
+
+        // changing a proof only changes its own fingerprint
+        Files.writeString(bundle.resolve("b.proof"), "proof b'");
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            assertEquals(a, manifest.fingerprint(entry(pbh, "a.proof")));
+            assertNotEquals(b, manifest.fingerprint(entry(pbh, "b.proof")));
+        }
+
+        // changing a source changes all fingerprints
+        Files.writeString(bundle.resolve("src/A.java"), "class A { int x; }");
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            assertNotEquals(a, manifest.fingerprint(entry(pbh, "a.proof")));
+        }
+    }
+
+    @Test
+    void restoresOnlyUnchangedSuccessfulReplays() throws IOException {
+        Path bundle = createBundle();
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            CheckerData.ProofEntry b = entry(pbh, "b.proof");
+            String fa = manifest.fingerprint(a);
+            String fb = manifest.fingerprint(b);
+            assertFalse(manifest.restore(a, fa));
+
+            replayed(a, 42);
+            manifest.update(a, fa);
+            // failed replays are not remembered
+            b.replayState = CheckerData.ReplayState.ERROR;
+            manifest.update(b, fb);
+
+            CheckerData.ProofEntry restored = entry(pbh, "a.proof");
+            assertTrue(manifest.restore(restored, fa));
+            assertEquals(CheckerData.ProofState.CLOSED, restored.proofState);
+            assertEquals(42, restored.replayTime);
+            assertFalse(manifest.restore(entry(pbh, "a.proof"), fb));
+            assertFalse(manifest.restore(entry(pbh, "b.proof"), fb));
+
+            // a later failure removes the entry
+            a.replayState = CheckerData.ReplayState.ERROR;
+            manifest.update(a, fa);
+            assertFalse(manifest.restore(entry(pbh, "a.proof"), fa));
+        }
+    }
+
+    @Test
+    void storesIntoDirectory() throws IOException {
+        Path bundle = createBundle();
+        String fa;
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            // nothing is written as long as the manifest is unchanged
+            manifest.store();
+            assertFalse(Files.exists(bundle.resolve(ReplayManifest.ENTRY_NAME)));
+
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            fa = manifest.fingerprint(a);
+            replayed(a, 7);
+            manifest.update(a, fa);
+            manifest.store();
+            assertTrue(Files.exists(bundle.resolve(ReplayManifest.ENTRY_NAME)));
+        }
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            assertEquals(fa, manifest.fingerprint(a));
+            assertTrue(manifest.restore(a, fa));
+            assertEquals(7, a.replayTime);
+        }
+    }
+
+    @Test
+    void updatesZipInPlace() throws IOException {
+        Path zip = zip(createBundle());
+        String fa;
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(zip)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            fa = manifest.fingerprint(a);
+            replayed(a, 3);
+            manifest.update(a, fa);
+            manifest.store();
+        }
+
+        // the manifest is an entry of the zip file now, the other entries are kept
+        try (FileSystem fs = FileSystems.newFileSystem(zip)) {
+            assertTrue(Files.exists(fs.getPath(ReplayManifest.ENTRY_NAME)));
+            assertEquals("proof a", Files.readString(fs.getPath("a.proof")));
+            assertEquals("class A { }", Files.readString(fs.getPath("src/A.java")));
+        }
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(zip)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            // the manifest itself is not part of the fingerprint
+            assertEquals(fa, manifest.fingerprint(a));
+            assertTrue(manifest.restore(a, fa));
+            assertEquals(3, a.replayTime);
+        }
+    }
+
+    @Test
+    void ignoresUnreadableManifest() throws IOException {
+        Path bundle = createBundle();
+        try (OutputStream out =
+            Files.newOutputStream(bundle.resolve(ReplayManifest.ENTRY_NAME))) {
+            // an invalid unicode escape
+            out.write("a.proof=\\uZZZZ".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        try (ProofBundleHandler pbh = ProofBundleHandler.createBundleHandler(bundle)) {
+            ReplayManifest manifest = ReplayManifest.load(pbh, data);
+            CheckerData.ProofEntry a = entry(pbh, "a.proof");
+            assertFalse(manifest.restore(a, manifest.fingerprint(a)));
+        }
+    }
+}
@@ -11,7 +11,8 @@ import org.key_project.util.collection.Pair;
 
 /**
  * Stores the dependency graph nodes touched by a proof step.
- * Added to a node using {@link de.uka.ilkd.key.proof.Node#register(Object, Class)}.
+ * Created on demand by
+ * {@link org.key_project.slicing.graph.DependencyGraph#dataOf(de.uka.ilkd.key.proof.Node)}.
  *
  * @author Arne Keller
  */
@@ -4,6 +4,7 @@
 package org.key_project.slicing;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -147,10 +148,10 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
             int size = loc.size();
             boolean added = false;
             for (int i = 0; i <= size; i++) {
-                TrackedFormula formula =
+                GraphNode formula = graph.findNode(
                     new TrackedFormula(in.sequentFormula(), loc, in.isInAntec(),
-                        proof.getServices());
-                if (graph.containsNode(formula)) {
+                        proof.getServices()));
+                if (formula != null) {
                     input.add(new Pair<>(formula, removed.contains(in)));
                     added = true;
                     break;
@@ -262,6 +263,31 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
         return outputs;
     }
 
+    /**
+     * Create the graph nodes of the formulas added by a proof step.
+     * The new formulas of a branch share one branch location object.
+     *
+     * @param n the proof step
+     * @param outputs the added formulas and the ID of the branch they are added to
+     * @param output the list to add the graph nodes to
+     */
+    private void addTrackedFormulas(Node n, List<Pair<PosInOccurrence, Integer>> outputs,
+            List<GraphNode> output) {
+        Map<Integer, BranchLocation> locations = new HashMap<>();
+        for (Pair<PosInOccurrence, Integer> out : outputs) {
+            BranchLocation loc = locations.computeIfAbsent(out.second, id -> id == -1
+                    ? n.getBranchLocation()
+                    // this is a branching proof step: set correct branch location of new formulas
+                    : n.getBranchLocation().append(new Pair<>(n, id)));
+            TrackedFormula formula = new TrackedFormula(
+                out.first.sequentFormula(),
+                loc,
+                out.first.isInAntec(),
+                proof.getServices());
+            output.add(formula);
+        }
+    }
+
     @Override
     public void ruleApplied(ProofEvent e) {
         if (e.getSource() != proof) {
@@ -303,19 +329,7 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
         List<Pair<PosInOccurrence, Integer>> outputs =
             outputsOfNode(ruleAppInfo);
 
-        for (Pair<PosInOccurrence, Integer> out : outputs) {
-            BranchLocation loc = n.getBranchLocation();
-            if (out.second != -1) {
-                // this is a branching proof step: set correct branch location of new formulas
-                loc = loc.append(new Pair<>(n, out.second));
-            }
-            TrackedFormula formula = new TrackedFormula(
-                out.first.sequentFormula(),
-                loc,
-                out.first.isInAntec(),
-                proof.getServices());
-            output.add(formula);
-        }
+        addTrackedFormulas(n, outputs, output);
 
         // add closed goals to output nodes
         if (goalList.isEmpty() || (ruleApp instanceof TacletApp tacletApp &&
@@ -327,11 +341,6 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
                 new ClosedGoal(closedGoal.serialNr(), n.getBranchLocation()));
         }
 
-        n.register(new DependencyNodeData(
-            input,
-            output,
-            ruleApp.rule().displayName() + "_" + n.serialNr()), DependencyNodeData.class);
-
         // add pseudo nodes so the rule application is always included in the graph
         if (input.isEmpty()) {
             input.add(new Pair<>(new PseudoInput(), true));
@@ -388,19 +397,7 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
         List<Pair<PosInOccurrence, Integer>> outputs =
             outputsOfNode(n);
 
-        for (Pair<PosInOccurrence, Integer> out : outputs) {
-            BranchLocation loc = n.getBranchLocation();
-            if (out.second != -1) {
-                // this is a branching proof step: set correct branch location of new formulas
-                loc = loc.append(new Pair<>(n, out.second));
-            }
-            TrackedFormula formula = new TrackedFormula(
-                out.first.sequentFormula(),
-                loc,
-                out.first.isInAntec(),
-                proof.getServices());
-            output.add(formula);
-        }
+        addTrackedFormulas(n, outputs, output);
 
         // add closed goals to output nodes
         if (goalList.isEmpty() || (ruleApp instanceof TacletApp tacletApp &&
@@ -412,11 +409,6 @@ public class DependencyTracker implements RuleAppListener, ProofTreeListener {
                 new ClosedGoal(closedGoal.serialNr(), n.getBranchLocation()));
         }
 
-        n.register(new DependencyNodeData(
-            input,
-            output,
-            ruleApp.rule().displayName() + "_" + n.serialNr()), DependencyNodeData.class);
-
         // add pseudo nodes so the rule application is always included in the graph
         if (input.isEmpty()) {
             input.add(new Pair<>(new PseudoInput(), true));
@@ -20,6 +20,7 @@ import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.init.ProofInputException;
 import de.uka.ilkd.key.proof.io.*;
 import de.uka.ilkd.key.proof.replay.AbstractProofReplayer;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
 import de.uka.ilkd.key.util.MiscTools;
 import de.uka.ilkd.key.util.ProgressMonitor;
 
@@ -145,6 +146,18 @@ public final class SlicingProofReplayer extends AbstractProofReplayer {
                 "Slicing proof", results.usefulSteps.size());
         }
 
+        OneStepSimplifier.beginReplay(proof);
+        try {
+            applySteps(loadInUI);
+        } finally {
+            OneStepSimplifier.endReplay(proof);
+        }
+
+        return saveProof(originalProof, proof);
+    }
+
+    private void applySteps(boolean loadInUI)
+            throws IntermediateProofReplayer.BuiltInConstructionException {
         // queue of open goals in the new proof
         Deque<Goal> openGoals = new ArrayDeque<>();
         openGoals.addLast(proof.openGoals().head());
@@ -206,8 +219,6 @@ public final class SlicingProofReplayer extends AbstractProofReplayer {
                 }
             }
         }
-
-        return saveProof(originalProof, proof);
     }
 
     /**
@@ -16,7 +16,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -97,6 +100,10 @@ public final class DependencyAnalyzer {
      * algorithm in isolation).
      */
     private static final String DUPLICATE_ANALYSIS_SETUP = "~ Duplicate Analysis setup";
+    /**
+     * Number of graph nodes per thread whose duplicate candidates are collected at once.
+     */
+    private static final int DUPLICATE_ANALYSIS_BATCH = 16;
 
     /**
      * Logger.
@@ -122,17 +129,17 @@ public final class DependencyAnalyzer {
     /**
      * The set of steps to keep in the proof slice.
      */
-    private final Set<Node> usefulSteps = new HashSet<>();
+    private final Set<Node> usefulSteps = ConcurrentHashMap.newKeySet();
     /**
      * The set of graph nodes required to perform the useful steps.
      * May contain more formulas than actually required after branching proof steps are
      * analyzed (i.e., it may contain graph nodes in branches listed in uselessBranches).
      */
-    private final Set<GraphNode> usefulFormulas = new HashSet<>();
+    private final Set<GraphNode> usefulFormulas = ConcurrentHashMap.newKeySet();
     /**
      * Some of the branches that will not be present in the proof slice.
      */
-    private final Set<BranchLocation> uselessBranches = new HashSet<>();
+    private final Set<BranchLocation> uselessBranches = ConcurrentHashMap.newKeySet();
     /**
      * Branch stacks, as determined by the rule application de-duplication algorithm.
      * For each proof node x, stores the nodes that have to be performed before x is
@@ -212,7 +219,7 @@ public final class DependencyAnalyzer {
                     return;
                 }
                 usefulSteps.add(visitedNode);
-                DependencyNodeData data = visitedNode.lookup(DependencyNodeData.class);
+                DependencyNodeData data = graph.dataOf(visitedNode);
                 if (data == null) {
                     return;
                 }
@@ -272,7 +279,7 @@ public final class DependencyAnalyzer {
             if (usefulSteps.contains(node)) {
                 rules.addApplication(rule, branches);
             } else {
-                if (node.lookup(DependencyNodeData.class).inputs.stream().map(it -> it.first)
+                if (graph.dataOf(node).inputs.stream().map(it -> it.first)
                         .anyMatch(usefulFormulas::contains)) {
                     rules.addInitialUselessApplication(rule, branches);
                 } else {
@@ -288,40 +295,16 @@ public final class DependencyAnalyzer {
         Deque<Node> queue = analyzeDependenciesUsefulRoots();
 
         executionTime.start(DEPENDENCY_ANALYSIS2);
-        while (!queue.isEmpty()) {
-            Node node = queue.pop();
-            // handle State Merging by throwing an error
-            if (node.getAppliedRuleApp() instanceof MergeRuleBuiltInRuleApp
-                    || node.getAppliedRuleApp() instanceof CloseAfterMergeRuleBuiltInRuleApp) {
-                throw new IllegalStateException("tried to analyze proof featuring state merging!");
-            }
-
-            // closed goal & has previous step
-            // => mark output (closed goal) of parent node as useful
-            boolean considerOutputs = false;
-            if (node.getAppliedRuleApp() == null && node.parent() != null) {
-                node = node.parent();
-                considerOutputs = true;
-            }
-            if (usefulSteps.contains(node)) {
-                continue;
-            }
-            usefulSteps.add(node);
-            DependencyNodeData data = node.lookup(DependencyNodeData.class);
-            data.inputs.forEach(it -> usefulFormulas.add(it.first));
-
-            for (Pair<GraphNode, Boolean> in : data.inputs) {
-                Node thisProofStep = node;
-                graph
-                        .incomingEdgesOf(in.first)
-                        // we don't care about steps done to derive the same formula again!
-                        .filter(step -> step.getStepIndex() < thisProofStep.getStepIndex())
-                        .forEach(queue::add);
-            }
-            if (considerOutputs) {
-                data.outputs.stream().filter(ClosedGoal.class::isInstance)
-                        .forEach(usefulFormulas::add);
-            }
+        // The initial nodes are handled first, in order: a closed goal has to be handled before
+        // its parent step is reached by another path (see markUsefulStep).
+        // The remaining search is plain reachability, so each level of the BFS is processed
+        // in parallel.
+        List<Node> level = new ArrayList<>();
+        for (Node node : queue) {
+            markUsefulStep(node, level::add);
+        }
+        while (!level.isEmpty()) {
+            level = level.parallelStream().<Node>mapMulti(this::markUsefulStep).toList();
         }
         executionTime.stop(DEPENDENCY_ANALYSIS2);
 
@@ -331,7 +314,7 @@ public final class DependencyAnalyzer {
 
         // unmark all 'useful' steps in useless branches
         executionTime.start(DEPENDENCY_ANALYSIS4);
-        proof.breadthFirstSearch(proof.root(), (proof1, node) -> {
+        proofNodes().parallelStream().forEach(node -> {
             if (!usefulSteps.contains(node)) {
                 return;
             }
@@ -346,6 +329,56 @@ public final class DependencyAnalyzer {
         executionTime.stop(DEPENDENCY_ANALYSIS4);
     }
 
+    /**
+     * Mark a proof step and the graph nodes it requires as useful.
+     * May be called concurrently for different nodes.
+     *
+     * @param node the proof step (or a closed goal)
+     * @param next receives the proof steps producing the graph nodes required by the step
+     */
+    private void markUsefulStep(Node node, Consumer<Node> next) {
+        // handle State Merging by throwing an error
+        if (node.getAppliedRuleApp() instanceof MergeRuleBuiltInRuleApp
+                || node.getAppliedRuleApp() instanceof CloseAfterMergeRuleBuiltInRuleApp) {
+            throw new IllegalStateException("tried to analyze proof featuring state merging!");
+        }
+
+        // closed goal & has previous step
+        // => mark output (closed goal) of parent node as useful
+        boolean considerOutputs = false;
+        if (node.getAppliedRuleApp() == null && node.parent() != null) {
+            node = node.parent();
+            considerOutputs = true;
+        }
+        if (!usefulSteps.add(node)) {
+            return;
+        }
+        DependencyNodeData data = graph.dataOf(node);
+        data.inputs.forEach(it -> usefulFormulas.add(it.first));
+
+        for (Pair<GraphNode, Boolean> in : data.inputs) {
+            Node thisProofStep = node;
+            graph
+                    .incomingEdgesOf(in.first)
+                    // we don't care about steps done to derive the same formula again!
+                    .filter(step -> step.getStepIndex() < thisProofStep.getStepIndex())
+                    .forEach(next);
+        }
+        if (considerOutputs) {
+            data.outputs.stream().filter(ClosedGoal.class::isInstance)
+                    .forEach(usefulFormulas::add);
+        }
+    }
+
+    /**
+     * @return all nodes of the proof, in breadth-first order
+     */
+    private List<Node> proofNodes() {
+        List<Node> nodes = new ArrayList<>();
+        proof.breadthFirstSearch(proof.root(), (proof1, node) -> nodes.add(node));
+        return nodes;
+    }
+
     /**
      * Calculate the set of root graph nodes that are definitely useful.
      * Includes the set of closed goals and for each open goal the formulas available
@@ -367,7 +400,9 @@ public final class DependencyAnalyzer {
                 PosInOccurrence pio =
                     PosInOccurrence.findInSequent(seq, i, PosInTerm.getTopLevel());
                 GraphNode node = graph.getGraphNode(proof, goal.node().getBranchLocation(), pio);
-                usefulFormulas.add(node);
+                if (node != null) {
+                    usefulFormulas.add(node);
+                }
                 graph.incomingEdgesOf(node).forEach(queue::add);
             }
         }
@@ -381,11 +416,12 @@ public final class DependencyAnalyzer {
      */
     private void analyzeDependenciesBranches() {
         // analyze branching proof steps: they are only useful if all of their outputs were used
-        proof.breadthFirstSearch(proof.root(), (proof1, node) -> {
+        // (each step only reads the useful formulas, so the steps are analyzed in parallel)
+        proofNodes().parallelStream().forEach(node -> {
             if (node.childrenCount() <= 1) {
                 return;
             }
-            DependencyNodeData data = node.lookup(DependencyNodeData.class);
+            DependencyNodeData data = graph.dataOf(node);
             Map<BranchLocation, Collection<GraphNode>> groupedOutputs = new HashMap<>();
             node.childrenIterator().forEachRemaining(
                 x -> groupedOutputs.put(x.getBranchLocation(), new ArrayList<>()));
@@ -437,152 +473,199 @@ public final class DependencyAnalyzer {
         Set<Integer> alreadyMergedSerialNrs = new HashSet<>();
 
         // search for duplicate rule applications
-        graph.nodes().forEach(node -> {
-            if (mergedAnything) {
-                return;
-            }
-            // groups proof steps that act upon this graph node by their rule app
-            // (for obvious reasons, we don't care about origin labels here -> wrapper)
-            Map<EqualsAndHashCodeDelegator<RuleApp>, Set<Node>> foundDupes =
-                new HashMap<>();
-            graph.outgoingGraphEdgesOf(node).forEach(t -> {
-                Node proofNode = t.fromNode();
-
-                // this analysis algorithm does not support proofs with State Merging
-                if (proofNode.getAppliedRuleApp() instanceof MergeRuleBuiltInRuleApp
-                        || proofNode
-                                .getAppliedRuleApp() instanceof CloseAfterMergeRuleBuiltInRuleApp) {
-                    throw new IllegalStateException(
-                        "tried to analyze proof featuring state merging!");
-                }
-
-                // do not deduplicate branching steps
-                if (proofNode.childrenCount() > 1) {
-                    return;
-                }
-                // In combination with the dependency analysis algorithm:
-                // only deduplicate useful steps
-                if (!usefulSteps.contains(proofNode)) {
-                    return;
-                }
-                // Only try to deduplicate the addition of new formulas.
-                // It is unlikely that two closed goals are derived using the same formula.
-                GraphNode produced = t.toNode();
-                if (!(produced instanceof TrackedFormula)) {
-                    return;
+        // The candidates of each graph node are collected in parallel (one batch of graph nodes
+        // at a time), the merges are then performed sequentially in the original order.
+        List<GraphNode> nodes = new ArrayList<>();
+        graph.nodes().forEach(nodes::add);
+        int batchSize = DUPLICATE_ANALYSIS_BATCH * ForkJoinPool.getCommonPoolParallelism();
+        for (int start = 0; start < nodes.size() && !mergedAnything; start += batchSize) {
+            List<GraphNode> batch =
+                nodes.subList(start, Math.min(nodes.size(), start + batchSize));
+            List<List<DuplicateCandidate>> batchCandidates =
+                batch.parallelStream().map(this::duplicateCandidates).toList();
+            for (int nodeIdx = 0; nodeIdx < batch.size() && !mergedAnything; nodeIdx++) {
+                GraphNode node = batch.get(nodeIdx);
+                // groups proof steps that act upon this graph node by their rule app
+                // (for obvious reasons, we don't care about origin labels here -> wrapper)
+                Map<EqualsAndHashCodeDelegator<RuleApp>, Set<Node>> foundDupes =
+                    new HashMap<>();
+                for (DuplicateCandidate candidate : batchCandidates.get(nodeIdx)) {
+                    if (candidate.stateMerging()) {
+                        throw new IllegalStateException(
+                            "tried to analyze proof featuring state merging!");
+                    }
+                    // In combination with the dependency analysis algorithm:
+                    // only deduplicate useful steps
+                    // (checked again, previous merges may have removed the step)
+                    if (usefulSteps.contains(candidate.step())) {
+                        foundDupes
+                                .computeIfAbsent(candidate.ruleApp(), _a -> new LinkedHashSet<>())
+                                .add(candidate.step());
+                    }
                 }
-                foundDupes
-                        .computeIfAbsent(
-                            new EqualsAndHashCodeDelegator<>(proofNode.getAppliedRuleApp(),
-                                EqualityModuloProofIrrelevancy::equalsModProofIrrelevancy,
-                                EqualityModuloProofIrrelevancy::hashCodeModProofIrrelevancy),
-                            _a -> new LinkedHashSet<>())
-                        .add(t.annotation().getProofStep());
-            });
 
-            // scan dupes, try to find a set of mergable rule applications
-            for (Map.Entry<EqualsAndHashCodeDelegator<RuleApp>, Set<Node>> entry : foundDupes
-                    .entrySet()) {
-                if (mergedAnything) {
-                    continue;
-                }
-                List<Node> steps = new ArrayList<>(entry.getValue());
-                if (steps.size() <= 1) {
-                    continue;
-                }
-                // try merging "adjacent" rule apps
-                // (rule apps are sorted by step index = linear location in the proof tree)
-                steps.sort(Comparator.comparing(Node::getStepIndex));
-                LOGGER.trace("input {} found duplicate; attempt to merge:",
-                    node.toString(false, false));
-
-                List<Node> apps = new ArrayList<>(steps);
-                List<BranchLocation> locs = apps.stream()
-                        .map(Node::getBranchLocation)
-                        .collect(Collectors.toList());
-                for (int idxA = 0; idxA < apps.size() - 1; idxA++) {
+                // scan dupes, try to find a set of mergable rule applications
+                for (Map.Entry<EqualsAndHashCodeDelegator<RuleApp>, Set<Node>> entry : foundDupes
+                        .entrySet()) {
                     if (mergedAnything) {
                         continue;
                     }
-                    Node stepA = apps.get(idxA);
-                    if (stepA == null) {
+                    List<Node> steps = new ArrayList<>(entry.getValue());
+                    if (steps.size() <= 1) {
                         continue;
                     }
-                    for (int idxB = idxA + 1; idxB < apps.size(); idxB++) {
+                    // try merging "adjacent" rule apps
+                    // (rule apps are sorted by step index = linear location in the proof tree)
+                    steps.sort(Comparator.comparing(Node::getStepIndex));
+                    LOGGER.trace("input {} found duplicate; attempt to merge:",
+                        node.toString(false, false));
+
+                    List<Node> apps = new ArrayList<>(steps);
+                    List<BranchLocation> locs = apps.stream()
+                            .map(Node::getBranchLocation)
+                            .collect(Collectors.toList());
+                    for (int idxA = 0; idxA < apps.size() - 1; idxA++) {
                         if (mergedAnything) {
                             continue;
                         }
-                        Node stepB = apps.get(idxB);
-                        if (stepB == null) {
-                            continue;
-                        }
-                        // To combine step A and step B, the same rule must be applied
-                        // earlier in the proof. This new location (the "merge base") is simply the
-                        // longest common prefix of the tw steps' branch locations.
-                        // More precisely, it needs to be performed just before this branch
-                        // of the proof is further split up.
-
-                        // Check whether step A and B may be combined:
-                        // 1) Verify that each graph node required by step A / step B
-                        // is available at the merge base.
-                        // 2) Combined proof step at the merge base does not remove
-                        // any sequent formulas required by later proof steps.
-                        // 3) Check that the merge is valid in the sense that the outputs of
-                        // the merged proof step will be available for their intended use.
-
-                        // Condition 3) is tested in deduplicateChecksMergabilityCorrectly
-                        // (see for an example proof where two steps (11,17) may not be merged)
-
-                        if (alreadyMergedSerialNrs.contains(stepA.serialNr())
-                                || (idxA == idxB - 1
-                                        && alreadyRebasedSerialNrs.contains(stepA.serialNr()))) {
+                        Node stepA = apps.get(idxA);
+                        if (stepA == null) {
                             continue;
                         }
-                        // can't merge/rebase a step twice!
-                        if (alreadyMergedSerialNrs.contains(stepB.serialNr())
-                                || alreadyRebasedSerialNrs.contains(stepB.serialNr())) {
-                            continue;
+                        for (int idxB = idxA + 1; idxB < apps.size(); idxB++) {
+                            if (mergedAnything) {
+                                continue;
+                            }
+                            Node stepB = apps.get(idxB);
+                            if (stepB == null) {
+                                continue;
+                            }
+                            // To combine step A and step B, the same rule must be applied
+                            // earlier in the proof. This new location (the "merge base") is
+                            // simply the longest common prefix of the tw steps' branch locations.
+                            // More precisely, it needs to be performed just before this branch
+                            // of the proof is further split up.
+
+                            // Check whether step A and B may be combined:
+                            // 1) Verify that each graph node required by step A / step B
+                            // is available at the merge base.
+                            // 2) Combined proof step at the merge base does not remove
+                            // any sequent formulas required by later proof steps.
+                            // 3) Check that the merge is valid in the sense that the outputs of
+                            // the merged proof step will be available for their intended use.
+
+                            // Condition 3) is tested in deduplicateChecksMergabilityCorrectly
+                            // (see for an example proof where two steps (11,17) may not be merged)
+
+                            if (alreadyMergedSerialNrs.contains(stepA.serialNr())
+                                    || (idxA == idxB - 1 && alreadyRebasedSerialNrs
+                                            .contains(stepA.serialNr()))) {
+                                continue;
+                            }
+                            // can't merge/rebase a step twice!
+                            if (alreadyMergedSerialNrs.contains(stepB.serialNr())
+                                    || alreadyRebasedSerialNrs.contains(stepB.serialNr())) {
+                                continue;
+                            }
+                            LOGGER.trace("considering {} {}", stepA.serialNr(), stepB.serialNr());
+                            BranchLocation locA = locs.get(idxA);
+                            BranchLocation locB = locs.get(idxB);
+                            if (locA.equals(locB)) {
+                                // skip duplicates in the same branch...
+                                continue;
+                            }
+                            BranchLocation mergeBase = BranchLocation.commonPrefix(locA, locB);
+                            boolean canMerge =
+                                canMergeStepsInto(apps, idxA, stepA, stepB, locA, locB, mergeBase);
+                            if (canMerge) {
+                                // merge step B into step A
+                                LOGGER.trace("merging {} and {}", stepA.serialNr(),
+                                    stepB.serialNr());
+                                locs.set(idxA, mergeBase);
+                                alreadyRebasedSerialNrs.add(stepA.serialNr());
+                                apps.set(idxB, null);
+                                alreadyMergedSerialNrs.add(stepB.serialNr());
+                                mergedAnything = shouldExitAfterFirstMerge;
+                            }
                         }
-                        LOGGER.trace("considering {} {}", stepA.serialNr(), stepB.serialNr());
-                        BranchLocation locA = locs.get(idxA);
-                        BranchLocation locB = locs.get(idxB);
-                        if (locA.equals(locB)) {
-                            // skip duplicates in the same branch...
-                            continue;
+                    }
+                    // mark merged steps as useless, add one of them to the relevant branch stack
+                    // so that it is moved by the SlicingProofReplayer
+                    for (int i = 0; i < apps.size(); i++) {
+                        boolean keep = apps.get(i) != null;
+                        BranchLocation originalLoc = steps.get(i).getBranchLocation();
+                        if (keep && !locs.get(i).equals(originalLoc)) {
+                            BranchLocation differingSuffix = originalLoc.stripPrefix(locs.get(i));
+                            LOGGER.trace("should be done before branching node {}",
+                                differingSuffix);
+                            branchStacks.computeIfAbsent(
+                                differingSuffix.getNode(0),
+                                _node -> new ArrayList<>())
+                                    .add(steps.get(i));
                         }
-                        BranchLocation mergeBase = BranchLocation.commonPrefix(locA, locB);
-                        boolean canMerge =
-                            canMergeStepsInto(apps, idxA, stepA, stepB, locA, locB, mergeBase);
-                        if (canMerge) {
-                            // merge step B into step A
-                            LOGGER.trace("merging {} and {}", stepA.serialNr(), stepB.serialNr());
-                            locs.set(idxA, mergeBase);
-                            alreadyRebasedSerialNrs.add(stepA.serialNr());
-                            apps.set(idxB, null);
-                            alreadyMergedSerialNrs.add(stepB.serialNr());
-                            mergedAnything = shouldExitAfterFirstMerge;
+                        if (!keep) {
+                            usefulSteps.remove(steps.get(i));
                         }
                     }
                 }
-                // mark merged steps as useless, add one of them to the relevant branch stack
-                // so that it is moved by the SlicingProofReplayer
-                for (int i = 0; i < apps.size(); i++) {
-                    boolean keep = apps.get(i) != null;
-                    BranchLocation originalLoc = steps.get(i).getBranchLocation();
-                    if (keep && !locs.get(i).equals(originalLoc)) {
-                        BranchLocation differingSuffix = originalLoc.stripPrefix(locs.get(i));
-                        LOGGER.trace("should be done before branching node {}", differingSuffix);
-                        branchStacks.computeIfAbsent(
-                            differingSuffix.getNode(0),
-                            _node -> new ArrayList<>())
-                                .add(steps.get(i));
-                    }
-                    if (!keep) {
-                        usefulSteps.remove(steps.get(i));
-                    }
-                }
             }
+        }
+    }
+
+    /**
+     * A proof step that may be merged with other steps applying the same rule app.
+     *
+     * @param ruleApp the rule app of the step (compared modulo proof irrelevancy)
+     * @param step the proof step
+     * @param stateMerging whether the step is a state merging step
+     */
+    private record DuplicateCandidate(EqualsAndHashCodeDelegator<RuleApp> ruleApp, Node step,
+            boolean stateMerging) {
+    }
+
+    /**
+     * Collects the proof steps acting upon the provided graph node that may be deduplicated.
+     * Only reads the dependency graph and thus may be called concurrently.
+     *
+     * @param node graph node
+     * @return candidates for deduplication, in the order of the outgoing edges of the node
+     */
+    private List<DuplicateCandidate> duplicateCandidates(GraphNode node) {
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        graph.outgoingGraphEdgesOf(node).forEach(t -> {
+            Node proofNode = t.fromNode();
+            RuleApp ruleApp = proofNode.getAppliedRuleApp();
+
+            // this analysis algorithm does not support proofs with State Merging
+            if (ruleApp instanceof MergeRuleBuiltInRuleApp
+                    || ruleApp instanceof CloseAfterMergeRuleBuiltInRuleApp) {
+                candidates.add(new DuplicateCandidate(null, proofNode, true));
+                return;
+            }
+
+            // do not deduplicate branching steps
+            if (proofNode.childrenCount() > 1) {
+                return;
+            }
+            // In combination with the dependency analysis algorithm:
+            // only deduplicate useful steps
+            if (!usefulSteps.contains(proofNode)) {
+                return;
+            }
+            // Only try to deduplicate the addition of new formulas.
+            // It is unlikely that two closed goals are derived using the same formula.
+            GraphNode produced = t.toNode();
+            if (!(produced instanceof TrackedFormula)) {
+                return;
+            }
+            // the hash is computed here, i.e. in parallel, instead of on every map lookup
+            int hash = EqualityModuloProofIrrelevancy.hashCodeModProofIrrelevancy(ruleApp);
+            candidates.add(new DuplicateCandidate(
+                new EqualsAndHashCodeDelegator<>(ruleApp,
+                    EqualityModuloProofIrrelevancy::equalsModProofIrrelevancy, _app -> hash),
+                t.annotation().getProofStep(), false));
         });
+        return candidates;
     }
 
     /**
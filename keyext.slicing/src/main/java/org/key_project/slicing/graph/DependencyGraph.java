@@ -14,6 +14,7 @@ import de.uka.ilkd.key.proof.Proof;
 import org.key_project.prover.sequent.PosInOccurrence;
 import org.key_project.slicing.DependencyNodeData;
 import org.key_project.slicing.DependencyTracker;
+import org.key_project.util.EqualsAndHashCodeDelegator;
 import org.key_project.util.collection.Pair;
 
 import org.slf4j.Logger;
@@ -28,7 +29,18 @@ import org.slf4j.LoggerFactory;
  * Each proof step defines a hyperedge of the dependency graph.
  * It starts at the inputs used by the rule application and ends at the newly introduced formulas
  * (or other graph nodes).
- * To simplify the implementation, each hyperedge is split into a collection of regular edges.
+ * Towards clients, each hyperedge is presented as a collection of regular edges
+ * (one for every pair of input and output).
+ * </p>
+ * <p>
+ * Since the graph is kept for the whole lifetime of a proof, it is stored compactly:
+ * graph nodes and proof steps are identified by integer ids, each hyperedge is stored
+ * once as a record of node ids in a primitive array and the adjacency lists of the graph
+ * nodes are linked lists of step ids, again stored in primitive arrays.
+ * The regular edges ({@link AnnotatedEdge}) and the {@link DependencyNodeData} of a proof step
+ * are only materialized on request.
+ * Removed graph nodes and proof steps are marked as such; a graph node that is added again
+ * later receives a new id.
  * </p>
  *
  * @author Arne Keller
@@ -37,23 +49,122 @@ public class DependencyGraph {
     private static final Logger LOGGER = LoggerFactory.getLogger(DependencyGraph.class);
 
     /**
-     * Main storage container of graph nodes and edges.
+     * Initial capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Ids of the graph nodes contained in the graph.
+     */
+    private final Map<GraphNode, Integer> vertexIds;
+    /**
+     * Graph nodes by id. The entry of a removed graph node is cleared once no proof step
+     * refers to it.
+     */
+    private GraphNode[] vertices;
+    /**
+     * Number of allocated graph node ids.
+     */
+    private int vertexCount;
+    /**
+     * Ids of removed graph nodes.
+     */
+    private final BitSet removedVertices;
+    /**
+     * Per graph node: first adjacency entry of the list of proof steps producing it (-1 if none).
+     */
+    private int[] inHead;
+    /**
+     * Per graph node: first adjacency entry of the list of proof steps using it (-1 if none).
+     */
+    private int[] outHead;
+    /**
+     * Per adjacency entry: the proof step.
+     */
+    private int[] adjStep;
+    /**
+     * Per adjacency entry: the next entry of the list (-1 at the end).
+     */
+    private int[] adjNext;
+    /**
+     * Number of used adjacency entries.
+     */
+    private int adjCount;
+
+    /**
+     * Proof steps by id. The entry of a removed proof step is cleared.
      */
-    private final EquivalenceDirectedGraph graph;
+    private Node[] steps;
     /**
-     * Mapping of rule applications to graph edges.
-     * Stores the edges introduced by a proof step.
+     * Number of allocated proof step ids.
      */
-    private final Map<Node, Collection<AnnotatedEdge>> edgeDataReversed = new IdentityHashMap<>();
+    private int stepCount;
+    /**
+     * Per proof step: offset of its record in {@link #stepData} (-1 if the step was removed).
+     */
+    private int[] stepOffset;
+    /**
+     * Records of the proof steps. Each record consists of the number of inputs,
+     * the inputs (<code>id &lt;&lt; 1 | consumed</code>), the number of outputs and the outputs.
+     */
+    private int[] stepData;
+    /**
+     * Number of used entries in {@link #stepData}.
+     */
+    private int stepDataSize;
+    /**
+     * Maps the serial number of a proof node to its step id plus one (zero if not tracked).
+     */
+    private int[] stepBySerialNr;
+    /**
+     * Proof steps that represent a shortened chain (see {@link #removeChains()}),
+     * mapped to the initial node of the chain.
+     */
+    private final Map<Integer, Node> shortenedSteps;
+    /**
+     * Graph nodes grouped using equality modulo proof irrelevancy.
+     * Computed on demand, null if outdated.
+     */
+    private Map<EqualsAndHashCodeDelegator<?>, Collection<GraphNode>> verticesModProof = null;
 
     public DependencyGraph() {
-        graph = new EquivalenceDirectedGraph();
+        vertexIds = new HashMap<>();
+        vertices = new GraphNode[INITIAL_CAPACITY];
+        removedVertices = new BitSet();
+        inHead = new int[INITIAL_CAPACITY];
+        outHead = new int[INITIAL_CAPACITY];
+        adjStep = new int[INITIAL_CAPACITY];
+        adjNext = new int[INITIAL_CAPACITY];
+        steps = new Node[INITIAL_CAPACITY];
+        stepOffset = new int[INITIAL_CAPACITY];
+        stepData = new int[INITIAL_CAPACITY];
+        stepBySerialNr = new int[INITIAL_CAPACITY];
+        shortenedSteps = new HashMap<>();
     }
 
     private DependencyGraph(DependencyGraph copyFrom) {
-        graph = copyFrom.graph.copy();
-        graph.edgeSet().forEach(x -> edgeDataReversed
-                .computeIfAbsent(x.getProofStep(), _node -> new ArrayList<>()).add(x));
+        vertexIds = new HashMap<>(copyFrom.vertexIds);
+        vertices = copyFrom.vertices.clone();
+        vertexCount = copyFrom.vertexCount;
+        removedVertices = (BitSet) copyFrom.removedVertices.clone();
+        inHead = copyFrom.inHead.clone();
+        outHead = copyFrom.outHead.clone();
+        adjStep = copyFrom.adjStep.clone();
+        adjNext = copyFrom.adjNext.clone();
+        adjCount = copyFrom.adjCount;
+        steps = copyFrom.steps.clone();
+        stepCount = copyFrom.stepCount;
+        stepOffset = copyFrom.stepOffset.clone();
+        stepData = copyFrom.stepData.clone();
+        stepDataSize = copyFrom.stepDataSize;
+        stepBySerialNr = copyFrom.stepBySerialNr.clone();
+        shortenedSteps = new HashMap<>(copyFrom.shortenedSteps);
+        // the copy only keeps the edges between contained graph nodes
+        for (int step = 0; step < stepCount; step++) {
+            if (stepOffset[step] != -1) {
+                dropRemovedVertices(step);
+            }
+        }
     }
 
     /**
@@ -62,14 +173,15 @@ public class DependencyGraph {
      * @param p the proof
      */
     public void ensureProofIsTracked(Proof p) {
-        if (!edgeDataReversed.keySet().stream().findFirst().map(x -> x.proof() == p).orElse(true)) {
+        Proof trackedProof = proof();
+        if (trackedProof != null && trackedProof != p) {
             throw new IllegalStateException("tried to use DependencyGraph with wrong proof");
         }
         DependencyTracker tracker = p.lookup(DependencyTracker.class);
         var nodeIterator = p.root().subtreeIterator();
         while (nodeIterator.hasNext()) {
             var node = nodeIterator.next();
-            if (node.getAppliedRuleApp() == null || edgeDataReversed.containsKey(node)) {
+            if (node.getAppliedRuleApp() == null || stepId(node) != -1) {
                 continue;
             }
             tracker.trackNode(node);
@@ -86,16 +198,45 @@ public class DependencyGraph {
      */
     public void addRuleApplication(Node node, Collection<Pair<GraphNode, Boolean>> input,
             Collection<GraphNode> output) {
-        for (Pair<GraphNode, Boolean> in : input) {
-            for (GraphNode out : output) {
-                AnnotatedEdge edge = new AnnotatedEdge(node, in.second);
+        if (input.isEmpty() || output.isEmpty()) {
+            return;
+        }
+        if (stepCount == steps.length) {
+            steps = Arrays.copyOf(steps, steps.length * 2);
+            stepOffset = Arrays.copyOf(stepOffset, steps.length);
+        }
+        int step = stepCount++;
+        steps[step] = node;
+
+        int size = 2 + input.size() + output.size();
+        if (stepDataSize + size > stepData.length) {
+            stepData = Arrays.copyOf(stepData, Math.max(stepData.length * 2, stepDataSize + size));
+        }
+        int offset = stepDataSize;
+        stepDataSize += size;
+        stepOffset[step] = offset;
 
-                graph.addVertex(in.first);
-                graph.addVertex(out);
-                graph.addEdge(in.first, out, edge);
+        int i = offset;
+        stepData[i++] = input.size();
+        for (Pair<GraphNode, Boolean> in : input) {
+            int vertex = addVertex(in.first);
+            stepData[i++] = vertex << 1 | (in.second ? 1 : 0);
+            link(false, vertex, step);
+        }
+        stepData[i++] = output.size();
+        for (GraphNode out : output) {
+            int vertex = addVertex(out);
+            stepData[i++] = vertex;
+            link(true, vertex, step);
+        }
 
-                edgeDataReversed.computeIfAbsent(node, n -> new ArrayList<>()).add(edge);
+        if (node != null) {
+            int serialNr = node.serialNr();
+            if (serialNr >= stepBySerialNr.length) {
+                stepBySerialNr = Arrays.copyOf(stepBySerialNr,
+                    Math.max(stepBySerialNr.length * 2, serialNr + 1));
             }
+            stepBySerialNr[serialNr] = step + 1;
         }
     }
 
@@ -104,7 +245,20 @@ public class DependencyGraph {
      * @return whether the graph contains that node
      */
     public boolean containsNode(GraphNode node) {
-        return graph.containsVertex(node);
+        return vertexIds.containsKey(node);
+    }
+
+    /**
+     * Get the instance of a graph node stored in this graph.
+     * Callers should prefer the stored instance over equal copies to avoid keeping
+     * duplicate objects alive.
+     *
+     * @param node a graph node
+     * @return the stored graph node equal to the parameter, null if not found
+     */
+    public GraphNode findNode(GraphNode node) {
+        Integer id = vertexIds.get(node);
+        return id == null ? null : vertices[id];
     }
 
     /**
@@ -112,10 +266,9 @@ public class DependencyGraph {
      * @return the rule application(s) that produced the graph node, if any
      */
     public Stream<Node> incomingEdgesOf(GraphNode node) {
-        if (!graph.containsVertex(node)) {
-            return Stream.of();
-        }
-        return graph.incomingEdgesOf(node).stream().map(AnnotatedEdge::getProofStep);
+        List<Node> result = new ArrayList<>();
+        forEachEdgeAt(node, true, (step, in, consumed, out) -> result.add(steps[step]));
+        return result.stream();
     }
 
     /**
@@ -135,12 +288,10 @@ public class DependencyGraph {
      * @return the incoming (graph edges, graph sources) of that node
      */
     public Stream<Edge> incomingGraphEdgesOf(GraphNode node) {
-        if (!graph.containsVertex(node)) {
-            return Stream.of();
-        }
-        return graph.incomingEdgesOf(node).stream()
-                .map(
-                    edge -> new Edge(edge.getProofStep(), graph.getEdgeSource(edge), edge));
+        List<Edge> result = new ArrayList<>();
+        forEachEdgeAt(node, true, (step, in, consumed, out) -> result
+                .add(new Edge(steps[step], vertices[in], edge(step, in, consumed, out))));
+        return result.stream();
     }
 
     /**
@@ -148,10 +299,9 @@ public class DependencyGraph {
      * @return the rule application(s) that used the graph node, if any
      */
     public Stream<Node> outgoingEdgesOf(GraphNode node) {
-        if (!graph.containsVertex(node)) {
-            return Stream.of();
-        }
-        return graph.outgoingEdgesOf(node).stream().map(AnnotatedEdge::getProofStep);
+        List<Node> result = new ArrayList<>();
+        forEachEdgeAt(node, false, (step, in, consumed, out) -> result.add(steps[step]));
+        return result.stream();
     }
 
     /**
@@ -161,12 +311,10 @@ public class DependencyGraph {
      * @return the outgoing (graph edges, graph targets) of that node
      */
     public Stream<Edge> outgoingGraphEdgesOf(GraphNode node) {
-        if (!graph.containsVertex(node)) {
-            return Stream.of();
-        }
-        return graph.outgoingEdgesOf(node).stream()
-                .map(
-                    edge -> new Edge(edge.getProofStep(), graph.getEdgeTarget(edge), edge));
+        List<Edge> result = new ArrayList<>();
+        forEachEdgeAt(node, false, (step, in, consumed, out) -> result
+                .add(new Edge(steps[step], vertices[out], edge(step, in, consumed, out))));
+        return result.stream();
     }
 
     /**
@@ -174,7 +322,7 @@ public class DependencyGraph {
      * @return graph nodes created in that branch (and descendent branches)
      */
     public Stream<GraphNode> nodesInBranch(BranchLocation location) {
-        return graph.vertexSet().stream()
+        return vertexIds.keySet().stream()
                 .filter(it -> it.branchLocation.hasPrefix(location));
     }
 
@@ -183,7 +331,7 @@ public class DependencyGraph {
      * @return closed goals in that branch and descendents
      */
     public Stream<ClosedGoal> goalsInBranch(BranchLocation location) {
-        return graph.vertexSet().stream()
+        return vertexIds.keySet().stream()
                 .filter(ClosedGoal.class::isInstance)
                 .map(ClosedGoal.class::cast)
                 .filter(it -> it.branchLocation.hasPrefix(location));
@@ -193,7 +341,7 @@ public class DependencyGraph {
      * @return all nodes contained in the graph
      */
     public Iterable<GraphNode> nodes() {
-        return graph.vertexSet();
+        return Collections.unmodifiableSet(vertexIds.keySet());
     }
 
     /**
@@ -209,22 +357,31 @@ public class DependencyGraph {
         Deque<Node> nodesToProcess = new ArrayDeque<>();
         nodesToProcess.add(pruneTarget);
 
-        Collection<GraphNode> verticesToRemove = new ArrayList<>();
+        BitSet verticesToRemove = new BitSet();
         while (!nodesToProcess.isEmpty()) {
             Node node = nodesToProcess.pop();
             // all children nodes are also pruned
             node.childrenIterator().forEachRemaining(nodesToProcess::add);
 
-            DependencyNodeData data = node.lookup(DependencyNodeData.class);
-            if (data != null) {
-                verticesToRemove.addAll(data.outputs);
-                node.deregister(data, DependencyNodeData.class);
+            int step = stepId(node);
+            if (step != -1) {
+                int outputs = stepOffset[step] + 1 + stepData[stepOffset[step]];
+                for (int i = 1; i <= stepData[outputs]; i++) {
+                    // the output may have been removed and added again since
+                    Integer vertex = vertexIds.get(vertices[stepData[outputs + i]]);
+                    if (vertex != null) {
+                        verticesToRemove.set(vertex);
+                    }
+                }
+                removeStep(step);
             }
-            edgeDataReversed.remove(node);
         }
-        graph.removeAllVertices(verticesToRemove);
-        LOGGER.debug("After prune: {} nodes, {} edges", graph.vertexSet().size(),
-            graph.edgeSet().size());
+        verticesToRemove.stream().forEach(this::removeVertex);
+        // forget graph nodes no longer referenced by any proof step
+        verticesToRemove.stream()
+                .filter(v -> !hasLiveStep(inHead[v]) && !hasLiveStep(outHead[v]))
+                .forEach(v -> vertices[v] = null);
+        LOGGER.debug("After prune: {} nodes, {} edges", countNodes(), countEdges());
     }
 
     /**
@@ -232,9 +389,10 @@ public class DependencyGraph {
      * @return neighbors of that graph node (all nodes connected by incoming or outgoing edge)
      */
     public Stream<GraphNode> neighborsOf(GraphNode node) {
-        return Stream.concat(
-            graph.incomingEdgesOf(node).stream().map(graph::getEdgeSource),
-            graph.outgoingEdgesOf(node).stream().map(graph::getEdgeTarget));
+        List<GraphNode> result = new ArrayList<>();
+        forEachEdgeAt(node, true, (step, in, consumed, out) -> result.add(vertices[in]));
+        forEachEdgeAt(node, false, (step, in, consumed, out) -> result.add(vertices[out]));
+        return result.stream();
     }
 
     /**
@@ -245,7 +403,43 @@ public class DependencyGraph {
      * @return the edges representing this step
      */
     public Collection<AnnotatedEdge> edgesOf(Node proofStep) {
-        return edgeDataReversed.getOrDefault(proofStep, Collections.emptyList());
+        int step = stepId(proofStep);
+        if (step == -1) {
+            return Collections.emptyList();
+        }
+        List<AnnotatedEdge> result = new ArrayList<>();
+        forEachEdgeOf(step, false,
+            (s, in, consumed, out) -> result.add(edge(s, in, consumed, out)));
+        return result;
+    }
+
+    /**
+     * Get the inputs, outputs and label of the supplied proof step.
+     * The returned object is created on each call.
+     *
+     * @param proofStep the proof step
+     * @return the data of the proof step, null if the step is not tracked
+     */
+    public DependencyNodeData dataOf(Node proofStep) {
+        int step = stepId(proofStep);
+        if (step == -1) {
+            return null;
+        }
+        int offset = stepOffset[step];
+        int inputs = stepData[offset];
+        List<Pair<GraphNode, Boolean>> input = new ArrayList<>(inputs);
+        for (int i = 1; i <= inputs; i++) {
+            int in = stepData[offset + i];
+            input.add(new Pair<>(vertices[in >>> 1], (in & 1) != 0));
+        }
+        int outputsOffset = offset + 1 + inputs;
+        int outputs = stepData[outputsOffset];
+        List<GraphNode> output = new ArrayList<>(outputs);
+        for (int i = 1; i <= outputs; i++) {
+            output.add(vertices[stepData[outputsOffset + i]]);
+        }
+        return new DependencyNodeData(input, output,
+            proofStep.getAppliedRuleApp().rule().displayName() + "_" + proofStep.serialNr());
     }
 
     /**
@@ -253,7 +447,7 @@ public class DependencyGraph {
      * @return source node of this edge
      */
     public GraphNode inputOf(AnnotatedEdge edge) {
-        return graph.getEdgeSource(edge);
+        return (GraphNode) edge.getSource();
     }
 
     /**
@@ -261,7 +455,7 @@ public class DependencyGraph {
      * @return target node of this edge
      */
     public GraphNode outputOf(AnnotatedEdge edge) {
-        return graph.getEdgeTarget(edge);
+        return (GraphNode) edge.getTarget();
     }
 
     /**
@@ -320,7 +514,7 @@ public class DependencyGraph {
      * @return number of stored graph nodes
      */
     public int countNodes() {
-        return graph.vertexSet().size();
+        return vertexIds.size();
     }
 
     /**
@@ -331,7 +525,11 @@ public class DependencyGraph {
      * @return number of stored graph edges
      */
     public int countEdges() {
-        return graph.edgeSet().size();
+        int[] count = new int[1];
+        for (int step = 0; step < stepCount; step++) {
+            forEachEdgeOf(step, true, (s, in, consumed, out) -> count[0]++);
+        }
+        return count[0];
     }
 
     /**
@@ -343,8 +541,17 @@ public class DependencyGraph {
     public Collection<GraphNode> nodeAndPreviousDerivations(GraphNode node) {
         Collection<GraphNode> all = new ArrayList<>();
         all.add(node);
-        if (node instanceof TrackedFormula) {
-            all = graph.getVerticesModProofIrrelevancy(node);
+        if (node instanceof TrackedFormula tf) {
+            if (verticesModProof == null) {
+                verticesModProof = new HashMap<>();
+                for (int v = 0; v < vertexCount; v++) {
+                    if (!removedVertices.get(v) && vertices[v] instanceof TrackedFormula f) {
+                        verticesModProof.computeIfAbsent(modProofIrrelevancy(f),
+                            _v -> new ArrayList<>()).add(f);
+                    }
+                }
+            }
+            all = verticesModProof.get(modProofIrrelevancy(tf));
         }
         return all;
     }
@@ -367,8 +574,9 @@ public class DependencyGraph {
                 new TrackedFormula(pio.sequentFormula(), locationGuess,
                     pio.isInAntec(),
                     proof.getServices());
-            if (containsNode(formula)) {
-                return formula;
+            GraphNode stored = findNode(formula);
+            if (stored != null) {
+                return stored;
             }
             if (locationGuess.isEmpty()) {
                 break;
@@ -427,9 +635,7 @@ public class DependencyGraph {
             // (otherwise we cannot remove the edge without
             // making the graph inconsistent)
             Node endNode = outgoing.get(0).fromNode;
-            GraphNode endGraphNode = outgoing.get(0).toNode;
-            var edge2 = outgoing.get(0).annotation;
-            if (edgesOf(endNode).size() != 1) {
+            if (endNode == startNode || edgesOf(endNode).size() != 1) {
                 continue;
             }
 
@@ -437,14 +643,22 @@ public class DependencyGraph {
             // startGraphNode ---> node ---> endGraphNode
 
             // chain removal:
-            // remove node and connected edges
-            nGraph.graph.removeVertex(node);
-            // create new edge
-            var edge3 = new AnnotatedShortenedEdge(initialNode, endNode, edge.replacesInputNode());
-            nGraph.graph.addEdge(startGraphNode, endGraphNode, edge3);
-            nGraph.edgeDataReversed.remove(startNode);
-            nGraph.edgeDataReversed.get(endNode).remove(edge2);
-            nGraph.edgeDataReversed.get(endNode).add(edge3);
+            // remove node and the step that produced it
+            int vertex = nGraph.vertexIds.get(node);
+            nGraph.removeVertex(vertex);
+            nGraph.removeStep(nGraph.stepId(startNode));
+            // let the step that used the node start at startGraphNode instead
+            int source = nGraph.vertexIds.get(startGraphNode);
+            int endStep = nGraph.stepId(endNode);
+            int offset = nGraph.stepOffset[endStep];
+            for (int i = 1; i <= nGraph.stepData[offset]; i++) {
+                if (nGraph.stepData[offset + i] >>> 1 == vertex) {
+                    nGraph.stepData[offset + i] =
+                        source << 1 | (edge.replacesInputNode() ? 1 : 0);
+                }
+            }
+            nGraph.link(false, source, endStep);
+            nGraph.shortenedSteps.put(endStep, initialNode);
             removed++;
         }
         LOGGER.debug("removeChains: {} nodes deleted", removed);
@@ -457,6 +671,233 @@ public class DependencyGraph {
      * @return the proof
      */
     public Proof proof() {
-        return this.edgeDataReversed.keySet().stream().map(Node::proof).findFirst().orElse(null);
+        for (int step = 0; step < stepCount; step++) {
+            if (steps[step] != null) {
+                return steps[step].proof();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Receives the edges of the dependency graph (as ids).
+     */
+    @FunctionalInterface
+    private interface EdgeVisitor {
+        /**
+         * Visit an edge.
+         *
+         * @param step the proof step
+         * @param input the source graph node
+         * @param consumed whether the step replaces the input
+         * @param output the target graph node
+         */
+        void visit(int step, int input, boolean consumed, int output);
+    }
+
+    /**
+     * Visit the edges of a proof step.
+     *
+     * @param step the proof step
+     * @param skipRemoved whether to skip edges connected to removed graph nodes
+     * @param visitor the visitor
+     */
+    private void forEachEdgeOf(int step, boolean skipRemoved, EdgeVisitor visitor) {
+        int offset = stepOffset[step];
+        if (offset == -1) {
+            return;
+        }
+        int inputs = stepData[offset];
+        int outputsOffset = offset + 1 + inputs;
+        int outputs = stepData[outputsOffset];
+        for (int i = 1; i <= inputs; i++) {
+            int in = stepData[offset + i];
+            if (skipRemoved && removedVertices.get(in >>> 1)) {
+                continue;
+            }
+            for (int j = 1; j <= outputs; j++) {
+                int out = stepData[outputsOffset + j];
+                if (!skipRemoved || !removedVertices.get(out)) {
+                    visitor.visit(step, in >>> 1, (in & 1) != 0, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the incoming or outgoing edges of a graph node.
+     *
+     * @param node the graph node
+     * @param incoming whether to visit the incoming (or outgoing) edges
+     * @param visitor the visitor
+     */
+    private void forEachEdgeAt(GraphNode node, boolean incoming, EdgeVisitor visitor) {
+        Integer vertex = vertexIds.get(node);
+        if (vertex == null) {
+            return;
+        }
+        int v = vertex;
+        for (int e = incoming ? inHead[v] : outHead[v]; e != -1; e = adjNext[e]) {
+            forEachEdgeOf(adjStep[e], true, (step, in, consumed, out) -> {
+                if ((incoming ? out : in) == v) {
+                    visitor.visit(step, in, consumed, out);
+                }
+            });
+        }
+    }
+
+    /**
+     * Materialize an edge of the graph.
+     *
+     * @param step the proof step
+     * @param input the source graph node
+     * @param consumed whether the step replaces the input
+     * @param output the target graph node
+     * @return the edge
+     */
+    private AnnotatedEdge edge(int step, int input, boolean consumed, int output) {
+        Node initial = shortenedSteps.isEmpty() ? null : shortenedSteps.get(step);
+        AnnotatedEdge edge = initial != null
+                ? new AnnotatedShortenedEdge(initial, steps[step], consumed)
+                : new AnnotatedEdge(steps[step], consumed);
+        edge.setSource(vertices[input]);
+        edge.setTarget(vertices[output]);
+        return edge;
+    }
+
+    /**
+     * @param node a proof node
+     * @return the step id of the node, -1 if it is not tracked
+     */
+    private int stepId(Node node) {
+        if (node == null || node.serialNr() >= stepBySerialNr.length) {
+            return -1;
+        }
+        int step = stepBySerialNr[node.serialNr()] - 1;
+        return step != -1 && steps[step] == node ? step : -1;
+    }
+
+    /**
+     * @param node a graph node
+     * @return the id of the graph node (newly allocated if it is not yet contained)
+     */
+    private int addVertex(GraphNode node) {
+        Integer id = vertexIds.get(node);
+        if (id != null) {
+            return id;
+        }
+        if (vertexCount == vertices.length) {
+            vertices = Arrays.copyOf(vertices, vertices.length * 2);
+            inHead = Arrays.copyOf(inHead, vertices.length);
+            outHead = Arrays.copyOf(outHead, vertices.length);
+        }
+        int vertex = vertexCount++;
+        vertices[vertex] = node;
+        inHead[vertex] = -1;
+        outHead[vertex] = -1;
+        vertexIds.put(node, vertex);
+        verticesModProof = null;
+        return vertex;
+    }
+
+    /**
+     * @param vertex the id of a graph node (ignored if already removed)
+     */
+    private void removeVertex(int vertex) {
+        if (!removedVertices.get(vertex)) {
+            removedVertices.set(vertex);
+            vertexIds.remove(vertices[vertex]);
+            verticesModProof = null;
+        }
+    }
+
+    /**
+     * @param step the id of a proof step
+     */
+    private void removeStep(int step) {
+        stepOffset[step] = -1;
+        if (steps[step] != null) {
+            stepBySerialNr[steps[step].serialNr()] = 0;
+            steps[step] = null;
+        }
+    }
+
+    /**
+     * Remove the references to removed graph nodes from the record of a proof step.
+     * The step itself is removed if no edge remains.
+     *
+     * @param step the id of a proof step
+     */
+    private void dropRemovedVertices(int step) {
+        int offset = stepOffset[step];
+        int inputs = stepData[offset];
+        int outputsOffset = offset + 1 + inputs;
+        int outputs = stepData[outputsOffset];
+        int i = offset + 1;
+        for (int k = 1; k <= inputs; k++) {
+            int in = stepData[offset + k];
+            if (!removedVertices.get(in >>> 1)) {
+                stepData[i++] = in;
+            }
+        }
+        int newOutputsOffset = i++;
+        for (int k = 1; k <= outputs; k++) {
+            int out = stepData[outputsOffset + k];
+            if (!removedVertices.get(out)) {
+                stepData[i++] = out;
+            }
+        }
+        stepData[offset] = newOutputsOffset - offset - 1;
+        stepData[newOutputsOffset] = i - newOutputsOffset - 1;
+        if (stepData[offset] == 0 || stepData[newOutputsOffset] == 0) {
+            removeStep(step);
+        }
+    }
+
+    /**
+     * Add a proof step to the adjacency list of a graph node.
+     *
+     * @param incoming whether to add to the list of producing (or using) steps
+     * @param vertex the graph node
+     * @param step the proof step
+     */
+    private void link(boolean incoming, int vertex, int step) {
+        int[] head = incoming ? inHead : outHead;
+        for (int e = head[vertex]; e != -1; e = adjNext[e]) {
+            if (adjStep[e] == step) {
+                return;
+            }
+            if (adjStep[e] < step) {
+                // steps are appended in ascending order, except for shortened chains
+                break;
+            }
+        }
+        if (adjCount == adjStep.length) {
+            adjStep = Arrays.copyOf(adjStep, adjStep.length * 2);
+            adjNext = Arrays.copyOf(adjNext, adjStep.length);
+        }
+        adjStep[adjCount] = step;
+        adjNext[adjCount] = head[vertex];
+        head[vertex] = adjCount++;
+    }
+
+    /**
+     * @param entry first entry of an adjacency list
+     * @return whether the list contains a proof step that was not removed
+     */
+    private boolean hasLiveStep(int entry) {
+        for (int e = entry; e != -1; e = adjNext[e]) {
+            if (stepOffset[adjStep[e]] != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static EqualsAndHashCodeDelegator<TrackedFormula> modProofIrrelevancy(
+            TrackedFormula formula) {
+        return new EqualsAndHashCodeDelegator<>(formula,
+            TrackedFormula::equalsModProofIrrelevancy,
+            TrackedFormula::hashCodeModProofIrrelevancy);
     }
 }
@@ -66,7 +66,7 @@ public final class DotExporter {
             Node node = queue.remove(queue.size() - 1);
             node.childrenIterator().forEachRemaining(queue::add);
             var edges = graph.edgesOf(node);
-            var data = node.lookup(DependencyNodeData.class);
+            var data = graph.dataOf(node);
             if (edges == null || edges.isEmpty() || data == null) {
                 continue;
             }
@@ -124,7 +124,7 @@ public final class DotExporter {
                     return;
                 }
                 drawn.add(node);
-                DependencyNodeData data = node.lookup(DependencyNodeData.class);
+                DependencyNodeData data = graph.dataOf(node);
                 if (data == null) {
                     return;
                 }
@@ -0,0 +1,313 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.slicing;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.proof.BranchLocation;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.AbstractProfile;
+import de.uka.ilkd.key.proof.init.InitConfig;
+
+import org.key_project.slicing.graph.AnnotatedEdge;
+import org.key_project.slicing.graph.AnnotatedShortenedEdge;
+import org.key_project.slicing.graph.DependencyGraph;
+import org.key_project.slicing.graph.GraphNode;
+import org.key_project.util.collection.DirectedGraph;
+import org.key_project.util.collection.Pair;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the {@link DependencyGraph} with a straightforward implementation based on a
+ * {@link DirectedGraph} of edge objects (as the dependency graph was stored before it was made
+ * compact) on random sequences of rule applications, prunes and chain removals.
+ */
+class DependencyGraphEquivalenceTest {
+    /** number of distinct graph nodes */
+    private static final int VERTICES = 24;
+    /** number of operations per run */
+    private static final int OPERATIONS = 400;
+
+    @ParameterizedTest
+    @ValueSource(longs = { 1, 2, 3, 4, 5, 6, 7, 8 })
+    void behavesLikeReferenceImplementation(long seed) {
+        var random = new Random(seed);
+        var proof = new Proof("equivalence",
+            new InitConfig(new Services(AbstractProfile.getDefaultProfile())));
+        var root = new Node(proof);
+        proof.setRoot(root);
+
+        var graph = new DependencyGraph();
+        var reference = new ReferenceGraph();
+        // proof nodes which are not pruned
+        List<Node> live = new ArrayList<>(List.of(root));
+        List<Node> all = new ArrayList<>(List.of(root));
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            int op = random.nextInt(20);
+            if (op < 15) {
+                var node = new Node(proof);
+                live.get(random.nextInt(live.size())).add(node);
+                live.add(node);
+                all.add(node);
+
+                List<Integer> ids = new ArrayList<>();
+                for (int v = 0; v < VERTICES; v++) {
+                    ids.add(v);
+                }
+                Collections.shuffle(ids, random);
+                int inputs = 1 + random.nextInt(3);
+                int outputs = 1 + random.nextInt(2);
+                List<Pair<GraphNode, Boolean>> input = new ArrayList<>();
+                for (int k = 0; k < inputs; k++) {
+                    // equal copies of graph nodes are used on purpose
+                    input.add(new Pair<>(new Vertex(ids.get(k)), random.nextBoolean()));
+                }
+                List<GraphNode> output = new ArrayList<>();
+                for (int k = inputs; k < inputs + outputs; k++) {
+                    output.add(new Vertex(ids.get(k)));
+                }
+                graph.addRuleApplication(node, input, output);
+                reference.addRuleApplication(node, input, output);
+            } else if (op < 18) {
+                if (live.size() == 1) {
+                    continue;
+                }
+                var target = live.get(1 + random.nextInt(live.size() - 1));
+                graph.prune(target);
+                reference.prune(target);
+                // the pruned nodes stay in the tree, but are not extended any more
+                var pruned = target.subtreeIterator();
+                while (pruned.hasNext()) {
+                    live.remove(pruned.next());
+                }
+            } else {
+                if (graph.proof() == null) {
+                    continue;
+                }
+                assertEquivalent(graph.removeChains(), reference.removeChains(proof), all);
+            }
+            assertEquivalent(graph, reference, all);
+        }
+    }
+
+    private static void assertEquivalent(DependencyGraph graph, ReferenceGraph reference,
+            List<Node> proofNodes) {
+        assertEquals(reference.countNodes(), graph.countNodes());
+        assertEquals(reference.countEdges(), graph.countEdges());
+        for (int v = 0; v < VERTICES; v++) {
+            var vertex = new Vertex(v);
+            assertEquals(reference.containsNode(vertex), graph.containsNode(vertex));
+            assertEquals(count(reference.incomingGraphEdgesOf(vertex)),
+                count(graph.incomingGraphEdgesOf(vertex).map(DependencyGraphEquivalenceTest::str)));
+            assertEquals(count(reference.outgoingGraphEdgesOf(vertex)),
+                count(graph.outgoingGraphEdgesOf(vertex).map(DependencyGraphEquivalenceTest::str)));
+            if (graph.containsNode(vertex)) {
+                assertEquals(count(reference.neighborsOf(vertex).map(GraphNode::toString)),
+                    count(graph.neighborsOf(vertex).map(GraphNode::toString)));
+            }
+        }
+        for (Node node : proofNodes) {
+            assertEquals(count(reference.edgesOf(node).stream().map(reference::str)),
+                count(graph.edgesOf(node).stream().map(DependencyGraphEquivalenceTest::str)),
+                "edges of step " + node.serialNr());
+        }
+    }
+
+    private static Map<String, Integer> count(Stream<String> elements) {
+        Map<String, Integer> result = new HashMap<>();
+        elements.forEach(it -> result.merge(it, 1, Integer::sum));
+        return result;
+    }
+
+    private static String str(DependencyGraph.Edge edge) {
+        return edge.fromNode().serialNr() + ":" + edge.toNode() + ":" + str(edge.annotation());
+    }
+
+    private static String str(AnnotatedEdge edge) {
+        return str(edge, edge.getSource(), edge.getTarget());
+    }
+
+    private static String str(AnnotatedEdge edge, Object source, Object target) {
+        String initial = edge instanceof AnnotatedShortenedEdge shortened
+                ? shortened.getInitial().serialNr() + ".."
+                : "";
+        return initial + edge.getProofStep().serialNr() + "(" + source
+            + (edge.replacesInputNode() ? " consumed" : "") + " -> " + target + ")";
+    }
+
+    /**
+     * A graph node identified by a number.
+     */
+    private static final class Vertex extends GraphNode {
+        private final int id;
+
+        Vertex(int id) {
+            super(BranchLocation.ROOT);
+            this.id = id;
+        }
+
+        @Override
+        public GraphNode popLastBranchID() {
+            return this;
+        }
+
+        @Override
+        public String toString(boolean abbreviated, boolean omitBranch) {
+            return toString();
+        }
+
+        @Override
+        public String toString() {
+            return "v" + id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Vertex v && v.id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    /**
+     * The dependency graph as it was stored before: one edge object per pair of input and
+     * output in a {@link DirectedGraph}, and the edges of every proof step in a map.
+     */
+    private static final class ReferenceGraph {
+        private final DirectedGraph<GraphNode, AnnotatedEdge> graph = new DirectedGraph<>();
+        private final Map<Node, Collection<AnnotatedEdge>> edgeDataReversed =
+            new IdentityHashMap<>();
+        /** the outputs of the proof steps (formerly stored in their DependencyNodeData) */
+        private final Map<Node, Collection<GraphNode>> outputs = new IdentityHashMap<>();
+
+        void addRuleApplication(Node node, Collection<Pair<GraphNode, Boolean>> input,
+                Collection<GraphNode> output) {
+            for (Pair<GraphNode, Boolean> in : input) {
+                for (GraphNode out : output) {
+                    AnnotatedEdge edge = new AnnotatedEdge(node, in.second);
+                    graph.addVertex(in.first);
+                    graph.addVertex(out);
+                    graph.addEdge(in.first, out, edge);
+                    edgeDataReversed.computeIfAbsent(node, n -> new ArrayList<>()).add(edge);
+                }
+            }
+            outputs.put(node, output);
+        }
+
+        boolean containsNode(GraphNode node) {
+            return graph.containsVertex(node);
+        }
+
+        Stream<String> incomingGraphEdgesOf(GraphNode node) {
+            return graph.incomingEdgesOf(node).stream().map(edge -> edge.getProofStep().serialNr()
+                + ":" + edge.getSource() + ":" + str(edge));
+        }
+
+        Stream<String> outgoingGraphEdgesOf(GraphNode node) {
+            return graph.outgoingEdgesOf(node).stream().map(edge -> edge.getProofStep().serialNr()
+                + ":" + edge.getTarget() + ":" + str(edge));
+        }
+
+        Stream<GraphNode> neighborsOf(GraphNode node) {
+            return Stream.concat(
+                graph.incomingEdgesOf(node).stream().map(graph::getEdgeSource),
+                graph.outgoingEdgesOf(node).stream().map(graph::getEdgeTarget));
+        }
+
+        Collection<AnnotatedEdge> edgesOf(Node proofStep) {
+            return edgeDataReversed.getOrDefault(proofStep, Collections.emptyList());
+        }
+
+        String str(AnnotatedEdge edge) {
+            return DependencyGraphEquivalenceTest.str(edge, graph.getEdgeSource(edge),
+                graph.getEdgeTarget(edge));
+        }
+
+        int countNodes() {
+            return graph.vertexSet().size();
+        }
+
+        int countEdges() {
+            return graph.edgeSet().size();
+        }
+
+        void prune(Node pruneTarget) {
+            Deque<Node> nodesToProcess = new ArrayDeque<>();
+            nodesToProcess.add(pruneTarget);
+            Collection<GraphNode> verticesToRemove = new ArrayList<>();
+            while (!nodesToProcess.isEmpty()) {
+                Node node = nodesToProcess.pop();
+                node.childrenIterator().forEachRemaining(nodesToProcess::add);
+                Collection<GraphNode> data = outputs.remove(node);
+                if (data != null) {
+                    verticesToRemove.addAll(data);
+                }
+                edgeDataReversed.remove(node);
+            }
+            graph.removeAllVertices(verticesToRemove);
+        }
+
+        ReferenceGraph removeChains(Proof proof) {
+            var nGraph = new ReferenceGraph();
+            for (var vertex : graph.vertexSet()) {
+                nGraph.graph.addVertex(vertex);
+            }
+            for (var edge : graph.edgeSet()) {
+                nGraph.graph.addEdge((GraphNode) edge.getSource(), (GraphNode) edge.getTarget(),
+                    edge);
+                nGraph.edgeDataReversed
+                        .computeIfAbsent(edge.getProofStep(), _node -> new ArrayList<>())
+                        .add(edge);
+            }
+            List<GraphNode> toCheck = new ArrayList<>();
+            proof.root().subtreeIterator().forEachRemaining(
+                node -> edgesOf(node).forEach(edge -> toCheck.add(graph.getEdgeTarget(edge))));
+            for (var node : toCheck) {
+                if (!nGraph.graph.containsVertex(node)) {
+                    continue;
+                }
+                var incoming = List.copyOf(nGraph.graph.incomingEdgesOf(node));
+                var outgoing = List.copyOf(nGraph.graph.outgoingEdgesOf(node));
+                if (incoming.size() != 1 || outgoing.size() != 1) {
+                    continue;
+                }
+                AnnotatedEdge edge = incoming.get(0);
+                Node startNode = edge.getProofStep();
+                if (edgesOf(startNode).size() != 1) {
+                    continue;
+                }
+                GraphNode startGraphNode = nGraph.graph.getEdgeSource(edge);
+                Node initialNode = startNode;
+                if (edge instanceof AnnotatedShortenedEdge ase) {
+                    initialNode = ase.getInitial();
+                }
+                AnnotatedEdge edge2 = outgoing.get(0);
+                Node endNode = edge2.getProofStep();
+                GraphNode endGraphNode = nGraph.graph.getEdgeTarget(edge2);
+                if (endNode == startNode || edgesOf(endNode).size() != 1) {
+                    continue;
+                }
+                nGraph.graph.removeVertex(node);
+                var edge3 =
+                    new AnnotatedShortenedEdge(initialNode, endNode, edge.replacesInputNode());
+                nGraph.graph.addEdge(startGraphNode, endGraphNode, edge3);
+                nGraph.edgeDataReversed.remove(startNode);
+                nGraph.edgeDataReversed.get(endNode).remove(edge2);
+                nGraph.edgeDataReversed.get(endNode).add(edge3);
+            }
+            return nGraph;
+        }
+    }
+}
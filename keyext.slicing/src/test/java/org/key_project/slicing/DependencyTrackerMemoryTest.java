@@ -0,0 +1,70 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.slicing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.key_project.slicing.analysis.AnalysisResults;
+import org.key_project.slicing.graph.DependencyGraph;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap used by the dependency graph of a large proof.
+ */
+@Tag("performance")
+class DependencyTrackerMemoryTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DependencyTrackerMemoryTest.class);
+
+    private static final String LARGE_PROOF =
+        "../../../../../key.ui/examples/heap/vstte10_04_Queens/Queens_search.proof";
+
+    @Test
+    void trackLargeProof() throws Exception {
+        Path proofFile = EndToEndTests.testCaseDirectory.resolve(LARGE_PROOF);
+        assertTrue(Files.exists(proofFile), "File " + proofFile + " does not exist");
+        KeYEnvironment<?> environment = KeYEnvironment.load(JavaProfile.getDefaultInstance(),
+            proofFile, null, null, null, true);
+        try {
+            Proof proof = environment.getLoadedProof();
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            DependencyTracker tracker = new DependencyTracker(proof);
+            DependencyGraph graph = tracker.getDependencyGraph();
+            graph.ensureProofIsTracked(proof);
+            long time = (System.nanoTime() - start) / 1_000_000;
+            long heapAfter = usedHeap();
+
+            LOGGER.info("Tracked {} proof nodes in {} ms: {} graph nodes, {} edges, "
+                + "{} KiB heap ({} bytes per proof node)", proof.countNodes(), time,
+                graph.countNodes(), graph.countEdges(), (heapAfter - heapBefore) / 1024,
+                (heapAfter - heapBefore) / proof.countNodes());
+            assertTrue(graph.countNodes() > 0);
+
+            AnalysisResults results = tracker.analyze(true, false);
+            assertTrue(results.usefulStepsNr <= results.totalSteps);
+        } finally {
+            environment.dispose();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}